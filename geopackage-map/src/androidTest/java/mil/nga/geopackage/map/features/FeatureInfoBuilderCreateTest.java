@@ -0,0 +1,60 @@
+package mil.nga.geopackage.map.features;
+
+import org.junit.Test;
+
+import java.sql.SQLException;
+
+import mil.nga.geopackage.map.CreateGeoPackageTestCase;
+
+/**
+ * Test Feature Info Builder from a created database
+ *
+ * @author osbornb
+ */
+public class FeatureInfoBuilderCreateTest extends CreateGeoPackageTestCase {
+
+    /**
+     * Test fine filter equal distance results
+     */
+    @Test
+    public void testFineFilterTies() {
+
+        FeatureInfoBuilderUtils.testFineFilterTies(activity, geoPackage);
+
+    }
+
+    /**
+     * Test building rows read with only the filter columns
+     */
+    @Test
+    public void testFilterColumnRows() {
+
+        FeatureInfoBuilderUtils.testFilterColumnRows(activity, geoPackage);
+
+    }
+
+    /**
+     * Test the cached DataColumns names invalidation
+     *
+     * @throws SQLException upon failure
+     */
+    @Test
+    public void testColumnNamesCache() throws SQLException {
+
+        FeatureInfoBuilderUtils.testColumnNamesCache(activity, geoPackage);
+
+    }
+
+    /**
+     * Test the cached geometry projections clearing
+     *
+     * @throws SQLException upon failure
+     */
+    @Test
+    public void testGeometryProjectionsCache() throws SQLException {
+
+        FeatureInfoBuilderUtils.testGeometryProjectionsCache(activity, geoPackage);
+
+    }
+
+}
@@ -0,0 +1,375 @@
+package mil.nga.geopackage.map.features;
+
+import android.app.Activity;
+
+import junit.framework.TestCase;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import mil.nga.geopackage.GeoPackage;
+import mil.nga.geopackage.extension.schema.SchemaExtension;
+import mil.nga.geopackage.extension.schema.columns.DataColumns;
+import mil.nga.geopackage.extension.schema.columns.DataColumnsDao;
+import mil.nga.geopackage.features.index.FeatureIndexListResults;
+import mil.nga.geopackage.features.index.FeatureIndexManager;
+import mil.nga.geopackage.features.index.FeatureIndexResults;
+import mil.nga.geopackage.features.index.FeatureIndexType;
+import mil.nga.geopackage.features.user.FeatureCursor;
+import mil.nga.geopackage.features.user.FeatureDao;
+import mil.nga.geopackage.features.user.FeatureRow;
+import mil.nga.geopackage.geom.GeoPackageGeometryData;
+import mil.nga.geopackage.srs.SpatialReferenceSystem;
+import mil.nga.geopackage.srs.SpatialReferenceSystemDao;
+import mil.nga.geopackage.tiles.overlay.FeatureRowData;
+import mil.nga.geopackage.tiles.overlay.FeatureTableData;
+import mil.nga.proj.Projection;
+import mil.nga.proj.ProjectionConstants;
+import mil.nga.proj.ProjectionFactory;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.Point;
+
+/**
+ * Feature info builder utils
+ *
+ * @author osbornb
+ */
+public class FeatureInfoBuilderUtils {
+
+    /**
+     * Test that fine filtered rows of equal distance are all kept up to the max detailed info,
+     * and only counted beyond it
+     *
+     * @param activity   activity
+     * @param geoPackage GeoPackage
+     */
+    public static void testFineFilterTies(Activity activity, GeoPackage geoPackage) {
+
+        for (String featureTable : geoPackage.getFeatureTables()) {
+
+            FeatureDao featureDao = geoPackage.getFeatureDao(featureTable);
+            FeatureInfoBuilder featureInfoBuilder = new FeatureInfoBuilder(activity, featureDao);
+
+            // Ignoring a geometry type fine filters without a click, every row at a -1.0 distance
+            GeometryType ignoreType = ignoreGeometryType(featureDao);
+            featureInfoBuilder.ignoreGeometryType(ignoreType);
+
+            List<FeatureRow> featureRows = new ArrayList<>();
+            Set<Long> ids = new HashSet<>();
+            FeatureCursor cursor = featureDao.queryForAll();
+            try {
+                while (cursor.moveToNext()) {
+                    FeatureRow featureRow = cursor.getRow();
+                    featureRows.add(featureRow);
+                    Geometry geometry = featureRow.getGeometryValue();
+                    if (geometry != null && geometry.getGeometryType() != ignoreType) {
+                        ids.add(featureRow.getId());
+                    }
+                }
+            } finally {
+                cursor.close();
+            }
+
+            int count = ids.size();
+            if (count == 0) {
+                continue;
+            }
+
+            // All equal distance rows are kept up to the max detailed info
+            featureInfoBuilder.setMaxPointDetailedInfo(count);
+            featureInfoBuilder.setMaxFeatureDetailedInfo(count);
+            FeatureTableData tableData = featureInfoBuilder.buildTableDataAndClose(
+                    new FeatureIndexListResults(featureRows), 0.0, null);
+            TestCase.assertNotNull(tableData);
+            TestCase.assertEquals(count, tableData.getCount());
+            TestCase.assertEquals(count, tableData.getRows().size());
+            Set<Long> tableIds = new HashSet<>();
+            for (FeatureRowData featureRowData : tableData.getRows()) {
+                tableIds.add(featureRowData.getId());
+            }
+            TestCase.assertEquals(ids, tableIds);
+
+            // Beyond the max detailed info, all rows are counted without building the rows
+            if (count > 1) {
+                featureInfoBuilder.setMaxPointDetailedInfo(count - 1);
+                featureInfoBuilder.setMaxFeatureDetailedInfo(count - 1);
+                tableData = featureInfoBuilder.buildTableDataAndClose(
+                        new FeatureIndexListResults(featureRows), 0.0, null);
+                TestCase.assertNotNull(tableData);
+                TestCase.assertEquals(count, tableData.getCount());
+                TestCase.assertTrue(tableData.getRows() == null || tableData.getRows().isEmpty());
+            }
+        }
+
+    }
+
+    /**
+     * Test that rows read with only the filter columns are built with all columns, reading the
+     * full rows in id IN query batches when the rows exceed a single batch
+     *
+     * @param activity   activity
+     * @param geoPackage GeoPackage
+     */
+    public static void testFilterColumnRows(Activity activity, GeoPackage geoPackage) {
+
+        for (String featureTable : geoPackage.getFeatureTables()) {
+
+            FeatureDao featureDao = geoPackage.getFeatureDao(featureTable);
+            FeatureInfoBuilder featureInfoBuilder = new FeatureInfoBuilder(activity, featureDao);
+            GeometryType ignoreType = ignoreGeometryType(featureDao);
+            featureInfoBuilder.ignoreGeometryType(ignoreType);
+
+            // Read the rows with only the filter columns
+            List<FeatureRow> filterRows = new ArrayList<>();
+            FeatureIndexManager indexer = new FeatureIndexManager(activity, geoPackage, featureDao);
+            try {
+                if (!indexer.isIndexed()) {
+                    indexer.setIndexLocation(FeatureIndexType.GEOPACKAGE);
+                    indexer.index();
+                }
+                FeatureIndexResults results = indexer.query(featureInfoBuilder.getFilterColumns(),
+                        featureDao.getBoundingBox(), featureDao.getProjection());
+                try {
+                    for (FeatureRow featureRow : results) {
+                        Geometry geometry = featureRow.getGeometryValue();
+                        if (geometry != null && geometry.getGeometryType() != ignoreType) {
+                            filterRows.add(featureRow);
+                        }
+                    }
+                } finally {
+                    results.close();
+                }
+            } finally {
+                indexer.close();
+            }
+
+            if (filterRows.isEmpty()) {
+                continue;
+            }
+            TestCase.assertEquals(featureInfoBuilder.getFilterColumns().length,
+                    filterRows.get(0).columnCount());
+
+            // Repeat the rows beyond a single id IN query batch
+            List<FeatureRow> featureRows = new ArrayList<>();
+            while (featureRows.size() <= 1000) {
+                featureRows.addAll(filterRows);
+            }
+            int count = featureRows.size();
+
+            featureInfoBuilder.setMaxPointDetailedInfo(count);
+            featureInfoBuilder.setMaxFeatureDetailedInfo(count);
+            FeatureTableData tableData = featureInfoBuilder.buildTableDataAndClose(
+                    new FeatureIndexListResults(featureRows), 0.0, null);
+            TestCase.assertNotNull(tableData);
+            TestCase.assertEquals(count, tableData.getCount());
+            TestCase.assertEquals(count, tableData.getRows().size());
+
+            // Each built row holds the non null values of all columns
+            Map<Long, Integer> valueCounts = new HashMap<>();
+            for (FeatureRowData featureRowData : tableData.getRows()) {
+                long id = featureRowData.getId();
+                Integer valueCount = valueCounts.get(id);
+                if (valueCount == null) {
+                    FeatureRow fullRow = featureDao.queryForIdRow(id);
+                    valueCount = 0;
+                    for (int i = 0; i < fullRow.columnCount(); i++) {
+                        if (fullRow.getValue(i) != null) {
+                            valueCount++;
+                        }
+                    }
+                    valueCounts.put(id, valueCount);
+                }
+                TestCase.assertEquals(valueCount.intValue(), featureRowData.getValues().size());
+            }
+            TestCase.assertEquals(filterRows.size(), valueCounts.size());
+        }
+
+    }
+
+    /**
+     * Test that the cached DataColumns names are used until invalidated
+     *
+     * @param activity   activity
+     * @param geoPackage GeoPackage
+     * @throws SQLException upon failure
+     */
+    public static void testColumnNamesCache(Activity activity, GeoPackage geoPackage)
+            throws SQLException {
+
+        SchemaExtension schemaExtension = new SchemaExtension(geoPackage);
+        DataColumnsDao dataColumnsDao = schemaExtension.getDataColumnsDao();
+        if (!dataColumnsDao.isTableExists()) {
+            schemaExtension.createDataColumnsTable();
+        }
+
+        for (String featureTable : geoPackage.getFeatureTables()) {
+
+            FeatureDao featureDao = geoPackage.getFeatureDao(featureTable);
+
+            // Find a row value of an attribute column
+            FeatureRow featureRow = null;
+            String columnName = null;
+            FeatureCursor cursor = featureDao.queryForAll();
+            try {
+                while (columnName == null && cursor.moveToNext()) {
+                    FeatureRow row = cursor.getRow();
+                    for (int i = 0; i < row.columnCount(); i++) {
+                        if (i != row.getPkColumnIndex() && i != row.getGeometryColumnIndex()
+                                && row.getValue(i) != null) {
+                            featureRow = row;
+                            columnName = row.getColumnName(i);
+                            break;
+                        }
+                    }
+                }
+            } finally {
+                cursor.close();
+            }
+
+            if (columnName == null) {
+                continue;
+            }
+
+            FeatureInfoBuilder featureInfoBuilder = new FeatureInfoBuilder(activity, featureDao);
+
+            DataColumns dataColumns = dataColumnsDao.getDataColumn(featureTable, columnName);
+            String name = dataColumns != null && dataColumns.getName() != null
+                    ? dataColumns.getName() : columnName;
+            TestCase.assertTrue(buildColumnNames(featureInfoBuilder, featureRow).contains(name));
+
+            // Rename the column
+            String rename = name + "_renamed";
+            if (dataColumns != null) {
+                dataColumns.setName(rename);
+                dataColumnsDao.update(dataColumns);
+            } else {
+                dataColumns = new DataColumns();
+                dataColumns.setContents(featureDao.getGeometryColumns().getContents());
+                dataColumns.setColumnName(columnName);
+                dataColumns.setName(rename);
+                dataColumnsDao.create(dataColumns);
+            }
+
+            // Cached names are used until invalidated
+            Set<String> columnNames = buildColumnNames(featureInfoBuilder, featureRow);
+            TestCase.assertTrue(columnNames.contains(name));
+            TestCase.assertFalse(columnNames.contains(rename));
+
+            featureInfoBuilder.invalidateColumnNames();
+            columnNames = buildColumnNames(featureInfoBuilder, featureRow);
+            TestCase.assertTrue(columnNames.contains(rename));
+            TestCase.assertFalse(columnNames.contains(name));
+        }
+
+    }
+
+    /**
+     * Test that the cached geometry projections are used until cleared
+     *
+     * @param activity   activity
+     * @param geoPackage GeoPackage
+     * @throws SQLException upon failure
+     */
+    public static void testGeometryProjectionsCache(Activity activity, GeoPackage geoPackage)
+            throws SQLException {
+
+        List<String> featureTables = geoPackage.getFeatureTables();
+        if (featureTables.isEmpty()) {
+            return;
+        }
+
+        FeatureInfoBuilder featureInfoBuilder = new FeatureInfoBuilder(activity,
+                geoPackage.getFeatureDao(featureTables.get(0)));
+
+        Projection projection = ProjectionFactory.getProjection(
+                ProjectionConstants.EPSG_WEB_MERCATOR);
+        SpatialReferenceSystemDao srsDao = geoPackage.getSpatialReferenceSystemDao();
+        SpatialReferenceSystem webMercatorSrs = srsDao.getOrCreateCode(
+                ProjectionConstants.AUTHORITY_EPSG, ProjectionConstants.EPSG_WEB_MERCATOR);
+        SpatialReferenceSystem wgs84Srs = srsDao.getOrCreateCode(
+                ProjectionConstants.AUTHORITY_EPSG, ProjectionConstants.EPSG_WORLD_GEODETIC_SYSTEM);
+
+        // Source spatial reference system, initially WGS84
+        long srsId = 99999;
+        TestCase.assertNull(srsDao.queryForId(srsId));
+        SpatialReferenceSystem srs = new SpatialReferenceSystem();
+        srs.setSrsName("test_projections_cache");
+        srs.setSrsId(srsId);
+        srs.setOrganization(wgs84Srs.getOrganization());
+        srs.setOrganizationCoordsysId(wgs84Srs.getOrganizationCoordsysId());
+        srs.setDefinition(wgs84Srs.getDefinition());
+        srsDao.create(srs);
+
+        GeoPackageGeometryData geometryData = createGeometryData(srsId);
+        featureInfoBuilder.projectGeometry(geometryData, projection);
+        TestCase.assertEquals(webMercatorSrs.getSrsId(), geometryData.getSrsId());
+        double projectedX = ((Point) geometryData.getGeometry()).getX();
+        TestCase.assertTrue(projectedX > 10.0);
+
+        // Change the source to web mercator, the cached transform is still used
+        srs.setOrganizationCoordsysId(webMercatorSrs.getOrganizationCoordsysId());
+        srs.setDefinition(webMercatorSrs.getDefinition());
+        srsDao.update(srs);
+
+        geometryData = createGeometryData(srsId);
+        featureInfoBuilder.projectGeometry(geometryData, projection);
+        TestCase.assertEquals(webMercatorSrs.getSrsId(), geometryData.getSrsId());
+        TestCase.assertEquals(projectedX, ((Point) geometryData.getGeometry()).getX(), 0.0);
+
+        // Cleared projections resolve the changed source, needing no transform
+        featureInfoBuilder.clearGeometryProjections();
+        geometryData = createGeometryData(srsId);
+        featureInfoBuilder.projectGeometry(geometryData, projection);
+        TestCase.assertEquals(srsId, geometryData.getSrsId());
+        TestCase.assertEquals(10.0, ((Point) geometryData.getGeometry()).getX(), 0.0);
+
+        srsDao.deleteById(srsId);
+    }
+
+    /**
+     * Create point geometry data
+     *
+     * @param srsId spatial reference system id
+     * @return geometry data
+     */
+    private static GeoPackageGeometryData createGeometryData(long srsId) {
+        GeoPackageGeometryData geometryData = new GeoPackageGeometryData(srsId);
+        geometryData.setGeometry(new Point(10.0, 10.0));
+        return geometryData;
+    }
+
+    /**
+     * Build the table data of the feature row and get the built column names
+     *
+     * @param featureInfoBuilder feature info builder
+     * @param featureRow         feature row
+     * @return column names
+     */
+    private static Set<String> buildColumnNames(FeatureInfoBuilder featureInfoBuilder,
+                                                FeatureRow featureRow) {
+        FeatureTableData tableData = featureInfoBuilder.buildTableDataAndClose(
+                new FeatureIndexListResults(Collections.singletonList(featureRow)), 0.0, null);
+        TestCase.assertNotNull(tableData);
+        TestCase.assertEquals(1, tableData.getRows().size());
+        return tableData.getRows().get(0).getValues().keySet();
+    }
+
+    /**
+     * Get a geometry type to ignore other than the feature table geometry type
+     *
+     * @param featureDao feature dao
+     * @return geometry type
+     */
+    private static GeometryType ignoreGeometryType(FeatureDao featureDao) {
+        return featureDao.getGeometryType() == GeometryType.TIN
+                ? GeometryType.TRIANGLE : GeometryType.TIN;
+    }
+
+}
@@ -32,4 +32,26 @@ public class GoogleMapShapeConverterImportTest extends ImportGeoPackageTestCase
 
 	}
 
+	/**
+	 * Test the shape add scheduler
+	 * 
+	 * @throws InterruptedException
+	 */
+	@Test
+	public void testAddScheduler() throws InterruptedException {
+
+		GoogleMapShapeConverterUtils.testAddScheduler();
+
+	}
+
+	/**
+	 * Test polygon clipping and clipped point z values
+	 */
+	@Test
+	public void testClip() {
+
+		GoogleMapShapeConverterUtils.testClip();
+
+	}
+
 }
@@ -1,9 +1,16 @@
 package mil.nga.geopackage.map.geom;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import junit.framework.TestCase;
+import mil.nga.geopackage.BoundingBox;
 import mil.nga.geopackage.GeoPackage;
 import mil.nga.geopackage.features.columns.GeometryColumns;
 import mil.nga.geopackage.features.columns.GeometryColumnsDao;
@@ -13,6 +20,7 @@ import mil.nga.geopackage.features.user.FeatureRow;
 import mil.nga.sf.CircularString;
 import mil.nga.sf.CompoundCurve;
 import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryEnvelope;
 import mil.nga.sf.GeometryType;
 import mil.nga.sf.LineString;
 import mil.nga.sf.MultiLineString;
@@ -77,6 +85,8 @@ public class GoogleMapShapeConverterUtils {
 							break;
 						case LINESTRING:
 							convertLineString(converter, (LineString) geometry);
+							levelOfDetailLineString(dao, (LineString) geometry);
+							clipLineString(dao, (LineString) geometry);
 							break;
 						case POLYGON:
 							convertPolygon(converter, (Polygon) geometry);
@@ -117,9 +127,448 @@ public class GoogleMapShapeConverterUtils {
 				}
 				cursor.close();
 
+				batchShapes(dao, converter);
+
+			}
+		}
+
+	}
+
+	/**
+	 * Test clipping polygons outside of the clip bounding box and the z
+	 * values of clipped points
+	 */
+	public static void testClip() {
+
+		GeometryClipper clipper = new GeometryClipper(new BoundingBox(0.0,
+				0.0, 10.0, 10.0));
+
+		// Line clip points interpolate z values
+		List<Point> linePoints = new ArrayList<>();
+		linePoints.add(new Point(-10.0, 5.0, 0.0));
+		linePoints.add(new Point(10.0, 5.0, 20.0));
+		List<Point> clippedLine = clipper.clipLine(linePoints);
+		TestCase.assertEquals(2, clippedLine.size());
+		Point lineStart = clippedLine.get(0);
+		TestCase.assertEquals(0.0, lineStart.getX(), 0.0);
+		TestCase.assertTrue(lineStart.hasZ());
+		TestCase.assertEquals(10.0, lineStart.getZ(), 0.000001);
+		TestCase.assertSame(linePoints.get(1), clippedLine.get(1));
+
+		// Ring clip points carry z values
+		List<Point> ringPoints = new ArrayList<>();
+		ringPoints.add(new Point(-10.0, -10.0, 0.0));
+		ringPoints.add(new Point(5.0, -10.0, 0.0));
+		ringPoints.add(new Point(5.0, 5.0, 10.0));
+		ringPoints.add(new Point(-10.0, 5.0, 10.0));
+		ringPoints.add(ringPoints.get(0));
+		List<Point> clippedRing = clipper.clipRing(ringPoints);
+		TestCase.assertFalse(clippedRing.isEmpty());
+		for (Point point : clippedRing) {
+			TestCase.assertTrue(point.hasZ());
+			TestCase.assertNotNull(point.getZ());
+			TestCase.assertTrue(point.getX() >= 0.0 && point.getX() <= 10.0);
+			TestCase.assertTrue(point.getY() >= 0.0 && point.getY() <= 10.0);
+		}
+
+		GoogleMapShapeConverter converter = new GoogleMapShapeConverter();
+		converter.setClipMargin(0.0);
+		converter.setClipBoundingBox(new BoundingBox(0.0, 0.0, 10.0, 10.0));
+
+		Polygon inside = createSquare(2.0, 4.0);
+		Polygon outside = createSquare(20.0, 4.0);
+
+		// Polygons with a clipped away exterior have no shape
+		TestCase.assertNotNull(converter.toPolygon(inside));
+		TestCase.assertNull(converter.toPolygon(outside));
+		TestCase.assertNotNull(converter.toShape(inside));
+		TestCase.assertNull(converter.toShape(outside));
+
+		MultiPolygon multiPolygon = new MultiPolygon();
+		multiPolygon.addPolygon(inside);
+		multiPolygon.addPolygon(outside);
+		TestCase.assertEquals(1, converter.toPolygons(multiPolygon)
+				.getPolygonOptions().size());
+
+		// Without clipping, the polygon is converted
+		converter.setClipBoundingBox(null);
+		TestCase.assertNotNull(converter.toPolygon(outside));
+	}
+
+	/**
+	 * Create a square polygon
+	 *
+	 * @param min
+	 *            min x and y
+	 * @param size
+	 *            width and height
+	 * @return polygon
+	 */
+	private static Polygon createSquare(double min, double size) {
+		LineString ring = new LineString();
+		ring.addPoint(new Point(min, min));
+		ring.addPoint(new Point(min + size, min));
+		ring.addPoint(new Point(min + size, min + size));
+		ring.addPoint(new Point(min, min + size));
+		ring.addPoint(new Point(min, min));
+		Polygon polygon = new Polygon();
+		polygon.addRing(ring);
+		return polygon;
+	}
+
+	/**
+	 * Test the shape add scheduler completion and cancellation. Shapes are
+	 * scheduled without a map, so each shape fails to add and is counted as
+	 * not added.
+	 *
+	 * @throws InterruptedException
+	 */
+	public static void testAddScheduler() throws InterruptedException {
+
+		int count = 5;
+
+		final CountDownLatch completeLatch = new CountDownLatch(1);
+		final AtomicInteger completeCalls = new AtomicInteger();
+		final AtomicInteger completeTotal = new AtomicInteger();
+		final AtomicInteger progressTotal = new AtomicInteger();
+
+		GoogleMapShapeAddScheduler scheduler = new GoogleMapShapeAddScheduler(
+				null, new FeatureShapes());
+		scheduler.setListener(new GoogleMapShapeAddListener() {
+
+			@Override
+			public void onProgress(int added, int total) {
+				progressTotal.set(total);
+			}
+
+			@Override
+			public void onComplete(int added, int total) {
+				completeCalls.incrementAndGet();
+				completeTotal.set(total);
+				completeLatch.countDown();
 			}
+
+		});
+
+		for (int i = 0; i < count; i++) {
+			TestCase.assertTrue(scheduler.add(createMarkerShape(), i, "db",
+					"table"));
 		}
+		TestCase.assertEquals(count, scheduler.getTotalCount());
+
+		// The queue drains without completing until finished
+		long end = System.currentTimeMillis() + 5000;
+		while (scheduler.getPendingCount() > 0
+				&& System.currentTimeMillis() < end) {
+			Thread.sleep(10);
+		}
+		TestCase.assertEquals(0, scheduler.getPendingCount());
+		TestCase.assertFalse(completeLatch.await(100, TimeUnit.MILLISECONDS));
+		TestCase.assertFalse(scheduler.isComplete());
+		TestCase.assertEquals(count, progressTotal.get());
+
+		// Finishing completes once
+		scheduler.finish();
+		TestCase.assertTrue(scheduler.isFinished());
+		TestCase.assertTrue(completeLatch.await(5, TimeUnit.SECONDS));
+		TestCase.assertTrue(scheduler.isComplete());
+		TestCase.assertEquals(count, completeTotal.get());
+		TestCase.assertEquals(0, scheduler.getAddedCount());
+
+		// Shapes scheduled after finishing are ignored
+		TestCase.assertFalse(scheduler.add(createMarkerShape(), count, "db",
+				"table"));
+		Thread.sleep(100);
+		TestCase.assertEquals(1, completeCalls.get());
+		TestCase.assertEquals(count, scheduler.getTotalCount());
+
+		// Cancelling discards pending shapes and ignores new shapes
+		GoogleMapShapeAddScheduler cancelScheduler = new GoogleMapShapeAddScheduler(
+				null, new FeatureShapes());
+		final AtomicInteger cancelCompleteCalls = new AtomicInteger();
+		cancelScheduler.setListener(new GoogleMapShapeAddListener() {
+
+			@Override
+			public void onProgress(int added, int total) {
+			}
+
+			@Override
+			public void onComplete(int added, int total) {
+				cancelCompleteCalls.incrementAndGet();
+			}
+
+		});
+		List<FeatureRow> featureRows = new ArrayList<>();
+		List<GoogleMapShape> shapes = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			featureRows.add(null);
+			shapes.add(createMarkerShape());
+		}
+		cancelScheduler.cancel();
+		TestCase.assertEquals(0, cancelScheduler.getPendingCount());
+		TestCase.assertEquals(0,
+				cancelScheduler.add(featureRows, shapes, "db", "table"));
+		TestCase.assertFalse(cancelScheduler.add(createMarkerShape(), count,
+				"db", "table"));
+		cancelScheduler.finish();
+		Thread.sleep(100);
+		TestCase.assertEquals(0, cancelScheduler.getPendingCount());
+		TestCase.assertEquals(0, cancelScheduler.getTotalCount());
+		TestCase.assertEquals(0, cancelCompleteCalls.get());
+
+	}
+
+	/**
+	 * Create a marker shape
+	 *
+	 * @return marker shape
+	 */
+	private static GoogleMapShape createMarkerShape() {
+		return new GoogleMapShape(GeometryType.POINT,
+				GoogleMapShapeType.LAT_LNG, new LatLng(0, 0));
+	}
 
+	/**
+	 * Test the parallel batch conversion of feature rows
+	 *
+	 * @param dao
+	 * @param converter
+	 */
+	private static void batchShapes(FeatureDao dao,
+			GoogleMapShapeConverter converter) {
+
+		final List<FeatureRow> featureRows = new ArrayList<>();
+		FeatureCursor cursor = dao.queryForAll();
+		try {
+			while (cursor.moveToNext()) {
+				featureRows.add(cursor.getRow());
+			}
+		} finally {
+			cursor.close();
+		}
+
+		final List<GoogleMapShape> shapes = converter.toShapes(featureRows);
+		TestCase.assertEquals(featureRows.size(), shapes.size());
+		for (int i = 0; i < featureRows.size(); i++) {
+			GeoPackageGeometryData geometryData = featureRows.get(i)
+					.getGeometry();
+			GoogleMapShape shape = shapes.get(i);
+			if (geometryData == null || geometryData.getGeometry() == null) {
+				TestCase.assertNull(shape);
+			} else {
+				GoogleMapShape expected = converter.toShape(geometryData
+						.getGeometry());
+				TestCase.assertEquals(expected.getGeometryType(),
+						shape.getGeometryType());
+				TestCase.assertEquals(expected.getShapeType(),
+						shape.getShapeType());
+			}
+		}
+
+		final int chunkSize = 7;
+		final int[] chunkRows = new int[1];
+		int count = converter.toShapes(featureRows, ForkJoinPool.commonPool(),
+				chunkSize, new GoogleMapShapesCallback() {
+					@Override
+					public void onShapes(int index, List<FeatureRow> chunk,
+							List<GoogleMapShape> chunkShapes) {
+						TestCase.assertEquals(chunkRows[0], index);
+						TestCase.assertTrue(chunk.size() <= chunkSize);
+						TestCase.assertEquals(chunk.size(), chunkShapes.size());
+						for (int i = 0; i < chunk.size(); i++) {
+							TestCase.assertSame(featureRows.get(index + i),
+									chunk.get(i));
+							GoogleMapShape shape = shapes.get(index + i);
+							GoogleMapShape chunkShape = chunkShapes.get(i);
+							if (shape == null) {
+								TestCase.assertNull(chunkShape);
+							} else {
+								TestCase.assertEquals(shape.getShapeType(),
+										chunkShape.getShapeType());
+							}
+						}
+						chunkRows[0] += chunk.size();
+					}
+				});
+		TestCase.assertEquals(featureRows.size(), count);
+		TestCase.assertEquals(featureRows.size(), chunkRows[0]);
+
+		// Rows are read a window of chunks ahead of the delivered chunk
+		final ForkJoinPool pool = new ForkJoinPool(1);
+		final int window = pool.getParallelism() + 1;
+		final int[] rowsRead = new int[1];
+		Iterable<FeatureRow> countingRows = new Iterable<FeatureRow>() {
+			@Override
+			public Iterator<FeatureRow> iterator() {
+				final Iterator<FeatureRow> iterator = featureRows.iterator();
+				return new Iterator<FeatureRow>() {
+					@Override
+					public boolean hasNext() {
+						return iterator.hasNext();
+					}
+
+					@Override
+					public FeatureRow next() {
+						rowsRead[0]++;
+						return iterator.next();
+					}
+
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+		};
+		final int[] callbacks = new int[1];
+		try {
+			count = converter.toShapes(countingRows, pool, chunkSize,
+					new GoogleMapShapesCallback() {
+						@Override
+						public void onShapes(int index, List<FeatureRow> chunk,
+								List<GoogleMapShape> chunkShapes) {
+							TestCase.assertTrue(rowsRead[0] <= index
+									+ window * chunkSize);
+							callbacks[0]++;
+						}
+					});
+			TestCase.assertEquals(featureRows.size(), count);
+			TestCase.assertEquals(featureRows.size(), rowsRead[0]);
+
+			// A failed chunk stops the remaining chunks
+			if (featureRows.size() > chunkSize) {
+				callbacks[0] = 0;
+				try {
+					converter.toShapes(featureRows, pool, chunkSize,
+							new GoogleMapShapesCallback() {
+								@Override
+								public void onShapes(int index,
+										List<FeatureRow> chunk,
+										List<GoogleMapShape> chunkShapes) {
+									callbacks[0]++;
+									throw new IllegalStateException(
+											"Chunk failure");
+								}
+							});
+					TestCase.fail("Chunk failure was not thrown");
+				} catch (IllegalStateException e) {
+					TestCase.assertEquals(1, callbacks[0]);
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+	}
+
+	/**
+	 * Test the LineString level of detail simplification
+	 *
+	 * @param dao
+	 * @param lineString
+	 */
+	private static void levelOfDetailLineString(FeatureDao dao,
+			LineString lineString) {
+
+		GoogleMapShapeConverter converter = new GoogleMapShapeConverter(
+				dao.getProjection());
+		LevelOfDetail levelOfDetail = new LevelOfDetail();
+		converter.setLevelOfDetail(levelOfDetail);
+
+		List<Point> points = lineString.getPoints();
+		for (int zoom = 0; zoom <= 20; zoom += 5) {
+			converter.setLevelOfDetailZoom(zoom);
+			PolylineOptions polylineOptions = converter.toPolyline(lineString);
+			int count = polylineOptions.getPoints().size();
+			TestCase.assertTrue(count <= points.size());
+			if (!points.isEmpty()) {
+				TestCase.assertTrue(count >= Math.min(2, points.size()));
+			}
+			TestCase.assertEquals(count,
+					converter.toPolyline(lineString).getPoints().size());
+		}
+		TestCase.assertTrue(levelOfDetail.getHitCount() > 0);
+
+		// Re-queried geometries of the same feature reuse the cached ranks
+		LineString requeried = new LineString(lineString.hasZ(),
+				lineString.hasM());
+		requeried.setPoints(new ArrayList<>(points));
+		converter.setLevelOfDetailFeature(dao.getTableName(), 1);
+		int count = converter.toPolyline(lineString).getPoints().size();
+		int hitCount = levelOfDetail.getHitCount();
+		converter.setLevelOfDetailFeature(dao.getTableName(), 1);
+		TestCase.assertEquals(count,
+				converter.toPolyline(requeried).getPoints().size());
+		TestCase.assertEquals(hitCount + 1, levelOfDetail.getHitCount());
+
+		// Edited points of the same feature are ranked again, not reused
+		if (!points.isEmpty()) {
+			LineString edited = new LineString(lineString.hasZ(),
+					lineString.hasM());
+			for (Point point : points) {
+				edited.addPoint(new Point(point.getX() + 1.0,
+						point.getY()));
+			}
+			int missCount = levelOfDetail.getMissCount();
+			converter.setLevelOfDetailFeature(dao.getTableName(), 1);
+			List<LatLng> editedLatLngs = converter.toPolyline(edited)
+					.getPoints();
+			TestCase.assertEquals(missCount + 1,
+					levelOfDetail.getMissCount());
+			LatLng firstLatLng = editedLatLngs.get(0);
+			LatLng expectedLatLng = converter.toLatLng(edited.getPoints()
+					.get(0));
+			TestCase.assertEquals(expectedLatLng.latitude,
+					firstLatLng.latitude, .0000001);
+			TestCase.assertEquals(expectedLatLng.longitude,
+					firstLatLng.longitude, .0000001);
+		}
+
+		// The feature is reset after converting a shape, so converting again
+		// does not key another part of the feature
+		converter.setLevelOfDetailFeature(dao.getTableName(), 1);
+		converter.toShape(lineString);
+		converter.toShape(lineString);
+
+		int cached = levelOfDetail.count();
+		levelOfDetail.removeFeature(dao.getTableName(), 1);
+		TestCase.assertEquals(cached - 1, levelOfDetail.count());
+
+		double[] ranks = LevelOfDetail.computeRanks(points);
+		TestCase.assertEquals(points.size(), ranks.length);
+		TestCase.assertEquals(points.size(),
+				LevelOfDetail.select(points, ranks, -1.0).size());
+	}
+
+	/**
+	 * Test the LineString viewport clipping
+	 *
+	 * @param dao
+	 * @param lineString
+	 */
+	private static void clipLineString(FeatureDao dao, LineString lineString) {
+
+		GoogleMapShapeConverter converter = new GoogleMapShapeConverter(
+				dao.getProjection());
+		int count = converter.toPolyline(lineString).getPoints().size();
+
+		// Clip bounds containing the line string keep all points
+		converter.setClipBoundingBox(new BoundingBox());
+		TestCase.assertEquals(count, converter.toPolyline(lineString)
+				.getPoints().size());
+
+		// Clip bounds outside of the line string remove all points
+		GeometryEnvelope envelope = lineString.getEnvelope();
+		BoundingBox envelopeBoundingBox = converter
+				.boundingBoxToWgs84(new BoundingBox(envelope));
+		double maxLatitude = envelopeBoundingBox.getMaxLatitude();
+		if (maxLatitude < 80.0) {
+			converter.setClipMargin(0.0);
+			converter.setClipBoundingBox(new BoundingBox(-180.0,
+					maxLatitude + 1.0, 180.0, 90.0));
+			TestCase.assertTrue(converter.toPolyline(lineString).getPoints()
+					.isEmpty());
+		}
 	}
 
 	/**
@@ -92,4 +92,24 @@ public class FeatureOverlayQueryCreateTest extends CreateGeoPackageTestCase {
 
     }
 
+    /**
+     * Test Multiple Feature Overlay Query merge order
+     */
+    @Test
+    public void testMultiFeatureOverlayQuery() {
+
+        FeatureOverlayQueryUtils.testMultiFeatureOverlayQuery(activity, geoPackage);
+
+    }
+
+    /**
+     * Test Feature Hit Tester across the antimeridian
+     */
+    @Test
+    public void testFeatureHitTester() {
+
+        FeatureOverlayQueryUtils.testFeatureHitTester();
+
+    }
+
 }
@@ -21,4 +21,14 @@ public class FeatureOverlayQueryImportTest extends ImportGeoPackageTestCase {
 
     }
 
+    /**
+     * Test Multiple Feature Overlay Query merge order
+     */
+    @Test
+    public void testMultiFeatureOverlayQuery() {
+
+        FeatureOverlayQueryUtils.testMultiFeatureOverlayQuery(activity, geoPackage);
+
+    }
+
 }
@@ -6,7 +6,10 @@ import com.google.android.gms.maps.model.LatLng;
 
 import junit.framework.TestCase;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import mil.nga.geopackage.BoundingBox;
@@ -16,17 +19,31 @@ import mil.nga.geopackage.features.index.FeatureIndexResults;
 import mil.nga.geopackage.features.index.FeatureIndexType;
 import mil.nga.geopackage.features.user.FeatureDao;
 import mil.nga.geopackage.features.user.FeatureRow;
+import mil.nga.geopackage.map.ClickToleranceModel;
+import mil.nga.geopackage.map.LatLngBoundingBox;
+import mil.nga.geopackage.map.MapUtils;
+import mil.nga.geopackage.map.features.CsvFeatureTableDataSink;
+import mil.nga.geopackage.map.features.FeatureGeometryFormat;
+import mil.nga.geopackage.map.features.FeatureHitTester;
+import mil.nga.geopackage.map.features.FeatureInfoBuilder;
+import mil.nga.geopackage.map.features.FeatureRowDistance;
+import mil.nga.geopackage.map.geom.GoogleMapShape;
 import mil.nga.geopackage.map.geom.GoogleMapShapeConverter;
 import mil.nga.geopackage.tiles.TileBoundingBoxUtils;
+import mil.nga.geopackage.tiles.TileGrid;
 import mil.nga.geopackage.tiles.features.DefaultFeatureTiles;
 import mil.nga.geopackage.tiles.features.FeatureTiles;
 import mil.nga.geopackage.tiles.overlay.FeatureRowData;
 import mil.nga.geopackage.tiles.overlay.FeatureTableData;
 import mil.nga.proj.Projection;
 import mil.nga.proj.ProjectionConstants;
+import mil.nga.proj.ProjectionFactory;
 import mil.nga.sf.Geometry;
 import mil.nga.sf.GeometryType;
+import mil.nga.sf.LineString;
 import mil.nga.sf.Point;
+import mil.nga.sf.Polygon;
+import mil.nga.sf.proj.GeometryTransform;
 
 /**
  * Feature overlay query utils
@@ -93,7 +110,50 @@ public class FeatureOverlayQueryUtils {
 
                     BoundingBox tileBounds = TileBoundingBoxUtils.getWGS84TileBounds(projection, point, (int) zoom);
 
+                    ClickToleranceModel toleranceModel = new ClickToleranceModel(density, 1080, 1920, 0.05f, featureOverlayQuery.getStylePixelBounds());
+                    LatLngBoundingBox clickBox = toleranceModel.buildClickLatLngBoundingBox(clickLocation, zoom);
+                    TestCase.assertTrue(clickBox.getDownCoordinate().latitude <= clickLocation.latitude);
+                    TestCase.assertTrue(clickBox.getUpCoordinate().latitude >= clickLocation.latitude);
+                    double toleranceDistance = toleranceModel.getToleranceDistance(clickLocation, zoom);
+                    TestCase.assertTrue(toleranceDistance > 0);
+                    TestCase.assertTrue(toleranceDistance >= MapUtils.getToleranceDistance(clickLocation, density, zoom, featureOverlayQuery.getStylePixelBounds(), 1080, 1920, 0.05f));
+
+                    if (!projection.getAuthority().equalsIgnoreCase(ProjectionConstants.AUTHORITY_NONE)) {
+                        compareHitTester(projection, geometry, clickLocation, toleranceDistance);
+                    }
+
+                    TileGrid tileGrid = TileBoundingBoxUtils.getTileGridFromWGS84(new Point(clickLocation.longitude, clickLocation.latitude), (int) zoom);
+                    long tileFeatureCount = featureTiles.queryIndexedFeaturesCount((int) tileGrid.getMinX(), (int) tileGrid.getMinY(), (int) zoom);
+                    TestCase.assertEquals(tileFeatureCount, featureOverlayQuery.tileFeatureCount(clickLocation, zoom));
+                    TestCase.assertEquals(tileFeatureCount, featureOverlayQuery.tileFeatureCount(clickLocation, zoom));
+                    TestCase.assertEquals(Long.valueOf(tileFeatureCount), featureOverlayQuery.getTileFeatureCountCache().get((int) tileGrid.getMinX(), (int) tileGrid.getMinY(), (int) zoom));
+
                     FeatureTableData featureTableData = featureOverlayQuery.buildMapClickTableDataWithMapBounds(clickLocation, zoom, tileBounds);
+                    TestCase.assertNotNull(featureOverlayQuery.getLastTimings());
+
+                    FeatureTableData asyncTableData = null;
+                    try {
+                        asyncTableData = featureOverlayQuery.buildMapClickTableDataWithMapBoundsAsync(clickLocation, zoom, tileBounds, null, null).get();
+                    } catch (Exception e) {
+                        TestCase.fail("Async map click query failed: " + e.getMessage());
+                    }
+                    TestCase.assertEquals(featureTableData == null, asyncTableData == null);
+                    if (featureTableData != null) {
+                        TestCase.assertEquals(featureTableData.getCount(), asyncTableData.getCount());
+                    }
+
+                    StringWriter csv = new StringWriter();
+                    try {
+                        long written = featureOverlayQuery.writeMapClickTableDataWithMapBounds(clickLocation, zoom, tileBounds, null,
+                                new CsvFeatureTableDataSink(csv, FeatureGeometryFormat.WKB));
+                        long expectedWritten = 0;
+                        if (featureTableData != null && !featureOverlayQuery.isMoreThanMaxFeatures(tileFeatureCount)) {
+                            expectedWritten = featureTableData.getCount();
+                        }
+                        TestCase.assertEquals(expectedWritten, written);
+                    } catch (IOException e) {
+                        TestCase.fail("Map click table data write failed: " + e.getMessage());
+                    }
 
                     if (geometry.getGeometryType() == GeometryType.POINT) {
                         TestCase.assertNotNull(featureTableData);
@@ -107,6 +167,15 @@ public class FeatureOverlayQueryUtils {
 
                         TestCase.assertEquals(featureTable, featureTableData.getName());
                         TestCase.assertTrue(featureTableData.getCount() > 0);
+
+                        // Equal distance results are all counted, beyond the max detailed info only the count is built
+                        if (featureTableData.getRows() == null || featureTableData.getRows().isEmpty()) {
+                            FeatureInfoBuilder featureInfoBuilder = featureOverlayQuery.getFeatureInfoBuilder();
+                            TestCase.assertTrue(featureTableData.getCount() > Math.min(
+                                    featureInfoBuilder.getMaxPointDetailedInfo(), featureInfoBuilder.getMaxFeatureDetailedInfo()));
+                            continue;
+                        }
+
                         TestCase.assertEquals(featureTableData.getCount(), featureTableData.getRows().size());
 
                         boolean nonPoint = false;
@@ -141,4 +210,168 @@ public class FeatureOverlayQueryUtils {
 
     }
 
+    public static void testMultiFeatureOverlayQuery(Activity activity, GeoPackage geoPackage) {
+
+        float density = activity.getApplicationContext().getResources().getDisplayMetrics().density;
+        int maxResults = 3;
+
+        List<FeatureTiles> featureTilesList = new ArrayList<>();
+        List<FeatureOverlayQuery> layerQueries = new ArrayList<>();
+        List<LatLng> clickLocations = new ArrayList<>();
+
+        try {
+            for (String featureTable : geoPackage.getFeatureTables()) {
+
+                FeatureDao featureDao = geoPackage.getFeatureDao(featureTable);
+                Projection projection = featureDao.getProjection();
+                if (projection.getAuthority().equalsIgnoreCase(ProjectionConstants.AUTHORITY_NONE)) {
+                    continue;
+                }
+
+                FeatureIndexManager indexer = new FeatureIndexManager(activity, geoPackage, featureDao);
+                try {
+                    if (!indexer.isIndexed()) {
+                        indexer.setIndexLocation(FeatureIndexType.GEOPACKAGE);
+                        indexer.index();
+                    }
+                } finally {
+                    indexer.close();
+                }
+
+                FeatureTiles featureTiles = new DefaultFeatureTiles(activity, geoPackage, featureDao, density);
+                featureTilesList.add(featureTiles);
+                FeatureOverlayQuery featureOverlayQuery = new FeatureOverlayQuery(activity, new FeatureOverlay(featureTiles), featureTiles);
+                layerQueries.add(featureOverlayQuery);
+
+                FeatureIndexResults indexResults = featureOverlayQuery.queryFeatures(featureDao.getBoundingBox(), projection);
+                try {
+                    for (FeatureRow featureRow : indexResults) {
+                        Geometry geometry = featureRow.getGeometryValue();
+                        if (geometry != null) {
+                            clickLocations.add(new GoogleMapShapeConverter(projection).toLatLng(geometry.getCentroid()));
+                            break;
+                        }
+                    }
+                } finally {
+                    indexResults.close();
+                }
+            }
+
+            MultiFeatureOverlayQuery multiQuery = new MultiFeatureOverlayQuery(activity);
+            multiQuery.setMaxResults(maxResults);
+            for (FeatureOverlayQuery layerQuery : layerQueries) {
+                multiQuery.addQuery(layerQuery);
+            }
+
+            for (LatLng clickLocation : clickLocations) {
+
+                double zoom = 15.0;
+                ClickToleranceModel toleranceModel = new ClickToleranceModel(density, 1080, 1920, 0.05f, null);
+
+                // Merge each layer queried alone, keeping all of its results
+                List<FeatureRowDistance> expected = new ArrayList<>();
+                for (FeatureOverlayQuery layerQuery : layerQueries) {
+                    MultiFeatureOverlayQuery singleQuery = new MultiFeatureOverlayQuery(activity);
+                    singleQuery.setMaxResults(1000);
+                    singleQuery.addQuery(layerQuery);
+                    expected.addAll(singleQuery.query(clickLocation, zoom, toleranceModel));
+                }
+                Collections.sort(expected);
+                expected = expected.subList(0, Math.min(maxResults, expected.size()));
+
+                // Merged results are the nearest of all layers, regardless of layer completion order
+                for (int i = 0; i < 3; i++) {
+                    List<FeatureRowDistance> results = multiQuery.query(clickLocation, zoom, toleranceModel);
+                    TestCase.assertEquals(expected.size(), results.size());
+                    for (int j = 0; j < results.size(); j++) {
+                        if (j > 0) {
+                            TestCase.assertTrue(results.get(j - 1).compareTo(results.get(j)) < 0);
+                        }
+                        TestCase.assertEquals(expected.get(j).getTableName(), results.get(j).getTableName());
+                        TestCase.assertEquals(expected.get(j).getId(), results.get(j).getId());
+                        TestCase.assertEquals(expected.get(j).getDistance(), results.get(j).getDistance(), 0.0);
+                    }
+                }
+            }
+
+        } finally {
+            for (FeatureTiles featureTiles : featureTilesList) {
+                featureTiles.close();
+            }
+        }
+
+    }
+
+    public static void testFeatureHitTester() {
+
+        double tolerance = 1000.0;
+
+        for (long epsg : new long[]{ProjectionConstants.EPSG_WORLD_GEODETIC_SYSTEM, ProjectionConstants.EPSG_WEB_MERCATOR}) {
+
+            Projection projection = ProjectionFactory.getProjection(epsg);
+            GeometryTransform transform = GeometryTransform.create(
+                    ProjectionFactory.getProjection(ProjectionConstants.EPSG_WORLD_GEODETIC_SYSTEM), projection);
+
+            Point point = transform.transform(new Point(179.9995, 10.0));
+
+            LineString lineString = new LineString();
+            lineString.addPoint(new Point(179.9, 10.0));
+            lineString.addPoint(new Point(-179.9, 10.0));
+            lineString = transform.transform(lineString);
+
+            LineString ring = new LineString();
+            ring.addPoint(new Point(179.5, 9.0));
+            ring.addPoint(new Point(-179.5, 9.0));
+            ring.addPoint(new Point(-179.5, 11.0));
+            ring.addPoint(new Point(179.5, 11.0));
+            ring.addPoint(new Point(179.5, 9.0));
+            Polygon polygon = new Polygon();
+            polygon.addRing(ring);
+            polygon = transform.transform(polygon);
+
+            List<Geometry> geometries = new ArrayList<>();
+            geometries.add(point);
+            geometries.add(lineString);
+            geometries.add(polygon);
+
+            for (Geometry geometry : geometries) {
+                for (LatLng clickLocation : new LatLng[]{new LatLng(10.0, 179.999), new LatLng(10.0, -179.999)}) {
+                    TestCase.assertNotNull(new FeatureHitTester(projection, clickLocation, tolerance).distance(geometry));
+                    compareHitTester(projection, geometry, clickLocation, tolerance);
+                }
+                LatLng clickLocation = new LatLng(10.0, 0.0);
+                TestCase.assertNull(new FeatureHitTester(projection, clickLocation, tolerance).distance(geometry));
+                compareHitTester(projection, geometry, clickLocation, tolerance);
+            }
+
+            LatLng clickLocation = new LatLng(10.5, -179.99);
+            TestCase.assertNull(new FeatureHitTester(projection, clickLocation, tolerance).distance(lineString));
+            compareHitTester(projection, lineString, clickLocation, tolerance);
+        }
+
+    }
+
+    /**
+     * Compare the hit tester against the map shape check, allowing the two distance approximations
+     * to differ at the tolerance boundary
+     *
+     * @param projection    feature projection
+     * @param geometry      geometry in the feature projection
+     * @param clickLocation click location
+     * @param tolerance     distance tolerance in meters
+     */
+    private static void compareHitTester(Projection projection, Geometry geometry, LatLng clickLocation, double tolerance) {
+
+        FeatureHitTester hitTester = new FeatureHitTester(projection, clickLocation, tolerance);
+        GoogleMapShape shape = new GoogleMapShapeConverter(projection).toShape(geometry);
+
+        if (hitTester.distance(geometry, tolerance * 0.9) != null) {
+            TestCase.assertTrue(MapUtils.isPointOnShape(clickLocation, shape, false, tolerance));
+        }
+        if (MapUtils.isPointOnShape(clickLocation, shape, false, tolerance * 0.9)) {
+            TestCase.assertNotNull(hitTester.distance(geometry, tolerance));
+        }
+
+    }
+
 }
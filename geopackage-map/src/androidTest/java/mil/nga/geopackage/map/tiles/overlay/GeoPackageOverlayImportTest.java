@@ -32,4 +32,34 @@ public class GeoPackageOverlayImportTest extends ImportGeoPackageTestCase {
 
 	}
 
+	/**
+	 * Test feature tile disk cache
+	 */
+	@Test
+	public void testFeatureTileDiskCache() {
+
+		GeoPackageOverlayUtils.testFeatureTileDiskCache(activity, geoPackage);
+
+	}
+
+	/**
+	 * Test composite overlay blending
+	 */
+	@Test
+	public void testCompositeOverlayBlend() {
+
+		GeoPackageOverlayUtils.testCompositeOverlayBlend();
+
+	}
+
+	/**
+	 * Test composite overlay first tile
+	 */
+	@Test
+	public void testCompositeOverlayFirstTile() {
+
+		GeoPackageOverlayUtils.testCompositeOverlayFirstTile();
+
+	}
+
 }
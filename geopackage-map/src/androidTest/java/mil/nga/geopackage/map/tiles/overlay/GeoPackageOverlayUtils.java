@@ -1,13 +1,37 @@
 package mil.nga.geopackage.map.tiles.overlay;
 
+import android.app.Activity;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Color;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import junit.framework.TestCase;
+import mil.nga.geopackage.BoundingBox;
 import mil.nga.geopackage.GeoPackage;
+import mil.nga.geopackage.GeoPackageException;
+import mil.nga.geopackage.features.user.FeatureDao;
+import mil.nga.geopackage.tiles.features.DefaultFeatureTiles;
+import mil.nga.geopackage.tiles.TileBoundingBoxUtils;
+import mil.nga.geopackage.tiles.TileGrid;
+import mil.nga.geopackage.tiles.features.FeatureTiles;
+import mil.nga.geopackage.tiles.retriever.GeoPackageTile;
+import mil.nga.geopackage.tiles.retriever.GeoPackageTileRetriever;
+import mil.nga.geopackage.tiles.retriever.TileRetriever;
 import mil.nga.geopackage.tiles.matrixset.TileMatrixSet;
 import mil.nga.geopackage.tiles.matrixset.TileMatrixSetDao;
 import mil.nga.geopackage.tiles.user.TileDao;
+import mil.nga.proj.ProjectionConstants;
+import mil.nga.proj.ProjectionFactory;
 
 import com.google.android.gms.maps.model.Tile;
 
@@ -37,6 +61,13 @@ public class GeoPackageOverlayUtils {
 
 				GeoPackageOverlay overlay = new GeoPackageOverlay(dao);
 
+				GeoPackageOverlay cachedOverlay = new GeoPackageOverlay(dao);
+				OverlayTileCache tileCache = new OverlayTileCache();
+				cachedOverlay.setTileCache(tileCache);
+
+				GeoPackageOverlay indexedOverlay = new GeoPackageOverlay(dao);
+				TilePresenceIndex tileIndex = indexedOverlay.buildTileIndex();
+
 				for (int zoom = 0; zoom <= 21; zoom++) {
 					int tileLength = (int) Math.pow(2, zoom);
 
@@ -50,15 +81,679 @@ public class GeoPackageOverlayUtils {
 								TestCase.assertTrue(tile.height > 0);
 								TestCase.assertTrue(tile.width > 0);
 							}
+							testCachedTile(cachedOverlay, tileCache, tile,
+									column, row, zoom);
+							testIndexedTile(overlay, indexedOverlay, tileIndex,
+									column, row, zoom);
 						}
 					}
 
 				}
 
+				testZoomScaler(dao);
+				testTilePrefetcher(dao);
+				testTileRanges(overlay);
+
+				// Changing the bounds invalidates the cached tiles
+				TestCase.assertTrue(tileCache.count() > 0);
+				cachedOverlay.setMaxZoom(cachedOverlay.getMaxZoom());
+				TestCase.assertEquals(0, tileCache.count());
+
+			}
+
+		}
+
+	}
+
+	/**
+	 * Test the zoom scaler overzoomed tiles beyond log2 of the tile width
+	 * zoom levels against the native parent tile pixels
+	 *
+	 * @param dao
+	 */
+	private static void testZoomScaler(TileDao dao) {
+
+		TileRetriever retriever = new GeoPackageTileRetriever(dao);
+		int maxNativeZoom = (int) dao.getMaxZoom();
+		TileZoomScaler scaler = new TileZoomScaler(retriever,
+				(int) dao.getMinZoom(), maxNativeZoom);
+
+		// Find a native tile
+		BoundingBox webMercatorBoundingBox = dao.getTileMatrixSet()
+				.getBoundingBox().transform(dao.getProjection()
+						.getTransformation(ProjectionConstants.EPSG_WEB_MERCATOR));
+		TileGrid tileGrid = TileBoundingBoxUtils.getTileGrid(
+				webMercatorBoundingBox, maxNativeZoom);
+		GeoPackageTile nativeTile = null;
+		int nativeX = -1;
+		int nativeY = -1;
+		for (long x = tileGrid.getMinX(); nativeTile == null
+				&& x <= Math.min(tileGrid.getMaxX(), tileGrid.getMinX() + 3); x++) {
+			for (long y = tileGrid.getMinY(); nativeTile == null
+					&& y <= Math.min(tileGrid.getMaxY(), tileGrid.getMinY() + 3); y++) {
+				GeoPackageTile tile = retriever.getTile((int) x, (int) y,
+						maxNativeZoom);
+				if (tile != null && tile.getData() != null) {
+					nativeTile = tile;
+					nativeX = (int) x;
+					nativeY = (int) y;
+				}
+			}
+		}
+		if (nativeTile == null) {
+			return;
+		}
+
+		Bitmap parent = BitmapFactory.decodeByteArray(nativeTile.getData(), 0,
+				nativeTile.getData().length);
+		int width = parent.getWidth();
+		int height = parent.getHeight();
+
+		// Overzoom until a tile is sourced from within a single parent pixel
+		int levels = 1;
+		while ((1 << levels) < 2 * Math.max(width, height)) {
+			levels++;
+		}
+		TestCase.assertTrue(levels > 8);
+		int zoom = maxNativeZoom + levels;
+		if (zoom > 29) {
+			parent.recycle();
+			return;
+		}
+		TestCase.assertTrue(scaler.isOverzoom(zoom));
+		int count = 1 << levels;
+
+		// Find a parent pixel with a uniform neighborhood
+		int pixelX = -1;
+		int pixelY = -1;
+		for (int py = 1; pixelX < 0 && py < height - 1; py++) {
+			for (int px = 1; pixelX < 0 && px < width - 1; px++) {
+				int color = parent.getPixel(px, py);
+				boolean uniform = Color.alpha(color) > 0;
+				for (int i = -1; uniform && i <= 1; i++) {
+					for (int j = -1; uniform && j <= 1; j++) {
+						uniform = parent.getPixel(px + i, py + j) == color;
+					}
+				}
+				if (uniform) {
+					pixelX = px;
+					pixelY = py;
+				}
+			}
+		}
+
+		// Overzoomed tile sourced from the middle of the parent pixel
+		int x = (nativeX << levels) + pixelX * count / width + count / width
+				/ 2;
+		int y = (nativeY << levels) + pixelY * count / height + count
+				/ height / 2;
+		if (pixelX < 0) {
+			x = (nativeX << levels) + count / 2;
+			y = (nativeY << levels) + count / 2;
+		}
+
+		TestCase.assertTrue(scaler.hasTile(x, y, zoom));
+		Tile tile = scaler.getTile(x, y, zoom);
+		TestCase.assertNotNull(tile);
+		TestCase.assertEquals(width, tile.width);
+		TestCase.assertEquals(height, tile.height);
+
+		if (pixelX >= 0) {
+			int expected = parent.getPixel(pixelX, pixelY);
+			Bitmap bitmap = BitmapFactory.decodeByteArray(tile.data, 0,
+					tile.data.length);
+			int actual = bitmap.getPixel(width / 2, height / 2);
+			TestCase.assertTrue(Math.abs(Color.alpha(expected)
+					- Color.alpha(actual)) <= 2);
+			TestCase.assertTrue(Math.abs(Color.red(expected)
+					- Color.red(actual)) <= 2);
+			TestCase.assertTrue(Math.abs(Color.green(expected)
+					- Color.green(actual)) <= 2);
+			TestCase.assertTrue(Math.abs(Color.blue(expected)
+					- Color.blue(actual)) <= 2);
+			bitmap.recycle();
+		}
+
+		parent.recycle();
+	}
+
+	/**
+	 * Test the tile prefetcher requires a configured overlay tile cache and
+	 * prefetches the tiles neighbouring the visible tile
+	 *
+	 * @param dao
+	 */
+	private static void testTilePrefetcher(TileDao dao) {
+
+		GeoPackageOverlay uncachedOverlay = new GeoPackageOverlay(dao);
+		try {
+			new TilePrefetcher(uncachedOverlay);
+			TestCase.fail("Prefetcher created without an overlay tile cache");
+		} catch (GeoPackageException e) {
+			// Expected
+		}
+		TestCase.assertNull(uncachedOverlay.getTileCache());
+
+		GeoPackageOverlay overlay = new GeoPackageOverlay(dao);
+		OverlayTileCache tileCache = new OverlayTileCache();
+		overlay.setTileCache(tileCache);
+
+		// Visible tile in the middle of the overlay bounds
+		int zoom = Math.max(2, (int) dao.getMaxZoom());
+		TileGrid tileGrid = TileBoundingBoxUtils.getTileGrid(
+				overlay.getWebMercatorBoundingBox(), zoom);
+		int visibleX = (int) ((tileGrid.getMinX() + tileGrid.getMaxX()) / 2);
+		int visibleY = (int) ((tileGrid.getMinY() + tileGrid.getMaxY()) / 2);
+		BoundingBox tileBoundingBox = TileBoundingBoxUtils
+				.getWebMercatorBoundingBox(visibleX, visibleY, zoom);
+		double inset = (tileBoundingBox.getMaxLongitude() - tileBoundingBox
+				.getMinLongitude()) / 100.0;
+		BoundingBox visibleBoundingBox = new BoundingBox(
+				tileBoundingBox.getMinLongitude() + inset,
+				tileBoundingBox.getMinLatitude() + inset,
+				tileBoundingBox.getMaxLongitude() - inset,
+				tileBoundingBox.getMaxLatitude() - inset).transform(
+				ProjectionFactory.getProjection(
+						ProjectionConstants.EPSG_WEB_MERCATOR)
+						.getTransformation(
+								ProjectionConstants.EPSG_WORLD_GEODETIC_SYSTEM));
+
+		ExecutorService executor = TilePrefetcher.createExecutor(1,
+				TilePrefetcher.DEFAULT_MAX_QUEUED);
+		TilePrefetcher prefetcher = new TilePrefetcher(overlay, executor);
+		TestCase.assertSame(tileCache, overlay.getTileCache());
+		prefetcher.onCameraMove(visibleBoundingBox, zoom);
+		executor.shutdown();
+		try {
+			TestCase.assertTrue(executor.awaitTermination(60,
+					TimeUnit.SECONDS));
+		} catch (InterruptedException e) {
+			TestCase.fail(e.getMessage());
+		}
+
+		TestCase.assertFalse(tileCache.contains(overlay, visibleX, visibleY,
+				zoom));
+		int tilesPerSide = 1 << zoom;
+		int expected = 0;
+		for (int y = visibleY - 1; y <= visibleY + 1; y++) {
+			for (int x = visibleX - 1; x <= visibleX + 1; x++) {
+				int wrappedX = (x + tilesPerSide) % tilesPerSide;
+				if (y >= 0 && y < tilesPerSide
+						&& (x != visibleX || y != visibleY)
+						&& overlay.isWithinBounds(wrappedX, y, zoom)) {
+					TestCase.assertTrue(tileCache.contains(overlay, wrappedX,
+							y, zoom));
+					expected++;
+				}
+			}
+		}
+		TestCase.assertEquals(expected, prefetcher.getPrefetchCount());
+		TestCase.assertEquals(0, prefetcher.getPendingCount());
+
+		// Cancelling with a shared executor only cancels the prefetch tasks
+		GeoPackageOverlay sharedOverlay = new GeoPackageOverlay(dao);
+		sharedOverlay.setTileCache(new OverlayTileCache());
+		ExecutorService sharedExecutor = TilePrefetcher.createExecutor(1,
+				TilePrefetcher.DEFAULT_MAX_QUEUED);
+		final CountDownLatch blocked = new CountDownLatch(1);
+		final AtomicInteger otherRuns = new AtomicInteger();
+		sharedExecutor.execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					blocked.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				otherRuns.incrementAndGet();
+			}
+		});
+		TilePrefetcher sharedPrefetcher = new TilePrefetcher(sharedOverlay,
+				sharedExecutor);
+		sharedPrefetcher.onCameraMove(visibleBoundingBox, zoom);
+		sharedExecutor.execute(new Runnable() {
+			@Override
+			public void run() {
+				otherRuns.incrementAndGet();
+			}
+		});
+		TestCase.assertEquals(expected, sharedPrefetcher.getPendingCount());
+		sharedPrefetcher.cancel();
+		TestCase.assertEquals(0, sharedPrefetcher.getPendingCount());
+		blocked.countDown();
+		sharedExecutor.shutdown();
+		try {
+			TestCase.assertTrue(sharedExecutor.awaitTermination(60,
+					TimeUnit.SECONDS));
+		} catch (InterruptedException e) {
+			TestCase.fail(e.getMessage());
+		}
+		TestCase.assertEquals(2, otherRuns.get());
+		TestCase.assertEquals(0, sharedPrefetcher.getPrefetchCount());
+
+	}
+
+	/**
+	 * Test the cached overlay tile ranges against tile bounding box
+	 * intersections, before and after changing the bounding box
+	 *
+	 * @param overlay
+	 */
+	private static void testTileRanges(BoundedOverlay overlay) {
+
+		for (int zoom = 0; zoom <= 20; zoom++) {
+			testTileRanges(overlay, zoom);
+		}
+
+		int zoom = 4;
+		BoundingBox tileBoundingBox = TileBoundingBoxUtils
+				.getWebMercatorBoundingBox(3, 5, zoom);
+		overlay.setBoundingBox(tileBoundingBox, ProjectionFactory
+				.getProjection(ProjectionConstants.EPSG_WEB_MERCATOR));
+		TestCase.assertTrue(overlay.isWithinBoundingBox(3, 5, zoom));
+		TestCase.assertTrue(overlay.isWithinBoundingBox(2, 4, zoom));
+		TestCase.assertTrue(overlay.isWithinBoundingBox(4, 6, zoom));
+		TestCase.assertFalse(overlay.isWithinBoundingBox(5, 5, zoom));
+		TestCase.assertFalse(overlay.isWithinBoundingBox(3, 7, zoom));
+		TestCase.assertFalse(overlay.isWithinBoundingBox(10, 10, zoom));
+
+		for (zoom = 0; zoom <= 20; zoom++) {
+			testTileRanges(overlay, zoom);
+		}
+
+	}
+
+	/**
+	 * Test the cached overlay tile ranges at the zoom level for the tiles
+	 * around the bounding box edges
+	 *
+	 * @param overlay
+	 * @param zoom
+	 */
+	private static void testTileRanges(BoundedOverlay overlay, int zoom) {
+
+		TileGrid tileGrid = TileBoundingBoxUtils.getTileGrid(
+				overlay.getWebMercatorBoundingBox(), zoom);
+		int maxTile = (1 << zoom) - 1;
+
+		long[] columns = new long[] { tileGrid.getMinX(), tileGrid.getMaxX() };
+		long[] rows = new long[] { tileGrid.getMinY(), tileGrid.getMaxY() };
+
+		for (long column : columns) {
+			for (int x = (int) Math.max(0, column - 2); x <= Math.min(maxTile,
+					column + 2); x++) {
+				for (long row : rows) {
+					for (int y = (int) Math.max(0, row - 2); y <= Math.min(
+							maxTile, row + 2); y++) {
+
+						BoundingBox tileWebMercatorBoundingBox = TileBoundingBoxUtils
+								.getWebMercatorBoundingBox(x, y, zoom);
+						boolean expected = overlay
+								.getWebMercatorBoundingBox(
+										tileWebMercatorBoundingBox)
+								.intersects(tileWebMercatorBoundingBox, true);
+
+						TestCase.assertEquals(expected,
+								overlay.isWithinBoundingBox(x, y, zoom));
+					}
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Test the feature tile disk cache hits, misses, eviction, and style version invalidation
+	 *
+	 * @param activity
+	 * @param geoPackage
+	 */
+	public static void testFeatureTileDiskCache(Activity activity,
+			GeoPackage geoPackage) {
+
+		File directory = new File(activity.getCacheDir(),
+				"feature_tile_disk_cache_test");
+
+		byte[] bytes1 = createBytes(40, 1);
+		byte[] bytes2 = createBytes(40, 2);
+		byte[] bytes3 = createBytes(40, 3);
+
+		for (String featureTable : geoPackage.getFeatureTables()) {
+
+			FeatureDao featureDao = geoPackage.getFeatureDao(featureTable);
+			FeatureTiles featureTiles = new DefaultFeatureTiles(activity,
+					geoPackage, featureDao);
+			try {
+
+				FeatureTileDiskCache diskCache = new FeatureTileDiskCache(
+						directory, 100);
+				diskCache.clear();
+				TestCase.assertEquals(0, diskCache.getCount());
+				TestCase.assertEquals(0, diskCache.getSize());
+
+				// Miss
+				TestCase.assertNull(diskCache.getTileBytes(featureTiles, 0, 0,
+						0));
+
+				// Hit
+				diskCache.putTileBytes(featureTiles, 0, 0, 0, bytes1);
+				TestCase.assertTrue(Arrays.equals(bytes1,
+						diskCache.getTileBytes(featureTiles, 0, 0, 0)));
+
+				// No tile
+				diskCache.putTileBytes(featureTiles, 0, 0, 1, null);
+				byte[] noTile = diskCache.getTileBytes(featureTiles, 0, 0, 1);
+				TestCase.assertNotNull(noTile);
+				TestCase.assertEquals(0, noTile.length);
+
+				// Replace
+				diskCache.putTileBytes(featureTiles, 1, 0, 1, bytes1);
+				diskCache.putTileBytes(featureTiles, 1, 0, 1, bytes2);
+				TestCase.assertTrue(Arrays.equals(bytes2,
+						diskCache.getTileBytes(featureTiles, 1, 0, 1)));
+				TestCase.assertEquals(3, diskCache.getCount());
+				TestCase.assertEquals(80, diskCache.getSize());
+
+				// Evict the least recently used tiles
+				diskCache.getTileBytes(featureTiles, 0, 0, 0);
+				diskCache.putTileBytes(featureTiles, 0, 1, 1, bytes3);
+				TestCase.assertEquals(2, diskCache.getCount());
+				TestCase.assertEquals(80, diskCache.getSize());
+				TestCase.assertNull(diskCache.getTileBytes(featureTiles, 0, 0,
+						1));
+				TestCase.assertNull(diskCache.getTileBytes(featureTiles, 1, 0,
+						1));
+				TestCase.assertTrue(Arrays.equals(bytes1,
+						diskCache.getTileBytes(featureTiles, 0, 0, 0)));
+				TestCase.assertTrue(Arrays.equals(bytes3,
+						diskCache.getTileBytes(featureTiles, 0, 1, 1)));
+
+				// Persisted across cache instances
+				FeatureTileDiskCache diskCache2 = new FeatureTileDiskCache(
+						directory, 100);
+				TestCase.assertEquals(2, diskCache2.getCount());
+				TestCase.assertTrue(Arrays.equals(bytes1,
+						diskCache2.getTileBytes(featureTiles, 0, 0, 0)));
+
+				// Style version invalidation
+				diskCache.setStyleVersion(featureTiles, "style2");
+				TestCase.assertEquals("style2",
+						diskCache.getStyleVersion(featureTiles));
+				TestCase.assertNull(diskCache.getTileBytes(featureTiles, 0, 0,
+						0));
+				TestCase.assertEquals(0, diskCache.getCount());
+				diskCache.putTileBytes(featureTiles, 0, 0, 0, bytes2);
+				TestCase.assertTrue(Arrays.equals(bytes2,
+						diskCache.getTileBytes(featureTiles, 0, 0, 0)));
+
+				// Table invalidation
+				diskCache.invalidate(featureTiles);
+				TestCase.assertNull(diskCache.getTileBytes(featureTiles, 0, 0,
+						0));
+				TestCase.assertEquals(0, diskCache.getCount());
+
+				// Bounding box invalidation of edited features
+				diskCache.putTileBytes(featureTiles, 0, 0, 5, bytes1);
+				diskCache.putTileBytes(featureTiles, 20, 20, 5, bytes2);
+				diskCache.invalidate(featureTiles,
+						TileBoundingBoxUtils.getWebMercatorBoundingBox(0, 0, 5),
+						ProjectionFactory.getProjection(
+								ProjectionConstants.EPSG_WEB_MERCATOR));
+				TestCase.assertNull(diskCache.getTileBytes(featureTiles, 0, 0,
+						5));
+				TestCase.assertTrue(Arrays.equals(bytes2,
+						diskCache.getTileBytes(featureTiles, 20, 20, 5)));
+				TestCase.assertEquals(1, diskCache.getCount());
+
+				diskCache.clear();
+
+			} finally {
+				featureTiles.close();
+			}
+		}
+
+	}
+
+	/**
+	 * Test the composite overlay blend order and opacity
+	 */
+	public static void testCompositeOverlayBlend() {
+
+		byte[] red = createTileData(Color.RED);
+		byte[] blue = createTileData(Color.BLUE);
+
+		TestOverlay top = new TestOverlay(red, 0);
+		TestOverlay bottom = new TestOverlay(blue, 0);
+
+		CompositeOverlay composite = new CompositeOverlay();
+		composite.setCompositing(true);
+		composite.addOverlay(top, 0.5f);
+		composite.addOverlay(bottom);
+
+		// The first overlay is blended on top of the second
+		int pixel = getCenterPixel(composite.getTile(0, 0, 0));
+		TestCase.assertEquals(255, Color.alpha(pixel));
+		TestCase.assertEquals(128, Color.red(pixel), 2);
+		TestCase.assertEquals(0, Color.green(pixel));
+		TestCase.assertEquals(127, Color.blue(pixel), 2);
+
+		// An opaque top overlay covers the bottom overlay
+		composite.setOpacity(top, 1.0f);
+		pixel = getCenterPixel(composite.getTile(0, 0, 0));
+		TestCase.assertEquals(Color.RED, pixel);
+
+		// A transparent overlay is not retrieved, leaving a single opaque
+		// tile returned without blending
+		composite.setOpacity(top, 0.0f);
+		int topRetrieved = top.retrieved.get();
+		Tile tile = composite.getTile(0, 0, 0);
+		TestCase.assertSame(blue, tile.data);
+		TestCase.assertEquals(topRetrieved, top.retrieved.get());
+
+		composite.recycleBitmaps();
+	}
+
+	/**
+	 * Test the composite overlay first non null tile short circuit, in order
+	 * and in parallel
+	 */
+	public static void testCompositeOverlayFirstTile() {
+
+		byte[] red = createTileData(Color.RED);
+		byte[] blue = createTileData(Color.BLUE);
+
+		// The first overlay tile is used without retrieving later overlays
+		TestOverlay top = new TestOverlay(red, 0);
+		TestOverlay bottom = new TestOverlay(blue, 0);
+		CompositeOverlay composite = new CompositeOverlay();
+		composite.addOverlay(top);
+		composite.addOverlay(bottom);
+		Tile tile = composite.getTile(0, 0, 0);
+		TestCase.assertNotNull(tile);
+		TestCase.assertSame(red, tile.data);
+		TestCase.assertEquals(1, top.retrieved.get());
+		TestCase.assertEquals(0, bottom.retrieved.get());
+
+		// In parallel, the first overlay in order wins over a faster later
+		// overlay
+		TestOverlay slowTop = new TestOverlay(red, 100);
+		TestOverlay fastBottom = new TestOverlay(blue, 0);
+		CompositeOverlay parallel = new CompositeOverlay();
+		parallel.setParallel(true);
+		parallel.addOverlay(slowTop);
+		parallel.addOverlay(fastBottom);
+		tile = parallel.getTile(0, 0, 0);
+		TestCase.assertNotNull(tile);
+		TestCase.assertSame(red, tile.data);
+		TestCase.assertEquals(1, slowTop.retrieved.get());
+		TestCase.assertTrue(parallel.getLatency(slowTop).getCount() > 0);
+
+		// Requests continue on the calling thread after the shared executor
+		// is shut down
+		CompositeOverlay.shutdownDefaultExecutor();
+		tile = parallel.getTile(0, 0, 0);
+		TestCase.assertNotNull(tile);
+		TestCase.assertSame(red, tile.data);
+	}
+
+	/**
+	 * Create a single color PNG tile
+	 *
+	 * @param color
+	 * @return tile data
+	 */
+	private static byte[] createTileData(int color) {
+		Bitmap bitmap = Bitmap.createBitmap(256, 256, Bitmap.Config.ARGB_8888);
+		bitmap.eraseColor(color);
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		bitmap.compress(Bitmap.CompressFormat.PNG, 100, stream);
+		bitmap.recycle();
+		return stream.toByteArray();
+	}
+
+	/**
+	 * Get the center pixel of the tile
+	 *
+	 * @param tile
+	 * @return pixel color
+	 */
+	private static int getCenterPixel(Tile tile) {
+		TestCase.assertNotNull(tile);
+		Bitmap bitmap = BitmapFactory.decodeByteArray(tile.data, 0,
+				tile.data.length);
+		TestCase.assertNotNull(bitmap);
+		int pixel = bitmap.getPixel(bitmap.getWidth() / 2,
+				bitmap.getHeight() / 2);
+		bitmap.recycle();
+		return pixel;
+	}
+
+	/**
+	 * Test overlay always having a tile of the data
+	 */
+	private static class TestOverlay extends BoundedOverlay {
+
+		/**
+		 * Tile data
+		 */
+		private final byte[] data;
+
+		/**
+		 * Retrieve delay in milliseconds
+		 */
+		private final long delay;
+
+		/**
+		 * Number of retrieved tiles
+		 */
+		private final AtomicInteger retrieved = new AtomicInteger();
+
+		/**
+		 * Constructor
+		 *
+		 * @param data
+		 * @param delay
+		 */
+		private TestOverlay(byte[] data, long delay) {
+			this.data = data;
+			this.delay = delay;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected boolean hasTileToRetrieve(int x, int y, int zoom) {
+			return true;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected Tile retrieveTile(int x, int y, int zoom) {
+			retrieved.incrementAndGet();
+			if (delay > 0) {
+				try {
+					Thread.sleep(delay);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
 			}
+			return new Tile(256, 256, data);
+		}
 
+	}
+
+	/**
+	 * Create test bytes
+	 *
+	 * @param length
+	 * @param value
+	 * @return bytes
+	 */
+	private static byte[] createBytes(int length, int value) {
+		byte[] bytes = new byte[length];
+		Arrays.fill(bytes, (byte) value);
+		return bytes;
+	}
+
+	/**
+	 * Test the indexed overlay tile presence against the unindexed overlay
+	 *
+	 * @param overlay
+	 * @param indexedOverlay
+	 * @param tileIndex
+	 * @param x
+	 * @param y
+	 * @param zoom
+	 */
+	private static void testIndexedTile(GeoPackageOverlay overlay,
+			GeoPackageOverlay indexedOverlay, TilePresenceIndex tileIndex,
+			int x, int y, int zoom) {
+
+		boolean hasTile = indexedOverlay.hasTile(x, y, zoom);
+		TestCase.assertEquals(overlay.hasTile(x, y, zoom), hasTile);
+
+		if (indexedOverlay.isWithinBounds(x, y, zoom)) {
+			TestCase.assertEquals(Boolean.valueOf(hasTile),
+					tileIndex.get(x, y, zoom));
+			TestCase.assertEquals(hasTile,
+					indexedOverlay.hasTile(x, y, zoom));
 		}
 
 	}
 
+	/**
+	 * Test the cached overlay tile against the uncached tile
+	 *
+	 * @param cachedOverlay
+	 * @param tileCache
+	 * @param tile
+	 * @param x
+	 * @param y
+	 * @param zoom
+	 */
+	private static void testCachedTile(GeoPackageOverlay cachedOverlay,
+			OverlayTileCache tileCache, Tile tile, int x, int y, int zoom) {
+
+		int hitCount = tileCache.getHitCount();
+
+		Tile cachedTile = cachedOverlay.getTile(x, y, zoom);
+		TestCase.assertEquals(tile != null, cachedTile != null);
+		TestCase.assertTrue(tileCache.contains(cachedOverlay, x, y, zoom));
+		TestCase.assertEquals(tile != null, cachedOverlay.hasTile(x, y, zoom));
+		TestCase.assertEquals(hitCount + 2, tileCache.getHitCount());
+
+		Tile cachedTile2 = cachedOverlay.getTile(x, y, zoom);
+		TestCase.assertSame(cachedTile, cachedTile2);
+		if (cachedTile != null) {
+			TestCase.assertEquals(tile.width, cachedTile.width);
+			TestCase.assertEquals(tile.height, cachedTile.height);
+		}
+
+		TestCase.assertTrue(tileCache.size() <= tileCache.maxSize());
+
+	}
+
 }
@@ -0,0 +1,338 @@
+package mil.nga.geopackage.map;
+
+import com.google.android.gms.maps.model.LatLng;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import mil.nga.geopackage.BoundingBox;
+import mil.nga.geopackage.style.PixelBounds;
+
+/**
+ * Map click tolerance model deriving the click bounding box and tolerance distance analytically
+ * from the Web Mercator scale at the click latitude, zoom level, and display density. Unlike the
+ * map projection screen location conversions, the model does not require a Google Map and may be
+ * used off the UI thread. The map is assumed to be north up without tilt.
+ * <p>
+ * Scales are cached per zoom bucket of 1/{@link #ZOOM_BUCKETS} of a zoom level and latitude band
+ * of {@link #LATITUDE_BAND} degrees, evaluated at the bucket's lower zoom and the band's edge
+ * nearest the equator so cached scales are never smaller than the exact scales.
+ *
+ * @author osbornb
+ * @since 6.7.5
+ */
+public class ClickToleranceModel {
+
+    /**
+     * Google Map world width in density independent pixels at zoom level 0
+     */
+    public static final int WORLD_DP = 256;
+
+    /**
+     * Cached zoom buckets per zoom level
+     */
+    public static final int ZOOM_BUCKETS = 16;
+
+    /**
+     * Cached latitude band size in degrees
+     */
+    public static final double LATITUDE_BAND = 0.25;
+
+    /**
+     * Earth radius in meters, matching the spherical distances of map click tolerance checks
+     */
+    private static final double EARTH_RADIUS = 6371009;
+
+    /**
+     * Max number of cached scales before the cache is cleared
+     */
+    private static final int MAX_CACHED_SCALES = 4096;
+
+    /**
+     * Display density
+     */
+    private final float density;
+
+    /**
+     * Pixels a click occurs from a feature, before pixel bounds
+     */
+    private final double clickPixels;
+
+    /**
+     * Click pixel bounds
+     */
+    private final PixelBounds pixelBounds;
+
+    /**
+     * Cached scales by zoom bucket and latitude band
+     */
+    private final Map<Long, Scale> scales = new ConcurrentHashMap<>();
+
+    /**
+     * Cache enabled flag
+     */
+    private boolean cacheEnabled = true;
+
+    /**
+     * Constructor
+     *
+     * @param density     display density: {@link android.util.DisplayMetrics#density}
+     * @param clickPixels pixels a click occurs from a feature
+     * @param pixelBounds click pixel bounds, null for none
+     */
+    public ClickToleranceModel(float density, double clickPixels, PixelBounds pixelBounds) {
+        this.density = density;
+        this.clickPixels = clickPixels;
+        this.pixelBounds = pixelBounds;
+    }
+
+    /**
+     * Constructor
+     *
+     * @param density               display density: {@link android.util.DisplayMetrics#density}
+     * @param viewWidth             map view width in pixels
+     * @param viewHeight            map view height in pixels
+     * @param screenClickPercentage screen click percentage between 0.0 and 1.0 for how close a feature
+     *                              on the screen must be to be included in a click query
+     * @param pixelBounds           click pixel bounds, null for none
+     */
+    public ClickToleranceModel(float density, int viewWidth, int viewHeight, float screenClickPercentage, PixelBounds pixelBounds) {
+        this(density, Math.max(viewWidth, viewHeight) * screenClickPercentage, pixelBounds);
+    }
+
+    /**
+     * Get the display density
+     *
+     * @return density
+     */
+    public float getDensity() {
+        return density;
+    }
+
+    /**
+     * Get the pixels a click occurs from a feature, before pixel bounds
+     *
+     * @return click pixels
+     */
+    public double getClickPixels() {
+        return clickPixels;
+    }
+
+    /**
+     * Get the click pixel bounds
+     *
+     * @return pixel bounds or null
+     */
+    public PixelBounds getPixelBounds() {
+        return pixelBounds;
+    }
+
+    /**
+     * Is the scale cache enabled
+     *
+     * @return true if enabled
+     */
+    public boolean isCacheEnabled() {
+        return cacheEnabled;
+    }
+
+    /**
+     * Set the scale cache enabled state, when disabled scales are calculated exactly on each call
+     *
+     * @param cacheEnabled true to enable
+     */
+    public void setCacheEnabled(boolean cacheEnabled) {
+        this.cacheEnabled = cacheEnabled;
+    }
+
+    /**
+     * Get the number of cached scales
+     *
+     * @return cached scale count
+     */
+    public int getCacheSize() {
+        return scales.size();
+    }
+
+    /**
+     * Clear the cached scales
+     */
+    public void clearCache() {
+        scales.clear();
+    }
+
+    /**
+     * Build a lat lng bounding box of the click location at the zoom level
+     *
+     * @param latLng click location
+     * @param zoom   zoom level
+     * @return lat lng bounding box
+     */
+    public LatLngBoundingBox buildClickLatLngBoundingBox(LatLng latLng, double zoom) {
+
+        Scale scale = getScale(latLng.latitude, zoom);
+        double[] offsets = getOffsets(zoom);
+
+        double latitudeDegrees = scale.longitudeDegrees * scale.latitudeFactor;
+
+        LatLng leftCoordinate = new LatLng(latLng.latitude, latLng.longitude - offsets[0] * scale.longitudeDegrees);
+        LatLng upCoordinate = new LatLng(latLng.latitude + offsets[1] * latitudeDegrees, latLng.longitude);
+        LatLng rightCoordinate = new LatLng(latLng.latitude, latLng.longitude + offsets[2] * scale.longitudeDegrees);
+        LatLng downCoordinate = new LatLng(latLng.latitude - offsets[3] * latitudeDegrees, latLng.longitude);
+
+        return new LatLngBoundingBox(leftCoordinate, upCoordinate, rightCoordinate, downCoordinate);
+    }
+
+    /**
+     * Build a bounding box of the click location at the zoom level
+     *
+     * @param latLng click location
+     * @param zoom   zoom level
+     * @return bounding box
+     */
+    public BoundingBox buildClickBoundingBox(LatLng latLng, double zoom) {
+        return MapUtils.buildClickBoundingBox(buildClickLatLngBoundingBox(latLng, zoom));
+    }
+
+    /**
+     * Get the allowable tolerance distance in meters from the click location at the zoom level,
+     * the distance to the farthest click bounding box corner
+     *
+     * @param latLng click location
+     * @param zoom   zoom level
+     * @return tolerance distance in meters
+     */
+    public double getToleranceDistance(LatLng latLng, double zoom) {
+
+        Scale scale = getScale(latLng.latitude, zoom);
+        double[] offsets = getOffsets(zoom);
+
+        double width = Math.max(offsets[0], offsets[2]);
+        double height = Math.max(offsets[1], offsets[3]);
+
+        return Math.sqrt(width * width + height * height) * scale.metersPerPixel;
+    }
+
+    /**
+     * Get the exact ground meters per screen pixel at the latitude and zoom level
+     *
+     * @param latitude latitude
+     * @param zoom     zoom level
+     * @return meters per pixel
+     */
+    public double getMetersPerPixel(double latitude, double zoom) {
+        return createScale(latitude, zoom).metersPerPixel;
+    }
+
+    /**
+     * Get the left, up, right, and down pixel offsets at the zoom level
+     *
+     * @param zoom zoom level
+     * @return pixel offsets
+     */
+    private double[] getOffsets(double zoom) {
+
+        double leftPixels = clickPixels;
+        double upPixels = clickPixels;
+        double rightPixels = clickPixels;
+        double downPixels = clickPixels;
+
+        if (pixelBounds != null) {
+            double adjust = 1.0 + zoom - (int) zoom;
+            adjust *= density;
+            leftPixels += (pixelBounds.getLeft() * adjust);
+            upPixels += (pixelBounds.getUp() * adjust);
+            rightPixels += (pixelBounds.getRight() * adjust);
+            downPixels += (pixelBounds.getDown() * adjust);
+        }
+
+        return new double[]{Math.ceil(leftPixels), Math.ceil(upPixels),
+                Math.ceil(rightPixels), Math.ceil(downPixels)};
+    }
+
+    /**
+     * Get the scale at the latitude and zoom level, from the cache when enabled
+     *
+     * @param latitude latitude
+     * @param zoom     zoom level
+     * @return scale
+     */
+    private Scale getScale(double latitude, double zoom) {
+
+        Scale scale;
+
+        if (cacheEnabled) {
+
+            long zoomBucket = (long) Math.floor(zoom * ZOOM_BUCKETS);
+            long latitudeBand = (long) Math.floor(latitude / LATITUDE_BAND);
+            long key = (zoomBucket << 32) | (latitudeBand & 0xffffffffL);
+
+            scale = scales.get(key);
+            if (scale == null) {
+                double bandLatitude = latitudeBand >= 0 ? latitudeBand * LATITUDE_BAND
+                        : (latitudeBand + 1) * LATITUDE_BAND;
+                scale = createScale(bandLatitude, zoomBucket / (double) ZOOM_BUCKETS);
+                if (scales.size() >= MAX_CACHED_SCALES) {
+                    scales.clear();
+                }
+                scales.put(key, scale);
+            }
+
+        } else {
+            scale = createScale(latitude, zoom);
+        }
+
+        return scale;
+    }
+
+    /**
+     * Create the Web Mercator scale at the latitude and zoom level
+     *
+     * @param latitude latitude
+     * @param zoom     zoom level
+     * @return scale
+     */
+    private Scale createScale(double latitude, double zoom) {
+        double worldPixels = WORLD_DP * density * Math.pow(2.0, zoom);
+        double latitudeFactor = Math.cos(Math.toRadians(latitude));
+        double longitudeDegrees = 360.0 / worldPixels;
+        double metersPerPixel = latitudeFactor * 2.0 * Math.PI * EARTH_RADIUS / worldPixels;
+        return new Scale(longitudeDegrees, latitudeFactor, metersPerPixel);
+    }
+
+    /**
+     * Web Mercator scale at a latitude and zoom level
+     */
+    private static class Scale {
+
+        /**
+         * Longitude degrees per pixel
+         */
+        private final double longitudeDegrees;
+
+        /**
+         * Latitude degrees per longitude degree
+         */
+        private final double latitudeFactor;
+
+        /**
+         * Ground meters per pixel
+         */
+        private final double metersPerPixel;
+
+        /**
+         * Constructor
+         *
+         * @param longitudeDegrees longitude degrees per pixel
+         * @param latitudeFactor   latitude degrees per longitude degree
+         * @param metersPerPixel   ground meters per pixel
+         */
+        private Scale(double longitudeDegrees, double latitudeFactor, double metersPerPixel) {
+            this.longitudeDegrees = longitudeDegrees;
+            this.latitudeFactor = latitudeFactor;
+            this.metersPerPixel = metersPerPixel;
+        }
+
+    }
+
+}
@@ -581,6 +581,68 @@ public class MapUtils {
         return latLngBoundingBox;
     }
 
+    /**
+     * Build a lat lng bounding box using the click location, display density, zoom level, pixel bounds, map view size, and screen percentage tolerance.
+     * The bounding box is derived from the Web Mercator scale without the map projection and can be built off the UI thread.
+     *
+     * @param latLng                click location
+     * @param density               display density: {@link android.util.DisplayMetrics#density}
+     * @param zoom                  current zoom level
+     * @param pixelBounds           click pixel bounds
+     * @param viewWidth             map view width in pixels
+     * @param viewHeight            map view height in pixels
+     * @param screenClickPercentage screen click percentage between 0.0 and 1.0 for how close a feature
+     *                              on the screen must be to be included in a click query
+     * @return lat lng bounding box
+     * @since 6.7.5
+     */
+    public static LatLngBoundingBox buildClickLatLngBoundingBox(LatLng latLng, float density, double zoom, PixelBounds pixelBounds, int viewWidth, int viewHeight, float screenClickPercentage) {
+        ClickToleranceModel model = new ClickToleranceModel(density, viewWidth, viewHeight, screenClickPercentage, pixelBounds);
+        model.setCacheEnabled(false);
+        return model.buildClickLatLngBoundingBox(latLng, zoom);
+    }
+
+    /**
+     * Build a bounding box using the click location, display density, zoom level, pixel bounds, map view size, and screen percentage tolerance.
+     * The bounding box is derived from the Web Mercator scale without the map projection and can be built off the UI thread.
+     *
+     * @param latLng                click location
+     * @param density               display density: {@link android.util.DisplayMetrics#density}
+     * @param zoom                  current zoom level
+     * @param pixelBounds           click pixel bounds
+     * @param viewWidth             map view width in pixels
+     * @param viewHeight            map view height in pixels
+     * @param screenClickPercentage screen click percentage between 0.0 and 1.0 for how close a feature
+     *                              on the screen must be to be included in a click query
+     * @return bounding box
+     * @since 6.7.5
+     */
+    public static BoundingBox buildClickBoundingBox(LatLng latLng, float density, double zoom, PixelBounds pixelBounds, int viewWidth, int viewHeight, float screenClickPercentage) {
+        LatLngBoundingBox latLngBoundingBox = buildClickLatLngBoundingBox(latLng, density, zoom, pixelBounds, viewWidth, viewHeight, screenClickPercentage);
+        return buildClickBoundingBox(latLngBoundingBox);
+    }
+
+    /**
+     * Get the allowable tolerance distance in meters from the click location, display density, zoom level, pixel bounds, map view size, and screen percentage tolerance.
+     * The distance is derived from the Web Mercator scale without the map projection and can be calculated off the UI thread.
+     *
+     * @param latLng                click location
+     * @param density               display density: {@link android.util.DisplayMetrics#density}
+     * @param zoom                  current zoom level
+     * @param pixelBounds           click pixel bounds
+     * @param viewWidth             map view width in pixels
+     * @param viewHeight            map view height in pixels
+     * @param screenClickPercentage screen click percentage between 0.0 and 1.0 for how close a feature
+     *                              on the screen must be to be included in a click query
+     * @return tolerance distance in meters
+     * @since 6.7.5
+     */
+    public static double getToleranceDistance(LatLng latLng, float density, double zoom, PixelBounds pixelBounds, int viewWidth, int viewHeight, float screenClickPercentage) {
+        ClickToleranceModel model = new ClickToleranceModel(density, viewWidth, viewHeight, screenClickPercentage, pixelBounds);
+        model.setCacheEnabled(false);
+        return model.getToleranceDistance(latLng, zoom);
+    }
+
     /**
      * Build a bounding box using the location coordinate click location and map view bounds
      *
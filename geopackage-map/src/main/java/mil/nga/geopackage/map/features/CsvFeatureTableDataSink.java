@@ -0,0 +1,144 @@
+package mil.nga.geopackage.map.features;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import mil.nga.geopackage.geom.GeoPackageGeometryData;
+import mil.nga.sf.Geometry;
+
+/**
+ * Feature table data sink streaming rows as CSV with a header row of the column names. Blob
+ * values are written as hex, and geometries are written as hex Well-Known Binary or GeoJSON
+ * strings.
+ *
+ * @author osbornb
+ * @since 6.7.5
+ */
+public class CsvFeatureTableDataSink implements FeatureTableDataSink {
+
+    /**
+     * Writer
+     */
+    private final Writer writer;
+
+    /**
+     * Geometry format
+     */
+    private final FeatureGeometryFormat geometryFormat;
+
+    /**
+     * Column indices by column name
+     */
+    private final Map<String, Integer> columnIndices = new HashMap<>();
+
+    /**
+     * Reused row of column values
+     */
+    private String[] row;
+
+    /**
+     * Constructor
+     *
+     * @param writer         writer, flushed but not closed when the table ends
+     * @param geometryFormat geometry format
+     */
+    public CsvFeatureTableDataSink(Writer writer, FeatureGeometryFormat geometryFormat) {
+        this.writer = writer;
+        this.geometryFormat = geometryFormat;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void startTable(String tableName, List<String> columnNames) throws IOException {
+        columnIndices.clear();
+        row = new String[columnNames.size()];
+        for (int i = 0; i < row.length; i++) {
+            columnIndices.put(columnNames.get(i), i);
+            row[i] = columnNames.get(i);
+        }
+        writeRow();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void startRow() {
+        Arrays.fill(row, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeValue(String columnName, Object value) {
+        Integer index = columnIndices.get(columnName);
+        if (index != null && value != null) {
+            if (value instanceof byte[]) {
+                row[index] = FeatureGeometryFormat.toHex((byte[]) value);
+            } else {
+                row[index] = value.toString();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeGeometry(String columnName, GeoPackageGeometryData geometryData) throws IOException {
+        Integer index = columnIndices.get(columnName);
+        Geometry geometry = geometryData != null ? geometryData.getGeometry() : null;
+        if (index != null && geometry != null) {
+            row[index] = geometryFormat.toText(geometry);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void endRow() throws IOException {
+        writeRow();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void endTable(long count) throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Write the row values as a CSV line
+     *
+     * @throws IOException upon write failure
+     */
+    private void writeRow() throws IOException {
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = row[i];
+            if (value != null) {
+                if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                        || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                    writer.write('"');
+                    writer.write(value.replace("\"", "\"\""));
+                    writer.write('"');
+                } else {
+                    writer.write(value);
+                }
+            }
+        }
+        writer.write("\r\n");
+    }
+
+}
@@ -0,0 +1,67 @@
+package mil.nga.geopackage.map.features;
+
+import java.io.IOException;
+
+import mil.nga.sf.Geometry;
+import mil.nga.sf.geojson.FeatureConverter;
+import mil.nga.sf.wkb.GeometryWriter;
+
+/**
+ * Geometry serialization format of streamed feature table data
+ *
+ * @author osbornb
+ * @since 6.7.5
+ */
+public enum FeatureGeometryFormat {
+
+    /**
+     * Well-Known Binary, written as hex in text sinks
+     */
+    WKB,
+
+    /**
+     * GeoJSON geometry
+     */
+    GEOJSON;
+
+    /**
+     * Hex digits
+     */
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * Serialize the geometry as text, hex Well-Known Binary or a GeoJSON string
+     *
+     * @param geometry geometry
+     * @return geometry text
+     * @throws IOException upon serialization failure
+     */
+    public String toText(Geometry geometry) throws IOException {
+        String text = null;
+        switch (this) {
+            case WKB:
+                text = toHex(GeometryWriter.writeGeometry(geometry));
+                break;
+            case GEOJSON:
+                text = FeatureConverter.toStringValue(FeatureConverter.toMap(geometry));
+                break;
+        }
+        return text;
+    }
+
+    /**
+     * Encode the bytes as hex
+     *
+     * @param bytes bytes
+     * @return hex string
+     */
+    public static String toHex(byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = HEX[(bytes[i] >> 4) & 0x0F];
+            hex[i * 2 + 1] = HEX[bytes[i] & 0x0F];
+        }
+        return new String(hex);
+    }
+
+}
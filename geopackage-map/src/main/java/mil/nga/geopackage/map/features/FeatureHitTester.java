@@ -0,0 +1,432 @@
+package mil.nga.geopackage.map.features;
+
+import com.google.android.gms.maps.model.LatLng;
+import com.google.maps.android.SphericalUtil;
+
+import java.util.List;
+
+import mil.nga.geopackage.GeoPackageException;
+import mil.nga.proj.Projection;
+import mil.nga.proj.ProjectionConstants;
+import mil.nga.proj.ProjectionFactory;
+import mil.nga.proj.Units;
+import mil.nga.sf.CompoundCurve;
+import mil.nga.sf.Curve;
+import mil.nga.sf.CurvePolygon;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryCollection;
+import mil.nga.sf.LineString;
+import mil.nga.sf.MultiLineString;
+import mil.nga.sf.MultiPoint;
+import mil.nga.sf.MultiPolygon;
+import mil.nga.sf.Point;
+import mil.nga.sf.Polygon;
+import mil.nga.sf.PolyhedralSurface;
+import mil.nga.sf.proj.GeometryTransform;
+
+/**
+ * Click hit tester running point, line, and polygon tests directly on geometry coordinates in
+ * the feature projection. The click location is transformed into the feature projection once
+ * and a local meters per unit scale is measured at the click, so distances are calculated with
+ * primitive math and no per vertex allocations. Lines and polygon edges are treated as straight
+ * in the feature projection, matching non geodesic map shape checks near the click. In degree
+ * and Web Mercator projections, x coordinates are wrapped to within half a world width of the
+ * click, so features across the antimeridian from the click are hit as on the map.
+ *
+ * @author osbornb
+ * @since 6.7.5
+ */
+public class FeatureHitTester {
+
+    /**
+     * Distance in meters used to measure the local projection scale
+     */
+    private static final double SCALE_DISTANCE = 1.0;
+
+    /**
+     * Click x coordinate in the feature projection
+     */
+    private final double clickX;
+
+    /**
+     * Click y coordinate in the feature projection
+     */
+    private final double clickY;
+
+    /**
+     * Meters per feature projection unit along x at the click
+     */
+    private final double scaleX;
+
+    /**
+     * Meters per feature projection unit along y at the click
+     */
+    private final double scaleY;
+
+    /**
+     * World width in feature projection units along x, 0 when x coordinates do not wrap
+     */
+    private final double worldWidth;
+
+    /**
+     * Default distance tolerance in meters
+     */
+    private final double tolerance;
+
+    /**
+     * Constructor
+     *
+     * @param projection    feature projection
+     * @param clickLocation click location
+     * @param tolerance     default distance tolerance in meters
+     */
+    public FeatureHitTester(Projection projection, LatLng clickLocation, double tolerance) {
+        this.tolerance = tolerance;
+
+        GeometryTransform transform = GeometryTransform.create(
+                ProjectionFactory.getProjection(ProjectionConstants.EPSG_WORLD_GEODETIC_SYSTEM),
+                projection);
+
+        Point click = transform.transform(new Point(clickLocation.longitude, clickLocation.latitude));
+        LatLng eastLocation = SphericalUtil.computeOffset(clickLocation, SCALE_DISTANCE, 90.0);
+        Point east = transform.transform(new Point(eastLocation.longitude, eastLocation.latitude));
+        LatLng northLocation = SphericalUtil.computeOffset(clickLocation, SCALE_DISTANCE, 0.0);
+        Point north = transform.transform(new Point(northLocation.longitude, northLocation.latitude));
+
+        if (projection.isUnit(Units.DEGREES)) {
+            worldWidth = 2 * ProjectionConstants.WGS84_HALF_WORLD_LON_WIDTH;
+        } else if (projection.equals(ProjectionConstants.AUTHORITY_EPSG,
+                ProjectionConstants.EPSG_WEB_MERCATOR)) {
+            worldWidth = 2 * ProjectionConstants.WEB_MERCATOR_HALF_WORLD_WIDTH;
+        } else {
+            worldWidth = 0;
+        }
+
+        clickX = click.getX();
+        clickY = click.getY();
+        scaleX = SCALE_DISTANCE / Math.hypot(deltaX(east.getX()), east.getY() - clickY);
+        scaleY = SCALE_DISTANCE / Math.hypot(deltaX(north.getX()), north.getY() - clickY);
+    }
+
+    /**
+     * Get the default distance tolerance
+     *
+     * @return tolerance in meters
+     */
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * Is the click on or near the geometry using the default tolerance, returning the distance
+     * when on the geometry
+     *
+     * @param geometry geometry in the feature projection
+     * @return distance when on geometry, -1.0 when distance not calculated, null when not on
+     * geometry
+     */
+    public Double distance(Geometry geometry) {
+        return distance(geometry, tolerance);
+    }
+
+    /**
+     * Is the click on or near the geometry, returning the distance when on the geometry. Points
+     * return the distance in meters, lines and polygons return -1.0 when hit, matching
+     * {@link mil.nga.geopackage.map.MapUtils#isPointOnShapeDistance}.
+     *
+     * @param geometry  geometry in the feature projection
+     * @param tolerance distance tolerance in meters
+     * @return distance when on geometry, -1.0 when distance not calculated, null when not on
+     * geometry
+     */
+    @SuppressWarnings("unchecked")
+    public Double distance(Geometry geometry, double tolerance) {
+
+        Double distance = null;
+
+        switch (geometry.getGeometryType()) {
+
+            case POINT:
+                distance = pointDistance((Point) geometry, tolerance);
+                break;
+            case MULTIPOINT:
+                for (Point point : ((MultiPoint) geometry).getPoints()) {
+                    Double pointDistance = pointDistance(point, tolerance);
+                    if (distance == null || (pointDistance != null && pointDistance < distance)) {
+                        distance = pointDistance;
+                    }
+                }
+                break;
+            case LINESTRING:
+            case CIRCULARSTRING:
+                if (isOnPath(((LineString) geometry).getPoints(), false, tolerance)) {
+                    distance = -1.0;
+                }
+                break;
+            case COMPOUNDCURVE:
+                if (isOnLineStrings(((CompoundCurve) geometry).getLineStrings(), tolerance)) {
+                    distance = -1.0;
+                }
+                break;
+            case MULTILINESTRING:
+                if (isOnLineStrings(((MultiLineString) geometry).getLineStrings(), tolerance)) {
+                    distance = -1.0;
+                }
+                break;
+            case POLYGON:
+            case CURVEPOLYGON:
+            case TRIANGLE:
+                if (isOnPolygon((CurvePolygon<Curve>) geometry, tolerance)) {
+                    distance = -1.0;
+                }
+                break;
+            case MULTIPOLYGON:
+                if (isOnPolygons(((MultiPolygon) geometry).getPolygons(), tolerance)) {
+                    distance = -1.0;
+                }
+                break;
+            case POLYHEDRALSURFACE:
+            case TIN:
+                if (isOnPolygons(((PolyhedralSurface) geometry).getPolygons(), tolerance)) {
+                    distance = -1.0;
+                }
+                break;
+            case GEOMETRYCOLLECTION:
+                for (Geometry child : ((GeometryCollection<Geometry>) geometry).getGeometries()) {
+                    Double childDistance = distance(child, tolerance);
+                    if (distance == null || (childDistance != null && childDistance >= 0 && childDistance < distance)) {
+                        distance = childDistance;
+                    }
+                }
+                break;
+            default:
+                throw new GeoPackageException("Unsupported Geometry Type: "
+                        + geometry.getGeometryType().getName());
+        }
+
+        return distance;
+    }
+
+    /**
+     * Get the distance to the point when within the tolerance
+     *
+     * @param point     point
+     * @param tolerance distance tolerance in meters
+     * @return distance in meters, null when not within tolerance
+     */
+    private Double pointDistance(Point point, double tolerance) {
+        double distance = Math.hypot(deltaX(point.getX()) * scaleX,
+                (point.getY() - clickY) * scaleY);
+        return distance <= tolerance ? distance : null;
+    }
+
+    /**
+     * Determine if the click is on any of the line strings
+     *
+     * @param lineStrings line strings
+     * @param tolerance   distance tolerance in meters
+     * @return true if on a line string
+     */
+    private boolean isOnLineStrings(List<LineString> lineStrings, double tolerance) {
+        boolean onLine = false;
+        for (int i = 0; !onLine && i < lineStrings.size(); i++) {
+            onLine = isOnPath(lineStrings.get(i).getPoints(), false, tolerance);
+        }
+        return onLine;
+    }
+
+    /**
+     * Determine if the click is on any of the polygons
+     *
+     * @param polygons  polygons
+     * @param tolerance distance tolerance in meters
+     * @return true if on a polygon
+     */
+    private boolean isOnPolygons(List<Polygon> polygons, double tolerance) {
+        boolean onPolygon = false;
+        for (int i = 0; !onPolygon && i < polygons.size(); i++) {
+            onPolygon = isOnPolygon(polygons.get(i), tolerance);
+        }
+        return onPolygon;
+    }
+
+    /**
+     * Determine if the click is within the polygon exterior or within the tolerance of its edge,
+     * and not within a hole
+     *
+     * @param polygon   polygon
+     * @param tolerance distance tolerance in meters
+     * @return true if on the polygon
+     */
+    private boolean isOnPolygon(CurvePolygon<? extends Curve> polygon, double tolerance) {
+
+        boolean onPolygon = false;
+
+        List<? extends Curve> rings = polygon.getRings();
+        if (!rings.isEmpty()) {
+
+            Curve exterior = rings.get(0);
+            onPolygon = isInRing(exterior) || isOnRing(exterior, tolerance);
+
+            for (int i = 1; onPolygon && i < rings.size(); i++) {
+                if (isInRing(rings.get(i))) {
+                    onPolygon = false;
+                }
+            }
+        }
+
+        return onPolygon;
+    }
+
+    /**
+     * Determine if the click is inside the closed ring
+     *
+     * @param ring ring curve
+     * @return true if inside
+     */
+    private boolean isInRing(Curve ring) {
+        boolean inside = false;
+        if (ring instanceof LineString) {
+            inside = isInside(((LineString) ring).getPoints(), false);
+        } else if (ring instanceof CompoundCurve) {
+            for (LineString lineString : ((CompoundCurve) ring).getLineStrings()) {
+                if (isInside(lineString.getPoints(), true)) {
+                    inside = !inside;
+                }
+            }
+            // Close the compound ring from the last point back to the first
+            List<LineString> lineStrings = ((CompoundCurve) ring).getLineStrings();
+            if (!lineStrings.isEmpty()) {
+                List<Point> first = lineStrings.get(0).getPoints();
+                List<Point> last = lineStrings.get(lineStrings.size() - 1).getPoints();
+                if (!first.isEmpty() && !last.isEmpty()
+                        && crosses(last.get(last.size() - 1), first.get(0))) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Determine if the click is within the tolerance of the closed ring edge
+     *
+     * @param ring      ring curve
+     * @param tolerance distance tolerance in meters
+     * @return true if on the edge
+     */
+    private boolean isOnRing(Curve ring, double tolerance) {
+        boolean onRing = false;
+        if (ring instanceof LineString) {
+            onRing = isOnPath(((LineString) ring).getPoints(), true, tolerance);
+        } else if (ring instanceof CompoundCurve) {
+            onRing = isOnLineStrings(((CompoundCurve) ring).getLineStrings(), tolerance);
+        }
+        return onRing;
+    }
+
+    /**
+     * Determine if the click is within the tolerance of the path
+     *
+     * @param points    path points
+     * @param closed    true to include the closing segment from the last to first point
+     * @param tolerance distance tolerance in meters
+     * @return true if on the path
+     */
+    private boolean isOnPath(List<Point> points, boolean closed, double tolerance) {
+        boolean onPath = false;
+        int size = points.size();
+        if (size == 1) {
+            onPath = pointDistance(points.get(0), tolerance) != null;
+        } else if (size > 1) {
+            double toleranceSquared = tolerance * tolerance;
+            Point previous = closed ? points.get(size - 1) : points.get(0);
+            for (int i = closed ? 0 : 1; !onPath && i < size; i++) {
+                Point point = points.get(i);
+                onPath = segmentDistanceSquared(previous, point) <= toleranceSquared;
+                previous = point;
+            }
+        }
+        return onPath;
+    }
+
+    /**
+     * Determine if the click is inside the ring points using an even odd ray cast
+     *
+     * @param points ring points
+     * @param open   true to skip the closing segment from the last to first point
+     * @return true if inside, or an odd number of crossings when open
+     */
+    private boolean isInside(List<Point> points, boolean open) {
+        boolean inside = false;
+        int size = points.size();
+        if (size > 1) {
+            Point previous = open ? points.get(0) : points.get(size - 1);
+            for (int i = open ? 1 : 0; i < size; i++) {
+                Point point = points.get(i);
+                if (crosses(previous, point)) {
+                    inside = !inside;
+                }
+                previous = point;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Determine if the segment crosses the horizontal ray cast east from the click
+     *
+     * @param point1 segment start
+     * @param point2 segment end
+     * @return true if crossed
+     */
+    private boolean crosses(Point point1, Point point2) {
+        boolean crosses = false;
+        double y1 = point1.getY() - clickY;
+        double y2 = point2.getY() - clickY;
+        if ((y1 > 0) != (y2 > 0)) {
+            double x1 = deltaX(point1.getX());
+            double x2 = deltaX(point2.getX());
+            crosses = x1 + (x2 - x1) * (-y1 / (y2 - y1)) > 0;
+        }
+        return crosses;
+    }
+
+    /**
+     * Get the squared distance in meters from the click to the segment
+     *
+     * @param point1 segment start
+     * @param point2 segment end
+     * @return squared distance in meters
+     */
+    private double segmentDistanceSquared(Point point1, Point point2) {
+        double x1 = deltaX(point1.getX()) * scaleX;
+        double y1 = (point1.getY() - clickY) * scaleY;
+        double dx = deltaX(point2.getX()) * scaleX - x1;
+        double dy = (point2.getY() - clickY) * scaleY - y1;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = 0.0;
+        if (lengthSquared > 0) {
+            t = Math.max(0.0, Math.min(1.0, -(x1 * dx + y1 * dy) / lengthSquared));
+        }
+        double x = x1 + t * dx;
+        double y = y1 + t * dy;
+        return x * x + y * y;
+    }
+
+    /**
+     * Get the x offset from the click, wrapped to within half a world width of the click when
+     * x coordinates wrap
+     *
+     * @param x x coordinate in the feature projection
+     * @return x offset from the click
+     */
+    private double deltaX(double x) {
+        double delta = x - clickX;
+        if (worldWidth > 0 && Math.abs(delta) > worldWidth / 2) {
+            delta -= worldWidth * Math.floor(delta / worldWidth + 0.5);
+        }
+        return delta;
+    }
+
+}
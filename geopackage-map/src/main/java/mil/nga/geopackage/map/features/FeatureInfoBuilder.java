@@ -8,17 +8,21 @@ import android.view.View;
 import com.google.android.gms.maps.GoogleMap;
 import com.google.android.gms.maps.model.LatLng;
 
+import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
-import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
 
 import mil.nga.geopackage.GeoPackageException;
+import mil.nga.geopackage.db.CoreSQLUtils;
 import mil.nga.geopackage.extension.nga.style.FeatureStyleExtension;
 import mil.nga.geopackage.extension.nga.style.FeatureTableStyles;
 import mil.nga.geopackage.extension.nga.style.IconRow;
@@ -27,6 +31,7 @@ import mil.nga.geopackage.extension.schema.columns.DataColumns;
 import mil.nga.geopackage.extension.schema.columns.DataColumnsDao;
 import mil.nga.geopackage.features.index.FeatureIndexListResults;
 import mil.nga.geopackage.features.index.FeatureIndexResults;
+import mil.nga.geopackage.features.user.FeatureCursor;
 import mil.nga.geopackage.features.user.FeatureDao;
 import mil.nga.geopackage.features.user.FeatureRow;
 import mil.nga.geopackage.geom.GeoPackageGeometryData;
@@ -100,11 +105,26 @@ public class FeatureInfoBuilder {
      */
     private boolean detailedInfoPrintFeatures;
 
+    /**
+     * Max number of ids per IN query when reading full rows
+     */
+    private static final int MAX_IN_ARGS = 500;
+
     /**
      * Geodesic check flag
      */
     private boolean geodesic = false;
 
+    /**
+     * Cached DataColumns names by column name
+     */
+    private volatile Map<String, String> columnNames;
+
+    /**
+     * Cached geometry projections by source srs id and target projection
+     */
+    private final Map<String, GeometryProjection> geometryProjections = new ConcurrentHashMap<>();
+
     /**
      * Constructor
      *
@@ -371,10 +391,66 @@ public class FeatureInfoBuilder {
      * @since 6.3.0
      */
     public String buildResultsInfoMessageAndClose(FeatureIndexResults results, double tolerance, LatLng clickLocation, float density, double zoom, View view, GoogleMap map, float screenClickPercentage, Projection projection) {
+        return buildResultsInfoMessageAndClose(results, tolerance, clickLocation, density, zoom, view, map, screenClickPercentage, projection, null);
+    }
+
+    /**
+     * Build a feature results information message and close the results. When the timings are
+     * {@link FeatureQueryTimings#isCancellable() cancellable} and the thread is interrupted, the
+     * build is cancelled at the next feature row.
+     *
+     * @param results               feature index results
+     * @param tolerance             distance tolerance
+     * @param clickLocation         map click location
+     * @param density               display density: {@link android.util.DisplayMetrics#density}
+     * @param zoom                  current zoom level
+     * @param view                  view
+     * @param map                   Google Map
+     * @param screenClickPercentage screen click percentage between 0.0 and 1.0
+     * @param projection            desired geometry projection
+     * @param timings               stage timings to record into, may be null
+     * @return results message or null if no results
+     * @throws CancellationException if cancellable and the thread is interrupted
+     * @since 6.7.5
+     */
+    public String buildResultsInfoMessageAndClose(FeatureIndexResults results, double tolerance, LatLng clickLocation, float density, double zoom, View view, GoogleMap map, float screenClickPercentage, Projection projection, FeatureQueryTimings timings) {
         String message = null;
 
         try {
-            message = buildResultsInfoMessage(results, tolerance, clickLocation, density, zoom, view, map, screenClickPercentage, projection);
+            message = buildResultsInfoMessage(results, tolerance, clickLocation, density, zoom, view, map, 0, 0, screenClickPercentage, projection, timings);
+        } finally {
+            results.close();
+        }
+
+        return message;
+    }
+
+    /**
+     * Build a feature results information message and close the results, applying feature style
+     * click tolerances from the map view size without the map projection so the build may run
+     * off the UI thread. When the timings are
+     * {@link FeatureQueryTimings#isCancellable() cancellable} and the thread is interrupted, the
+     * build is cancelled at the next feature row.
+     *
+     * @param results               feature index results
+     * @param tolerance             distance tolerance
+     * @param clickLocation         map click location
+     * @param density               display density: {@link android.util.DisplayMetrics#density}
+     * @param zoom                  current zoom level
+     * @param viewWidth             map view width in pixels
+     * @param viewHeight            map view height in pixels
+     * @param screenClickPercentage screen click percentage between 0.0 and 1.0
+     * @param projection            desired geometry projection
+     * @param timings               stage timings to record into, may be null
+     * @return results message or null if no results
+     * @throws CancellationException if cancellable and the thread is interrupted
+     * @since 6.7.5
+     */
+    public String buildResultsInfoMessageAndClose(FeatureIndexResults results, double tolerance, LatLng clickLocation, float density, double zoom, int viewWidth, int viewHeight, float screenClickPercentage, Projection projection, FeatureQueryTimings timings) {
+        String message = null;
+
+        try {
+            message = buildResultsInfoMessage(results, tolerance, clickLocation, density, zoom, null, null, viewWidth, viewHeight, screenClickPercentage, projection, timings);
         } finally {
             results.close();
         }
@@ -464,21 +540,62 @@ public class FeatureInfoBuilder {
      * @since 6.3.0
      */
     public String buildResultsInfoMessage(FeatureIndexResults results, double tolerance, LatLng clickLocation, float density, double zoom, View view, GoogleMap map, float screenClickPercentage, Projection projection) {
+        return buildResultsInfoMessage(results, tolerance, clickLocation, density, zoom, view, map, screenClickPercentage, projection, null);
+    }
+
+    /**
+     * Build a feature results information message. When the timings are
+     * {@link FeatureQueryTimings#isCancellable() cancellable} and the thread is interrupted, the
+     * build is cancelled at the next feature row.
+     *
+     * @param results               feature index results
+     * @param tolerance             distance tolerance
+     * @param clickLocation         map click location
+     * @param density               display density: {@link android.util.DisplayMetrics#density}
+     * @param zoom                  current zoom level
+     * @param view                  view
+     * @param map                   Google Map
+     * @param screenClickPercentage screen click percentage between 0.0 and 1.0
+     * @param projection            desired geometry projection
+     * @param timings               stage timings to record into, may be null
+     * @return results message or null if no results
+     * @throws CancellationException if cancellable and the thread is interrupted
+     * @since 6.7.5
+     */
+    public String buildResultsInfoMessage(FeatureIndexResults results, double tolerance, LatLng clickLocation, float density, double zoom, View view, GoogleMap map, float screenClickPercentage, Projection projection, FeatureQueryTimings timings) {
+        return buildResultsInfoMessage(results, tolerance, clickLocation, density, zoom, view, map, 0, 0, screenClickPercentage, projection, timings);
+    }
+
+    /**
+     * Build a feature results information message
+     *
+     * @param results               feature index results
+     * @param tolerance             distance tolerance
+     * @param clickLocation         map click location
+     * @param density               display density: {@link android.util.DisplayMetrics#density}
+     * @param zoom                  current zoom level
+     * @param view                  view, null to use the view size
+     * @param map                   Google Map, null to use the view size
+     * @param viewWidth             map view width in pixels, used without a view and map
+     * @param viewHeight            map view height in pixels, used without a view and map
+     * @param screenClickPercentage screen click percentage between 0.0 and 1.0
+     * @param projection            desired geometry projection
+     * @param timings               stage timings to record into, may be null
+     * @return results message or null if no results
+     */
+    private String buildResultsInfoMessage(FeatureIndexResults results, double tolerance, LatLng clickLocation, float density, double zoom, View view, GoogleMap map, int viewWidth, int viewHeight, float screenClickPercentage, Projection projection, FeatureQueryTimings timings) {
 
         String message = null;
 
         // Fine filter results so that the click location is within the tolerance of each feature row result
-        FeatureIndexResults filteredResults = fineFilterResults(results, tolerance, clickLocation, density, zoom, view, map, screenClickPercentage);
+        FeatureIndexResults filteredResults = fineFilterResults(results, tolerance, clickLocation, density, zoom, view, map, viewWidth, viewHeight, screenClickPercentage, timings);
+
+        long buildStart = System.nanoTime();
 
         long featureCount = filteredResults.count();
         if (featureCount > 0) {
 
-            int maxFeatureInfo = 0;
-            if (geometryType == GeometryType.POINT) {
-                maxFeatureInfo = maxPointDetailedInfo;
-            } else {
-                maxFeatureInfo = maxFeatureDetailedInfo;
-            }
+            int maxFeatureInfo = getMaxFeatureInfo();
 
             if (featureCount <= maxFeatureInfo) {
                 StringBuilder messageBuilder = new StringBuilder();
@@ -487,10 +604,12 @@ public class FeatureInfoBuilder {
 
                 int featureNumber = 0;
 
-                DataColumnsDao dataColumnsDao = getDataColumnsDao();
+                Map<String, String> columnNames = getColumnNames();
 
                 for (FeatureRow featureRow : filteredResults) {
 
+                    checkCancelled(timings);
+
                     featureNumber++;
                     if (featureNumber > maxFeatureInfo) {
                         break;
@@ -518,7 +637,7 @@ public class FeatureInfoBuilder {
                             Object value = featureRow.getValue(i);
                             if (value != null) {
                                 String columnName = featureRow.getColumnName(i);
-                                columnName = getColumnName(dataColumnsDao, featureRow, columnName);
+                                columnName = getColumnName(columnNames, columnName);
                                 messageBuilder.append("\n")
                                         .append(columnName)
                                         .append(": ")
@@ -564,6 +683,10 @@ public class FeatureInfoBuilder {
             }
         }
 
+        if (timings != null) {
+            timings.addBuild(System.nanoTime() - buildStart);
+        }
+
         return message;
     }
 
@@ -626,30 +749,113 @@ public class FeatureInfoBuilder {
      * @since 6.3.0
      */
     public FeatureTableData buildTableDataAndClose(FeatureIndexResults results, double tolerance, LatLng clickLocation, float density, double zoom, View view, GoogleMap map, float screenClickPercentage, Projection projection) {
+        return buildTableDataAndClose(results, tolerance, clickLocation, density, zoom, view, map, screenClickPercentage, projection, null);
+    }
+
+    /**
+     * Build a feature results information message and close the results. When the timings are
+     * {@link FeatureQueryTimings#isCancellable() cancellable} and the thread is interrupted, the
+     * build is cancelled at the next feature row.
+     *
+     * @param results               feature index results
+     * @param tolerance             distance tolerance
+     * @param clickLocation         map click location
+     * @param density               display density: {@link android.util.DisplayMetrics#density}
+     * @param zoom                  current zoom level
+     * @param view                  view
+     * @param map                   Google Map
+     * @param screenClickPercentage screen click percentage between 0.0 and 1.0
+     * @param projection            desired geometry projection
+     * @param timings               stage timings to record into, may be null
+     * @return feature table data or null if not results
+     * @throws CancellationException if cancellable and the thread is interrupted
+     * @since 6.7.5
+     */
+    public FeatureTableData buildTableDataAndClose(FeatureIndexResults results, double tolerance, LatLng clickLocation, float density, double zoom, View view, GoogleMap map, float screenClickPercentage, Projection projection, FeatureQueryTimings timings) {
+        FeatureTableData tableData = null;
+
+        try {
+            tableData = buildTableData(results, tolerance, clickLocation, density, zoom, view, map, 0, 0, screenClickPercentage, projection, timings);
+        } finally {
+            results.close();
+        }
+
+        return tableData;
+    }
+
+    /**
+     * Build feature table data and close the results, applying feature style click tolerances
+     * from the map view size without the map projection so the build may run off the UI thread.
+     * When the timings are {@link FeatureQueryTimings#isCancellable() cancellable} and the
+     * thread is interrupted, the build is cancelled at the next feature row.
+     *
+     * @param results               feature index results
+     * @param tolerance             distance tolerance
+     * @param clickLocation         map click location
+     * @param density               display density: {@link android.util.DisplayMetrics#density}
+     * @param zoom                  current zoom level
+     * @param viewWidth             map view width in pixels
+     * @param viewHeight            map view height in pixels
+     * @param screenClickPercentage screen click percentage between 0.0 and 1.0
+     * @param projection            desired geometry projection
+     * @param timings               stage timings to record into, may be null
+     * @return feature table data or null if not results
+     * @throws CancellationException if cancellable and the thread is interrupted
+     * @since 6.7.5
+     */
+    public FeatureTableData buildTableDataAndClose(FeatureIndexResults results, double tolerance, LatLng clickLocation, float density, double zoom, int viewWidth, int viewHeight, float screenClickPercentage, Projection projection, FeatureQueryTimings timings) {
+        FeatureTableData tableData = null;
+
+        try {
+            tableData = buildTableData(results, tolerance, clickLocation, density, zoom, null, null, viewWidth, viewHeight, screenClickPercentage, projection, timings);
+        } finally {
+            results.close();
+        }
+
+        return tableData;
+    }
+
+    /**
+     * Build feature table data
+     *
+     * @param results               feature index results
+     * @param tolerance             distance tolerance
+     * @param clickLocation         map click location
+     * @param density               display density: {@link android.util.DisplayMetrics#density}
+     * @param zoom                  current zoom level
+     * @param view                  view, null to use the view size
+     * @param map                   Google Map, null to use the view size
+     * @param viewWidth             map view width in pixels, used without a view and map
+     * @param viewHeight            map view height in pixels, used without a view and map
+     * @param screenClickPercentage screen click percentage between 0.0 and 1.0
+     * @param projection            desired geometry projection
+     * @param timings               stage timings to record into, may be null
+     * @return feature table data or null if not results
+     */
+    private FeatureTableData buildTableData(FeatureIndexResults results, double tolerance, LatLng clickLocation, float density, double zoom, View view, GoogleMap map, int viewWidth, int viewHeight, float screenClickPercentage, Projection projection, FeatureQueryTimings timings) {
 
         FeatureTableData tableData = null;
 
         // Fine filter results so that the click location is within the tolerance of each feature row result
-        FeatureIndexResults filteredResults = fineFilterResults(results, tolerance, clickLocation, density, zoom, view, map, screenClickPercentage);
+        FeatureIndexResults filteredResults = fineFilterResults(results, tolerance, clickLocation, density, zoom, view, map, viewWidth, viewHeight, screenClickPercentage, timings);
+
+        long buildStart = System.nanoTime();
 
         long featureCount = filteredResults.count();
         if (featureCount > 0) {
 
-            int maxFeatureInfo = 0;
-            if (geometryType == GeometryType.POINT) {
-                maxFeatureInfo = maxPointDetailedInfo;
-            } else {
-                maxFeatureInfo = maxFeatureDetailedInfo;
-            }
+            int maxFeatureInfo = getMaxFeatureInfo();
 
             if (featureCount <= maxFeatureInfo) {
 
-                DataColumnsDao dataColumnsDao = getDataColumnsDao();
+                Map<String, String> columnNames = getColumnNames();
 
                 List<FeatureRowData> rows = new ArrayList<>();
 
                 for (FeatureRow featureRow : filteredResults) {
 
+                    checkCancelled(timings);
+
                     Map<String, Object> values = new HashMap<>();
                     String idColumnName = null;
                     String geometryColumnName = null;
@@ -662,7 +868,7 @@ public class FeatureInfoBuilder {
 
                         String columnName = featureRow.getColumnName(i);
 
-                        columnName = getColumnName(dataColumnsDao, featureRow, columnName);
+                        columnName = getColumnName(columnNames, columnName);
 
                         if(i == idColumn){
                             idColumnName = columnName;
@@ -689,11 +895,246 @@ public class FeatureInfoBuilder {
             }
         }
 
-        results.close();
+        if (timings != null) {
+            timings.addBuild(System.nanoTime() - buildStart);
+        }
 
         return tableData;
     }
 
+    /**
+     * Stream feature table data of the results to the sink and close the results. Rows are
+     * written as they are read, in read order, so memory use is independent of the result size.
+     * When a click location is provided, only rows on or near the click are written. The table
+     * columns are those read in the results rows, or the feature table columns when no rows are
+     * written.
+     *
+     * @param results       feature index results
+     * @param tolerance     distance tolerance
+     * @param clickLocation map click location, null to write all rows
+     * @param projection    desired geometry projection, null to keep the feature projection
+     * @param sink          feature table data sink
+     * @return number of rows written
+     * @throws IOException upon sink write failure
+     * @since 6.7.5
+     */
+    public long writeTableDataAndClose(FeatureIndexResults results, double tolerance, LatLng clickLocation, Projection projection, FeatureTableDataSink sink) throws IOException {
+
+        long count = 0;
+
+        try {
+
+            Map<String, String> columnNames = getColumnNames();
+            boolean started = false;
+
+            if (!ignoreGeometryTypes.contains(geometryType)) {
+
+                FeatureHitTester hitTester = null;
+                GoogleMapShapeConverter converter = null;
+                if (clickLocation != null) {
+                    hitTester = createHitTester(clickLocation, tolerance);
+                    if (hitTester == null) {
+                        converter = new GoogleMapShapeConverter(featureDao.getProjection());
+                    }
+                }
+
+                for (FeatureRow featureRow : results) {
+
+                    GeoPackageGeometryData geomData = featureRow.getGeometry();
+                    Geometry geometry = geomData != null ? geomData.getGeometry() : null;
+
+                    // Write all rows without a click, otherwise only rows on or near the click
+                    boolean write = clickLocation == null;
+                    if (geometry != null) {
+                        if (ignoreGeometryTypes.contains(geometry.getGeometryType())) {
+                            write = false;
+                        } else if (!write) {
+                            write = clickDistance(geometry, clickLocation, tolerance, hitTester, converter) != null;
+                        }
+                    }
+
+                    if (write) {
+
+                        // Start the table with the columns read in the rows
+                        if (!started) {
+                            sink.startTable(featureDao.getTableName(),
+                                    getTableColumnNames(columnNames, featureRow.getColumnNames()));
+                            started = true;
+                        }
+
+                        sink.startRow();
+
+                        int geometryColumn = featureRow.getGeometryColumnIndex();
+                        for (int i = 0; i < featureRow.columnCount(); i++) {
+                            String columnName = getColumnName(columnNames, featureRow.getColumnName(i));
+                            if (i == geometryColumn) {
+                                if (projection != null && geomData != null) {
+                                    projectGeometry(geomData, projection);
+                                }
+                                sink.writeGeometry(columnName, geomData);
+                            } else {
+                                sink.writeValue(columnName, featureRow.getValue(i));
+                            }
+                        }
+
+                        sink.endRow();
+                        count++;
+                    }
+                }
+            }
+
+            if (!started) {
+                sink.startTable(featureDao.getTableName(),
+                        getTableColumnNames(columnNames, featureDao.getColumnNames()));
+            }
+            sink.endTable(count);
+
+        } finally {
+            results.close();
+        }
+
+        return count;
+    }
+
+    /**
+     * Get the table column names to write, replacing column names with configured names
+     *
+     * @param columnNames      configured column names
+     * @param tableColumnNames table column names
+     * @return column names
+     */
+    private List<String> getTableColumnNames(Map<String, String> columnNames, String[] tableColumnNames) {
+        List<String> names = new ArrayList<>();
+        for (String columnName : tableColumnNames) {
+            names.add(getColumnName(columnNames, columnName));
+        }
+        return names;
+    }
+
+    /**
+     * Fine filter the feature results to the rows on or near the click location and close the
+     * results, keeping only the nearest rows up to the max result count
+     *
+     * @param results       feature index results
+     * @param tolerance     distance tolerance
+     * @param clickLocation map click location
+     * @param maxResults    max number of rows to keep
+     * @return nearest feature row distances, ordered by distance
+     * @since 6.7.5
+     */
+    public List<FeatureRowDistance> buildRowDistancesAndClose(FeatureIndexResults results, double tolerance, LatLng clickLocation, int maxResults) {
+        return buildRowDistancesAndClose(results, tolerance, clickLocation, 1.0f, 0.0, 0, 0, 0.0f, maxResults);
+    }
+
+    /**
+     * Fine filter the feature results to the rows on or near the click location and close the
+     * results, keeping only the nearest rows up to the max result count. Feature style click
+     * tolerances are derived from the map view size without the map projection, so the filter
+     * may run off the UI thread.
+     *
+     * @param results               feature index results
+     * @param tolerance             distance tolerance
+     * @param clickLocation         map click location
+     * @param density               display density: {@link android.util.DisplayMetrics#density}
+     * @param zoom                  current zoom level
+     * @param viewWidth             map view width in pixels, 0 to not apply feature style tolerances
+     * @param viewHeight            map view height in pixels, 0 to not apply feature style tolerances
+     * @param screenClickPercentage screen click percentage between 0.0 and 1.0
+     * @param maxResults            max number of rows to keep
+     * @return nearest feature row distances, ordered by distance
+     * @since 6.7.5
+     */
+    public List<FeatureRowDistance> buildRowDistancesAndClose(FeatureIndexResults results, double tolerance, LatLng clickLocation, float density, double zoom, int viewWidth, int viewHeight, float screenClickPercentage, int maxResults) {
+        return buildRowDistancesAndClose(results, tolerance, clickLocation, density, zoom, viewWidth, viewHeight, screenClickPercentage, maxResults, null);
+    }
+
+    /**
+     * Fine filter the feature results to the rows on or near the click location and close the
+     * results, keeping only the nearest rows up to the max result count. Feature style click
+     * tolerances are derived from the map view size without the map projection, so the filter
+     * may run off the UI thread. When the timings are
+     * {@link FeatureQueryTimings#isCancellable() cancellable} and the thread is interrupted, the
+     * filter is cancelled at the next feature row.
+     *
+     * @param results               feature index results
+     * @param tolerance             distance tolerance
+     * @param clickLocation         map click location
+     * @param density               display density: {@link android.util.DisplayMetrics#density}
+     * @param zoom                  current zoom level
+     * @param viewWidth             map view width in pixels, 0 to not apply feature style tolerances
+     * @param viewHeight            map view height in pixels, 0 to not apply feature style tolerances
+     * @param screenClickPercentage screen click percentage between 0.0 and 1.0
+     * @param maxResults            max number of rows to keep
+     * @param timings               stage timings to record into, may be null
+     * @return nearest feature row distances, ordered by distance
+     * @throws CancellationException if cancellable and the thread is interrupted
+     * @since 6.7.5
+     */
+    public List<FeatureRowDistance> buildRowDistancesAndClose(FeatureIndexResults results, double tolerance, LatLng clickLocation, float density, double zoom, int viewWidth, int viewHeight, float screenClickPercentage, int maxResults, FeatureQueryTimings timings) {
+
+        long filterStart = System.nanoTime();
+        long rows = 0;
+
+        PriorityQueue<FeatureRowDistance> nearest = new PriorityQueue<>(
+                Math.max(1, maxResults), Collections.<FeatureRowDistance>reverseOrder());
+
+        try {
+            if (maxResults > 0 && !ignoreGeometryTypes.contains(geometryType)) {
+
+                FeatureHitTester hitTester = createHitTester(clickLocation, tolerance);
+                GoogleMapShapeConverter converter = hitTester == null ? new GoogleMapShapeConverter(
+                        featureDao.getProjection()) : null;
+
+                for (FeatureRow featureRow : results) {
+
+                    checkCancelled(timings);
+                    rows++;
+
+                    GeoPackageGeometryData geomData = featureRow.getGeometry();
+                    if (geomData != null) {
+                        Geometry geometry = geomData.getGeometry();
+                        if (geometry != null && !ignoreGeometryTypes.contains(geometry.getGeometryType())) {
+
+                            Double styleTolerance = getStyleTolerance(featureRow, geometry, clickLocation, density, zoom, null, null, viewWidth, viewHeight, screenClickPercentage);
+                            double rowTolerance = styleTolerance != null ? styleTolerance : tolerance;
+                            Double distance = clickDistance(geometry, clickLocation, rowTolerance, hitTester, converter);
+
+                            if (distance != null) {
+                                nearest.offer(new FeatureRowDistance(featureRow, distance));
+                                if (nearest.size() > maxResults) {
+                                    nearest.poll();
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        } finally {
+            results.close();
+        }
+
+        if (timings != null) {
+            timings.addFilter(System.nanoTime() - filterStart, rows);
+        }
+
+        List<FeatureRowDistance> sortedDistances = new ArrayList<>(nearest);
+        Collections.sort(sortedDistances);
+
+        // Read the full columns of the nearest rows
+        List<FeatureRow> sortedRows = new ArrayList<>(sortedDistances.size());
+        for (FeatureRowDistance rowDistance : sortedDistances) {
+            sortedRows.add(rowDistance.getFeatureRow());
+        }
+        sortedRows = queryFullRows(sortedRows);
+
+        List<FeatureRowDistance> rowDistances = new ArrayList<>(sortedDistances.size());
+        for (int i = 0; i < sortedRows.size(); i++) {
+            rowDistances.add(new FeatureRowDistance(sortedRows.get(i), sortedDistances.get(i).getDistance()));
+        }
+
+        return rowDistances;
+    }
+
     /**
      * Project the geometry into the provided projection
      *
@@ -704,9 +1145,34 @@ public class FeatureInfoBuilder {
 
         if (geometryData.getGeometry() != null) {
 
+            GeometryProjection geometryProjection = getGeometryProjection(geometryData.getSrsId(), projection);
+
+            if (geometryProjection.transform != null) {
+                Geometry projectedGeometry = geometryProjection.transform.transform(geometryData.getGeometry());
+                geometryData.setGeometry(projectedGeometry);
+                geometryData.setSrsId(geometryProjection.srsId);
+            }
+        }
+
+    }
+
+    /**
+     * Get the cached geometry projection from the spatial reference system to the projection,
+     * resolving and caching it when not cached
+     *
+     * @param srsId      geometry spatial reference system id
+     * @param projection desired geometry projection
+     * @return geometry projection
+     */
+    private GeometryProjection getGeometryProjection(int srsId, Projection projection) {
+
+        String key = srsId + ":" + projection.getAuthority() + ":" + projection.getCode();
+        GeometryProjection geometryProjection = geometryProjections.get(key);
+
+        if (geometryProjection == null) {
+
             SpatialReferenceSystemDao srsDao = SpatialReferenceSystemDao.create(featureDao.getDb());
             try {
-                int srsId = geometryData.getSrsId();
                 SpatialReferenceSystem srs = srsDao.queryForId((long) srsId);
 
                 if (!projection.equals(srs.getOrganization(), srs.getOrganizationCoordsysId())) {
@@ -714,17 +1180,30 @@ public class FeatureInfoBuilder {
                     Projection geomProjection = srs.getProjection();
                     GeometryTransform transform = GeometryTransform.create(geomProjection, projection);
 
-                    Geometry projectedGeometry = transform.transform(geometryData.getGeometry());
-                    geometryData.setGeometry(projectedGeometry);
                     SpatialReferenceSystem projectionSrs = srsDao.getOrCreateCode(projection.getAuthority(), Long.parseLong(projection.getCode()));
-                    geometryData.setSrsId((int) projectionSrs.getSrsId());
+                    geometryProjection = new GeometryProjection(transform, (int) projectionSrs.getSrsId());
+                } else {
+                    geometryProjection = new GeometryProjection(null, srsId);
                 }
             } catch (SQLException e) {
                 throw new GeoPackageException("Failed to project geometry to projection with Authority: "
                         + projection.getAuthority() + ", Code: " + projection.getCode(), e);
             }
+
+            geometryProjections.put(key, geometryProjection);
         }
 
+        return geometryProjection;
+    }
+
+    /**
+     * Clear the cached geometry projections, resolving them again on the next projection. Call
+     * after the spatial reference systems of the GeoPackage change.
+     *
+     * @since 6.7.5
+     */
+    public void clearGeometryProjections() {
+        geometryProjections.clear();
     }
 
     /**
@@ -745,29 +1224,57 @@ public class FeatureInfoBuilder {
         return dataColumnsDao;
     }
 
+    /**
+     * Get the DataColumns names of the feature table columns, loading them once until invalidated
+     *
+     * @return immutable map of column names to DataColumns names
+     */
+    private Map<String, String> getColumnNames() {
+        Map<String, String> names = columnNames;
+        if (names == null) {
+            Map<String, String> loadedNames = new HashMap<>();
+            DataColumnsDao dataColumnsDao = getDataColumnsDao();
+            if (dataColumnsDao != null) {
+                try {
+                    for (DataColumns dataColumn : dataColumnsDao.queryByTable(featureDao.getTableName())) {
+                        if (dataColumn.getName() != null) {
+                            loadedNames.put(dataColumn.getColumnName(), dataColumn.getName());
+                        }
+                    }
+                } catch (SQLException e) {
+                    Log.e(FeatureOverlayQuery.class.getSimpleName(),
+                            "Failed to query for Data Column names, Feature Table: "
+                                    + featureDao.getTableName(), e);
+                }
+            }
+            names = Collections.unmodifiableMap(loadedNames);
+            columnNames = names;
+        }
+        return names;
+    }
+
+    /**
+     * Invalidate the cached DataColumns names, reloading them on the next build. Call after the
+     * Data Columns of the feature table change.
+     *
+     * @since 6.7.5
+     */
+    public void invalidateColumnNames() {
+        columnNames = null;
+    }
+
     /**
      * Get the column name by checking for a DataColumns name, otherwise returns the provided column name
      *
-     * @param dataColumnsDao data columns dao
-     * @param featureRow     feature row
-     * @param columnName     column name
+     * @param columnNames DataColumns names
+     * @param columnName  column name
      * @return column name
      */
-    private String getColumnName(DataColumnsDao dataColumnsDao, FeatureRow featureRow, String columnName) {
+    private String getColumnName(Map<String, String> columnNames, String columnName) {
 
-        String newColumnName = columnName;
-
-        if (dataColumnsDao != null) {
-            try {
-                DataColumns dataColumn = dataColumnsDao.getDataColumn(featureRow.getTable().getTableName(), columnName);
-                if (dataColumn != null) {
-                    newColumnName = dataColumn.getName();
-                }
-            } catch (SQLException e) {
-                Log.e(FeatureOverlayQuery.class.getSimpleName(),
-                        "Failed to search for Data Column name for column: " + columnName
-                                + ", Feature Table: " + featureRow.getTable().getTableName(), e);
-            }
+        String newColumnName = columnNames.get(columnName);
+        if (newColumnName == null) {
+            newColumnName = columnName;
         }
 
         return newColumnName;
@@ -781,12 +1288,18 @@ public class FeatureInfoBuilder {
      * @param clickLocation         click location
      * @param density               display density: {@link android.util.DisplayMetrics#density}
      * @param zoom                  current zoom level
-     * @param view                  view
-     * @param map                   Google Map
+     * @param view                  view, null to use the view size
+     * @param map                   Google Map, null to use the view size
+     * @param viewWidth             map view width in pixels, used without a view and map
+     * @param viewHeight            map view height in pixels, used without a view and map
      * @param screenClickPercentage screen click percentage between 0.0 and 1.0
+     * @param timings               stage timings to record into, may be null
      * @return filtered feature index results
      */
-    private FeatureIndexResults fineFilterResults(FeatureIndexResults results, double tolerance, LatLng clickLocation, float density, double zoom, View view, GoogleMap map, float screenClickPercentage) {
+    private FeatureIndexResults fineFilterResults(FeatureIndexResults results, double tolerance, LatLng clickLocation, float density, double zoom, View view, GoogleMap map, int viewWidth, int viewHeight, float screenClickPercentage, FeatureQueryTimings timings) {
+
+        long filterStart = System.nanoTime();
+        long rows = 0;
 
         FeatureIndexResults filteredResults = null;
         if (ignoreGeometryTypes.contains(geometryType)) {
@@ -795,28 +1308,26 @@ public class FeatureInfoBuilder {
             filteredResults = results;
         } else {
 
-            TreeMap<Double, FeatureRow> sortedResults = new TreeMap<>(new Comparator<Double>() {
-                @Override
-                public int compare(Double distance1, Double distance2) {
-                    int compare = 0;
-                    if (distance1 >= 0) {
-                        if (distance2 >= 0) {
-                            compare = distance1.compareTo(distance2);
-                        } else {
-                            compare = -1;
-                        }
-                    } else if (distance2 >= 0) {
-                        compare = 1;
-                    }
-                    return compare;
+            // Keep only the nearest rows that can be detailed, counting all filtered rows
+            int maxFeatureInfo = getMaxFeatureInfo();
+            PriorityQueue<FeatureRowDistance> nearest = new PriorityQueue<>(
+                    Math.max(1, Math.min(maxFeatureInfo, 100)), Collections.<FeatureRowDistance>reverseOrder());
+            long count = 0;
+
+            FeatureHitTester hitTester = null;
+            GoogleMapShapeConverter converter = null;
+            if (clickLocation != null) {
+                hitTester = createHitTester(clickLocation, tolerance);
+                if (hitTester == null) {
+                    converter = new GoogleMapShapeConverter(featureDao.getProjection());
                 }
-            });
-
-            GoogleMapShapeConverter converter = new GoogleMapShapeConverter(
-                    featureDao.getProjection());
+            }
 
             for (FeatureRow featureRow : results) {
 
+                checkCancelled(timings);
+                rows++;
+
                 GeoPackageGeometryData geomData = featureRow.getGeometry();
                 if (geomData != null) {
                     Geometry geometry = geomData.getGeometry();
@@ -828,18 +1339,18 @@ public class FeatureInfoBuilder {
 
                             if (clickLocation != null) {
 
-                                GoogleMapShape mapShape = converter.toShape(geometry);
-                                Double styleFiltered = fineFilterStyle(featureRow, geometry, mapShape, clickLocation, density, zoom, view, map, screenClickPercentage);
-                                if (styleFiltered != null && styleFiltered == -2.0) {
-                                    distance = MapUtils.isPointOnShapeDistance(clickLocation, mapShape, geodesic, tolerance);
-                                } else {
-                                    distance = styleFiltered;
-                                }
+                                Double styleTolerance = getStyleTolerance(featureRow, geometry, clickLocation, density, zoom, view, map, viewWidth, viewHeight, screenClickPercentage);
+                                double rowTolerance = styleTolerance != null ? styleTolerance : tolerance;
+                                distance = clickDistance(geometry, clickLocation, rowTolerance, hitTester, converter);
 
                             }
 
                             if (distance != null) {
-                                sortedResults.put(distance, featureRow);
+                                count++;
+                                nearest.offer(new FeatureRowDistance(featureRow, distance));
+                                if (nearest.size() > maxFeatureInfo) {
+                                    nearest.poll();
+                                }
                             }
 
                         }
@@ -848,29 +1359,181 @@ public class FeatureInfoBuilder {
 
             }
 
-            filteredResults = new FeatureIndexListResults(new ArrayList<>(sortedResults.values()));
+            List<FeatureRowDistance> sortedResults = new ArrayList<>(nearest);
+            Collections.sort(sortedResults);
+            List<FeatureRow> sortedRows = new ArrayList<>(sortedResults.size());
+            for (FeatureRowDistance rowDistance : sortedResults) {
+                sortedRows.add(rowDistance.getFeatureRow());
+            }
+
+            if (timings != null) {
+                timings.addFilter(System.nanoTime() - filterStart, rows);
+            }
+
+            // Read the full columns of the rows to detail
+            if (count <= maxFeatureInfo) {
+                long queryStart = System.nanoTime();
+                sortedRows = queryFullRows(sortedRows);
+                if (timings != null) {
+                    timings.addQuery(System.nanoTime() - queryStart);
+                }
+            }
+
+            filteredResults = new FilteredResults(sortedRows, count);
+        } else if (timings != null) {
+            timings.addFilter(System.nanoTime() - filterStart, rows);
         }
 
         return filteredResults;
     }
 
     /**
-     * Fine filter the feature row with feature styles
+     * Get the columns read to fine filter click results, the id and geometry columns. The
+     * remaining columns of rows passing the filter are read afterwards in a single query.
+     *
+     * @return click filter columns
+     * @since 6.7.5
+     */
+    public String[] getFilterColumns() {
+        return new String[]{featureDao.getPkColumnName(), featureDao.getGeometryColumnName()};
+    }
+
+    /**
+     * Query for the full columns of rows read with a subset of columns, in a single id IN query
+     * per batch, keeping the row order. Rows already holding all columns are returned as is.
+     *
+     * @param rows feature rows
+     * @return full feature rows in the same order, or the provided row if no longer found
+     */
+    private List<FeatureRow> queryFullRows(List<FeatureRow> rows) {
+
+        List<FeatureRow> fullRows = rows;
+
+        if (!rows.isEmpty() && rows.get(0).columnCount() < featureDao.getTable().columnCount()) {
+
+            Map<Long, FeatureRow> rowsById = new HashMap<>();
+            String idColumn = CoreSQLUtils.quoteWrap(featureDao.getPkColumnName());
+
+            for (int start = 0; start < rows.size(); start += MAX_IN_ARGS) {
+                int end = Math.min(rows.size(), start + MAX_IN_ARGS);
+
+                StringBuilder where = new StringBuilder(idColumn).append(" IN (");
+                String[] whereArgs = new String[end - start];
+                for (int i = start; i < end; i++) {
+                    if (i > start) {
+                        where.append(",");
+                    }
+                    where.append("?");
+                    whereArgs[i - start] = String.valueOf(rows.get(i).getId());
+                }
+                where.append(")");
+
+                FeatureCursor cursor = featureDao.query(where.toString(), whereArgs);
+                try {
+                    while (cursor.moveToNext()) {
+                        FeatureRow featureRow = cursor.getRow();
+                        rowsById.put(featureRow.getId(), featureRow);
+                    }
+                } finally {
+                    cursor.close();
+                }
+            }
+
+            fullRows = new ArrayList<>(rows.size());
+            for (FeatureRow row : rows) {
+                FeatureRow fullRow = rowsById.get(row.getId());
+                fullRows.add(fullRow != null ? fullRow : row);
+            }
+        }
+
+        return fullRows;
+    }
+
+    /**
+     * Get the max number of features to build detailed info for
+     *
+     * @return max feature info
+     */
+    private int getMaxFeatureInfo() {
+        int maxFeatureInfo = 0;
+        if (geometryType == GeometryType.POINT) {
+            maxFeatureInfo = maxPointDetailedInfo;
+        } else {
+            maxFeatureInfo = maxFeatureDetailedInfo;
+        }
+        return maxFeatureInfo;
+    }
+
+    /**
+     * Check if the build is cancellable and the current thread has been interrupted, cancelling
+     * the build. Synchronous builds are not cancellable and ignore interrupts.
+     *
+     * @param timings stage timings, may be null
+     * @throws CancellationException if cancellable and interrupted
+     */
+    private static void checkCancelled(FeatureQueryTimings timings) {
+        if (timings != null && timings.isCancellable()
+                && Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Feature info build was cancelled");
+        }
+    }
+
+    /**
+     * Create a geometry hit tester for the click when not geodesic. Geodesic checks use map
+     * shapes.
+     *
+     * @param clickLocation click location
+     * @param tolerance     distance tolerance
+     * @return hit tester, null when geodesic
+     */
+    private FeatureHitTester createHitTester(LatLng clickLocation, double tolerance) {
+        FeatureHitTester hitTester = null;
+        if (!geodesic) {
+            hitTester = new FeatureHitTester(featureDao.getProjection(), clickLocation, tolerance);
+        }
+        return hitTester;
+    }
+
+    /**
+     * Is the click on or near the geometry, returning the distance when on the geometry
+     *
+     * @param geometry      geometry
+     * @param clickLocation click location
+     * @param tolerance     distance tolerance
+     * @param hitTester     geometry hit tester, null to use map shapes
+     * @param converter     map shape converter, used when no hit tester
+     * @return distance when on geometry, -1.0 when distance not calculated, null when not on geometry
+     */
+    private Double clickDistance(Geometry geometry, LatLng clickLocation, double tolerance, FeatureHitTester hitTester, GoogleMapShapeConverter converter) {
+        Double distance = null;
+        if (hitTester != null) {
+            distance = hitTester.distance(geometry, tolerance);
+        } else {
+            GoogleMapShape mapShape = converter.toShape(geometry);
+            distance = MapUtils.isPointOnShapeDistance(clickLocation, mapShape, geodesic, tolerance);
+        }
+        return distance;
+    }
+
+    /**
+     * Get the click distance tolerance of the feature row from its feature style
      *
      * @param featureRow            feature row
      * @param geometry              geometry
-     * @param mapShape              Google Map Shape
      * @param clickLocation         click location
      * @param density               display density: {@link android.util.DisplayMetrics#density}
      * @param zoom                  current zoom level
-     * @param view                  view
-     * @param map                   Google Map
+     * @param view                  view, null to use the view size
+     * @param map                   Google Map, null to use the view size
+     * @param viewWidth             map view width in pixels, used without a view and map
+     * @param viewHeight            map view height in pixels, used without a view and map
      * @param screenClickPercentage screen click percentage between 0.0 and 1.0
-     * @return -2.0 when not style filtered, distance if passes fine filter, -1.0 when distance not calculated, null if does not pass
+     * @return style tolerance, null when not style filtered
      */
-    private Double fineFilterStyle(FeatureRow featureRow, Geometry geometry, GoogleMapShape mapShape, LatLng clickLocation, float density, double zoom, View view, GoogleMap map, float screenClickPercentage) {
-        Double distance = -2.0;
-        if (featureStyles != null && view != null && map != null) {
+    private Double getStyleTolerance(FeatureRow featureRow, Geometry geometry, LatLng clickLocation, float density, double zoom, View view, GoogleMap map, int viewWidth, int viewHeight, float screenClickPercentage) {
+        Double tolerance = null;
+        boolean mapView = view != null && map != null;
+        if (featureStyles != null && (mapView || (viewWidth > 0 && viewHeight > 0))) {
 
             PixelBounds pixelBounds = null;
 
@@ -906,15 +1569,76 @@ public class FeatureInfoBuilder {
                     }
                 }
 
-                // Get the map click distance tolerance
-                double tolerance = MapUtils.getToleranceDistance(clickLocation, density, zoom, pixelBounds, view, map, screenClickPercentage);
-
-                distance = MapUtils.isPointOnShapeDistance(clickLocation, mapShape, geodesic, tolerance);
+                // Get the map click distance tolerance, from the view size when off the UI thread
+                if (mapView) {
+                    tolerance = MapUtils.getToleranceDistance(clickLocation, density, zoom, pixelBounds, view, map, screenClickPercentage);
+                } else {
+                    tolerance = MapUtils.getToleranceDistance(clickLocation, density, zoom, pixelBounds, viewWidth, viewHeight, screenClickPercentage);
+                }
 
             }
 
         }
-        return distance;
+        return tolerance;
+    }
+
+    /**
+     * Resolved projection from a geometry spatial reference system to a desired projection
+     */
+    private static class GeometryProjection {
+
+        /**
+         * Geometry transform, null when already in the projection
+         */
+        private final GeometryTransform transform;
+
+        /**
+         * Spatial reference system id of the projection
+         */
+        private final int srsId;
+
+        /**
+         * Constructor
+         *
+         * @param transform geometry transform, null when already in the projection
+         * @param srsId     spatial reference system id of the projection
+         */
+        private GeometryProjection(GeometryTransform transform, int srsId) {
+            this.transform = transform;
+            this.srsId = srsId;
+        }
+
+    }
+
+    /**
+     * Fine filtered results holding only the nearest rows while counting all filtered rows
+     */
+    private static class FilteredResults extends FeatureIndexListResults {
+
+        /**
+         * Count of all filtered rows
+         */
+        private final long count;
+
+        /**
+         * Constructor
+         *
+         * @param rows  nearest rows
+         * @param count count of all filtered rows
+         */
+        private FilteredResults(List<FeatureRow> rows, long count) {
+            super(rows);
+            this.count = count;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long count() {
+            return count;
+        }
+
     }
 
 }
@@ -0,0 +1,172 @@
+package mil.nga.geopackage.map.features;
+
+/**
+ * Per stage timings of a feature click query: the tile feature count, the bounding box index
+ * query, the fine filter of shape conversion and distance checks, and building the result.
+ * Asynchronous queries mark their timings cancellable so that interrupting the query thread
+ * cancels the build; synchronous queries ignore interrupts.
+ *
+ * @author osbornb
+ * @since 6.7.5
+ */
+public class FeatureQueryTimings {
+
+    /**
+     * Tile feature count time in nanoseconds
+     */
+    private long countNanos = 0;
+
+    /**
+     * Index query time in nanoseconds
+     */
+    private long queryNanos = 0;
+
+    /**
+     * Fine filter time in nanoseconds
+     */
+    private long filterNanos = 0;
+
+    /**
+     * Result build time in nanoseconds
+     */
+    private long buildNanos = 0;
+
+    /**
+     * Number of rows fine filtered
+     */
+    private long filterCount = 0;
+
+    /**
+     * Cancellable by interrupting the query thread
+     */
+    private volatile boolean cancellable = false;
+
+    /**
+     * Constructor
+     */
+    public FeatureQueryTimings() {
+
+    }
+
+    /**
+     * Add tile feature count time
+     *
+     * @param nanos nanoseconds
+     */
+    public synchronized void addCount(long nanos) {
+        countNanos += nanos;
+    }
+
+    /**
+     * Add index query time
+     *
+     * @param nanos nanoseconds
+     */
+    public synchronized void addQuery(long nanos) {
+        queryNanos += nanos;
+    }
+
+    /**
+     * Add fine filter time
+     *
+     * @param nanos nanoseconds
+     * @param rows  number of rows filtered
+     */
+    public synchronized void addFilter(long nanos, long rows) {
+        filterNanos += nanos;
+        filterCount += rows;
+    }
+
+    /**
+     * Add result build time
+     *
+     * @param nanos nanoseconds
+     */
+    public synchronized void addBuild(long nanos) {
+        buildNanos += nanos;
+    }
+
+    /**
+     * Get the tile feature count time in milliseconds
+     *
+     * @return milliseconds
+     */
+    public synchronized double getCountMillis() {
+        return countNanos / 1000000.0;
+    }
+
+    /**
+     * Get the index query time in milliseconds
+     *
+     * @return milliseconds
+     */
+    public synchronized double getQueryMillis() {
+        return queryNanos / 1000000.0;
+    }
+
+    /**
+     * Get the fine filter time in milliseconds
+     *
+     * @return milliseconds
+     */
+    public synchronized double getFilterMillis() {
+        return filterNanos / 1000000.0;
+    }
+
+    /**
+     * Get the result build time in milliseconds
+     *
+     * @return milliseconds
+     */
+    public synchronized double getBuildMillis() {
+        return buildNanos / 1000000.0;
+    }
+
+    /**
+     * Get the total time of all stages in milliseconds
+     *
+     * @return milliseconds
+     */
+    public synchronized double getTotalMillis() {
+        return (countNanos + queryNanos + filterNanos + buildNanos) / 1000000.0;
+    }
+
+    /**
+     * Get the number of rows fine filtered
+     *
+     * @return row count
+     */
+    public synchronized long getFilterCount() {
+        return filterCount;
+    }
+
+    /**
+     * Is the query cancellable by interrupting the query thread
+     *
+     * @return true if cancellable
+     */
+    public boolean isCancellable() {
+        return cancellable;
+    }
+
+    /**
+     * Set whether the query is cancellable by interrupting the query thread, set for
+     * asynchronous queries run on an executor
+     *
+     * @param cancellable true if cancellable
+     */
+    public void setCancellable(boolean cancellable) {
+        this.cancellable = cancellable;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized String toString() {
+        return "count ms: " + getCountMillis() + ", query ms: " + getQueryMillis()
+                + ", filter ms: " + getFilterMillis() + " (" + filterCount + " rows)"
+                + ", build ms: " + getBuildMillis() + ", total ms: " + getTotalMillis();
+    }
+
+}
@@ -0,0 +1,105 @@
+package mil.nga.geopackage.map.features;
+
+import mil.nga.geopackage.features.user.FeatureRow;
+
+/**
+ * Feature row and its distance from a click location. Rows are ordered by nearest calculated
+ * distance first, followed by rows without a calculated distance, with ties ordered by table
+ * name and feature id.
+ *
+ * @author osbornb
+ * @since 6.7.5
+ */
+public class FeatureRowDistance implements Comparable<FeatureRowDistance> {
+
+    /**
+     * Feature row
+     */
+    private final FeatureRow featureRow;
+
+    /**
+     * Distance in meters, -1.0 when not calculated
+     */
+    private final double distance;
+
+    /**
+     * Constructor
+     *
+     * @param featureRow feature row
+     * @param distance   distance in meters, -1.0 when not calculated
+     */
+    public FeatureRowDistance(FeatureRow featureRow, double distance) {
+        this.featureRow = featureRow;
+        this.distance = distance;
+    }
+
+    /**
+     * Get the feature row
+     *
+     * @return feature row
+     */
+    public FeatureRow getFeatureRow() {
+        return featureRow;
+    }
+
+    /**
+     * Get the distance
+     *
+     * @return distance in meters, -1.0 when not calculated
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    /**
+     * Determine if the distance was calculated
+     *
+     * @return true if calculated
+     */
+    public boolean hasDistance() {
+        return distance >= 0;
+    }
+
+    /**
+     * Get the feature table name
+     *
+     * @return table name
+     */
+    public String getTableName() {
+        return featureRow.getTable().getTableName();
+    }
+
+    /**
+     * Get the feature id
+     *
+     * @return feature id
+     */
+    public long getId() {
+        return featureRow.getId();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int compareTo(FeatureRowDistance other) {
+        int compare = 0;
+        if (hasDistance()) {
+            if (other.hasDistance()) {
+                compare = Double.compare(distance, other.distance);
+            } else {
+                compare = -1;
+            }
+        } else if (other.hasDistance()) {
+            compare = 1;
+        }
+        if (compare == 0) {
+            compare = getTableName().compareTo(other.getTableName());
+        }
+        if (compare == 0) {
+            compare = Long.compare(getId(), other.getId());
+        }
+        return compare;
+    }
+
+}
@@ -0,0 +1,66 @@
+package mil.nga.geopackage.map.features;
+
+import java.io.IOException;
+import java.util.List;
+
+import mil.nga.geopackage.geom.GeoPackageGeometryData;
+
+/**
+ * Sink receiving feature table data rows as they are read, allowing results to be serialized
+ * without holding all rows in memory
+ *
+ * @author osbornb
+ * @since 6.7.5
+ */
+public interface FeatureTableDataSink {
+
+    /**
+     * Start writing the feature table
+     *
+     * @param tableName   feature table name
+     * @param columnNames column names in table order
+     * @throws IOException upon write failure
+     */
+    void startTable(String tableName, List<String> columnNames) throws IOException;
+
+    /**
+     * Start writing a feature row
+     *
+     * @throws IOException upon write failure
+     */
+    void startRow() throws IOException;
+
+    /**
+     * Write a feature row attribute value
+     *
+     * @param columnName column name
+     * @param value      value, may be null
+     * @throws IOException upon write failure
+     */
+    void writeValue(String columnName, Object value) throws IOException;
+
+    /**
+     * Write a feature row geometry
+     *
+     * @param columnName   geometry column name
+     * @param geometryData geometry data, may be null
+     * @throws IOException upon write failure
+     */
+    void writeGeometry(String columnName, GeoPackageGeometryData geometryData) throws IOException;
+
+    /**
+     * End writing the feature row
+     *
+     * @throws IOException upon write failure
+     */
+    void endRow() throws IOException;
+
+    /**
+     * End writing the feature table
+     *
+     * @param count number of rows written
+     * @throws IOException upon write failure
+     */
+    void endTable(long count) throws IOException;
+
+}
@@ -0,0 +1,150 @@
+package mil.nga.geopackage.map.features;
+
+import android.util.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import mil.nga.geopackage.geom.GeoPackageGeometryData;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.geojson.FeatureConverter;
+
+/**
+ * Feature table data sink streaming rows as JSON:
+ * {"table": name, "features": [{column: value, ...}, ...], "count": count}.
+ * Null values are omitted, blob values are written as hex, and geometries are written as hex
+ * Well-Known Binary or nested GeoJSON objects.
+ *
+ * @author osbornb
+ * @since 6.7.5
+ */
+public class JsonFeatureTableDataSink implements FeatureTableDataSink {
+
+    /**
+     * JSON writer
+     */
+    private final JsonWriter writer;
+
+    /**
+     * Geometry format
+     */
+    private final FeatureGeometryFormat geometryFormat;
+
+    /**
+     * Constructor
+     *
+     * @param writer         writer, flushed but not closed when the table ends
+     * @param geometryFormat geometry format
+     */
+    public JsonFeatureTableDataSink(Writer writer, FeatureGeometryFormat geometryFormat) {
+        this.writer = new JsonWriter(writer);
+        this.geometryFormat = geometryFormat;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void startTable(String tableName, List<String> columnNames) throws IOException {
+        writer.beginObject();
+        writer.name("table").value(tableName);
+        writer.name("features").beginArray();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void startRow() throws IOException {
+        writer.beginObject();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeValue(String columnName, Object value) throws IOException {
+        if (value != null) {
+            writer.name(columnName);
+            writeJson(value);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeGeometry(String columnName, GeoPackageGeometryData geometryData) throws IOException {
+        Geometry geometry = geometryData != null ? geometryData.getGeometry() : null;
+        if (geometry != null) {
+            writer.name(columnName);
+            if (geometryFormat == FeatureGeometryFormat.GEOJSON) {
+                writeJson(FeatureConverter.toMap(geometry));
+            } else {
+                writer.value(geometryFormat.toText(geometry));
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void endRow() throws IOException {
+        writer.endObject();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void endTable(long count) throws IOException {
+        writer.endArray();
+        writer.name("count").value(count);
+        writer.endObject();
+        writer.flush();
+    }
+
+    /**
+     * Write a JSON value, recursing into maps and collections
+     *
+     * @param value value
+     * @throws IOException upon write failure
+     */
+    private void writeJson(Object value) throws IOException {
+        if (value == null) {
+            writer.nullValue();
+        } else if (value instanceof Map) {
+            writer.beginObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                writer.name(String.valueOf(entry.getKey()));
+                writeJson(entry.getValue());
+            }
+            writer.endObject();
+        } else if (value instanceof Collection) {
+            writer.beginArray();
+            for (Object element : (Collection<?>) value) {
+                writeJson(element);
+            }
+            writer.endArray();
+        } else if (value instanceof double[]) {
+            writer.beginArray();
+            for (double element : (double[]) value) {
+                writer.value(element);
+            }
+            writer.endArray();
+        } else if (value instanceof Boolean) {
+            writer.value((Boolean) value);
+        } else if (value instanceof Number) {
+            writer.value((Number) value);
+        } else if (value instanceof byte[]) {
+            writer.value(FeatureGeometryFormat.toHex((byte[]) value));
+        } else {
+            writer.value(value.toString());
+        }
+    }
+
+}
@@ -0,0 +1,675 @@
+package mil.nga.geopackage.map.geom;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import mil.nga.geopackage.BoundingBox;
+import mil.nga.sf.Point;
+
+/**
+ * Clips line and polygon ring points to projection space bounding boxes before map shape
+ * conversion. Polygon rings are clipped with the Sutherland-Hodgman algorithm and lines with the
+ * Cohen-Sutherland algorithm, joining clipped line pieces along the clip box perimeter. The clip
+ * box should include a margin beyond the visible viewport so the edges created along the clip
+ * box are not visible. Points created along the clip box carry z and m values interpolated from
+ * the clipped segment, or taken from the previous point for clip box corners.
+ * <p>
+ * Multiple boxes represent a viewport split at the antimeridian. Points are clipped to the single
+ * box their envelope intersects, or only to the box latitudes when intersecting multiple boxes.
+ *
+ * @author osbornb
+ * @since 6.7.5
+ */
+public class GeometryClipper {
+
+    /**
+     * Left clip region bit
+     */
+    private static final int LEFT = 1;
+
+    /**
+     * Right clip region bit
+     */
+    private static final int RIGHT = 2;
+
+    /**
+     * Bottom clip region bit
+     */
+    private static final int BOTTOM = 4;
+
+    /**
+     * Top clip region bit
+     */
+    private static final int TOP = 8;
+
+    /**
+     * Clip boxes in projection units
+     */
+    private final List<BoundingBox> boundingBoxes;
+
+    /**
+     * Constructor
+     *
+     * @param boundingBox clip box in projection units
+     */
+    public GeometryClipper(BoundingBox boundingBox) {
+        this(Collections.singletonList(boundingBox));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param boundingBoxes clip boxes in projection units, such as a viewport split at the
+     *                      antimeridian
+     */
+    public GeometryClipper(List<BoundingBox> boundingBoxes) {
+        this.boundingBoxes = new ArrayList<>(boundingBoxes);
+    }
+
+    /**
+     * Get the clip boxes
+     *
+     * @return clip boxes in projection units
+     */
+    public List<BoundingBox> getBoundingBoxes() {
+        return Collections.unmodifiableList(boundingBoxes);
+    }
+
+    /**
+     * Clip the line points, returning the points unchanged when within the clip box and no points
+     * when outside
+     *
+     * @param points line points
+     * @return clipped points
+     */
+    public List<Point> clipLine(List<Point> points) {
+
+        List<Point> clipped;
+
+        Box box = getClipBox(points);
+        if (box == null) {
+            clipped = new ArrayList<>();
+        } else if (box.contains) {
+            clipped = points;
+        } else {
+            clipped = clipLine(points, box);
+        }
+
+        return clipped;
+    }
+
+    /**
+     * Clip the polygon ring points, returning the points unchanged when within the clip box and no
+     * points when outside. Closed rings remain closed.
+     *
+     * @param points ring points
+     * @return clipped points
+     */
+    public List<Point> clipRing(List<Point> points) {
+
+        List<Point> clipped;
+
+        Box box = getClipBox(points);
+        if (box == null) {
+            clipped = new ArrayList<>();
+        } else if (box.contains) {
+            clipped = points;
+        } else {
+            clipped = clipRing(points, box);
+        }
+
+        return clipped;
+    }
+
+    /**
+     * Get the clip box of the points envelope
+     *
+     * @param points points
+     * @return clip box, null when the points are outside of all clip boxes
+     */
+    private Box getClipBox(List<Point> points) {
+
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (Point point : points) {
+            double x = point.getX();
+            double y = point.getY();
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+        }
+
+        Box box = null;
+        BoundingBox intersecting = null;
+        int intersections = 0;
+        double boxMinY = Double.POSITIVE_INFINITY;
+        double boxMaxY = Double.NEGATIVE_INFINITY;
+        for (BoundingBox boundingBox : boundingBoxes) {
+            if (minX <= boundingBox.getMaxLongitude() && maxX >= boundingBox.getMinLongitude()
+                    && minY <= boundingBox.getMaxLatitude() && maxY >= boundingBox.getMinLatitude()) {
+                intersecting = boundingBox;
+                intersections++;
+            }
+            boxMinY = Math.min(boxMinY, boundingBox.getMinLatitude());
+            boxMaxY = Math.max(boxMaxY, boundingBox.getMaxLatitude());
+        }
+
+        if (intersections == 1) {
+            box = new Box(intersecting.getMinLongitude(), intersecting.getMinLatitude(),
+                    intersecting.getMaxLongitude(), intersecting.getMaxLatitude());
+        } else if (intersections > 1) {
+            box = new Box(Double.NEGATIVE_INFINITY, boxMinY, Double.POSITIVE_INFINITY, boxMaxY);
+        }
+
+        if (box != null) {
+            box.contains = minX >= box.minX && maxX <= box.maxX
+                    && minY >= box.minY && maxY <= box.maxY;
+        }
+
+        return box;
+    }
+
+    /**
+     * Clip the line points to the box with Cohen-Sutherland segment clipping, joining
+     * discontinuous clipped pieces along the box perimeter
+     *
+     * @param points line points
+     * @param box    clip box
+     * @return clipped points
+     */
+    private List<Point> clipLine(List<Point> points, Box box) {
+
+        List<Point> clipped = new ArrayList<>();
+
+        int count = points.size();
+        if (count == 1) {
+            Point point = points.get(0);
+            if (box.code(point.getX(), point.getY()) == 0) {
+                clipped.add(point);
+            }
+        }
+
+        double[] segment = new double[4];
+        double lastX = 0;
+        double lastY = 0;
+        for (int i = 0; i + 1 < count; i++) {
+
+            Point start = points.get(i);
+            Point end = points.get(i + 1);
+            segment[0] = start.getX();
+            segment[1] = start.getY();
+            segment[2] = end.getX();
+            segment[3] = end.getY();
+
+            if (box.clip(segment)) {
+
+                boolean startClipped = segment[0] != start.getX() || segment[1] != start.getY();
+                boolean endClipped = segment[2] != end.getX() || segment[3] != end.getY();
+
+                Point clippedStart = startClipped
+                        ? interpolate(start, end, segment[0], segment[1]) : start;
+                if (clipped.isEmpty()) {
+                    clipped.add(clippedStart);
+                } else if (lastX != segment[0] || lastY != segment[1]) {
+                    box.addPerimeter(lastX, lastY, segment[0], segment[1], clipped);
+                    clipped.add(clippedStart);
+                }
+
+                clipped.add(endClipped ? interpolate(start, end, segment[2], segment[3]) : end);
+                lastX = segment[2];
+                lastY = segment[3];
+            }
+        }
+
+        return clipped;
+    }
+
+    /**
+     * Clip the ring points to the box with Sutherland-Hodgman polygon clipping
+     *
+     * @param points ring points
+     * @param box    clip box
+     * @return clipped points
+     */
+    private List<Point> clipRing(List<Point> points, Box box) {
+
+        int count = points.size();
+        boolean closed = count > 1 && points.get(0).getX() == points.get(count - 1).getX()
+                && points.get(0).getY() == points.get(count - 1).getY();
+        if (closed) {
+            count--;
+        }
+
+        List<Point> clipped = new ArrayList<>(points.subList(0, count));
+
+        for (int edge = 0; edge < 4 && !clipped.isEmpty(); edge++) {
+
+            List<Point> edgeClipped = new ArrayList<>(clipped.size() + 4);
+
+            Point previous = clipped.get(clipped.size() - 1);
+            boolean previousInside = box.inside(edge, previous.getX(), previous.getY());
+
+            for (Point current : clipped) {
+                boolean currentInside = box.inside(edge, current.getX(), current.getY());
+                if (currentInside != previousInside) {
+                    double[] intersection = box.intersect(edge, previous.getX(), previous.getY(),
+                            current.getX(), current.getY());
+                    edgeClipped.add(interpolate(previous, current,
+                            intersection[0], intersection[1]));
+                }
+                if (currentInside) {
+                    edgeClipped.add(current);
+                }
+                previous = current;
+                previousInside = currentInside;
+            }
+
+            clipped = edgeClipped;
+        }
+
+        if (closed && !clipped.isEmpty()) {
+            clipped.add(clipped.get(0));
+        }
+
+        return clipped;
+    }
+
+    /**
+     * Create a clip point on the segment, interpolating the z and m values of the segment points
+     *
+     * @param start segment start point
+     * @param end   segment end point
+     * @param x     clip x coordinate
+     * @param y     clip y coordinate
+     * @return clip point
+     */
+    private static Point interpolate(Point start, Point end, double x, double y) {
+
+        Point point = new Point(start.hasZ(), start.hasM(), x, y);
+
+        if (start.hasZ() || start.hasM()) {
+
+            // Fraction along the segment, measured on the larger coordinate change
+            double deltaX = end.getX() - start.getX();
+            double deltaY = end.getY() - start.getY();
+            double fraction = 0.0;
+            if (Math.abs(deltaX) >= Math.abs(deltaY)) {
+                if (deltaX != 0.0) {
+                    fraction = (x - start.getX()) / deltaX;
+                }
+            } else {
+                fraction = (y - start.getY()) / deltaY;
+            }
+
+            if (start.hasZ()) {
+                point.setZ(interpolate(start.getZ(), end.getZ(), fraction));
+            }
+            if (start.hasM()) {
+                point.setM(interpolate(start.getM(), end.getM(), fraction));
+            }
+        }
+
+        return point;
+    }
+
+    /**
+     * Interpolate between two values
+     *
+     * @param start    start value, may be null
+     * @param end      end value, may be null
+     * @param fraction fraction from the start to the end value
+     * @return interpolated value, or the non null value when one is null
+     */
+    private static Double interpolate(Double start, Double end, double fraction) {
+        Double value;
+        if (start == null) {
+            value = end;
+        } else if (end == null) {
+            value = start;
+        } else {
+            value = start + (end - start) * fraction;
+        }
+        return value;
+    }
+
+    /**
+     * Create a clip box corner point, taking the z and m values of the previous point
+     *
+     * @param previous previous point
+     * @param x        corner x coordinate
+     * @param y        corner y coordinate
+     * @return corner point
+     */
+    private static Point corner(Point previous, double x, double y) {
+        Point point = new Point(previous.hasZ(), previous.hasM(), x, y);
+        point.setZ(previous.getZ());
+        point.setM(previous.getM());
+        return point;
+    }
+
+    /**
+     * Clip box bounds
+     */
+    private static class Box {
+
+        /**
+         * Min x
+         */
+        private final double minX;
+
+        /**
+         * Min y
+         */
+        private final double minY;
+
+        /**
+         * Max x
+         */
+        private final double maxX;
+
+        /**
+         * Max y
+         */
+        private final double maxY;
+
+        /**
+         * Flag indicating the clipped points envelope is within the box
+         */
+        private boolean contains;
+
+        /**
+         * Constructor
+         *
+         * @param minX min x
+         * @param minY min y
+         * @param maxX max x
+         * @param maxY max y
+         */
+        private Box(double minX, double minY, double maxX, double maxY) {
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+        }
+
+        /**
+         * Get the Cohen-Sutherland region code of the coordinate
+         *
+         * @param x x coordinate
+         * @param y y coordinate
+         * @return region code, 0 when inside
+         */
+        private int code(double x, double y) {
+            int code = 0;
+            if (x < minX) {
+                code |= LEFT;
+            } else if (x > maxX) {
+                code |= RIGHT;
+            }
+            if (y < minY) {
+                code |= BOTTOM;
+            } else if (y > maxY) {
+                code |= TOP;
+            }
+            return code;
+        }
+
+        /**
+         * Clip the segment to the box with the Cohen-Sutherland algorithm
+         *
+         * @param segment start x, start y, end x, and end y, updated to the clipped segment
+         * @return true if the segment intersects the box
+         */
+        private boolean clip(double[] segment) {
+
+            double x0 = segment[0];
+            double y0 = segment[1];
+            double x1 = segment[2];
+            double y1 = segment[3];
+            int code0 = code(x0, y0);
+            int code1 = code(x1, y1);
+
+            boolean accept = false;
+            while (true) {
+                if ((code0 | code1) == 0) {
+                    accept = true;
+                    break;
+                } else if ((code0 & code1) != 0) {
+                    break;
+                }
+
+                int code = code0 != 0 ? code0 : code1;
+                double x;
+                double y;
+                if ((code & TOP) != 0) {
+                    x = x0 + (x1 - x0) * (maxY - y0) / (y1 - y0);
+                    y = maxY;
+                } else if ((code & BOTTOM) != 0) {
+                    x = x0 + (x1 - x0) * (minY - y0) / (y1 - y0);
+                    y = minY;
+                } else if ((code & RIGHT) != 0) {
+                    y = y0 + (y1 - y0) * (maxX - x0) / (x1 - x0);
+                    x = maxX;
+                } else {
+                    y = y0 + (y1 - y0) * (minX - x0) / (x1 - x0);
+                    x = minX;
+                }
+
+                if (code == code0) {
+                    x0 = x;
+                    y0 = y;
+                    code0 = code(x0, y0);
+                } else {
+                    x1 = x;
+                    y1 = y;
+                    code1 = code(x1, y1);
+                }
+            }
+
+            if (accept) {
+                segment[0] = x0;
+                segment[1] = y0;
+                segment[2] = x1;
+                segment[3] = y1;
+            }
+
+            return accept;
+        }
+
+        /**
+         * Determine if the coordinate is inside the Sutherland-Hodgman clip edge
+         *
+         * @param edge edge index of left, right, bottom, and top
+         * @param x    x coordinate
+         * @param y    y coordinate
+         * @return true if inside
+         */
+        private boolean inside(int edge, double x, double y) {
+            boolean inside;
+            switch (edge) {
+                case 0:
+                    inside = x >= minX;
+                    break;
+                case 1:
+                    inside = x <= maxX;
+                    break;
+                case 2:
+                    inside = y >= minY;
+                    break;
+                default:
+                    inside = y <= maxY;
+            }
+            return inside;
+        }
+
+        /**
+         * Intersect the segment with the Sutherland-Hodgman clip edge
+         *
+         * @param edge edge index of left, right, bottom, and top
+         * @param x0   start x
+         * @param y0   start y
+         * @param x1   end x
+         * @param y1   end y
+         * @return intersection x and y
+         */
+        private double[] intersect(int edge, double x0, double y0, double x1, double y1) {
+            double x;
+            double y;
+            switch (edge) {
+                case 0:
+                    x = minX;
+                    y = y0 + (y1 - y0) * (minX - x0) / (x1 - x0);
+                    break;
+                case 1:
+                    x = maxX;
+                    y = y0 + (y1 - y0) * (maxX - x0) / (x1 - x0);
+                    break;
+                case 2:
+                    y = minY;
+                    x = x0 + (x1 - x0) * (minY - y0) / (y1 - y0);
+                    break;
+                default:
+                    y = maxY;
+                    x = x0 + (x1 - x0) * (maxY - y0) / (y1 - y0);
+            }
+            return new double[]{x, y};
+        }
+
+        /**
+         * Add the box corners along the shorter perimeter path between two boundary coordinates,
+         * with the z and m values of the last point
+         *
+         * @param fromX  from x coordinate on the boundary
+         * @param fromY  from y coordinate on the boundary
+         * @param toX    to x coordinate on the boundary
+         * @param toY    to y coordinate on the boundary
+         * @param points points to add the corners to, ending with the from point
+         */
+        private void addPerimeter(double fromX, double fromY, double toX, double toY,
+                                  List<Point> points) {
+
+            double width = maxX - minX;
+            double height = maxY - minY;
+            double perimeter = 2 * (width + height);
+
+            if (!Double.isInfinite(perimeter)) {
+
+                Point last = points.get(points.size() - 1);
+                double from = perimeterDistance(fromX, fromY);
+                double to = perimeterDistance(toX, toY);
+
+                // Corner distances in counterclockwise order from the min x, min y corner
+                double[] corners = {0, width, width + height, 2 * width + height};
+                double[] cornerX = {minX, maxX, maxX, minX};
+                double[] cornerY = {minY, minY, maxY, maxY};
+
+                double forward = to - from;
+                if (forward < 0) {
+                    forward += perimeter;
+                }
+
+                if (forward <= perimeter / 2) {
+                    for (int i = 0; i < 4; i++) {
+                        int corner = (firstCorner(corners, from) + i) % 4;
+                        double distance = corners[corner] - from;
+                        if (distance <= 0) {
+                            distance += perimeter;
+                        }
+                        if (distance >= forward) {
+                            break;
+                        }
+                        points.add(corner(last, cornerX[corner], cornerY[corner]));
+                    }
+                } else {
+                    double backward = perimeter - forward;
+                    for (int i = 0; i < 4; i++) {
+                        int corner = (lastCorner(corners, from) - i + 4) % 4;
+                        double distance = from - corners[corner];
+                        if (distance <= 0) {
+                            distance += perimeter;
+                        }
+                        if (distance >= backward) {
+                            break;
+                        }
+                        points.add(corner(last, cornerX[corner], cornerY[corner]));
+                    }
+                }
+            }
+        }
+
+        /**
+         * Get the counterclockwise perimeter distance of a boundary coordinate from the min x,
+         * min y corner
+         *
+         * @param x x coordinate
+         * @param y y coordinate
+         * @return perimeter distance
+         */
+        private double perimeterDistance(double x, double y) {
+
+            double width = maxX - minX;
+            double height = maxY - minY;
+
+            double bottom = Math.abs(y - minY);
+            double right = Math.abs(x - maxX);
+            double top = Math.abs(y - maxY);
+            double left = Math.abs(x - minX);
+            double min = Math.min(Math.min(bottom, right), Math.min(top, left));
+
+            double distance;
+            if (min == bottom) {
+                distance = x - minX;
+            } else if (min == right) {
+                distance = width + (y - minY);
+            } else if (min == top) {
+                distance = width + height + (maxX - x);
+            } else {
+                distance = 2 * width + height + (maxY - y);
+            }
+
+            return distance;
+        }
+
+        /**
+         * Get the first corner counterclockwise after the perimeter distance
+         *
+         * @param corners corner perimeter distances
+         * @param from    perimeter distance
+         * @return corner index
+         */
+        private static int firstCorner(double[] corners, double from) {
+            int corner = 0;
+            for (int i = 0; i < corners.length; i++) {
+                if (corners[i] > from) {
+                    corner = i;
+                    break;
+                }
+            }
+            return corner;
+        }
+
+        /**
+         * Get the first corner clockwise before the perimeter distance
+         *
+         * @param corners corner perimeter distances
+         * @param from    perimeter distance
+         * @return corner index
+         */
+        private static int lastCorner(double[] corners, double from) {
+            int corner = corners.length - 1;
+            for (int i = corners.length - 1; i >= 0; i--) {
+                if (corners[i] < from) {
+                    corner = i;
+                    break;
+                }
+            }
+            return corner;
+        }
+
+    }
+
+}
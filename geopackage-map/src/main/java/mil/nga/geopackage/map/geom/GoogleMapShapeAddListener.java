@@ -0,0 +1,29 @@
+package mil.nga.geopackage.map.geom;
+
+/**
+ * Listener of scheduled Map shape additions. Callbacks are made on the UI thread and are not
+ * made after the scheduler is cancelled.
+ *
+ * @author osbornb
+ * @since 6.7.5
+ */
+public interface GoogleMapShapeAddListener {
+
+    /**
+     * Called after each frame of shapes is added to the map
+     *
+     * @param added number of shapes added
+     * @param total number of shapes scheduled
+     */
+    void onProgress(int added, int total);
+
+    /**
+     * Called once when the scheduler is finished and all scheduled shapes have been added to the
+     * map, see {@link GoogleMapShapeAddScheduler#finish()}
+     *
+     * @param added number of shapes added, less than the total when shapes failed to add
+     * @param total number of shapes scheduled
+     */
+    void onComplete(int added, int total);
+
+}
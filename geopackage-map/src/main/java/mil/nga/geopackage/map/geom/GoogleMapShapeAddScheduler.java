@@ -0,0 +1,431 @@
+package mil.nga.geopackage.map.geom;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.Choreographer;
+
+import com.google.android.gms.maps.GoogleMap;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import mil.nga.geopackage.features.user.FeatureRow;
+
+/**
+ * Scheduler adding converted Map shapes to a Google Map on the UI thread in batches sized to a
+ * per frame time budget, so adding many shapes does not stall the UI thread. Shapes may be
+ * scheduled from any thread. Each added shape is registered in the feature shapes as it is
+ * added. A single shape is added within one frame, so large multi shapes may exceed the budget.
+ * Call {@link #finish()} once all shapes are scheduled, the listener completion is called once
+ * after finishing and adding all scheduled shapes.
+ *
+ * @author osbornb
+ * @since 6.7.5
+ */
+public class GoogleMapShapeAddScheduler {
+
+    /**
+     * Default time budget in milliseconds for adding shapes per frame
+     */
+    public static final long DEFAULT_FRAME_BUDGET = 8;
+
+    /**
+     * Google Map
+     */
+    private final GoogleMap map;
+
+    /**
+     * Feature shapes registering added shapes
+     */
+    private final FeatureShapes featureShapes;
+
+    /**
+     * Time budget in nanoseconds for adding shapes per frame
+     */
+    private final long frameBudget;
+
+    /**
+     * UI thread handler
+     */
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Pending shapes to add
+     */
+    private final Queue<PendingShape> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Number of shapes scheduled
+     */
+    private final AtomicInteger total = new AtomicInteger();
+
+    /**
+     * Number of shapes added
+     */
+    private final AtomicInteger added = new AtomicInteger();
+
+    /**
+     * Frame callback scheduled flag
+     */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * Cancelled flag
+     */
+    private volatile boolean cancelled = false;
+
+    /**
+     * Finished flag, set when no more shapes will be scheduled
+     */
+    private volatile boolean finished = false;
+
+    /**
+     * Completed flag, set when the listener completion is called
+     */
+    private final AtomicBoolean completed = new AtomicBoolean();
+
+    /**
+     * Add listener
+     */
+    private volatile GoogleMapShapeAddListener listener;
+
+    /**
+     * Frame callback adding shapes within the frame budget
+     */
+    private final Choreographer.FrameCallback frameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            addFrame();
+        }
+    };
+
+    /**
+     * Constructor, uses the default frame budget
+     *
+     * @param map           google map
+     * @param featureShapes feature shapes registering added shapes
+     */
+    public GoogleMapShapeAddScheduler(GoogleMap map, FeatureShapes featureShapes) {
+        this(map, featureShapes, DEFAULT_FRAME_BUDGET);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param map           google map
+     * @param featureShapes feature shapes registering added shapes
+     * @param frameBudget   time budget in milliseconds for adding shapes per frame
+     */
+    public GoogleMapShapeAddScheduler(GoogleMap map, FeatureShapes featureShapes, long frameBudget) {
+        this.map = map;
+        this.featureShapes = featureShapes;
+        this.frameBudget = TimeUnit.MILLISECONDS.toNanos(frameBudget);
+    }
+
+    /**
+     * Get the Google Map
+     *
+     * @return google map
+     */
+    public GoogleMap getMap() {
+        return map;
+    }
+
+    /**
+     * Get the feature shapes registering added shapes
+     *
+     * @return feature shapes
+     */
+    public FeatureShapes getFeatureShapes() {
+        return featureShapes;
+    }
+
+    /**
+     * Get the time budget for adding shapes per frame
+     *
+     * @return frame budget in milliseconds
+     */
+    public long getFrameBudget() {
+        return TimeUnit.NANOSECONDS.toMillis(frameBudget);
+    }
+
+    /**
+     * Get the add listener
+     *
+     * @return listener or null
+     */
+    public GoogleMapShapeAddListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Set the add listener
+     *
+     * @param listener listener, null for none
+     */
+    public void setListener(GoogleMapShapeAddListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Schedule a shape to be added to the map and registered in the feature shapes
+     *
+     * @param shape     google map shape, such as a converted shape from
+     *                  {@link GoogleMapShapeConverter#toShape(mil.nga.sf.Geometry)}
+     * @param featureId feature id
+     * @param database  GeoPackage database
+     * @param table     table name
+     * @return true if scheduled, false if cancelled or finished
+     */
+    public boolean add(GoogleMapShape shape, long featureId, String database, String table) {
+        boolean add = !cancelled && !finished;
+        if (add) {
+            total.incrementAndGet();
+            pending.add(new PendingShape(shape, featureId, database, table));
+            schedule();
+        }
+        return add;
+    }
+
+    /**
+     * Schedule shapes of feature rows to be added to the map and registered in the feature shapes
+     *
+     * @param featureRows feature rows
+     * @param shapes      google map shapes in feature row order, null shapes are skipped
+     * @param database    GeoPackage database
+     * @param table       table name
+     * @return number of shapes scheduled, 0 if cancelled or finished
+     */
+    public int add(List<FeatureRow> featureRows, List<GoogleMapShape> shapes, String database,
+                   String table) {
+        int count = 0;
+        for (int i = 0; i < shapes.size() && !cancelled && !finished; i++) {
+            GoogleMapShape shape = shapes.get(i);
+            if (shape != null) {
+                total.incrementAndGet();
+                pending.add(new PendingShape(shape, featureRows.get(i).getId(), database, table));
+                count++;
+            }
+        }
+        if (count > 0) {
+            schedule();
+        }
+        return count;
+    }
+
+    /**
+     * Create a parallel conversion callback scheduling each converted chunk of shapes, see
+     * {@link GoogleMapShapeConverter#toShapes(Iterable, java.util.concurrent.ForkJoinPool, int, GoogleMapShapesCallback)}.
+     * Call {@link #finish()} after the conversion returns.
+     *
+     * @param database GeoPackage database
+     * @param table    table name
+     * @return shapes callback
+     */
+    public GoogleMapShapesCallback createCallback(final String database, final String table) {
+        return new GoogleMapShapesCallback() {
+            @Override
+            public void onShapes(int index, List<FeatureRow> featureRows, List<GoogleMapShape> shapes) {
+                add(featureRows, shapes, database, table);
+            }
+        };
+    }
+
+    /**
+     * Signal that no more shapes will be scheduled. The listener completion is called once all
+     * scheduled shapes have been added. Shapes scheduled after finishing are ignored.
+     */
+    public void finish() {
+        finished = true;
+        schedule();
+    }
+
+    /**
+     * Is the scheduler finished, no more shapes will be scheduled
+     *
+     * @return true if finished
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Is the scheduler complete, finished with all scheduled shapes added or failed to add
+     *
+     * @return true if complete
+     */
+    public boolean isComplete() {
+        return completed.get();
+    }
+
+    /**
+     * Cancel the scheduler, discarding pending shapes. Shapes already added remain on the map
+     * and registered in the feature shapes. Shapes scheduled after cancelling are ignored.
+     */
+    public void cancel() {
+        cancelled = true;
+        pending.clear();
+    }
+
+    /**
+     * Is the scheduler cancelled
+     *
+     * @return true if cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Get the number of shapes scheduled
+     *
+     * @return total count
+     */
+    public int getTotalCount() {
+        return total.get();
+    }
+
+    /**
+     * Get the number of shapes added
+     *
+     * @return added count
+     */
+    public int getAddedCount() {
+        return added.get();
+    }
+
+    /**
+     * Get the number of shapes pending addition
+     *
+     * @return pending count
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Schedule the next frame callback when not already scheduled
+     */
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            if (Looper.myLooper() == Looper.getMainLooper()) {
+                Choreographer.getInstance().postFrameCallback(frameCallback);
+            } else {
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        Choreographer.getInstance().postFrameCallback(frameCallback);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Add pending shapes within the frame budget, adding at least one shape per frame
+     */
+    private void addFrame() {
+
+        long start = System.nanoTime();
+
+        PendingShape pendingShape;
+        while (!cancelled && (pendingShape = pending.poll()) != null) {
+            addShape(pendingShape);
+            if (System.nanoTime() - start >= frameBudget) {
+                break;
+            }
+        }
+
+        scheduled.set(false);
+
+        if (!cancelled) {
+
+            boolean empty = pending.isEmpty();
+            if (!empty) {
+                schedule();
+            }
+
+            // Complete once, after finishing and adding all scheduled shapes
+            boolean complete = empty && finished && completed.compareAndSet(false, true);
+
+            GoogleMapShapeAddListener addListener = listener;
+            if (addListener != null) {
+                int addedCount = added.get();
+                int totalCount = total.get();
+                addListener.onProgress(addedCount, totalCount);
+                if (complete) {
+                    addListener.onComplete(addedCount, totalCount);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Add the pending shape to the map and register it in the feature shapes
+     *
+     * @param pendingShape pending shape
+     */
+    private void addShape(PendingShape pendingShape) {
+        try {
+            GoogleMapShape addedShape = GoogleMapShapeConverter.addShapeToMap(map,
+                    pendingShape.shape);
+            featureShapes.addMapShape(addedShape, pendingShape.featureId,
+                    pendingShape.database, pendingShape.table);
+            added.incrementAndGet();
+        } catch (Exception e) {
+            Log.e(GoogleMapShapeAddScheduler.class.getSimpleName(),
+                    "Failed to add shape to map. Database: " + pendingShape.database
+                            + ", Table: " + pendingShape.table + ", Feature Id: "
+                            + pendingShape.featureId, e);
+        }
+    }
+
+    /**
+     * Shape pending addition to the map
+     */
+    private static class PendingShape {
+
+        /**
+         * Google map shape
+         */
+        private final GoogleMapShape shape;
+
+        /**
+         * Feature id
+         */
+        private final long featureId;
+
+        /**
+         * GeoPackage database
+         */
+        private final String database;
+
+        /**
+         * Table name
+         */
+        private final String table;
+
+        /**
+         * Constructor
+         *
+         * @param shape     google map shape
+         * @param featureId feature id
+         * @param database  GeoPackage database
+         * @param table     table name
+         */
+        private PendingShape(GoogleMapShape shape, long featureId, String database, String table) {
+            this.shape = shape;
+            this.featureId = featureId;
+            this.database = database;
+            this.table = table;
+        }
+
+    }
+
+}
@@ -10,16 +10,28 @@ import com.google.android.gms.maps.model.PolylineOptions;
 import com.google.maps.android.PolyUtil;
 import com.google.maps.android.SphericalUtil;
 
+import org.locationtech.proj4j.CoordinateTransform;
+import org.locationtech.proj4j.ProjCoordinate;
 import org.locationtech.proj4j.units.Units;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 import mil.nga.geopackage.BoundingBox;
 import mil.nga.geopackage.GeoPackageException;
 import mil.nga.geopackage.features.user.FeatureDao;
+import mil.nga.geopackage.features.user.FeatureRow;
+import mil.nga.geopackage.geom.GeoPackageGeometryData;
 import mil.nga.proj.Projection;
 import mil.nga.proj.ProjectionConstants;
+import mil.nga.proj.ProjectionFactory;
 import mil.nga.sf.CircularString;
 import mil.nga.sf.CompoundCurve;
 import mil.nga.sf.Curve;
@@ -88,6 +100,61 @@ public class GoogleMapShapeConverter {
      */
     private Double simplifyTolerance;
 
+    /**
+     * Zoom level of detail simplification, used in place of the simplify tolerance when set
+     */
+    private LevelOfDetail levelOfDetail;
+
+    /**
+     * Zoom level of the level of detail simplification
+     */
+    private int levelOfDetailZoom;
+
+    /**
+     * Feature table of the converted geometry level of detail keys, null to key by identity
+     */
+    private String levelOfDetailTable;
+
+    /**
+     * Feature id of the converted geometry level of detail keys
+     */
+    private long levelOfDetailFeatureId;
+
+    /**
+     * Index of the next simplified point list within the converted feature geometry
+     */
+    private int levelOfDetailPart;
+
+    /**
+     * Transformation to Web Mercator of level of detail ranked points, lazily created
+     */
+    private GeometryTransform levelOfDetailTransform;
+
+    /**
+     * Default clip margin as a fraction of the clip bounding box width and height
+     */
+    public static final double DEFAULT_CLIP_MARGIN = 0.25;
+
+    /**
+     * WGS84 clip bounding box, null for no clipping
+     */
+    private BoundingBox clipBoundingBox;
+
+    /**
+     * Clip margin as a fraction of the clip bounding box width and height
+     */
+    private double clipMargin = DEFAULT_CLIP_MARGIN;
+
+    /**
+     * Clipper of the clip bounding box with margin in projection units
+     */
+    private GeometryClipper clipper;
+
+    /**
+     * Default number of feature rows converted per parallel batch conversion task
+     */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
     /**
      * Constructor
      *
@@ -122,6 +189,27 @@ public class GoogleMapShapeConverter {
         }
     }
 
+    /**
+     * Copy the converter with new transformations and the same conversion settings. The level
+     * of detail and clipper are shared. Transformations are not thread safe, so a copy is made
+     * for each thread converting concurrently.
+     *
+     * @return converter copy
+     * @since 6.7.5
+     */
+    public GoogleMapShapeConverter copy() {
+        GoogleMapShapeConverter converter = new GoogleMapShapeConverter(projection);
+        converter.exteriorOrientation = exteriorOrientation;
+        converter.holeOrientation = holeOrientation;
+        converter.simplifyTolerance = simplifyTolerance;
+        converter.levelOfDetail = levelOfDetail;
+        converter.levelOfDetailZoom = levelOfDetailZoom;
+        converter.clipBoundingBox = clipBoundingBox;
+        converter.clipMargin = clipMargin;
+        converter.clipper = clipper;
+        return converter;
+    }
+
     /**
      * Get the projection
      *
@@ -189,6 +277,214 @@ public class GoogleMapShapeConverter {
         this.simplifyTolerance = simplifyTolerance;
     }
 
+    /**
+     * Get the zoom level of detail simplification
+     *
+     * @return level of detail, null for none
+     * @since 6.7.5
+     */
+    public LevelOfDetail getLevelOfDetail() {
+        return levelOfDetail;
+    }
+
+    /**
+     * Set the zoom level of detail simplification, simplifying lines and polygons to the
+     * tolerance of the level of detail zoom in place of the simplify tolerance
+     *
+     * @param levelOfDetail level of detail, null for none
+     * @since 6.7.5
+     */
+    public void setLevelOfDetail(LevelOfDetail levelOfDetail) {
+        this.levelOfDetail = levelOfDetail;
+    }
+
+    /**
+     * Get the zoom level of the level of detail simplification
+     *
+     * @return zoom level
+     * @since 6.7.5
+     */
+    public int getLevelOfDetailZoom() {
+        return levelOfDetailZoom;
+    }
+
+    /**
+     * Set the zoom level of the level of detail simplification, selecting the precomputed
+     * simplified points of the zoom level
+     *
+     * @param zoom zoom level, such as the current map camera zoom
+     * @since 6.7.5
+     */
+    public void setLevelOfDetailZoom(double zoom) {
+        this.levelOfDetailZoom = (int) Math.floor(zoom);
+    }
+
+    /**
+     * Set the feature of the next converted geometry, caching the level of detail ranks of its
+     * point lists by feature table, feature id, and part instead of by point list identity, so
+     * geometries of re-queried feature rows reuse the cached ranks. Set before converting each
+     * feature geometry. The feature is reset after converting with {@link #toShape(Geometry)},
+     * and remains set when converting with the geometry type specific methods until set again.
+     * Feature rows converted with {@link #toShapes(Iterable)} are keyed by their feature
+     * automatically. Cached ranks of edited feature points are detected and ranked again, or
+     * removed with {@link LevelOfDetail#removeFeature(String, long)}.
+     *
+     * @param table     feature table name, null to cache by point list identity
+     * @param featureId feature id
+     * @since 6.7.5
+     */
+    public void setLevelOfDetailFeature(String table, long featureId) {
+        this.levelOfDetailTable = table;
+        this.levelOfDetailFeatureId = featureId;
+        this.levelOfDetailPart = 0;
+    }
+
+    /**
+     * Get the WGS84 clip bounding box
+     *
+     * @return clip bounding box, null for no clipping
+     * @since 6.7.5
+     */
+    public BoundingBox getClipBoundingBox() {
+        return clipBoundingBox;
+    }
+
+    /**
+     * Set a WGS84 clip bounding box, such as the map viewport from
+     * {@link mil.nga.geopackage.map.MapUtils#getBoundingBox(GoogleMap)}. Lines and polygons are
+     * clipped to the bounding box expanded by the clip margin in projection space before lat lng
+     * conversion. Bounding boxes crossing the antimeridian may have a max longitude above 180.
+     * Edges created along the clipped margin boundary are intended to be off screen, so the margin
+     * should exceed the widest shape stroke.
+     *
+     * @param clipBoundingBox WGS84 clip bounding box, null for no clipping
+     * @since 6.7.5
+     */
+    public void setClipBoundingBox(BoundingBox clipBoundingBox) {
+        this.clipBoundingBox = clipBoundingBox;
+        clipper = createClipper();
+    }
+
+    /**
+     * Get the clip margin
+     *
+     * @return clip margin as a fraction of the clip bounding box width and height
+     * @since 6.7.5
+     */
+    public double getClipMargin() {
+        return clipMargin;
+    }
+
+    /**
+     * Set the clip margin
+     *
+     * @param clipMargin clip margin as a fraction of the clip bounding box width and height
+     * @since 6.7.5
+     */
+    public void setClipMargin(double clipMargin) {
+        this.clipMargin = clipMargin;
+        clipper = createClipper();
+    }
+
+    /**
+     * Create the clipper of the clip bounding box with margin, split at the antimeridian, in
+     * projection units
+     *
+     * @return clipper, null for no clipping
+     */
+    private GeometryClipper createClipper() {
+
+        GeometryClipper geometryClipper = null;
+
+        if (clipBoundingBox != null) {
+
+            double lonMargin = (clipBoundingBox.getMaxLongitude()
+                    - clipBoundingBox.getMinLongitude()) * clipMargin;
+            double latMargin = (clipBoundingBox.getMaxLatitude()
+                    - clipBoundingBox.getMinLatitude()) * clipMargin;
+            double minLongitude = clipBoundingBox.getMinLongitude() - lonMargin;
+            double maxLongitude = clipBoundingBox.getMaxLongitude() + lonMargin;
+            double minLatitude = Math.max(clipBoundingBox.getMinLatitude() - latMargin,
+                    -ProjectionConstants.WGS84_HALF_WORLD_LAT_HEIGHT);
+            double maxLatitude = Math.min(clipBoundingBox.getMaxLatitude() + latMargin,
+                    ProjectionConstants.WGS84_HALF_WORLD_LAT_HEIGHT);
+
+            double worldWidth = 2 * ProjectionConstants.WGS84_HALF_WORLD_LON_WIDTH;
+
+            List<BoundingBox> boundingBoxes = new ArrayList<>();
+            if (maxLongitude - minLongitude >= worldWidth) {
+                boundingBoxes.add(new BoundingBox(-ProjectionConstants.WGS84_HALF_WORLD_LON_WIDTH,
+                        minLatitude, ProjectionConstants.WGS84_HALF_WORLD_LON_WIDTH, maxLatitude));
+            } else {
+                while (minLongitude < -ProjectionConstants.WGS84_HALF_WORLD_LON_WIDTH) {
+                    minLongitude += worldWidth;
+                    maxLongitude += worldWidth;
+                }
+                while (minLongitude >= ProjectionConstants.WGS84_HALF_WORLD_LON_WIDTH) {
+                    minLongitude -= worldWidth;
+                    maxLongitude -= worldWidth;
+                }
+                if (maxLongitude <= ProjectionConstants.WGS84_HALF_WORLD_LON_WIDTH) {
+                    boundingBoxes.add(new BoundingBox(minLongitude, minLatitude, maxLongitude, maxLatitude));
+                } else {
+                    // Split at the antimeridian
+                    boundingBoxes.add(new BoundingBox(minLongitude, minLatitude,
+                            ProjectionConstants.WGS84_HALF_WORLD_LON_WIDTH, maxLatitude));
+                    boundingBoxes.add(new BoundingBox(-ProjectionConstants.WGS84_HALF_WORLD_LON_WIDTH,
+                            minLatitude, maxLongitude - worldWidth, maxLatitude));
+                }
+            }
+
+            List<BoundingBox> projectionBoundingBoxes = new ArrayList<>();
+            for (BoundingBox boundingBox : boundingBoxes) {
+                if (projection != null && !fromWgs84.isSameProjection()) {
+                    boundingBox = boundingBox.transform(fromWgs84);
+                }
+                projectionBoundingBoxes.add(boundingBox);
+            }
+
+            geometryClipper = new GeometryClipper(projectionBoundingBoxes);
+        }
+
+        return geometryClipper;
+    }
+
+    /**
+     * Clip the line points to the clip bounding box when set
+     *
+     * @param points line points
+     * @return clipped points
+     */
+    private List<Point> clipLinePoints(List<Point> points) {
+        if (clipper != null) {
+            points = clipper.clipLine(points);
+        }
+        return points;
+    }
+
+    /**
+     * Clip the polygon ring points to the clip bounding box when set
+     *
+     * @param points ring points
+     * @return clipped points
+     */
+    private List<Point> clipRingPoints(List<Point> points) {
+        if (clipper != null) {
+            points = clipper.clipRing(points);
+        }
+        return points;
+    }
+
+    /**
+     * Determine if the clipped polygon exterior ring points were removed by the clip bounding box
+     *
+     * @param points clipped exterior ring points
+     * @return true if clipped away
+     */
+    private boolean isClippedAway(List<Point> points) {
+        return clipper != null && points.isEmpty();
+    }
+
     /**
      * Transform a projection point to WGS84
      *
@@ -226,6 +522,68 @@ public class GoogleMapShapeConverter {
         return new LatLng(point.getY(), point.getX());
     }
 
+    /**
+     * Convert a list of {@link Point} to a list of {@link LatLng}, transforming the point
+     * coordinates to WGS84 without allocating a transformed point per vertex
+     *
+     * @param points points
+     * @return lat lngs
+     * @since 6.7.5
+     */
+    public List<LatLng> toLatLngs(List<Point> points) {
+        List<LatLng> latLngs = new ArrayList<>(points.size());
+        addLatLngs(points, latLngs, null);
+        return latLngs;
+    }
+
+    /**
+     * Convert the points to lat lngs in bulk and add them to the list. Point coordinates are
+     * transformed to WGS84 through a single pair of reused projection coordinates rather than a
+     * transformed point per vertex, skipped when already WGS84, and the max z value is tracked in
+     * the same pass.
+     *
+     * @param points  points
+     * @param latLngs lat lngs to add to
+     * @param z       current max z value, null when none
+     * @return max z value, null when none
+     */
+    private Double addLatLngs(List<Point> points, List<LatLng> latLngs, Double z) {
+
+        CoordinateTransform transform = null;
+        ProjCoordinate from = null;
+        ProjCoordinate to = null;
+        if (projection != null && !toWgs84.isSameProjection()) {
+            transform = toWgs84.getTransform();
+            from = new ProjCoordinate();
+            to = new ProjCoordinate();
+        }
+
+        boolean hasZ = z != null;
+        double maxZ = hasZ ? z : 0.0;
+
+        int count = points.size();
+        for (int i = 0; i < count; i++) {
+            Point point = points.get(i);
+            double x = point.getX();
+            double y = point.getY();
+            if (transform != null) {
+                from.x = x;
+                from.y = y;
+                transform.transform(from, to);
+                x = to.x;
+                y = to.y;
+            }
+            latLngs.add(new LatLng(y, x));
+            if (point.hasZ() && point.getZ() != null) {
+                double pointZ = point.getZ();
+                maxZ = hasZ ? Math.max(maxZ, pointZ) : pointZ;
+                hasZ = true;
+            }
+        }
+
+        return hasZ ? Double.valueOf(maxZ) : null;
+    }
+
     /**
      * Convert a {@link LatLng} to a {@link Point}
      *
@@ -261,18 +619,16 @@ public class GoogleMapShapeConverter {
     public PolylineOptions toPolyline(LineString lineString) {
 
         PolylineOptions polylineOptions = new PolylineOptions();
-        Double z = null;
 
         // Try to simplify the number of points in the line string
         List<Point> points = simplifyPoints(lineString.getPoints());
 
-        for (Point point : points) {
-            LatLng latLng = toLatLng(point);
-            polylineOptions.add(latLng);
-            if (point.hasZ()) {
-                z = (z == null) ? point.getZ() : Math.max(z, point.getZ());
-            }
-        }
+        // Clip the line string to the clip bounding box
+        points = clipLinePoints(points);
+
+        List<LatLng> latLngs = new ArrayList<>(points.size());
+        Double z = addLatLngs(points, latLngs, null);
+        polylineOptions.addAll(latLngs);
 
         if (lineString.hasZ() && z != null) {
             polylineOptions.zIndex(z.floatValue());
@@ -397,10 +753,11 @@ public class GoogleMapShapeConverter {
     }
 
     /**
-     * Convert a {@link Polygon} to a {@link PolygonOptions}
+     * Convert a {@link Polygon} to a {@link PolygonOptions}. When the polygon exterior is outside
+     * of the clip bounding box, no polygon options are returned.
      *
      * @param polygon polygon
-     * @return polygon options
+     * @return polygon options, null when clipped away
      */
     public PolygonOptions toPolygon(Polygon polygon) {
 
@@ -418,35 +775,37 @@ public class GoogleMapShapeConverter {
             // Try to simplify the number of points in the polygon ring
             List<Point> points = simplifyPoints(polygonLineString.getPoints());
 
-            for (Point point : points) {
-                LatLng latLng = toLatLng(point);
-                polygonOptions.add(latLng);
-                if (point.hasZ()) {
-                    z = (z == null) ? point.getZ() : Math.max(z, point.getZ());
-                }
-            }
+            // Clip the polygon ring to the clip bounding box
+            points = clipRingPoints(points);
+
+            if (isClippedAway(points)) {
+                polygonOptions = null;
+            } else {
+
+                List<LatLng> latLngs = new ArrayList<>(points.size());
+                z = addLatLngs(points, latLngs, z);
+                polygonOptions.addAll(latLngs);
+
+                // Add the holes
+                for (int i = 1; i < rings.size(); i++) {
+                    LineString hole = rings.get(i);
 
-            // Add the holes
-            for (int i = 1; i < rings.size(); i++) {
-                LineString hole = rings.get(i);
+                    // Try to simplify the number of points in the polygon hole
+                    List<Point> holePoints = simplifyPoints(hole.getPoints());
 
-                // Try to simplify the number of points in the polygon hole
-                List<Point> holePoints = simplifyPoints(hole.getPoints());
+                    // Clip the polygon hole to the clip bounding box
+                    holePoints = clipRingPoints(holePoints);
 
-                List<LatLng> holeLatLngs = new ArrayList<>();
-                for (Point point : holePoints) {
-                    LatLng latLng = toLatLng(point);
-                    holeLatLngs.add(latLng);
-                    if (point.hasZ()) {
-                        z = (z == null) ? point.getZ() : Math.max(z,
-                                point.getZ());
+                    if (!holePoints.isEmpty()) {
+                        List<LatLng> holeLatLngs = new ArrayList<>(holePoints.size());
+                        z = addLatLngs(holePoints, holeLatLngs, z);
+                        polygonOptions.addHole(holeLatLngs);
                     }
                 }
-                polygonOptions.addHole(holeLatLngs);
-            }
 
-            if (polygon.hasZ() && z != null) {
-                polygonOptions.zIndex(z.floatValue());
+                if (polygon.hasZ() && z != null) {
+                    polygonOptions.zIndex(z.floatValue());
+                }
             }
         }
 
@@ -454,10 +813,11 @@ public class GoogleMapShapeConverter {
     }
 
     /**
-     * Convert a {@link CurvePolygon} to a {@link PolygonOptions}
+     * Convert a {@link CurvePolygon} to a {@link PolygonOptions}. When the curve polygon exterior
+     * is outside of the clip bounding box, no polygon options are returned.
      *
      * @param curvePolygon curve polygon
-     * @return polygon options
+     * @return polygon options, null when clipped away
      * @since 1.4.1
      */
     public PolygonOptions toCurvePolygon(CurvePolygon<Curve> curvePolygon) {
@@ -472,6 +832,7 @@ public class GoogleMapShapeConverter {
 
             // Add the polygon points
             Curve curve = rings.get(0);
+            List<Point> ringPoints = new ArrayList<>();
             if (curve instanceof CompoundCurve) {
                 CompoundCurve compoundCurve = (CompoundCurve) curve;
                 for (LineString lineString : compoundCurve.getLineStrings()) {
@@ -479,13 +840,7 @@ public class GoogleMapShapeConverter {
                     // Try to simplify the number of points in the compound curve
                     List<Point> points = simplifyPoints(lineString.getPoints());
 
-                    for (Point point : points) {
-                        LatLng latLng = toLatLng(point);
-                        polygonOptions.add(latLng);
-                        if (point.hasZ()) {
-                            z = (z == null) ? point.getZ() : Math.max(z, point.getZ());
-                        }
-                    }
+                    ringPoints.addAll(points);
                 }
             } else if (curve instanceof LineString) {
                 LineString lineString = (LineString) curve;
@@ -493,62 +848,61 @@ public class GoogleMapShapeConverter {
                 // Try to simplify the number of points in the curve
                 List<Point> points = simplifyPoints(lineString.getPoints());
 
-                for (Point point : points) {
-                    LatLng latLng = toLatLng(point);
-                    polygonOptions.add(latLng);
-                    if (point.hasZ()) {
-                        z = (z == null) ? point.getZ() : Math.max(z, point.getZ());
-                    }
-                }
+                ringPoints.addAll(points);
             } else {
                 throw new GeoPackageException("Unsupported Curve Type: "
                         + curve.getClass().getSimpleName());
             }
 
-            // Add the holes
-            for (int i = 1; i < rings.size(); i++) {
-                Curve hole = rings.get(i);
-                List<LatLng> holeLatLngs = new ArrayList<>();
-                if (hole instanceof CompoundCurve) {
-                    CompoundCurve holeCompoundCurve = (CompoundCurve) hole;
-                    for (LineString holeLineString : holeCompoundCurve.getLineStrings()) {
+            // Clip the polygon ring to the clip bounding box
+            ringPoints = clipRingPoints(ringPoints);
+
+            if (isClippedAway(ringPoints)) {
+                polygonOptions = null;
+            } else {
+
+                List<LatLng> latLngs = new ArrayList<>(ringPoints.size());
+                z = addLatLngs(ringPoints, latLngs, z);
+                polygonOptions.addAll(latLngs);
+
+                // Add the holes
+                for (int i = 1; i < rings.size(); i++) {
+                    Curve hole = rings.get(i);
+                    List<Point> holeRingPoints = new ArrayList<>();
+                    if (hole instanceof CompoundCurve) {
+                        CompoundCurve holeCompoundCurve = (CompoundCurve) hole;
+                        for (LineString holeLineString : holeCompoundCurve.getLineStrings()) {
+
+                            // Try to simplify the number of points in the hole
+                            List<Point> holePoints = simplifyPoints(holeLineString.getPoints());
+
+                            holeRingPoints.addAll(holePoints);
+                        }
+                    } else if (hole instanceof LineString) {
+                        LineString holeLineString = (LineString) hole;
 
                         // Try to simplify the number of points in the hole
                         List<Point> holePoints = simplifyPoints(holeLineString.getPoints());
 
-                        for (Point point : holePoints) {
-                            LatLng latLng = toLatLng(point);
-                            holeLatLngs.add(latLng);
-                            if (point.hasZ()) {
-                                z = (z == null) ? point.getZ() : Math.max(z,
-                                        point.getZ());
-                            }
-                        }
+                        holeRingPoints.addAll(holePoints);
+                    } else {
+                        throw new GeoPackageException("Unsupported Curve Hole Type: "
+                                + hole.getClass().getSimpleName());
                     }
-                } else if (hole instanceof LineString) {
-                    LineString holeLineString = (LineString) hole;
-
-                    // Try to simplify the number of points in the hole
-                    List<Point> holePoints = simplifyPoints(holeLineString.getPoints());
-
-                    for (Point point : holePoints) {
-                        LatLng latLng = toLatLng(point);
-                        holeLatLngs.add(latLng);
-                        if (point.hasZ()) {
-                            z = (z == null) ? point.getZ() : Math.max(z,
-                                    point.getZ());
-                        }
+
+                    // Clip the polygon hole to the clip bounding box
+                    holeRingPoints = clipRingPoints(holeRingPoints);
+
+                    if (!holeRingPoints.isEmpty()) {
+                        List<LatLng> holeLatLngs = new ArrayList<>(holeRingPoints.size());
+                        z = addLatLngs(holeRingPoints, holeLatLngs, z);
+                        polygonOptions.addHole(holeLatLngs);
                     }
-                } else {
-                    throw new GeoPackageException("Unsupported Curve Hole Type: "
-                            + hole.getClass().getSimpleName());
                 }
 
-                polygonOptions.addHole(holeLatLngs);
-            }
-
-            if (curvePolygon.hasZ() && z != null) {
-                polygonOptions.zIndex(z.floatValue());
+                if (curvePolygon.hasZ() && z != null) {
+                    polygonOptions.zIndex(z.floatValue());
+                }
             }
         }
 
@@ -556,7 +910,7 @@ public class GoogleMapShapeConverter {
     }
 
     /**
-     * When the simplify tolerance is set, simplify the points to a similar
+     * When the level of detail or simplify tolerance is set, simplify the points to a similar
      * curve with fewer points.
      *
      * @param points ordered points
@@ -565,7 +919,18 @@ public class GoogleMapShapeConverter {
     private List<Point> simplifyPoints(List<Point> points) {
 
         List<Point> simplifiedPoints = null;
-        if (simplifyTolerance != null) {
+        if (levelOfDetail != null) {
+
+            // Select the ranked points of the zoom level
+            Object key = null;
+            if (levelOfDetailTable != null) {
+                key = LevelOfDetail.featureKey(levelOfDetailTable, levelOfDetailFeatureId,
+                        levelOfDetailPart++);
+            }
+            simplifiedPoints = levelOfDetail.simplify(key, points, levelOfDetailZoom,
+                    getLevelOfDetailTransform());
+
+        } else if (simplifyTolerance != null) {
 
             // Reproject to web mercator if not in meters
             if (projection != null && !projection.isUnit(Units.METRES)) {
@@ -587,6 +952,24 @@ public class GoogleMapShapeConverter {
         return simplifiedPoints;
     }
 
+    /**
+     * Get the transformation to Web Mercator of level of detail ranked points
+     *
+     * @return transformation
+     */
+    private GeometryTransform getLevelOfDetailTransform() {
+        if (levelOfDetailTransform == null) {
+            if (projection != null) {
+                levelOfDetailTransform = toWebMercator;
+            } else {
+                levelOfDetailTransform = GeometryTransform.create(
+                        ProjectionFactory.getProjection(ProjectionConstants.EPSG_WORLD_GEODETIC_SYSTEM),
+                        ProjectionConstants.EPSG_WEB_MERCATOR);
+            }
+        }
+        return levelOfDetailTransform;
+    }
+
     /**
      * Convert a {@link com.google.android.gms.maps.model.Polygon} to a
      * {@link Polygon}
@@ -739,8 +1122,7 @@ public class GoogleMapShapeConverter {
 
         MultiLatLng multiLatLng = new MultiLatLng();
 
-        for (Point point : multiPoint.getPoints()) {
-            LatLng latLng = toLatLng(point);
+        for (LatLng latLng : toLatLngs(multiPoint.getPoints())) {
             multiLatLng.add(latLng);
         }
 
@@ -993,7 +1375,9 @@ public class GoogleMapShapeConverter {
 
         for (Polygon polygon : multiPolygon.getPolygons()) {
             PolygonOptions polygonOptions = toPolygon(polygon);
-            polygons.add(polygonOptions);
+            if (polygonOptions != null) {
+                polygons.add(polygonOptions);
+            }
         }
 
         return polygons;
@@ -1192,7 +1576,9 @@ public class GoogleMapShapeConverter {
 
         for (Polygon polygon : polyhedralSurface.getPolygons()) {
             PolygonOptions polygonOptions = toPolygon(polygon);
-            polygons.add(polygonOptions);
+            if (polygonOptions != null) {
+                polygons.add(polygonOptions);
+            }
         }
 
         return polygons;
@@ -1265,15 +1651,34 @@ public class GoogleMapShapeConverter {
     }
 
     /**
-     * Convert a {@link Geometry} to a Map shape
+     * Convert a {@link Geometry} to a Map shape. The level of detail feature is reset after
+     * converting, see {@link #setLevelOfDetailFeature(String, long)}.
+     *
+     * @param geometry geometry
+     * @return google map shape, null when a polygon is outside of the clip bounding box
+     */
+    public GoogleMapShape toShape(Geometry geometry) {
+        GoogleMapShape shape;
+        try {
+            shape = createShape(geometry);
+        } finally {
+            setLevelOfDetailFeature(null, 0);
+        }
+        return shape;
+    }
+
+    /**
+     * Create a Map shape from a {@link Geometry}, keeping the level of detail feature so all
+     * parts of the geometry are keyed by the feature
      *
      * @param geometry geometry
      * @return google map shape
      */
     @SuppressWarnings("unchecked")
-    public GoogleMapShape toShape(Geometry geometry) {
+    private GoogleMapShape createShape(Geometry geometry) {
 
         GoogleMapShape shape = null;
+        PolygonOptions polygonOptions = null;
 
         GeometryType geometryType = geometry.getGeometryType();
         switch (geometryType) {
@@ -1287,9 +1692,7 @@ public class GoogleMapShapeConverter {
                         toPolyline((LineString) geometry));
                 break;
             case POLYGON:
-                shape = new GoogleMapShape(geometryType,
-                        GoogleMapShapeType.POLYGON_OPTIONS,
-                        toPolygon((Polygon) geometry));
+                polygonOptions = toPolygon((Polygon) geometry);
                 break;
             case MULTIPOINT:
                 shape = new GoogleMapShape(geometryType,
@@ -1317,9 +1720,7 @@ public class GoogleMapShapeConverter {
                         toPolylines((CompoundCurve) geometry));
                 break;
             case CURVEPOLYGON:
-                shape = new GoogleMapShape(geometryType,
-                        GoogleMapShapeType.POLYGON_OPTIONS,
-                        toCurvePolygon((CurvePolygon<Curve>) geometry));
+                polygonOptions = toCurvePolygon((CurvePolygon<Curve>) geometry);
                 break;
             case POLYHEDRALSURFACE:
                 shape = new GoogleMapShape(geometryType,
@@ -1332,53 +1733,336 @@ public class GoogleMapShapeConverter {
                         toPolygons((TIN) geometry));
                 break;
             case TRIANGLE:
-                shape = new GoogleMapShape(geometryType,
-                        GoogleMapShapeType.POLYGON_OPTIONS,
-                        toPolygon((Triangle) geometry));
+                polygonOptions = toPolygon((Triangle) geometry);
                 break;
             case GEOMETRYCOLLECTION:
                 shape = new GoogleMapShape(geometryType,
                         GoogleMapShapeType.COLLECTION,
-                        toShapes((GeometryCollection<Geometry>) geometry));
+                        createShapes((GeometryCollection<Geometry>) geometry));
                 break;
             default:
                 throw new GeoPackageException("Unsupported Geometry Type: "
                         + geometryType.getName());
         }
 
+        // Polygons clipped away have no shape
+        if (polygonOptions != null) {
+            shape = new GoogleMapShape(geometryType,
+                    GoogleMapShapeType.POLYGON_OPTIONS, polygonOptions);
+        }
+
         return shape;
     }
 
     /**
-     * Convert a {@link GeometryCollection} to a list of Map shapes
+     * Convert a {@link GeometryCollection} to a list of Map shapes. The level of detail feature
+     * is reset after converting, see {@link #setLevelOfDetailFeature(String, long)}.
      *
      * @param geometryCollection geometry collection
      * @return google map shapes
      */
     public List<GoogleMapShape> toShapes(
             GeometryCollection<Geometry> geometryCollection) {
+        List<GoogleMapShape> shapes;
+        try {
+            shapes = createShapes(geometryCollection);
+        } finally {
+            setLevelOfDetailFeature(null, 0);
+        }
+        return shapes;
+    }
+
+    /**
+     * Create a list of Map shapes from a {@link GeometryCollection}, keeping the level of detail
+     * feature
+     *
+     * @param geometryCollection geometry collection
+     * @return google map shapes
+     */
+    private List<GoogleMapShape> createShapes(
+            GeometryCollection<Geometry> geometryCollection) {
 
         List<GoogleMapShape> shapes = new ArrayList<>();
 
         for (Geometry geometry : geometryCollection.getGeometries()) {
-            GoogleMapShape shape = toShape(geometry);
-            shapes.add(shape);
+            GoogleMapShape shape = createShape(geometry);
+            if (shape != null) {
+                shapes.add(shape);
+            }
         }
 
         return shapes;
     }
 
+    /**
+     * Convert the feature row geometries to Map shapes in parallel on the common fork join pool
+     *
+     * @param featureRows feature rows
+     * @return google map shapes in feature row order, null for rows without a geometry
+     * or clipped away
+     * @since 6.7.5
+     */
+    public List<GoogleMapShape> toShapes(Iterable<FeatureRow> featureRows) {
+        return toShapes(featureRows, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Convert the feature row geometries to Map shapes in parallel. Geometries are converted,
+     * simplified, and clipped by converter copies in tasks of up to the default batch size. The
+     * returned shapes are not added to a map, see {@link #addShapesToMap(GoogleMap, List)}.
+     *
+     * @param featureRows feature rows
+     * @param pool        fork join pool
+     * @return google map shapes in feature row order, null for rows without a geometry
+     * or clipped away
+     * @since 6.7.5
+     */
+    public List<GoogleMapShape> toShapes(Iterable<FeatureRow> featureRows, ForkJoinPool pool) {
+        List<FeatureRow> rows = toList(featureRows);
+        GoogleMapShape[] shapes = new GoogleMapShape[rows.size()];
+        pool.invoke(new ShapesTask(this, rows, shapes, 0, rows.size(), DEFAULT_BATCH_SIZE));
+        return Arrays.asList(shapes);
+    }
+
+    /**
+     * Convert the feature row geometries to Map shapes in parallel, streaming the shapes to the
+     * callback in feature row order chunks as they complete. Feature rows are read on the calling
+     * thread a chunk at a time, with at most the pool parallelism plus one chunks converting or
+     * awaiting delivery, so memory is bounded by the chunk window rather than the row count.
+     * Later chunks continue converting while earlier chunks are delivered. Callbacks are made on
+     * the calling thread, which should not be the UI thread. The callback marshals adding the
+     * chunk shapes to the map onto the UI thread. When a chunk conversion or callback fails, the
+     * remaining chunks are cancelled and the failure is thrown.
+     *
+     * @param featureRows feature rows
+     * @param pool        fork join pool
+     * @param chunkSize   number of feature rows per callback chunk
+     * @param callback    shapes callback
+     * @return number of feature rows converted
+     * @since 6.7.5
+     */
+    public int toShapes(Iterable<FeatureRow> featureRows, ForkJoinPool pool, int chunkSize,
+                        GoogleMapShapesCallback callback) {
+
+        if (chunkSize < 1) {
+            throw new GeoPackageException("Chunk size must be positive: " + chunkSize);
+        }
+
+        int batchSize = Math.min(chunkSize, DEFAULT_BATCH_SIZE);
+        int window = pool.getParallelism() + 1;
+
+        Iterator<FeatureRow> iterator = featureRows.iterator();
+        Deque<ShapesChunk> chunks = new ArrayDeque<>(window);
+        int count = 0;
+
+        try {
+            while (iterator.hasNext() || !chunks.isEmpty()) {
+
+                // Read and submit chunks until the window is full
+                while (chunks.size() < window && iterator.hasNext()) {
+                    List<FeatureRow> rows = new ArrayList<>();
+                    while (rows.size() < chunkSize && iterator.hasNext()) {
+                        rows.add(iterator.next());
+                    }
+                    GoogleMapShape[] shapes = new GoogleMapShape[rows.size()];
+                    ForkJoinTask<Void> task = pool.submit(
+                            new ShapesTask(this, rows, shapes, 0, rows.size(), batchSize));
+                    chunks.add(new ShapesChunk(count, rows, shapes, task));
+                    count += rows.size();
+                }
+
+                // Deliver the oldest chunk once converted
+                ShapesChunk chunk = chunks.poll();
+                chunk.task.join();
+                callback.onShapes(chunk.index, chunk.featureRows, Arrays.asList(chunk.shapes));
+            }
+        } finally {
+            // Cancel the chunks remaining after a failure
+            for (ShapesChunk chunk : chunks) {
+                chunk.task.cancel(true);
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Convert a feature row geometry to a Map shape
+     *
+     * @param featureRow feature row
+     * @return google map shape, null when the row has no geometry
+     */
+    private GoogleMapShape toShape(FeatureRow featureRow) {
+        GoogleMapShape shape = null;
+        GeoPackageGeometryData geometryData = featureRow.getGeometry();
+        if (geometryData != null) {
+            Geometry geometry = geometryData.getGeometry();
+            if (geometry != null) {
+                if (levelOfDetail != null) {
+                    setLevelOfDetailFeature(featureRow.getTable().getTableName(),
+                            featureRow.getId());
+                }
+                shape = toShape(geometry);
+            }
+        }
+        return shape;
+    }
+
+    /**
+     * Read the feature rows into a list on the calling thread, as feature row iterables such as
+     * cursors are not thread safe
+     *
+     * @param featureRows feature rows
+     * @return feature row list
+     */
+    private static List<FeatureRow> toList(Iterable<FeatureRow> featureRows) {
+        List<FeatureRow> rows;
+        if (featureRows instanceof List) {
+            rows = (List<FeatureRow>) featureRows;
+        } else {
+            rows = new ArrayList<>();
+            for (FeatureRow featureRow : featureRows) {
+                rows.add(featureRow);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Recursive task converting a range of feature rows to Map shapes, splitting until the
+     * range is within the batch size and converting each batch with a converter copy
+     */
+    private static class ShapesTask extends RecursiveAction {
+
+        /**
+         * Serial version UID
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Converter to copy
+         */
+        private final GoogleMapShapeConverter converter;
+
+        /**
+         * Feature rows
+         */
+        private final List<FeatureRow> featureRows;
+
+        /**
+         * Converted shapes by feature row index
+         */
+        private final GoogleMapShape[] shapes;
+
+        /**
+         * Start feature row index, inclusive
+         */
+        private final int start;
+
+        /**
+         * End feature row index, exclusive
+         */
+        private final int end;
+
+        /**
+         * Max number of feature rows converted by a single task
+         */
+        private final int batchSize;
+
+        /**
+         * Constructor
+         *
+         * @param converter   converter to copy
+         * @param featureRows feature rows
+         * @param shapes      converted shapes by feature row index
+         * @param start       start feature row index, inclusive
+         * @param end         end feature row index, exclusive
+         * @param batchSize   max number of feature rows converted by a single task
+         */
+        private ShapesTask(GoogleMapShapeConverter converter, List<FeatureRow> featureRows,
+                           GoogleMapShape[] shapes, int start, int end, int batchSize) {
+            this.converter = converter;
+            this.featureRows = featureRows;
+            this.shapes = shapes;
+            this.start = start;
+            this.end = end;
+            this.batchSize = batchSize;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void compute() {
+            if (end - start > batchSize) {
+                int middle = (start + end) >>> 1;
+                invokeAll(new ShapesTask(converter, featureRows, shapes, start, middle, batchSize),
+                        new ShapesTask(converter, featureRows, shapes, middle, end, batchSize));
+            } else {
+                GoogleMapShapeConverter batchConverter = converter.copy();
+                for (int i = start; i < end; i++) {
+                    shapes[i] = batchConverter.toShape(featureRows.get(i));
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Chunk of feature rows submitted for parallel conversion
+     */
+    private static class ShapesChunk {
+
+        /**
+         * Index of the first chunk feature row within all feature rows
+         */
+        private final int index;
+
+        /**
+         * Chunk feature rows
+         */
+        private final List<FeatureRow> featureRows;
+
+        /**
+         * Converted shapes by chunk feature row index
+         */
+        private final GoogleMapShape[] shapes;
+
+        /**
+         * Conversion task
+         */
+        private final ForkJoinTask<Void> task;
+
+        /**
+         * Constructor
+         *
+         * @param index       index of the first chunk feature row within all feature rows
+         * @param featureRows chunk feature rows
+         * @param shapes      converted shapes by chunk feature row index
+         * @param task        conversion task
+         */
+        private ShapesChunk(int index, List<FeatureRow> featureRows, GoogleMapShape[] shapes,
+                            ForkJoinTask<Void> task) {
+            this.index = index;
+            this.featureRows = featureRows;
+            this.shapes = shapes;
+            this.task = task;
+        }
+
+    }
+
     /**
      * Convert a {@link Geometry} to a Map shape and add it
      *
      * @param map      google map
      * @param geometry geometry
-     * @return google map shape
+     * @return google map shape, null when a polygon is outside of the clip bounding box
      */
     @SuppressWarnings("unchecked")
     public GoogleMapShape addToMap(GoogleMap map, Geometry geometry) {
 
         GoogleMapShape shape = null;
+        PolygonOptions polygonOptions = null;
 
         GeometryType geometryType = geometry.getGeometryType();
         switch (geometryType) {
@@ -1392,9 +2076,7 @@ public class GoogleMapShapeConverter {
                         toPolyline((LineString) geometry)));
                 break;
             case POLYGON:
-                shape = new GoogleMapShape(geometryType,
-                        GoogleMapShapeType.POLYGON, addPolygonToMap(map,
-                        toPolygon((Polygon) geometry)));
+                polygonOptions = toPolygon((Polygon) geometry);
                 break;
             case MULTIPOINT:
                 shape = new GoogleMapShape(geometryType,
@@ -1422,9 +2104,7 @@ public class GoogleMapShapeConverter {
                         toPolylines((CompoundCurve) geometry)));
                 break;
             case CURVEPOLYGON:
-                shape = new GoogleMapShape(geometryType,
-                        GoogleMapShapeType.POLYGON, addPolygonToMap(map,
-                        toCurvePolygon((CurvePolygon<Curve>) geometry)));
+                polygonOptions = toCurvePolygon((CurvePolygon<Curve>) geometry);
                 break;
             case POLYHEDRALSURFACE:
                 shape = new GoogleMapShape(geometryType,
@@ -1437,9 +2117,7 @@ public class GoogleMapShapeConverter {
                         toPolygons((TIN) geometry)));
                 break;
             case TRIANGLE:
-                shape = new GoogleMapShape(geometryType,
-                        GoogleMapShapeType.POLYGON, addPolygonToMap(map,
-                        toPolygon((Triangle) geometry)));
+                polygonOptions = toPolygon((Triangle) geometry);
                 break;
             case GEOMETRYCOLLECTION:
                 shape = new GoogleMapShape(geometryType,
@@ -1451,6 +2129,12 @@ public class GoogleMapShapeConverter {
                         + geometryType.getName());
         }
 
+        // Polygons clipped away are not added
+        if (polygonOptions != null) {
+            shape = new GoogleMapShape(geometryType,
+                    GoogleMapShapeType.POLYGON, addPolygonToMap(map, polygonOptions));
+        }
+
         return shape;
     }
 
@@ -1523,6 +2207,28 @@ public class GoogleMapShapeConverter {
         return addedShape;
     }
 
+    /**
+     * Add the shapes to the map, such as a chunk of parallel converted shapes on the UI thread.
+     * See {@link GoogleMapShapeAddScheduler} to add shapes within a per frame time budget.
+     *
+     * @param map    google map
+     * @param shapes google map shapes, null shapes are skipped
+     * @return added google map shapes in shape order, null for skipped shapes
+     * @since 6.7.5
+     */
+    public static List<GoogleMapShape> addShapesToMap(GoogleMap map,
+                                                      List<GoogleMapShape> shapes) {
+        List<GoogleMapShape> addedShapes = new ArrayList<>();
+        for (GoogleMapShape shape : shapes) {
+            GoogleMapShape addedShape = null;
+            if (shape != null) {
+                addedShape = addShapeToMap(map, shape);
+            }
+            addedShapes.add(addedShape);
+        }
+        return addedShapes;
+    }
+
     /**
      * Add a LatLng to the map
      *
@@ -1675,7 +2381,9 @@ public class GoogleMapShapeConverter {
 
         for (Geometry geometry : geometryCollection.getGeometries()) {
             GoogleMapShape shape = addToMap(map, geometry);
-            shapes.add(shape);
+            if (shape != null) {
+                shapes.add(shape);
+            }
         }
 
         return shapes;
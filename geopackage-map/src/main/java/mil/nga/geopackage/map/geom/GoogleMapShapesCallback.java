@@ -0,0 +1,26 @@
+package mil.nga.geopackage.map.geom;
+
+import java.util.List;
+
+import mil.nga.geopackage.features.user.FeatureRow;
+
+/**
+ * Callback of parallel converted Map shape chunks, made in feature row order on the converting
+ * thread. Adding the shapes to a map must be posted to the UI thread.
+ *
+ * @author osbornb
+ * @since 6.7.5
+ */
+public interface GoogleMapShapesCallback {
+
+    /**
+     * Called when a chunk of feature rows has been converted
+     *
+     * @param index       index of the first chunk feature row within all feature rows
+     * @param featureRows chunk feature rows
+     * @param shapes      google map shapes in feature row order, null for rows without a geometry
+     *                    or clipped away
+     */
+    void onShapes(int index, List<FeatureRow> featureRows, List<GoogleMapShape> shapes);
+
+}
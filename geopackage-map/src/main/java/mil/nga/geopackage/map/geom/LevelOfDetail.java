@@ -0,0 +1,667 @@
+package mil.nga.geopackage.map.geom;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import mil.nga.sf.Point;
+import mil.nga.sf.proj.GeometryTransform;
+
+/**
+ * Zoom level of detail simplification of shape points. Douglas-Peucker importance ranks are
+ * computed once per point list, the Web Mercator meter tolerance at which each point would be
+ * removed. Simplifying to a zoom level selects the points ranked above the zoom tolerance, and
+ * the simplified points are cached per zoom level, so changing zoom selects precomputed points
+ * instead of simplifying again. Point lists are cached by identity and released when no longer
+ * referenced, or by a caller provided key such as {@link #featureKey(String, long, int)} so
+ * re-queried feature rows reuse the cached ranks. Keyed point lists are different instances
+ * each query, so their cached ranks are validated against a fingerprint of the point
+ * coordinates and the points are selected from the current point list. A single level of
+ * detail may be shared by multiple converters and threads.
+ *
+ * @author osbornb
+ * @since 6.7.5
+ */
+public class LevelOfDetail {
+
+    /**
+     * Default pixel tolerance
+     */
+    public static final double DEFAULT_PIXEL_TOLERANCE = 0.5;
+
+    /**
+     * Default max number of cached ranks and simplified points
+     */
+    public static final int DEFAULT_MAX_POINTS = 1000000;
+
+    /**
+     * Web Mercator world width in meters
+     */
+    private static final double WORLD_METERS = 2 * Math.PI * 6378137;
+
+    /**
+     * Web Mercator world width in pixels at zoom level 0
+     */
+    private static final int WORLD_PIXELS = 256;
+
+    /**
+     * Pixel tolerance
+     */
+    private final double pixelTolerance;
+
+    /**
+     * Max number of cached ranks and simplified points
+     */
+    private final int maxPoints;
+
+    /**
+     * Least recently used ordered point list details
+     */
+    private final LinkedHashMap<Object, PointsDetail> details = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Queue of point list keys no longer referenced
+     */
+    private final ReferenceQueue<List<Point>> releasedPoints = new ReferenceQueue<>();
+
+    /**
+     * Current number of cached ranks and simplified points
+     */
+    private long size = 0;
+
+    /**
+     * Number of cache hits
+     */
+    private int hitCount = 0;
+
+    /**
+     * Number of cache misses
+     */
+    private int missCount = 0;
+
+    /**
+     * Constructor, uses the default pixel tolerance
+     */
+    public LevelOfDetail() {
+        this(DEFAULT_PIXEL_TOLERANCE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param pixelTolerance tolerance in pixels a simplified shape may differ from the original
+     */
+    public LevelOfDetail(double pixelTolerance) {
+        this(pixelTolerance, DEFAULT_MAX_POINTS);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param pixelTolerance tolerance in pixels a simplified shape may differ from the original
+     * @param maxPoints      max number of cached ranks and simplified points
+     */
+    public LevelOfDetail(double pixelTolerance, int maxPoints) {
+        this.pixelTolerance = pixelTolerance;
+        this.maxPoints = maxPoints;
+    }
+
+    /**
+     * Get the pixel tolerance
+     *
+     * @return pixel tolerance
+     */
+    public double getPixelTolerance() {
+        return pixelTolerance;
+    }
+
+    /**
+     * Get the max number of cached ranks and simplified points
+     *
+     * @return max points
+     */
+    public int getMaxPoints() {
+        return maxPoints;
+    }
+
+    /**
+     * Get the simplify tolerance in Web Mercator meters at the zoom level. Override to provide a
+     * different zoom to tolerance function.
+     *
+     * @param zoom zoom level
+     * @return tolerance in Web Mercator meters
+     */
+    public double getTolerance(int zoom) {
+        return pixelTolerance * WORLD_METERS / (WORLD_PIXELS * Math.pow(2.0, zoom));
+    }
+
+    /**
+     * Get a key of a feature point list, caching the point list by feature table, feature id,
+     * and part instead of by identity
+     *
+     * @param table     feature table name
+     * @param featureId feature id
+     * @param part      index of the point list within the feature geometry
+     * @return points key
+     */
+    public static Object featureKey(String table, long featureId, int part) {
+        return new FeatureKey(table, featureId, part);
+    }
+
+    /**
+     * Simplify the points to the zoom level, selecting the points ranked above the zoom
+     * tolerance. The points are cached by identity.
+     *
+     * @param points        ordered points
+     * @param zoom          zoom level
+     * @param toWebMercator transform of the points to Web Mercator, null when already Web Mercator
+     * @return simplified points
+     */
+    public List<Point> simplify(List<Point> points, int zoom, GeometryTransform toWebMercator) {
+        return simplify(null, points, zoom, toWebMercator);
+    }
+
+    /**
+     * Simplify the points to the zoom level, selecting the points ranked above the zoom
+     * tolerance. The ranks are cached by the key and selected from the provided points. Cached
+     * ranks of changed points are detected by a coordinate fingerprint and ranked again.
+     *
+     * @param key           points key with value equality, such as
+     *                      {@link #featureKey(String, long, int)}, null to cache by identity
+     * @param points        ordered points
+     * @param zoom          zoom level
+     * @param toWebMercator transform of the points to Web Mercator, null when already Web Mercator
+     * @return simplified points
+     */
+    public List<Point> simplify(Object key, List<Point> points, int zoom, GeometryTransform toWebMercator) {
+
+        List<Point> simplifiedPoints = null;
+
+        long fingerprint = key != null ? fingerprint(points) : 0;
+
+        double[] ranks = null;
+        synchronized (this) {
+            expungeReleased();
+            PointsDetail detail = details.get(key != null ? key : new PointsKey(points, null));
+            if (detail != null && detail.matches(points.size(), fingerprint)) {
+                ranks = detail.ranks;
+                if (key == null) {
+                    // Identity cached points are the same list, reuse the simplified points
+                    simplifiedPoints = detail.simplified.get(zoom);
+                }
+            }
+            if (key != null ? ranks != null : simplifiedPoints != null) {
+                hitCount++;
+            } else {
+                missCount++;
+            }
+        }
+
+        if (simplifiedPoints == null) {
+
+            // Rank the points once, outside of the lock
+            boolean ranked = ranks == null;
+            if (ranked) {
+                List<Point> rankPoints = points;
+                if (toWebMercator != null && !toWebMercator.isSameProjection()) {
+                    rankPoints = toWebMercator.transform(points);
+                }
+                ranks = computeRanks(rankPoints);
+            }
+
+            simplifiedPoints = select(points, ranks, getTolerance(zoom));
+
+            if (ranked || key == null) {
+                synchronized (this) {
+                    Object detailKey = key != null ? key : new PointsKey(points, releasedPoints);
+                    PointsDetail detail = details.get(detailKey);
+                    if (detail != null && !detail.matches(ranks.length, fingerprint)) {
+                        removeDetail(detailKey);
+                        detail = null;
+                    }
+                    if (detail == null) {
+                        detail = new PointsDetail(ranks, fingerprint);
+                        details.put(detailKey, detail);
+                        size += ranks.length;
+                    }
+                    if (key == null && detail.simplified.put(zoom, simplifiedPoints) == null) {
+                        size += simplifiedPoints.size();
+                    }
+                    trim();
+                }
+            }
+        }
+
+        return simplifiedPoints;
+    }
+
+    /**
+     * Compute the Douglas-Peucker importance ranks of the points, the tolerance at which each
+     * point is removed in the points units. End points are ranked as infinite and are never
+     * removed. Simplifying to a tolerance keeps the points ranked above the tolerance.
+     *
+     * @param points ordered points
+     * @return ranks
+     */
+    public static double[] computeRanks(List<Point> points) {
+
+        int count = points.size();
+        double[] x = new double[count];
+        double[] y = new double[count];
+        for (int i = 0; i < count; i++) {
+            Point point = points.get(i);
+            x[i] = point.getX();
+            y[i] = point.getY();
+        }
+
+        double[] ranks = new double[count];
+        if (count > 0) {
+            ranks[0] = Double.POSITIVE_INFINITY;
+            ranks[count - 1] = Double.POSITIVE_INFINITY;
+        }
+
+        // Iterative segment stack of start index, end index, and parent rank
+        int capacity = Math.max(2, count);
+        int[] starts = new int[capacity];
+        int[] ends = new int[capacity];
+        double[] parentRanks = new double[capacity];
+        int stack = 0;
+
+        if (count > 2) {
+            starts[stack] = 0;
+            ends[stack] = count - 1;
+            parentRanks[stack] = Double.POSITIVE_INFINITY;
+            stack++;
+        }
+
+        while (stack > 0) {
+            stack--;
+            int start = starts[stack];
+            int end = ends[stack];
+            double parentRank = parentRanks[stack];
+
+            // Find the farthest point from the segment
+            int farthest = -1;
+            double maxDistance = -1.0;
+            for (int i = start + 1; i < end; i++) {
+                double distance = segmentDistance(x[i], y[i], x[start], y[start], x[end], y[end]);
+                if (distance > maxDistance) {
+                    maxDistance = distance;
+                    farthest = i;
+                }
+            }
+
+            // A point is kept only while the points splitting its parent segments are kept
+            double rank = Math.min(maxDistance, parentRank);
+            ranks[farthest] = rank;
+
+            if (farthest - start > 1) {
+                starts[stack] = start;
+                ends[stack] = farthest;
+                parentRanks[stack] = rank;
+                stack++;
+            }
+            if (end - farthest > 1) {
+                starts[stack] = farthest;
+                ends[stack] = end;
+                parentRanks[stack] = rank;
+                stack++;
+            }
+        }
+
+        return ranks;
+    }
+
+    /**
+     * Select the points ranked above the tolerance
+     *
+     * @param points    ordered points
+     * @param ranks     point ranks
+     * @param tolerance tolerance
+     * @return selected points
+     */
+    public static List<Point> select(List<Point> points, double[] ranks, double tolerance) {
+        List<Point> selected = new ArrayList<>();
+        for (int i = 0; i < ranks.length; i++) {
+            if (ranks[i] > tolerance) {
+                selected.add(points.get(i));
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Remove the cached ranks and simplified points of the points key, such as after the points
+     * are edited
+     *
+     * @param key points key
+     */
+    public synchronized void remove(Object key) {
+        removeDetail(key);
+    }
+
+    /**
+     * Remove the cached ranks and simplified points of all parts of the feature, such as after
+     * the feature is edited
+     *
+     * @param table     feature table name
+     * @param featureId feature id
+     */
+    public synchronized void removeFeature(String table, long featureId) {
+        Iterator<Map.Entry<Object, PointsDetail>> entries = details.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Object, PointsDetail> entry = entries.next();
+            if (entry.getKey() instanceof FeatureKey
+                    && ((FeatureKey) entry.getKey()).isFeature(table, featureId)) {
+                size -= entry.getValue().size();
+                entries.remove();
+            }
+        }
+    }
+
+    /**
+     * Clear all cached ranks and simplified points
+     */
+    public synchronized void clear() {
+        details.clear();
+        size = 0;
+        while (releasedPoints.poll() != null) {
+            // Drain released keys of the cleared details
+        }
+    }
+
+    /**
+     * Get the number of cached point lists
+     *
+     * @return point list count
+     */
+    public synchronized int count() {
+        expungeReleased();
+        return details.size();
+    }
+
+    /**
+     * Get the current number of cached ranks and simplified points
+     *
+     * @return size
+     */
+    public synchronized long size() {
+        expungeReleased();
+        return size;
+    }
+
+    /**
+     * Get the number of cache hits
+     *
+     * @return hit count
+     */
+    public synchronized int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Get the number of cache misses
+     *
+     * @return miss count
+     */
+    public synchronized int getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Remove the details of point lists no longer referenced
+     */
+    private void expungeReleased() {
+        Object released;
+        while ((released = releasedPoints.poll()) != null) {
+            removeDetail(released);
+        }
+    }
+
+    /**
+     * Evict least recently used details until within the max points
+     */
+    private void trim() {
+        Iterator<Map.Entry<Object, PointsDetail>> entries = details.entrySet().iterator();
+        while (size > maxPoints && entries.hasNext()) {
+            size -= entries.next().getValue().size();
+            entries.remove();
+        }
+    }
+
+    /**
+     * Remove the details of the points key
+     *
+     * @param key points key
+     */
+    private void removeDetail(Object key) {
+        PointsDetail detail = details.remove(key);
+        if (detail != null) {
+            size -= detail.size();
+        }
+    }
+
+    /**
+     * Get a fingerprint of the point coordinates, detecting changed points of a key
+     *
+     * @param points points
+     * @return fingerprint
+     */
+    private static long fingerprint(List<Point> points) {
+        long fingerprint = 1;
+        for (Point point : points) {
+            fingerprint = 31 * fingerprint + Double.doubleToLongBits(point.getX());
+            fingerprint = 31 * fingerprint + Double.doubleToLongBits(point.getY());
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Get the distance from the point to the segment
+     *
+     * @param x      point x
+     * @param y      point y
+     * @param startX segment start x
+     * @param startY segment start y
+     * @param endX   segment end x
+     * @param endY   segment end y
+     * @return distance
+     */
+    private static double segmentDistance(double x, double y, double startX, double startY,
+                                          double endX, double endY) {
+        double dx = endX - startX;
+        double dy = endY - startY;
+        double lengthSquared = dx * dx + dy * dy;
+        double closestX = startX;
+        double closestY = startY;
+        if (lengthSquared > 0) {
+            double t = ((x - startX) * dx + (y - startY) * dy) / lengthSquared;
+            t = Math.max(0.0, Math.min(1.0, t));
+            closestX += t * dx;
+            closestY += t * dy;
+        }
+        return Math.hypot(x - closestX, y - closestY);
+    }
+
+    /**
+     * Weak identity key of a point list
+     */
+    private static class PointsKey extends WeakReference<List<Point>> {
+
+        /**
+         * Identity hash code of the point list
+         */
+        private final int hash;
+
+        /**
+         * Constructor
+         *
+         * @param points points
+         * @param queue  reference queue, null for lookup keys
+         */
+        private PointsKey(List<Point> points, ReferenceQueue<List<Point>> queue) {
+            super(points, queue);
+            hash = System.identityHashCode(points);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            List<Point> points = get();
+            return points != null && points == ((PointsKey) obj).get();
+        }
+
+    }
+
+    /**
+     * Key of a feature point list by feature table, feature id, and part
+     */
+    private static class FeatureKey {
+
+        /**
+         * Feature table name
+         */
+        private final String table;
+
+        /**
+         * Feature id
+         */
+        private final long featureId;
+
+        /**
+         * Index of the point list within the feature geometry
+         */
+        private final int part;
+
+        /**
+         * Constructor
+         *
+         * @param table     feature table name
+         * @param featureId feature id
+         * @param part      index of the point list within the feature geometry
+         */
+        private FeatureKey(String table, long featureId, int part) {
+            this.table = table;
+            this.featureId = featureId;
+            this.part = part;
+        }
+
+        /**
+         * Is the key of a point list of the feature
+         *
+         * @param table     feature table name
+         * @param featureId feature id
+         * @return true if of the feature
+         */
+        private boolean isFeature(String table, long featureId) {
+            return this.featureId == featureId && this.table.equals(table);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            int hash = table.hashCode();
+            hash = 31 * hash + (int) (featureId ^ (featureId >>> 32));
+            hash = 31 * hash + part;
+            return hash;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            FeatureKey other = (FeatureKey) obj;
+            return part == other.part && isFeature(other.table, other.featureId);
+        }
+
+    }
+
+    /**
+     * Point list ranks and simplified points by zoom level. Simplified points are cached only
+     * for identity keyed point lists.
+     */
+    private static class PointsDetail {
+
+        /**
+         * Point ranks
+         */
+        private final double[] ranks;
+
+        /**
+         * Point coordinates fingerprint, 0 for identity keyed point lists
+         */
+        private final long fingerprint;
+
+        /**
+         * Simplified points by zoom level
+         */
+        private final Map<Integer, List<Point>> simplified = new HashMap<>();
+
+        /**
+         * Constructor
+         *
+         * @param ranks       point ranks
+         * @param fingerprint point coordinates fingerprint
+         */
+        private PointsDetail(double[] ranks, long fingerprint) {
+            this.ranks = ranks;
+            this.fingerprint = fingerprint;
+        }
+
+        /**
+         * Do the details match the points
+         *
+         * @param count       number of points
+         * @param fingerprint point coordinates fingerprint
+         * @return true if matching
+         */
+        private boolean matches(int count, long fingerprint) {
+            return ranks.length == count && this.fingerprint == fingerprint;
+        }
+
+        /**
+         * Get the number of ranks and simplified points
+         *
+         * @return size
+         */
+        private long size() {
+            long size = ranks.length;
+            for (List<Point> points : simplified.values()) {
+                size += points.size();
+            }
+            return size;
+        }
+
+    }
+
+}
@@ -29,10 +29,32 @@ public abstract class BoundedOverlay implements TileProvider {
     private Integer maxZoom;
 
     /**
-     * Web mercator bounding box
+     * Web mercator bounding box, preferably set through
+     * {@link #setBoundingBox(BoundingBox, Projection)} which also invalidates the tile cache
      */
     protected BoundingBox webMercatorBoundingBox;
 
+    /**
+     * Web mercator bounding box of the cached tile ranges, detecting direct subclass assignments
+     * of the bounding box
+     */
+    private volatile BoundingBox tileRangesBoundingBox;
+
+    /**
+     * Number of zoom levels with cached tile ranges
+     */
+    private static final int TILE_RANGE_ZOOMS = 32;
+
+    /**
+     * Cached tile ranges by zoom level as min x, max x, min y, max y, lazily computed
+     */
+    private volatile int[][] tileRanges = new int[TILE_RANGE_ZOOMS][];
+
+    /**
+     * Tile cache, null when tiles are not cached
+     */
+    private OverlayTileCache tileCache;
+
     /**
      * Constructor
      */
@@ -56,6 +78,8 @@ public abstract class BoundedOverlay implements TileProvider {
      */
     public void setMinZoom(Integer minZoom) {
         this.minZoom = minZoom;
+        invalidateTileRanges();
+        invalidateTileCache();
     }
 
     /**
@@ -74,6 +98,39 @@ public abstract class BoundedOverlay implements TileProvider {
      */
     public void setMaxZoom(Integer maxZoom) {
         this.maxZoom = maxZoom;
+        invalidateTileRanges();
+        invalidateTileCache();
+    }
+
+    /**
+     * Get the tile cache
+     *
+     * @return tile cache or null
+     * @since 6.7.5
+     */
+    public OverlayTileCache getTileCache() {
+        return tileCache;
+    }
+
+    /**
+     * Set the tile cache to cache retrieved and missing tiles, null to disable caching
+     *
+     * @param tileCache tile cache
+     * @since 6.7.5
+     */
+    public void setTileCache(OverlayTileCache tileCache) {
+        this.tileCache = tileCache;
+    }
+
+    /**
+     * Invalidate all tiles cached for this overlay
+     *
+     * @since 6.7.5
+     */
+    public void invalidateTileCache() {
+        if (tileCache != null) {
+            tileCache.invalidate(this);
+        }
     }
 
     /**
@@ -87,6 +144,19 @@ public abstract class BoundedOverlay implements TileProvider {
                 .getTransformation(ProjectionConstants.EPSG_WEB_MERCATOR);
         webMercatorBoundingBox = boundingBox
                 .transform(projectionToWebMercator);
+        invalidateTileRanges();
+        invalidateTileCache();
+    }
+
+    /**
+     * Invalidate the cached per zoom tile ranges of the bounding box. Called when the bounding
+     * box or zoom limits change, and should be called when the bounding box expansion changes,
+     * such as feature tile styles.
+     *
+     * @since 6.7.5
+     */
+    public void invalidateTileRanges() {
+        tileRanges = new int[TILE_RANGE_ZOOMS][];
     }
 
     /**
@@ -130,11 +200,29 @@ public abstract class BoundedOverlay implements TileProvider {
 
         Tile tile = null;
 
-        // Check if there is a tile
-        if (hasTile(x, y, zoom)) {
+        // Check for a cached tile or cached missing tile
+        Tile cachedTile = null;
+        if (tileCache != null) {
+            cachedTile = tileCache.get(this, x, y, zoom);
+        }
 
-            // Retrieve the tile
-            tile = retrieveTile(x, y, zoom);
+        if (cachedTile != null) {
+            if (cachedTile != NO_TILE) {
+                tile = cachedTile;
+            }
+        } else {
+
+            // Check if there is a tile
+            if (isWithinBounds(x, y, zoom) && hasTileToRetrieve(x, y, zoom)) {
+
+                // Retrieve the tile
+                tile = retrieveTile(x, y, zoom);
+            }
+
+            // Cache the tile or missing tile
+            if (tileCache != null) {
+                tileCache.put(this, x, y, zoom, tile);
+            }
         }
 
         return tile;
@@ -151,11 +239,29 @@ public abstract class BoundedOverlay implements TileProvider {
      */
     public boolean hasTile(int x, int y, int zoom) {
 
-        // Check if generating tiles for the zoom level and is within the bounding box
-        boolean hasTile = isWithinBounds(x, y, zoom);
-        if (hasTile) {
-            // Check if there is a tile to retrieve
-            hasTile = hasTileToRetrieve(x, y, zoom);
+        boolean hasTile;
+
+        // Check for a cached tile or cached missing tile
+        Tile cachedTile = null;
+        if (tileCache != null) {
+            cachedTile = tileCache.get(this, x, y, zoom);
+        }
+
+        if (cachedTile != null) {
+            hasTile = cachedTile != NO_TILE;
+        } else {
+
+            // Check if generating tiles for the zoom level and is within the bounding box
+            hasTile = isWithinBounds(x, y, zoom);
+            if (hasTile) {
+                // Check if there is a tile to retrieve
+                hasTile = hasTileToRetrieve(x, y, zoom);
+            }
+
+            // Cache missing tiles so they are not checked again
+            if (!hasTile && tileCache != null) {
+                tileCache.putMissing(this, x, y, zoom);
+            }
         }
 
         return hasTile;
@@ -214,22 +320,106 @@ public abstract class BoundedOverlay implements TileProvider {
     public boolean isWithinBoundingBox(int x, int y, int zoom) {
         boolean withinBounds = true;
 
-        // If a bounding box is set, check if it overlaps with the request
+        // If a bounding box is set, check if the request is within the tile range
         if (webMercatorBoundingBox != null) {
 
-            // Get the bounding box of the requested tile
-            BoundingBox tileWebMercatorBoundingBox = TileBoundingBoxUtils
-                    .getWebMercatorBoundingBox(x, y, zoom);
-
-            // Adjust the bounding box if needed
-            BoundingBox adjustedWebMercatorBoundingBox = getWebMercatorBoundingBox(tileWebMercatorBoundingBox);
+            int[] tileRange = getTileRange(zoom);
 
-            // Check if the request overlaps
-            withinBounds = adjustedWebMercatorBoundingBox.intersects(
-                    tileWebMercatorBoundingBox, true);
+            withinBounds = x >= tileRange[0] && x <= tileRange[1]
+                    && y >= tileRange[2] && y <= tileRange[3];
         }
 
         return withinBounds;
     }
 
+    /**
+     * Get the tile range of the adjusted bounding box at the zoom level, using the cached range
+     * when available
+     *
+     * @param zoom zoom value
+     * @return tile range as min x, max x, min y, max y
+     */
+    private int[] getTileRange(int zoom) {
+        BoundingBox boundingBox = webMercatorBoundingBox;
+        if (boundingBox != tileRangesBoundingBox) {
+            invalidateTileRanges();
+            tileRangesBoundingBox = boundingBox;
+        }
+        int[][] ranges = tileRanges;
+        int[] tileRange = null;
+        if (zoom >= 0 && zoom < ranges.length) {
+            tileRange = ranges[zoom];
+            if (tileRange == null) {
+                tileRange = calculateTileRange(zoom);
+                ranges[zoom] = tileRange;
+            }
+        } else {
+            tileRange = calculateTileRange(zoom);
+        }
+        return tileRange;
+    }
+
+    /**
+     * Calculate the range of tiles at the zoom level intersecting the adjusted bounding box
+     *
+     * @param zoom zoom value
+     * @return tile range as min x, max x, min y, max y, where min is greater than max when empty
+     */
+    private int[] calculateTileRange(int zoom) {
+
+        // Tiles at a zoom level share dimensions, adjust the bounding box by the first tile
+        BoundingBox tileWebMercatorBoundingBox = TileBoundingBoxUtils
+                .getWebMercatorBoundingBox(0, 0, zoom);
+        BoundingBox adjustedWebMercatorBoundingBox = getWebMercatorBoundingBox(
+                tileWebMercatorBoundingBox);
+
+        double halfWorld = ProjectionConstants.WEB_MERCATOR_HALF_WORLD_WIDTH;
+        long tiles = 1L << zoom;
+        double tileSize = (2 * halfWorld) / tiles;
+        long maxTile = tiles - 1;
+
+        double minLongitude = adjustedWebMercatorBoundingBox.getMinLongitude();
+        double maxLongitude = adjustedWebMercatorBoundingBox.getMaxLongitude();
+        double minLatitude = adjustedWebMercatorBoundingBox.getMinLatitude();
+        double maxLatitude = adjustedWebMercatorBoundingBox.getMaxLatitude();
+
+        // Tiles intersecting the bounding box, including tiles sharing an edge. Estimates are
+        // corrected against the tile edges computed as in TileBoundingBoxUtils, so rounding
+        // matches tile bounding box intersection checks.
+        long minX = (long) Math.ceil((minLongitude + halfWorld) / tileSize - 1);
+        while (minX > 0 && -halfWorld + minX * tileSize >= minLongitude) {
+            minX--;
+        }
+        while (minX <= maxTile && -halfWorld + (minX + 1) * tileSize < minLongitude) {
+            minX++;
+        }
+
+        long maxX = (long) Math.floor((maxLongitude + halfWorld) / tileSize);
+        while (maxX < maxTile && -halfWorld + (maxX + 1) * tileSize <= maxLongitude) {
+            maxX++;
+        }
+        while (maxX >= 0 && -halfWorld + maxX * tileSize > maxLongitude) {
+            maxX--;
+        }
+
+        long minY = (long) Math.ceil((halfWorld - maxLatitude) / tileSize - 1);
+        while (minY > 0 && halfWorld - minY * tileSize <= maxLatitude) {
+            minY--;
+        }
+        while (minY <= maxTile && halfWorld - (minY + 1) * tileSize > maxLatitude) {
+            minY++;
+        }
+
+        long maxY = (long) Math.floor((halfWorld - minLatitude) / tileSize);
+        while (maxY < maxTile && halfWorld - (maxY + 1) * tileSize >= minLatitude) {
+            maxY++;
+        }
+        while (maxY >= 0 && halfWorld - maxY * tileSize < minLatitude) {
+            maxY--;
+        }
+
+        return new int[]{(int) Math.max(0, minX), (int) Math.min(maxTile, maxX),
+                (int) Math.max(0, minY), (int) Math.min(maxTile, maxY)};
+    }
+
 }
@@ -1,13 +1,38 @@
 package mil.nga.geopackage.map.tiles.overlay;
 
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.util.Log;
+
 import com.google.android.gms.maps.model.Tile;
 
+import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
- * Composite overlay comprised of multiple overlays, checking each in order for a tile
+ * Composite overlay comprised of multiple overlays, checking each in order for a tile.
+ * When compositing, the tiles of all overlays are retrieved in parallel and alpha blended into a
+ * single tile, with the first overlay drawn on top. When parallel, overlays are checked
+ * concurrently and the first overlay in order with a tile is used, cancelling lower priority
+ * overlay requests not yet started.
  *
  * @author osbornb
  */
@@ -18,6 +43,46 @@ public class CompositeOverlay extends BoundedOverlay {
      */
     private List<BoundedOverlay> overlays = new ArrayList<>();
 
+    /**
+     * Overlay opacities, overlays without an opacity are fully opaque
+     */
+    private Map<BoundedOverlay, Float> opacities = new ConcurrentHashMap<>();
+
+    /**
+     * Composite all overlay tiles into a single tile
+     */
+    private boolean compositing = false;
+
+    /**
+     * Check overlays in parallel for the first overlay in order with a tile
+     */
+    private boolean parallel = false;
+
+    /**
+     * Overlay latency statistics of parallel requests
+     */
+    private final Map<BoundedOverlay, OverlayLatency> latencies = new ConcurrentHashMap<>();
+
+    /**
+     * Executor for parallel overlay tile retrieval
+     */
+    private ExecutorService executor;
+
+    /**
+     * Shared default executor, lazily created
+     */
+    private static ExecutorService defaultExecutor;
+
+    /**
+     * Max number of reused composite bitmap buffers
+     */
+    private static final int MAX_COMPOSITE_BITMAPS = 4;
+
+    /**
+     * Reused composite bitmap buffers, taken by one tile request at a time
+     */
+    private final Queue<Bitmap> compositeBitmaps = new ConcurrentLinkedQueue<>();
+
     /**
      * Constructor
      */
@@ -52,6 +117,18 @@ public class CompositeOverlay extends BoundedOverlay {
         overlays.add(overlay);
     }
 
+    /**
+     * Add an overlay with an opacity used when compositing
+     *
+     * @param overlay bounded overlay
+     * @param opacity opacity between 0.0 and 1.0
+     * @since 6.7.5
+     */
+    public void addOverlay(BoundedOverlay overlay, float opacity) {
+        addOverlay(overlay);
+        setOpacity(overlay, opacity);
+    }
+
     /**
      * Add overlays
      *
@@ -66,18 +143,203 @@ public class CompositeOverlay extends BoundedOverlay {
      */
     public void clearOverlays() {
         overlays.clear();
+        opacities.clear();
+        latencies.clear();
+    }
+
+    /**
+     * Get the overlays
+     *
+     * @return ordered overlays
+     * @since 6.7.5
+     */
+    public List<BoundedOverlay> getOverlays() {
+        return overlays;
+    }
+
+    /**
+     * Set the opacity of an overlay used when compositing
+     *
+     * @param overlay bounded overlay
+     * @param opacity opacity between 0.0 and 1.0
+     * @since 6.7.5
+     */
+    public void setOpacity(BoundedOverlay overlay, float opacity) {
+        if (opacity < 0.0f || opacity > 1.0f) {
+            throw new IllegalArgumentException(
+                    "Opacity must be between 0.0 and 1.0, opacity: " + opacity);
+        }
+        opacities.put(overlay, opacity);
+    }
+
+    /**
+     * Get the opacity of an overlay used when compositing
+     *
+     * @param overlay bounded overlay
+     * @return opacity between 0.0 and 1.0
+     * @since 6.7.5
+     */
+    public float getOpacity(BoundedOverlay overlay) {
+        Float opacity = opacities.get(overlay);
+        return opacity != null ? opacity : 1.0f;
+    }
+
+    /**
+     * Is compositing overlay tiles into a single tile
+     *
+     * @return true if compositing
+     * @since 6.7.5
+     */
+    public boolean isCompositing() {
+        return compositing;
+    }
+
+    /**
+     * Set compositing to retrieve the tiles of all overlays in parallel and alpha blend them into
+     * a single tile, with the first overlay drawn on top. When not compositing, the first overlay
+     * tile found is returned.
+     *
+     * @param compositing true to composite
+     * @since 6.7.5
+     */
+    public void setCompositing(boolean compositing) {
+        this.compositing = compositing;
+        if (!compositing) {
+            recycleBitmaps();
+        }
+    }
+
+    /**
+     * Recycle the reused composite bitmap buffers, such as after removing the overlay from the
+     * map. Buffers are created again by later composite requests.
+     *
+     * @since 6.7.5
+     */
+    public void recycleBitmaps() {
+        Bitmap bitmap;
+        while ((bitmap = compositeBitmaps.poll()) != null) {
+            bitmap.recycle();
+        }
+    }
+
+    /**
+     * Is checking overlays in parallel for the first overlay in order with a tile
+     *
+     * @return true if parallel
+     * @since 6.7.5
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Set parallel to check overlays concurrently on the executor for the first overlay in order
+     * with a tile. Once a higher priority overlay has a tile, lower priority overlay requests not
+     * yet started are cancelled, while started requests run to completion without interruption.
+     * When not parallel, overlays are checked one at a time in order.
+     *
+     * @param parallel true to check in parallel
+     * @since 6.7.5
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Get the latency statistics of parallel and compositing requests made to the overlay
+     *
+     * @param overlay bounded overlay
+     * @return overlay latency
+     * @since 6.7.5
+     */
+    public OverlayLatency getLatency(BoundedOverlay overlay) {
+        OverlayLatency latency = latencies.get(overlay);
+        if (latency == null) {
+            latency = new OverlayLatency();
+            OverlayLatency existing = latencies.putIfAbsent(overlay, latency);
+            if (existing != null) {
+                latency = existing;
+            }
+        }
+        return latency;
+    }
+
+    /**
+     * Reset the latency statistics of all overlays
+     *
+     * @since 6.7.5
+     */
+    public void resetLatencies() {
+        latencies.clear();
+    }
+
+    /**
+     * Get the executor for parallel overlay tile retrieval
+     *
+     * @return executor
+     * @since 6.7.5
+     */
+    public ExecutorService getExecutor() {
+        ExecutorService overlayExecutor = executor;
+        if (overlayExecutor == null) {
+            overlayExecutor = getDefaultExecutor();
+        }
+        return overlayExecutor;
+    }
+
+    /**
+     * Set the executor for parallel overlay tile retrieval. Defaults to a shared executor of
+     * daemon threads sized by the available processors, see {@link #shutdownDefaultExecutor()}.
+     *
+     * @param executor executor, null for the shared executor
+     * @since 6.7.5
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Shut down the shared default executor, such as when the map is destroyed. Requests in
+     * progress finish their remaining overlay requests on the requesting thread, and later
+     * parallel requests create a new shared executor.
+     *
+     * @since 6.7.5
+     */
+    public static synchronized void shutdownDefaultExecutor() {
+        if (defaultExecutor != null) {
+            defaultExecutor.shutdown();
+            defaultExecutor = null;
+        }
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    protected boolean hasTileToRetrieve(int x, int y, int zoom) {
+    protected boolean hasTileToRetrieve(final int x, final int y, final int zoom) {
         boolean hasTile = false;
-        for (BoundedOverlay overlay : overlays) {
-            hasTile = overlay.hasTileToRetrieve(x, y, zoom);
-            if (hasTile) {
-                break;
+        if (parallel) {
+            List<OverlayTask<Boolean>> tasks = new ArrayList<>();
+            for (final BoundedOverlay overlay : overlays) {
+                tasks.add(new OverlayTask<>(getLatency(overlay), new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        return compositing ? overlay.hasTile(x, y, zoom)
+                                : overlay.hasTileToRetrieve(x, y, zoom);
+                    }
+                }));
+            }
+            hasTile = anyTask(tasks);
+        } else {
+            for (BoundedOverlay overlay : overlays) {
+                if (compositing) {
+                    hasTile = overlay.hasTile(x, y, zoom);
+                } else {
+                    hasTile = overlay.hasTileToRetrieve(x, y, zoom);
+                }
+                if (hasTile) {
+                    break;
+                }
             }
         }
         return hasTile;
@@ -87,15 +349,357 @@ public class CompositeOverlay extends BoundedOverlay {
      * {@inheritDoc}
      */
     @Override
-    protected Tile retrieveTile(int x, int y, int zoom) {
+    protected Tile retrieveTile(final int x, final int y, final int zoom) {
+        Tile tile = null;
+        if (compositing) {
+            tile = compositeTile(x, y, zoom);
+        } else if (parallel) {
+            List<OverlayTask<Tile>> tasks = new ArrayList<>();
+            for (final BoundedOverlay overlay : overlays) {
+                tasks.add(new OverlayTask<>(getLatency(overlay), new Callable<Tile>() {
+                    @Override
+                    public Tile call() {
+                        return overlay.retrieveTile(x, y, zoom);
+                    }
+                }));
+            }
+            tile = firstTask(tasks);
+        } else {
+            for (BoundedOverlay overlay : overlays) {
+                tile = overlay.retrieveTile(x, y, zoom);
+                if (tile != null) {
+                    break;
+                }
+            }
+        }
+        return tile;
+    }
+
+    /**
+     * Run the overlay tasks in parallel until any task returns true, cancelling the remaining
+     * tasks
+     *
+     * @param tasks overlay tasks
+     * @return true if any task returned true
+     */
+    private boolean anyTask(List<OverlayTask<Boolean>> tasks) {
+
+        BlockingQueue<OverlayTask<Boolean>> completed = new LinkedBlockingQueue<>();
+        for (OverlayTask<Boolean> task : tasks) {
+            task.completed = completed;
+        }
+        execute(tasks);
+
+        boolean any = false;
+        int remaining = tasks.size();
+        int next = 0;
+        try {
+            while (!any && remaining > 0) {
+                OverlayTask<Boolean> task = completed.poll();
+                if (task == null) {
+                    if (next < tasks.size()) {
+                        // Run on this thread if not yet started by the executor
+                        tasks.get(next++).run();
+                        continue;
+                    }
+                    task = completed.take();
+                }
+                remaining--;
+                Boolean result = getTaskResult(task);
+                any = result != null && result;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            cancel(tasks, 0);
+        }
+
+        return any;
+    }
+
+    /**
+     * Run the overlay tasks in parallel and get the first non null result in task order,
+     * cancelling lower priority tasks once found
+     *
+     * @param tasks overlay tasks
+     * @param <T>   result type
+     * @return first non null result in order
+     */
+    private <T> T firstTask(List<OverlayTask<T>> tasks) {
+
+        execute(tasks);
+
+        T result = null;
+        int i = 0;
+        try {
+            for (; result == null && i < tasks.size(); i++) {
+                OverlayTask<T> task = tasks.get(i);
+                // Run on this thread if not yet started by the executor
+                task.run();
+                result = getTaskResult(task);
+            }
+        } finally {
+            cancel(tasks, i);
+        }
+
+        return result;
+    }
+
+    /**
+     * Execute all tasks except the first on the executor, leaving the first for the calling
+     * thread. Tasks rejected by a shut down executor are left for the calling thread.
+     *
+     * @param tasks overlay tasks
+     * @param <T>   result type
+     */
+    private <T> void execute(List<OverlayTask<T>> tasks) {
+        ExecutorService executor = getExecutor();
+        try {
+            for (int i = 1; i < tasks.size(); i++) {
+                OverlayTask<T> task = tasks.get(i);
+                if (task != null) {
+                    executor.execute(task);
+                }
+            }
+        } catch (RejectedExecutionException e) {
+            // Remaining tasks run on the calling thread
+        }
+    }
+
+    /**
+     * Cancel the tasks not yet started starting at the index. Started overlay requests are not
+     * interrupted, as interrupting database and file reads may close shared channels.
+     *
+     * @param tasks overlay tasks
+     * @param start start index
+     * @param <T>   result type
+     */
+    private static <T> void cancel(List<OverlayTask<T>> tasks, int start) {
+        for (int i = start; i < tasks.size(); i++) {
+            OverlayTask<T> task = tasks.get(i);
+            if (task != null) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Retrieve the tiles of all overlays in parallel and alpha blend them into a single tile
+     *
+     * @param x    x coordinate
+     * @param y    y coordinate
+     * @param zoom zoom value
+     * @return composite tile or null
+     */
+    private Tile compositeTile(final int x, final int y, final int zoom) {
+
+        List<Tile> tiles = new ArrayList<>();
+        List<Float> tileOpacities = new ArrayList<>();
+
+        List<OverlayTask<Tile>> tasks = new ArrayList<>();
+        for (final BoundedOverlay overlay : overlays) {
+            if (getOpacity(overlay) > 0.0f) {
+                OverlayTask<Tile> task = new OverlayTask<>(getLatency(overlay), new Callable<Tile>() {
+                    @Override
+                    public Tile call() {
+                        return overlay.getTile(x, y, zoom);
+                    }
+                });
+                tasks.add(task);
+                tileOpacities.add(getOpacity(overlay));
+            } else {
+                tasks.add(null);
+                tileOpacities.add(null);
+            }
+        }
+
+        execute(tasks);
+
+        for (int i = 0; i < tasks.size(); i++) {
+            OverlayTask<Tile> task = tasks.get(i);
+            Tile tile = null;
+            if (task != null) {
+                // Run on this thread if not yet started by the executor
+                task.run();
+                tile = getTaskResult(task);
+            }
+            if (tile == null || tile.data == null) {
+                tileOpacities.set(i, null);
+            }
+            tiles.add(tile);
+        }
+
+        Tile compositeTile = null;
+        int count = 0;
+        int index = -1;
+        for (int i = 0; i < tiles.size(); i++) {
+            if (tileOpacities.get(i) != null) {
+                count++;
+                index = i;
+            }
+        }
+
+        if (count == 1 && tileOpacities.get(index) >= 1.0f) {
+            // Single opaque tile does not need blending
+            compositeTile = tiles.get(index);
+        } else if (count > 0) {
+            compositeTile = blendTiles(tiles, tileOpacities);
+        }
+
+        return compositeTile;
+    }
+
+    /**
+     * Alpha blend the tiles into a single tile, drawing the last tile first
+     *
+     * @param tiles     ordered tiles
+     * @param opacities tile opacities, null for tiles to skip
+     * @return composite tile or null
+     */
+    private Tile blendTiles(List<Tile> tiles, List<Float> opacities) {
+
+        int width = 0;
+        int height = 0;
+        for (int i = 0; i < tiles.size(); i++) {
+            if (opacities.get(i) != null) {
+                width = Math.max(width, tiles.get(i).width);
+                height = Math.max(height, tiles.get(i).height);
+            }
+        }
+
+        Bitmap bitmap = compositeBitmaps.poll();
+        if (bitmap != null && (bitmap.isRecycled() || bitmap.getWidth() != width
+                || bitmap.getHeight() != height)) {
+            bitmap.recycle();
+            bitmap = null;
+        }
+        if (bitmap == null) {
+            bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        }
+        bitmap.eraseColor(Color.TRANSPARENT);
+
+        Canvas canvas = new Canvas(bitmap);
+        Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+        Rect destination = new Rect(0, 0, width, height);
+
+        boolean drawn = false;
+        for (int i = tiles.size() - 1; i >= 0; i--) {
+            Float opacity = opacities.get(i);
+            if (opacity != null) {
+                byte[] data = tiles.get(i).data;
+                Bitmap tileBitmap = BitmapFactory.decodeByteArray(data, 0, data.length);
+                if (tileBitmap != null) {
+                    paint.setAlpha(Math.round(opacity * 255));
+                    canvas.drawBitmap(tileBitmap, null, destination, paint);
+                    tileBitmap.recycle();
+                    drawn = true;
+                }
+            }
+        }
+
         Tile tile = null;
-        for (BoundedOverlay overlay : overlays) {
-            tile = overlay.retrieveTile(x, y, zoom);
-            if (tile != null) {
-                break;
+        if (drawn) {
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            if (bitmap.compress(Bitmap.CompressFormat.PNG, 100, stream)) {
+                tile = new Tile(width, height, stream.toByteArray());
             }
         }
+
+        // Return the buffer for reuse, or recycle it when enough buffers are held
+        if (compositing && compositeBitmaps.size() < MAX_COMPOSITE_BITMAPS) {
+            compositeBitmaps.add(bitmap);
+        } else {
+            bitmap.recycle();
+        }
+
         return tile;
     }
 
+    /**
+     * Get the result of a completed overlay task
+     *
+     * @param task overlay task
+     * @param <T>  result type
+     * @return result or null if failed or interrupted
+     */
+    private static <T> T getTaskResult(FutureTask<T> task) {
+        T result = null;
+        try {
+            result = task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (CancellationException e) {
+            // Cancelled tasks have no result
+        } catch (ExecutionException e) {
+            Log.e(CompositeOverlay.class.getSimpleName(), "Failed to retrieve overlay tile", e);
+        }
+        return result;
+    }
+
+    /**
+     * Get the shared default executor, creating it if needed
+     *
+     * @return default executor
+     */
+    private static synchronized ExecutorService getDefaultExecutor() {
+        if (defaultExecutor == null) {
+            defaultExecutor = OverlayExecutors.newDaemonThreadPool(
+                    CompositeOverlay.class.getSimpleName(),
+                    Math.max(2, Runtime.getRuntime().availableProcessors()));
+        }
+        return defaultExecutor;
+    }
+
+    /**
+     * Overlay task recording the overlay latency and optionally queueing itself when completed
+     *
+     * @param <T> result type
+     */
+    private static class OverlayTask<T> extends FutureTask<T> {
+
+        /**
+         * Overlay latency
+         */
+        private final OverlayLatency latency;
+
+        /**
+         * Completed task queue
+         */
+        private BlockingQueue<OverlayTask<T>> completed;
+
+        /**
+         * Constructor
+         *
+         * @param latency  overlay latency
+         * @param callable overlay request
+         */
+        private OverlayTask(final OverlayLatency latency, final Callable<T> callable) {
+            super(new Callable<T>() {
+                @Override
+                public T call() throws Exception {
+                    long start = System.nanoTime();
+                    T result = callable.call();
+                    boolean hit = result != null && !Boolean.FALSE.equals(result);
+                    latency.record(System.nanoTime() - start, hit);
+                    return result;
+                }
+            });
+            this.latency = latency;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                latency.recordCancelled();
+            }
+            if (completed != null) {
+                completed.add(this);
+            }
+        }
+
+    }
+
 }
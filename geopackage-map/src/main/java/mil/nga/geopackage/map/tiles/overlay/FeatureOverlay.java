@@ -3,7 +3,9 @@ package mil.nga.geopackage.map.tiles.overlay;
 import com.google.android.gms.maps.model.Tile;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import mil.nga.geopackage.BoundingBox;
 import mil.nga.geopackage.tiles.features.FeatureTiles;
@@ -26,6 +28,26 @@ public class FeatureOverlay extends BoundedOverlay {
      */
     private List<GeoPackageOverlay> linkedOverlays = new ArrayList<>();
 
+    /**
+     * Union presence index of tiles existing in any linked overlay, null to not index
+     */
+    private TilePresenceIndex linkedTileIndex = new TilePresenceIndex();
+
+    /**
+     * Zoom levels where loading the linked tiles into the linked tile index has been attempted
+     */
+    private final Set<Integer> linkedIndexZooms = new HashSet<>();
+
+    /**
+     * Disk cache of drawn feature tiles
+     */
+    private FeatureTileDiskCache diskCache;
+
+    /**
+     * Indexed feature counts of drawn and queried tiles
+     */
+    private final TileFeatureCountCache tileFeatureCountCache = new TileFeatureCountCache();
+
     /**
      * Constructor
      *
@@ -45,12 +67,64 @@ public class FeatureOverlay extends BoundedOverlay {
         return featureTiles;
     }
 
+    /**
+     * Get the disk cache of drawn feature tiles
+     *
+     * @return disk cache or null
+     * @since 6.7.5
+     */
+    public FeatureTileDiskCache getDiskCache() {
+        return diskCache;
+    }
+
+    /**
+     * Set a disk cache to persist drawn feature tiles
+     *
+     * @param diskCache disk cache, null to not cache
+     * @since 6.7.5
+     */
+    public void setDiskCache(FeatureTileDiskCache diskCache) {
+        this.diskCache = diskCache;
+    }
+
+    /**
+     * Get the indexed feature counts of drawn and queried tiles, shared with feature overlay
+     * queries of this overlay
+     *
+     * @return tile feature count cache
+     * @since 6.7.5
+     */
+    public TileFeatureCountCache getTileFeatureCountCache() {
+        return tileFeatureCountCache;
+    }
+
+    /**
+     * Invalidate the tile feature counts after features are inserted, updated, or deleted
+     * within the web mercator bounding box. Feature DAO edits do not update the feature table
+     * contents last change, so this must be called after editing features of a displayed overlay.
+     *
+     * @param webMercatorBoundingBox web mercator bounding box of the edited features
+     * @since 6.7.5
+     */
+    public void invalidateFeatureCounts(BoundingBox webMercatorBoundingBox) {
+        tileFeatureCountCache.invalidate(webMercatorBoundingBox);
+    }
+
+    /**
+     * Invalidate all tiles cached for this overlay and the tile feature counts
+     */
+    @Override
+    public void invalidateTileCache() {
+        super.invalidateTileCache();
+        tileFeatureCountCache.invalidate();
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     protected BoundingBox getWebMercatorBoundingBox(BoundingBox requestWebMercatorBoundingBox) {
-        return featureTiles.expandBoundingBox(webMercatorBoundingBox, requestWebMercatorBoundingBox);
+        return featureTiles.expandBoundingBox(getWebMercatorBoundingBox(), requestWebMercatorBoundingBox);
     }
 
     /**
@@ -61,10 +135,45 @@ public class FeatureOverlay extends BoundedOverlay {
 
         // Determine if the tile should be drawn
         boolean drawTile = true;
-        for (GeoPackageOverlay geoPackageOverlay : linkedOverlays) {
-            if (geoPackageOverlay.hasTile(x, y, zoom)) {
-                drawTile = false;
-                break;
+
+        if (!linkedOverlays.isEmpty()) {
+
+            // Check if within the tile ranges of any linked overlay
+            boolean withinLinked = false;
+            for (GeoPackageOverlay geoPackageOverlay : linkedOverlays) {
+                if (geoPackageOverlay.isWithinBounds(x, y, zoom)) {
+                    withinLinked = true;
+                    break;
+                }
+            }
+
+            if (withinLinked) {
+
+                // Check the union index before querying the linked overlays
+                TilePresenceIndex index = linkedTileIndex;
+                Boolean linkedTile = null;
+                long version = 0;
+                if (index != null) {
+                    version = index.getVersion();
+                    linkedTile = index.get(x, y, zoom);
+                    if (linkedTile == null && loadLinkedTiles(index, zoom)) {
+                        linkedTile = index.get(x, y, zoom);
+                    }
+                }
+                if (linkedTile == null) {
+                    linkedTile = false;
+                    for (GeoPackageOverlay geoPackageOverlay : linkedOverlays) {
+                        if (geoPackageOverlay.hasTile(x, y, zoom)) {
+                            linkedTile = true;
+                            break;
+                        }
+                    }
+                    if (index != null) {
+                        index.set(x, y, zoom, linkedTile, version);
+                    }
+                }
+
+                drawTile = !linkedTile;
             }
         }
 
@@ -77,8 +186,39 @@ public class FeatureOverlay extends BoundedOverlay {
     @Override
     public Tile retrieveTile(int x, int y, int zoom) {
 
-        // Draw the tile
-        byte[] tileData = featureTiles.drawTileBytes(x, y, zoom);
+        byte[] tileData = null;
+
+        // Check for cached tile bytes or a cached missing tile
+        byte[] cachedData = null;
+        if (diskCache != null) {
+            cachedData = diskCache.getTileBytes(featureTiles, x, y, zoom);
+        }
+
+        if (cachedData != null) {
+            if (cachedData.length > 0) {
+                tileData = cachedData;
+            }
+        } else {
+
+            // Count the indexed tile features when not cached, retaining the count for click
+            // queries and skipping the draw of empty tiles. Tiles with a cached count are drawn,
+            // so a stale cached count never hides edited features.
+            boolean draw = true;
+            if (featureTiles.isIndexQuery()
+                    && tileFeatureCountCache.getCached(featureTiles, x, y, zoom) == null) {
+                draw = tileFeatureCountCache.queryCount(featureTiles, x, y, zoom) > 0;
+            }
+
+            // Draw the tile
+            if (draw) {
+                tileData = featureTiles.drawTileBytes(x, y, zoom);
+            }
+
+            // Cache the tile bytes or missing tile
+            if (diskCache != null) {
+                diskCache.putTileBytes(featureTiles, x, y, zoom, tileData);
+            }
+        }
 
         Tile tile = null;
         if (tileData != null) {
@@ -112,7 +252,9 @@ public class FeatureOverlay extends BoundedOverlay {
     public void ignoreTileDao(TileDao tileDao) {
 
         GeoPackageOverlay tileOverlay = new GeoPackageOverlay(tileDao);
+        tileOverlay.setBoundingBox(tileDao.getBoundingBox(), tileDao.getProjection());
         linkedOverlays.add(tileOverlay);
+        invalidateLinkedTiles();
     }
 
     /***
@@ -122,6 +264,81 @@ public class FeatureOverlay extends BoundedOverlay {
      */
     public void clearIgnored() {
         linkedOverlays.clear();
+        invalidateLinkedTiles();
+    }
+
+    /**
+     * Get the union presence index of tiles existing in any ignored tile table
+     *
+     * @return linked tile index or null
+     * @since 6.7.5
+     */
+    public TilePresenceIndex getLinkedTileIndex() {
+        return linkedTileIndex;
+    }
+
+    /**
+     * Set the union presence index of tiles existing in any ignored tile table, answering
+     * repeated linked tile checks in memory. An index is set by default. The ignored tiles of a
+     * zoom level are loaded into the index the first time a tile of the zoom level is checked,
+     * when the ignored tile tables are aligned to the map tiles. Otherwise, tiles are indexed as
+     * they are checked. Tile tables do not signal inserted tiles, so
+     * {@link #invalidateLinkedTiles()} must be called after tiles are inserted into an ignored
+     * tile table, otherwise the new tiles remain indexed as absent and are drawn from features.
+     *
+     * @param linkedTileIndex linked tile index, null to not index
+     * @since 6.7.5
+     */
+    public void setLinkedTileIndex(TilePresenceIndex linkedTileIndex) {
+        this.linkedTileIndex = linkedTileIndex;
+        synchronized (linkedIndexZooms) {
+            linkedIndexZooms.clear();
+        }
+    }
+
+    /**
+     * Refresh the linked tile presence after tiles are inserted into an ignored tile table
+     *
+     * @since 6.7.5
+     */
+    public void invalidateLinkedTiles() {
+        TilePresenceIndex index = linkedTileIndex;
+        if (index != null) {
+            index.clear();
+        }
+        synchronized (linkedIndexZooms) {
+            linkedIndexZooms.clear();
+        }
+    }
+
+    /**
+     * Load the ignored tiles of the zoom level into the linked tile index, attempted once per
+     * zoom level. The zoom level is complete when all ignored tile tables are aligned to the map
+     * tiles, answering all linked tile checks of the zoom level in memory.
+     *
+     * @param index linked tile index
+     * @param zoom  zoom level
+     * @return true if the zoom level is complete
+     */
+    private boolean loadLinkedTiles(TilePresenceIndex index, int zoom) {
+        boolean complete;
+        synchronized (linkedIndexZooms) {
+            complete = index.isComplete(zoom);
+            if (!complete && linkedIndexZooms.add(zoom)) {
+                long version = index.getVersion();
+                complete = true;
+                for (GeoPackageOverlay geoPackageOverlay : linkedOverlays) {
+                    if (!geoPackageOverlay.loadTileIndex(index, zoom, version)) {
+                        complete = false;
+                        break;
+                    }
+                }
+                if (complete) {
+                    complete = index.setComplete(zoom, version);
+                }
+            }
+        }
+        return complete;
     }
 
 }
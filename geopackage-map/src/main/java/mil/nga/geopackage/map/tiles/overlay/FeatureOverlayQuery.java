@@ -8,15 +8,26 @@ import android.view.View;
 import com.google.android.gms.maps.GoogleMap;
 import com.google.android.gms.maps.model.LatLng;
 
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
 import mil.nga.geopackage.BoundingBox;
 import mil.nga.geopackage.GeoPackageException;
 import mil.nga.geopackage.features.index.FeatureIndexManager;
 import mil.nga.geopackage.features.index.FeatureIndexResults;
 import mil.nga.geopackage.features.user.FeatureDao;
+import mil.nga.geopackage.map.ClickToleranceModel;
 import mil.nga.geopackage.map.LatLngBoundingBox;
 import mil.nga.geopackage.map.MapUtils;
 import mil.nga.geopackage.map.R;
 import mil.nga.geopackage.map.features.FeatureInfoBuilder;
+import mil.nga.geopackage.map.features.FeatureQueryTimings;
+import mil.nga.geopackage.map.features.FeatureTableDataSink;
 import mil.nga.geopackage.style.PixelBounds;
 import mil.nga.geopackage.tiles.TileBoundingBoxUtils;
 import mil.nga.geopackage.tiles.TileGrid;
@@ -28,7 +39,9 @@ import mil.nga.proj.ProjectionFactory;
 import mil.nga.sf.Point;
 
 /**
- * Used to query the features represented by tiles, either being drawn from or linked to the features
+ * Used to query the features represented by tiles, either being drawn from or linked to the features.
+ * Map view click bounds are derived from the Web Mercator scale at the map zoom level with a
+ * cached {@link ClickToleranceModel}, assuming a north up map without tilt.
  *
  * @author osbornb
  * @since 1.1.0
@@ -71,6 +84,42 @@ public class FeatureOverlayQuery {
      */
     private PixelBounds pixelBounds;
 
+    /**
+     * Indexed feature counts of queried tiles
+     */
+    private TileFeatureCountCache tileFeatureCountCache;
+
+    /**
+     * Click tolerance model of the map view size, screen click percentage, and pixel bounds,
+     * caching scales across map clicks
+     */
+    private ClickToleranceModel clickToleranceModel;
+
+    /**
+     * Default number of asynchronous map click query threads
+     */
+    private static final int DEFAULT_THREADS = 2;
+
+    /**
+     * Executor for asynchronous map click queries
+     */
+    private ExecutorService executor;
+
+    /**
+     * Shared default executor, lazily created
+     */
+    private static ExecutorService defaultExecutor;
+
+    /**
+     * Active asynchronous map click query
+     */
+    private Future<?> activeQuery;
+
+    /**
+     * Stage timings of the most recently completed map click query
+     */
+    private volatile FeatureQueryTimings lastTimings;
+
     /**
      * Constructor
      *
@@ -93,6 +142,14 @@ public class FeatureOverlayQuery {
         this.boundedOverlay = boundedOverlay;
         this.featureTiles = featureTiles;
 
+        // Share the tile feature counts of the overlay drawing the feature tiles
+        if (boundedOverlay instanceof FeatureOverlay
+                && ((FeatureOverlay) boundedOverlay).getFeatureTiles() == featureTiles) {
+            tileFeatureCountCache = ((FeatureOverlay) boundedOverlay).getTileFeatureCountCache();
+        } else {
+            tileFeatureCountCache = new TileFeatureCountCache();
+        }
+
         Resources resources = context.getResources();
 
         // Get the screen percentage to determine when a feature is clicked
@@ -114,6 +171,7 @@ public class FeatureOverlayQuery {
      * @since 1.2.7
      */
     public void close() {
+        cancelMapClickQuery();
         if (featureTiles != null) {
             featureTiles.close();
         }
@@ -271,7 +329,28 @@ public class FeatureOverlayQuery {
      */
     public long tileFeatureCount(Point point, int zoom) {
         TileGrid tileGrid = TileBoundingBoxUtils.getTileGridFromWGS84(point, zoom);
-        return featureTiles.queryIndexedFeaturesCount((int) tileGrid.getMinX(), (int) tileGrid.getMinY(), zoom);
+        return tileFeatureCountCache.getCount(featureTiles, (int) tileGrid.getMinX(), (int) tileGrid.getMinY(), zoom);
+    }
+
+    /**
+     * Get the cache of indexed feature counts by tile, shared with the feature overlay when
+     * querying the overlay drawing the feature tiles
+     *
+     * @return tile feature count cache
+     * @since 6.7.5
+     */
+    public TileFeatureCountCache getTileFeatureCountCache() {
+        return tileFeatureCountCache;
+    }
+
+    /**
+     * Set the cache of indexed feature counts by tile
+     *
+     * @param tileFeatureCountCache tile feature count cache
+     * @since 6.7.5
+     */
+    public void setTileFeatureCountCache(TileFeatureCountCache tileFeatureCountCache) {
+        this.tileFeatureCountCache = tileFeatureCountCache;
     }
 
     /**
@@ -492,13 +571,13 @@ public class FeatureOverlayQuery {
         double zoom = MapUtils.getCurrentZoom(map);
 
         // Build a bounding box to represent the click location
-        LatLngBoundingBox latLngBoundingBox = MapUtils.buildClickLatLngBoundingBox(latLng, featureTiles.getDensity(), zoom, pixelBounds, view, map, screenClickPercentage);
+        LatLngBoundingBox latLngBoundingBox = getClickToleranceModel(view).buildClickLatLngBoundingBox(latLng, zoom);
         BoundingBox boundingBox = MapUtils.buildClickBoundingBox(latLngBoundingBox);
 
         // Get the map click distance tolerance
         double tolerance = MapUtils.getToleranceDistance(latLng, latLngBoundingBox);
 
-        String message = buildMapClickMessage(latLng, zoom, boundingBox, tolerance, view, map, projection);
+        String message = buildMapClickMessage(latLng, zoom, boundingBox, tolerance, view, map, 0, 0, projection, new FeatureQueryTimings());
 
         return message;
     }
@@ -535,7 +614,7 @@ public class FeatureOverlayQuery {
         // Get the map click distance tolerance
         double tolerance = MapUtils.getToleranceDistance(latLng, latLngBoundingBox);
 
-        String message = buildMapClickMessage(latLng, zoom, boundingBox, tolerance, null, null, projection);
+        String message = buildMapClickMessage(latLng, zoom, boundingBox, tolerance, null, null, 0, 0, projection, new FeatureQueryTimings());
 
         return message;
     }
@@ -570,7 +649,7 @@ public class FeatureOverlayQuery {
         // Build a bounding box to represent the click location
         BoundingBox boundingBox = MapUtils.buildClickBoundingBox(latLng, mapBounds, screenClickPercentage);
 
-        String message = buildMapClickMessage(latLng, zoom, boundingBox, tolerance, null, null, projection);
+        String message = buildMapClickMessage(latLng, zoom, boundingBox, tolerance, null, null, 0, 0, projection, new FeatureQueryTimings());
 
         return message;
     }
@@ -582,12 +661,15 @@ public class FeatureOverlayQuery {
      * @param zoom        current zoom level
      * @param boundingBox click bounding box
      * @param tolerance   tolerance distance
-     * @param view        view
-     * @param map         Google Map
+     * @param view        view, null when not on the UI thread
+     * @param map         Google Map, null when not on the UI thread
+     * @param viewWidth   map view width in pixels for feature style tolerances without a view
+     * @param viewHeight  map view height in pixels for feature style tolerances without a view
      * @param projection  desired geometry projection
+     * @param timings     stage timings to record into
      * @return information message on what was clicked, or null
      */
-    private String buildMapClickMessage(LatLng latLng, double zoom, BoundingBox boundingBox, double tolerance, View view, GoogleMap map, Projection projection) {
+    private String buildMapClickMessage(LatLng latLng, double zoom, BoundingBox boundingBox, double tolerance, View view, GoogleMap map, int viewWidth, int viewHeight, Projection projection, FeatureQueryTimings timings) {
         String message = null;
 
         // Verify the features are indexed and we are getting information
@@ -596,7 +678,9 @@ public class FeatureOverlayQuery {
             if (isOnAtCurrentZoom(zoom, latLng)) {
 
                 // Get the number of features in the tile location
+                long countStart = System.nanoTime();
                 long tileFeatureCount = tileFeatureCount(latLng, zoom);
+                timings.addCount(System.nanoTime() - countStart);
 
                 // If more than a configured max features to draw
                 if (isMoreThanMaxFeatures(tileFeatureCount)) {
@@ -610,12 +694,16 @@ public class FeatureOverlayQuery {
                 // Else, query for the features near the click
                 else if (featuresInfo) {
 
+                    checkCancelled(timings);
+
                     // Query for results and build the message
-                    FeatureIndexResults results = queryFeatures(boundingBox, projection);
-                    if (pixelBounds != null) {
-                        message = featureInfoBuilder.buildResultsInfoMessageAndClose(results, tolerance, latLng, featureTiles.getDensity(), zoom, view, map, screenClickPercentage, projection);
+                    long queryStart = System.nanoTime();
+                    FeatureIndexResults results = queryFeatures(featureInfoBuilder.getFilterColumns(), boundingBox, projection);
+                    timings.addQuery(System.nanoTime() - queryStart);
+                    if (pixelBounds != null && view != null && map != null) {
+                        message = featureInfoBuilder.buildResultsInfoMessageAndClose(results, tolerance, latLng, featureTiles.getDensity(), zoom, view, map, screenClickPercentage, projection, timings);
                     } else {
-                        message = featureInfoBuilder.buildResultsInfoMessageAndClose(results, tolerance, latLng, projection);
+                        message = featureInfoBuilder.buildResultsInfoMessageAndClose(results, tolerance, latLng, featureTiles.getDensity(), zoom, viewWidth, viewHeight, screenClickPercentage, projection, timings);
                     }
 
                 }
@@ -623,6 +711,8 @@ public class FeatureOverlayQuery {
             }
         }
 
+        lastTimings = timings;
+
         return message;
     }
 
@@ -655,13 +745,13 @@ public class FeatureOverlayQuery {
         double zoom = MapUtils.getCurrentZoom(map);
 
         // Build a bounding box to represent the click location
-        LatLngBoundingBox latLngBoundingBox = MapUtils.buildClickLatLngBoundingBox(latLng, featureTiles.getDensity(), zoom, pixelBounds, view, map, screenClickPercentage);
+        LatLngBoundingBox latLngBoundingBox = getClickToleranceModel(view).buildClickLatLngBoundingBox(latLng, zoom);
         BoundingBox boundingBox = MapUtils.buildClickBoundingBox(latLngBoundingBox);
 
         // Get the map click distance tolerance
         double tolerance = MapUtils.getToleranceDistance(latLng, latLngBoundingBox);
 
-        FeatureTableData tableData = buildMapClickTableData(latLng, zoom, boundingBox, tolerance, view, map, projection);
+        FeatureTableData tableData = buildMapClickTableData(latLng, zoom, boundingBox, tolerance, view, map, 0, 0, projection, new FeatureQueryTimings());
 
         return tableData;
     }
@@ -698,7 +788,7 @@ public class FeatureOverlayQuery {
         // Get the map click distance tolerance
         double tolerance = MapUtils.getToleranceDistance(latLng, latLngBoundingBox);
 
-        FeatureTableData tableData = buildMapClickTableData(latLng, zoom, boundingBox, tolerance, null, null, projection);
+        FeatureTableData tableData = buildMapClickTableData(latLng, zoom, boundingBox, tolerance, null, null, 0, 0, projection, new FeatureQueryTimings());
 
         return tableData;
     }
@@ -733,11 +823,48 @@ public class FeatureOverlayQuery {
         // Build a bounding box to represent the click location
         BoundingBox boundingBox = MapUtils.buildClickBoundingBox(latLng, mapBounds, screenClickPercentage);
 
-        FeatureTableData tableData = buildMapClickTableData(latLng, zoom, boundingBox, tolerance, null, null, projection);
+        FeatureTableData tableData = buildMapClickTableData(latLng, zoom, boundingBox, tolerance, null, null, 0, 0, projection, new FeatureQueryTimings());
 
         return tableData;
     }
 
+    /**
+     * Perform a query based upon the map click location and stream the feature table data of
+     * all features on or near the click to the sink, without the max detailed info limits. When
+     * the click tile has more than the max features, no features are written, matching
+     * {@link #buildMapClickTableDataWithMapBounds(LatLng, double, BoundingBox, Projection)}.
+     *
+     * @param latLng     location
+     * @param zoom       current zoom level
+     * @param mapBounds  map view bounds
+     * @param projection desired geometry projection
+     * @param sink       feature table data sink
+     * @return number of features written
+     * @throws IOException upon sink write failure
+     * @since 6.7.5
+     */
+    public long writeMapClickTableDataWithMapBounds(LatLng latLng, double zoom, BoundingBox mapBounds, Projection projection, FeatureTableDataSink sink) throws IOException {
+
+        long count = 0;
+
+        // Verify the features are indexed, on at the zoom level, and not more than the max features
+        if (isIndexed() && isOnAtCurrentZoom(zoom, latLng)
+                && !isMoreThanMaxFeatures(tileFeatureCount(latLng, zoom))) {
+
+            // Build a bounding box to represent the click location
+            LatLngBoundingBox latLngBoundingBox = MapUtils.buildClickLatLngBoundingBox(latLng, mapBounds, screenClickPercentage);
+            BoundingBox boundingBox = MapUtils.buildClickBoundingBox(latLngBoundingBox);
+
+            // Get the map click distance tolerance
+            double tolerance = MapUtils.getToleranceDistance(latLng, latLngBoundingBox);
+
+            FeatureIndexResults results = queryFeatures(boundingBox);
+            count = featureInfoBuilder.writeTableDataAndClose(results, tolerance, latLng, projection, sink);
+        }
+
+        return count;
+    }
+
     /**
      * Perform a query based upon the map click location and build feature table data
      *
@@ -745,12 +872,15 @@ public class FeatureOverlayQuery {
      * @param zoom        current zoom level
      * @param boundingBox click bounding box
      * @param tolerance   distance tolerance
-     * @param view        view
-     * @param map         Google Map
+     * @param view        view, null when not on the UI thread
+     * @param map         Google Map, null when not on the UI thread
+     * @param viewWidth   map view width in pixels for feature style tolerances without a view
+     * @param viewHeight  map view height in pixels for feature style tolerances without a view
      * @param projection  desired geometry projection
+     * @param timings     stage timings to record into
      * @return table data on what was clicked, or null
      */
-    private FeatureTableData buildMapClickTableData(LatLng latLng, double zoom, BoundingBox boundingBox, double tolerance, View view, GoogleMap map, Projection projection) {
+    private FeatureTableData buildMapClickTableData(LatLng latLng, double zoom, BoundingBox boundingBox, double tolerance, View view, GoogleMap map, int viewWidth, int viewHeight, Projection projection, FeatureQueryTimings timings) {
         FeatureTableData tableData = null;
 
         // Verify the features are indexed and we are getting information
@@ -759,7 +889,9 @@ public class FeatureOverlayQuery {
             if (isOnAtCurrentZoom(zoom, latLng)) {
 
                 // Get the number of features in the tile location
+                long countStart = System.nanoTime();
                 long tileFeatureCount = tileFeatureCount(latLng, zoom);
+                timings.addCount(System.nanoTime() - countStart);
 
                 // If more than a configured max features to draw
                 if (isMoreThanMaxFeatures(tileFeatureCount)) {
@@ -773,12 +905,16 @@ public class FeatureOverlayQuery {
                 // Else, query for the features near the click
                 else if (featuresInfo) {
 
+                    checkCancelled(timings);
+
                     // Query for results and build the message
-                    FeatureIndexResults results = queryFeatures(boundingBox, projection);
-                    if (pixelBounds != null) {
-                        tableData = featureInfoBuilder.buildTableDataAndClose(results, tolerance, latLng, featureTiles.getDensity(), zoom, view, map, screenClickPercentage, projection);
+                    long queryStart = System.nanoTime();
+                    FeatureIndexResults results = queryFeatures(featureInfoBuilder.getFilterColumns(), boundingBox, projection);
+                    timings.addQuery(System.nanoTime() - queryStart);
+                    if (pixelBounds != null && view != null && map != null) {
+                        tableData = featureInfoBuilder.buildTableDataAndClose(results, tolerance, latLng, featureTiles.getDensity(), zoom, view, map, screenClickPercentage, projection, timings);
                     } else {
-                        tableData = featureInfoBuilder.buildTableDataAndClose(results, tolerance, latLng, projection);
+                        tableData = featureInfoBuilder.buildTableDataAndClose(results, tolerance, latLng, featureTiles.getDensity(), zoom, viewWidth, viewHeight, screenClickPercentage, projection, timings);
                     }
 
                 }
@@ -786,7 +922,385 @@ public class FeatureOverlayQuery {
             }
         }
 
+        lastTimings = timings;
+
         return tableData;
     }
 
+    /**
+     * Get the stage timings of the most recently completed map click query
+     *
+     * @return timings or null if no query has completed
+     * @since 6.7.5
+     */
+    public FeatureQueryTimings getLastTimings() {
+        return lastTimings;
+    }
+
+    /**
+     * Get the executor for asynchronous map click queries
+     *
+     * @return executor
+     * @since 6.7.5
+     */
+    public ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = getDefaultExecutor();
+        }
+        return executor;
+    }
+
+    /**
+     * Set the executor for asynchronous map click queries. Defaults to a shared executor.
+     *
+     * @param executor executor
+     * @since 6.7.5
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Cancel the active asynchronous map click query. The query stops at the next stage or
+     * feature row boundary and its callback is not called.
+     *
+     * @return true if a query was cancelled
+     * @since 6.7.5
+     */
+    public synchronized boolean cancelMapClickQuery() {
+        boolean cancelled = false;
+        if (activeQuery != null) {
+            cancelled = activeQuery.cancel(true);
+            activeQuery = null;
+        }
+        return cancelled;
+    }
+
+    /**
+     * Asynchronously perform a query based upon the map click location and build a info message.
+     * The zoom, click bounds, and map view size are read on the calling thread, which must be the
+     * UI thread, and the query runs on the executor, cancelling any active map click query. Feature
+     * style click tolerances are derived from the map view size. The callback is made on the
+     * executor thread, so UI updates must be posted to the UI thread.
+     *
+     * @param latLng   location
+     * @param view     view
+     * @param map      Google Map
+     * @param callback result callback, may be null
+     * @return future information message on what was clicked, or null
+     * @since 6.7.5
+     */
+    public Future<String> buildMapClickMessageAsync(LatLng latLng, View view, GoogleMap map, FeatureOverlayQueryCallback<String> callback) {
+        return buildMapClickMessageAsync(latLng, view, map, null, callback);
+    }
+
+    /**
+     * Asynchronously perform a query based upon the map click location and build a info message.
+     * The zoom, click bounds, and map view size are read on the calling thread, which must be the
+     * UI thread, and the query runs on the executor, cancelling any active map click query. Feature
+     * style click tolerances are derived from the map view size. The callback is made on the
+     * executor thread, so UI updates must be posted to the UI thread.
+     *
+     * @param latLng     location
+     * @param view       view
+     * @param map        Google Map
+     * @param projection desired geometry projection
+     * @param callback   result callback, may be null
+     * @return future information message on what was clicked, or null
+     * @since 6.7.5
+     */
+    public Future<String> buildMapClickMessageAsync(LatLng latLng, View view, GoogleMap map, Projection projection, FeatureOverlayQueryCallback<String> callback) {
+
+        // Get the zoom level
+        double zoom = MapUtils.getCurrentZoom(map);
+
+        // Build a bounding box to represent the click location
+        LatLngBoundingBox latLngBoundingBox = getClickToleranceModel(view).buildClickLatLngBoundingBox(latLng, zoom);
+
+        // Feature style tolerances are derived from the view size off the UI thread
+        int viewWidth = 0;
+        int viewHeight = 0;
+        if (pixelBounds != null) {
+            viewWidth = view.getWidth();
+            viewHeight = view.getHeight();
+        }
+
+        return submitMapClickMessage(latLng, zoom, latLngBoundingBox, viewWidth, viewHeight, projection, callback);
+    }
+
+    /**
+     * Asynchronously perform a query based upon the map click location and build a info message.
+     * The query runs on the executor, cancelling any active map click query. The callback is made
+     * on the executor thread, so UI updates must be posted to the UI thread.
+     *
+     * @param latLng     location
+     * @param zoom       current zoom level
+     * @param mapBounds  map view bounds
+     * @param projection desired geometry projection
+     * @param callback   result callback, may be null
+     * @return future information message on what was clicked, or null
+     * @since 6.7.5
+     */
+    public Future<String> buildMapClickMessageWithMapBoundsAsync(LatLng latLng, double zoom, BoundingBox mapBounds, Projection projection, FeatureOverlayQueryCallback<String> callback) {
+
+        // Build a bounding box to represent the click location
+        LatLngBoundingBox latLngBoundingBox = MapUtils.buildClickLatLngBoundingBox(latLng, mapBounds, screenClickPercentage);
+
+        return submitMapClickMessage(latLng, zoom, latLngBoundingBox, 0, 0, projection, callback);
+    }
+
+    /**
+     * Submit a map click query building a info message
+     *
+     * @param latLng            location
+     * @param zoom              current zoom level
+     * @param latLngBoundingBox click bounding box
+     * @param viewWidth         map view width in pixels for feature style tolerances, 0 for none
+     * @param viewHeight        map view height in pixels for feature style tolerances, 0 for none
+     * @param projection        desired geometry projection
+     * @param callback          result callback, may be null
+     * @return future result
+     */
+    private Future<String> submitMapClickMessage(final LatLng latLng, final double zoom, LatLngBoundingBox latLngBoundingBox, final int viewWidth, final int viewHeight, final Projection projection, FeatureOverlayQueryCallback<String> callback) {
+
+        final BoundingBox boundingBox = MapUtils.buildClickBoundingBox(latLngBoundingBox);
+
+        // Get the map click distance tolerance
+        final double tolerance = MapUtils.getToleranceDistance(latLng, latLngBoundingBox);
+
+        final FeatureQueryTimings timings = new FeatureQueryTimings();
+        return submitQuery(new Callable<String>() {
+            @Override
+            public String call() {
+                return buildMapClickMessage(latLng, zoom, boundingBox, tolerance, null, null, viewWidth, viewHeight, projection, timings);
+            }
+        }, timings, callback);
+    }
+
+    /**
+     * Asynchronously perform a query based upon the map click location and build feature table
+     * data. The zoom, click bounds, and map view size are read on the calling thread, which must be
+     * the UI thread, and the query runs on the executor, cancelling any active map click query.
+     * Feature style click tolerances are derived from the map view size. The callback is made on
+     * the executor thread, so UI updates must be posted to the UI thread.
+     *
+     * @param latLng   location
+     * @param view     view
+     * @param map      Google Map
+     * @param callback result callback, may be null
+     * @return future table data on what was clicked, or null
+     * @since 6.7.5
+     */
+    public Future<FeatureTableData> buildMapClickTableDataAsync(LatLng latLng, View view, GoogleMap map, FeatureOverlayQueryCallback<FeatureTableData> callback) {
+        return buildMapClickTableDataAsync(latLng, view, map, null, callback);
+    }
+
+    /**
+     * Asynchronously perform a query based upon the map click location and build feature table
+     * data. The zoom, click bounds, and map view size are read on the calling thread, which must be
+     * the UI thread, and the query runs on the executor, cancelling any active map click query.
+     * Feature style click tolerances are derived from the map view size. The callback is made on
+     * the executor thread, so UI updates must be posted to the UI thread.
+     *
+     * @param latLng     location
+     * @param view       view
+     * @param map        Google Map
+     * @param projection desired geometry projection
+     * @param callback   result callback, may be null
+     * @return future table data on what was clicked, or null
+     * @since 6.7.5
+     */
+    public Future<FeatureTableData> buildMapClickTableDataAsync(LatLng latLng, View view, GoogleMap map, Projection projection, FeatureOverlayQueryCallback<FeatureTableData> callback) {
+
+        // Get the zoom level
+        double zoom = MapUtils.getCurrentZoom(map);
+
+        // Build a bounding box to represent the click location
+        LatLngBoundingBox latLngBoundingBox = getClickToleranceModel(view).buildClickLatLngBoundingBox(latLng, zoom);
+
+        // Feature style tolerances are derived from the view size off the UI thread
+        int viewWidth = 0;
+        int viewHeight = 0;
+        if (pixelBounds != null) {
+            viewWidth = view.getWidth();
+            viewHeight = view.getHeight();
+        }
+
+        return submitMapClickTableData(latLng, zoom, latLngBoundingBox, viewWidth, viewHeight, projection, callback);
+    }
+
+    /**
+     * Asynchronously perform a query based upon the map click location and build feature table
+     * data. The query runs on the executor, cancelling any active map click query. The callback is
+     * made on the executor thread, so UI updates must be posted to the UI thread.
+     *
+     * @param latLng     location
+     * @param zoom       current zoom level
+     * @param mapBounds  map view bounds
+     * @param projection desired geometry projection
+     * @param callback   result callback, may be null
+     * @return future table data on what was clicked, or null
+     * @since 6.7.5
+     */
+    public Future<FeatureTableData> buildMapClickTableDataWithMapBoundsAsync(LatLng latLng, double zoom, BoundingBox mapBounds, Projection projection, FeatureOverlayQueryCallback<FeatureTableData> callback) {
+
+        // Build a bounding box to represent the click location
+        LatLngBoundingBox latLngBoundingBox = MapUtils.buildClickLatLngBoundingBox(latLng, mapBounds, screenClickPercentage);
+
+        return submitMapClickTableData(latLng, zoom, latLngBoundingBox, 0, 0, projection, callback);
+    }
+
+    /**
+     * Submit a map click query building feature table data
+     *
+     * @param latLng            location
+     * @param zoom              current zoom level
+     * @param latLngBoundingBox click bounding box
+     * @param viewWidth         map view width in pixels for feature style tolerances, 0 for none
+     * @param viewHeight        map view height in pixels for feature style tolerances, 0 for none
+     * @param projection        desired geometry projection
+     * @param callback          result callback, may be null
+     * @return future result
+     */
+    private Future<FeatureTableData> submitMapClickTableData(final LatLng latLng, final double zoom, LatLngBoundingBox latLngBoundingBox, final int viewWidth, final int viewHeight, final Projection projection, FeatureOverlayQueryCallback<FeatureTableData> callback) {
+
+        final BoundingBox boundingBox = MapUtils.buildClickBoundingBox(latLngBoundingBox);
+
+        // Get the map click distance tolerance
+        final double tolerance = MapUtils.getToleranceDistance(latLng, latLngBoundingBox);
+
+        final FeatureQueryTimings timings = new FeatureQueryTimings();
+        return submitQuery(new Callable<FeatureTableData>() {
+            @Override
+            public FeatureTableData call() {
+                return buildMapClickTableData(latLng, zoom, boundingBox, tolerance, null, null, viewWidth, viewHeight, projection, timings);
+            }
+        }, timings, callback);
+    }
+
+    /**
+     * Submit a map click query to the executor as the active query, cancelling the previous. The
+     * query timings are marked cancellable so that interrupting the query task cancels the build.
+     *
+     * @param query    query
+     * @param timings  query stage timings
+     * @param callback result callback, may be null
+     * @param <T>      result type
+     * @return future result
+     */
+    private <T> Future<T> submitQuery(Callable<T> query, FeatureQueryTimings timings, FeatureOverlayQueryCallback<T> callback) {
+        timings.setCancellable(true);
+        QueryTask<T> task = new QueryTask<>(query, timings, callback);
+        synchronized (this) {
+            if (activeQuery != null) {
+                activeQuery.cancel(true);
+            }
+            activeQuery = task;
+        }
+        getExecutor().execute(task);
+        return task;
+    }
+
+    /**
+     * Get the click tolerance model of the map view, reusing the cached model and its scales
+     * while the view size, screen click percentage, and pixel bounds are unchanged
+     *
+     * @param view map view
+     * @return click tolerance model
+     */
+    private ClickToleranceModel getClickToleranceModel(View view) {
+        float density = featureTiles.getDensity();
+        double clickPixels = Math.max(view.getWidth(), view.getHeight()) * screenClickPercentage;
+        ClickToleranceModel model = clickToleranceModel;
+        if (model == null || model.getDensity() != density
+                || model.getClickPixels() != clickPixels
+                || model.getPixelBounds() != pixelBounds) {
+            model = new ClickToleranceModel(density, clickPixels, pixelBounds);
+            clickToleranceModel = model;
+        }
+        return model;
+    }
+
+    /**
+     * Check if the query is cancellable and the current thread has been interrupted, cancelling
+     * the query. Synchronous queries are not cancellable and ignore interrupts.
+     *
+     * @param timings query stage timings
+     * @throws CancellationException if cancellable and interrupted
+     */
+    private static void checkCancelled(FeatureQueryTimings timings) {
+        if (timings.isCancellable() && Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Map click query was cancelled");
+        }
+    }
+
+    /**
+     * Get the shared default executor, creating it if needed
+     *
+     * @return default executor
+     */
+    private static synchronized ExecutorService getDefaultExecutor() {
+        if (defaultExecutor == null) {
+            defaultExecutor = OverlayExecutors.newDaemonThreadPool(
+                    FeatureOverlayQuery.class.getSimpleName(), DEFAULT_THREADS);
+        }
+        return defaultExecutor;
+    }
+
+    /**
+     * Map click query task notifying the callback when completed and not cancelled
+     *
+     * @param <T> result type
+     */
+    private class QueryTask<T> extends FutureTask<T> {
+
+        /**
+         * Query stage timings
+         */
+        private final FeatureQueryTimings timings;
+
+        /**
+         * Result callback
+         */
+        private final FeatureOverlayQueryCallback<T> callback;
+
+        /**
+         * Constructor
+         *
+         * @param query    query
+         * @param timings  query stage timings
+         * @param callback result callback, may be null
+         */
+        QueryTask(Callable<T> query, FeatureQueryTimings timings, FeatureOverlayQueryCallback<T> callback) {
+            super(query);
+            this.timings = timings;
+            this.callback = callback;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void done() {
+            synchronized (FeatureOverlayQuery.this) {
+                if (activeQuery == this) {
+                    activeQuery = null;
+                }
+            }
+            if (callback != null && !isCancelled()) {
+                try {
+                    callback.onResult(get(), timings);
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (!(cause instanceof CancellationException)) {
+                        callback.onError(cause instanceof Exception ? (Exception) cause : e);
+                    }
+                } catch (InterruptedException | CancellationException e) {
+                    // Cancelled after completing
+                }
+            }
+        }
+
+    }
+
 }
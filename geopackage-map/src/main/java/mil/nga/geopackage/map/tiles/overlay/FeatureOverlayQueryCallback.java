@@ -0,0 +1,31 @@
+package mil.nga.geopackage.map.tiles.overlay;
+
+import mil.nga.geopackage.map.features.FeatureQueryTimings;
+
+/**
+ * Callback of an asynchronous feature overlay map click query. Callbacks are made on the
+ * background query thread, not the UI thread, and are not made for cancelled queries. Post map
+ * and view updates to the UI thread, such as with a main looper handler.
+ *
+ * @param <T> result type
+ * @author osbornb
+ * @since 6.7.5
+ */
+public interface FeatureOverlayQueryCallback<T> {
+
+    /**
+     * Called when the query completes
+     *
+     * @param result  query result, null when nothing was clicked
+     * @param timings query stage timings
+     */
+    void onResult(T result, FeatureQueryTimings timings);
+
+    /**
+     * Called when the query fails
+     *
+     * @param error query error
+     */
+    void onError(Exception error);
+
+}
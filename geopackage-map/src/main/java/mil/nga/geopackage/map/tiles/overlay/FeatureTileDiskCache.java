@@ -0,0 +1,882 @@
+package mil.nga.geopackage.map.tiles.overlay;
+
+import android.util.Log;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import mil.nga.geopackage.BoundingBox;
+import mil.nga.geopackage.contents.Contents;
+import mil.nga.geopackage.contents.ContentsDao;
+import mil.nga.geopackage.features.user.FeatureDao;
+import mil.nga.geopackage.tiles.TileBoundingBoxUtils;
+import mil.nga.geopackage.tiles.TileGrid;
+import mil.nga.geopackage.tiles.features.FeatureTiles;
+import mil.nga.proj.Projection;
+import mil.nga.proj.ProjectionConstants;
+
+/**
+ * Persistent disk cache of feature tiles drawn by feature overlays. Tile bytes are keyed by
+ * GeoPackage, feature table, style version, tile size, density, and x, y, zoom. The cache is
+ * limited to a max number of bytes with least recently used trimming. Cached tiles of a table are
+ * automatically invalidated when the feature table last change timestamp, the feature style
+ * table last change timestamps, or the user set style version change. Feature rows edited through
+ * a feature DAO do not update the contents last change timestamp, so after editing features
+ * either update the contents last change or invalidate the edited area with
+ * {@link #invalidate(FeatureTiles, BoundingBox, Projection)}. The cache monitor guards
+ * only the in memory file index, file reads, writes, and deletes and contents queries are made
+ * outside of it so concurrent tile requests are not serialized.
+ *
+ * @author osbornb
+ * @since 6.7.5
+ */
+public class FeatureTileDiskCache {
+
+    /**
+     * Default max cache size in bytes
+     */
+    public static final long DEFAULT_MAX_BYTES = 64 * 1024 * 1024;
+
+    /**
+     * Default interval in milliseconds between table version validations
+     */
+    public static final long DEFAULT_VALIDATE_INTERVAL = 5000;
+
+    /**
+     * Table name prefix of feature style extension tables and mapping tables
+     */
+    private static final String STYLE_TABLE_PREFIX = "nga_style";
+
+    /**
+     * Table name prefix of feature icon extension tables and mapping tables
+     */
+    private static final String ICON_TABLE_PREFIX = "nga_icon";
+
+    /**
+     * Temporary file suffix used while writing tiles
+     */
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * Cache directory
+     */
+    private final File directory;
+
+    /**
+     * Max cache size in bytes
+     */
+    private long maxBytes;
+
+    /**
+     * Interval in milliseconds between table version validations
+     */
+    private long validateInterval = DEFAULT_VALIDATE_INTERVAL;
+
+    /**
+     * Least recently used ordered cached tile files and their sizes, lazily loaded
+     */
+    private LinkedHashMap<File, Long> files = null;
+
+    /**
+     * Lock serializing the initial load of the cached files
+     */
+    private final Object loadLock = new Object();
+
+    /**
+     * Current cache size in bytes
+     */
+    private long size = 0;
+
+    /**
+     * User set style versions by table key
+     */
+    private final Map<String, String> styleVersions = new HashMap<>();
+
+    /**
+     * Validated table versions by table key
+     */
+    private final Map<String, TableVersion> tableVersions = new HashMap<>();
+
+    /**
+     * Constructor, uses the default max cache size
+     *
+     * @param directory cache directory
+     */
+    public FeatureTileDiskCache(File directory) {
+        this(directory, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param directory cache directory
+     * @param maxBytes  max cache size in bytes
+     */
+    public FeatureTileDiskCache(File directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Get the cache directory
+     *
+     * @return cache directory
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Get the max cache size in bytes
+     *
+     * @return max bytes
+     */
+    public synchronized long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Set the max cache size in bytes, trimming the cache as needed
+     *
+     * @param maxBytes max bytes
+     */
+    public void setMaxBytes(long maxBytes) {
+        List<File> trimmed;
+        synchronized (this) {
+            this.maxBytes = maxBytes;
+            trimmed = trim();
+        }
+        deleteFiles(trimmed);
+    }
+
+    /**
+     * Get the current cache size in bytes
+     *
+     * @return size in bytes
+     */
+    public long getSize() {
+        loadFiles();
+        synchronized (this) {
+            return size;
+        }
+    }
+
+    /**
+     * Get the number of cached tile files
+     *
+     * @return tile count
+     */
+    public int getCount() {
+        loadFiles();
+        synchronized (this) {
+            return files.size();
+        }
+    }
+
+    /**
+     * Get the interval in milliseconds between table version validations
+     *
+     * @return validate interval
+     */
+    public synchronized long getValidateInterval() {
+        return validateInterval;
+    }
+
+    /**
+     * Set the interval in milliseconds between table version validations. Table and style last
+     * change timestamps are queried at most once per interval.
+     *
+     * @param validateInterval validate interval, 0 to validate on every request
+     */
+    public synchronized void setValidateInterval(long validateInterval) {
+        this.validateInterval = validateInterval;
+    }
+
+    /**
+     * Set a user style version for the feature tiles table. Change the style version when feature
+     * tiles drawing options are changed in memory to invalidate the cached tiles. The style
+     * version is part of the cache directory names, so keep it short.
+     *
+     * @param featureTiles feature tiles
+     * @param styleVersion style version, null to clear
+     */
+    public synchronized void setStyleVersion(FeatureTiles featureTiles, String styleVersion) {
+        String tableKey = getTableKey(featureTiles);
+        if (styleVersion != null) {
+            styleVersions.put(tableKey, styleVersion);
+        } else {
+            styleVersions.remove(tableKey);
+        }
+        tableVersions.remove(tableKey);
+    }
+
+    /**
+     * Get the user style version for the feature tiles table
+     *
+     * @param featureTiles feature tiles
+     * @return style version or null
+     */
+    public synchronized String getStyleVersion(FeatureTiles featureTiles) {
+        return styleVersions.get(getTableKey(featureTiles));
+    }
+
+    /**
+     * Get the cached tile bytes
+     *
+     * @param featureTiles feature tiles
+     * @param x            x coordinate
+     * @param y            y coordinate
+     * @param zoom         zoom level
+     * @return tile bytes, empty bytes when cached as no tile, or null when not cached
+     */
+    public byte[] getTileBytes(FeatureTiles featureTiles, int x, int y, int zoom) {
+
+        byte[] bytes = null;
+
+        loadFiles();
+
+        File file = getTileFile(featureTiles, x, y, zoom);
+        Long fileSize;
+        synchronized (this) {
+            fileSize = files.get(file);
+        }
+        if (fileSize != null) {
+            if (fileSize == 0) {
+                bytes = new byte[0];
+            } else {
+                bytes = readFile(file);
+            }
+            if (bytes != null) {
+                file.setLastModified(System.currentTimeMillis());
+            } else if (removeFile(file, fileSize)) {
+                file.delete();
+            }
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Cache the tile bytes
+     *
+     * @param featureTiles feature tiles
+     * @param x            x coordinate
+     * @param y            y coordinate
+     * @param zoom         zoom level
+     * @param tileBytes    tile bytes, null to cache as no tile
+     */
+    public void putTileBytes(FeatureTiles featureTiles, int x, int y, int zoom,
+                             byte[] tileBytes) {
+
+        loadFiles();
+
+        File file = getTileFile(featureTiles, x, y, zoom);
+
+        File parent = file.getParentFile();
+        if (parent.isDirectory() || parent.mkdirs()) {
+            File tempFile = createTempFile(file);
+            if (tempFile != null) {
+                if (writeFile(tempFile, tileBytes) && tempFile.renameTo(file)) {
+                    long fileSize = tileBytes != null ? tileBytes.length : 0;
+                    List<File> trimmed;
+                    synchronized (this) {
+                        Long previousSize = files.put(file, fileSize);
+                        size += fileSize;
+                        if (previousSize != null) {
+                            size -= previousSize;
+                        }
+                        trimmed = trim();
+                    }
+                    deleteFiles(trimmed);
+                } else {
+                    tempFile.delete();
+                }
+            }
+        }
+    }
+
+    /**
+     * Invalidate all cached tiles for the feature tiles table
+     *
+     * @param featureTiles feature tiles
+     */
+    public void invalidate(FeatureTiles featureTiles) {
+        String tableKey = getTableKey(featureTiles);
+        synchronized (this) {
+            tableVersions.remove(tableKey);
+        }
+        deleteVersionFiles(getTableDirectory(featureTiles), null);
+    }
+
+    /**
+     * Invalidate the cached tiles for the feature tiles table intersecting the bounding box and
+     * their neighboring tiles at all zoom levels, such as after editing features within the
+     * bounding box. Neighboring tiles are included for feature styles drawn beyond the feature
+     * geometries.
+     *
+     * @param featureTiles feature tiles
+     * @param boundingBox  bounding box of the edited features
+     * @param projection   bounding box projection
+     */
+    public void invalidate(FeatureTiles featureTiles, BoundingBox boundingBox,
+                           Projection projection) {
+
+        BoundingBox webMercatorBoundingBox = boundingBox.transform(
+                projection.getTransformation(ProjectionConstants.EPSG_WEB_MERCATOR));
+
+        List<File> invalidated = new ArrayList<>();
+        File[] versionDirectories = getTableDirectory(featureTiles).listFiles();
+        if (versionDirectories != null) {
+            for (File versionDirectory : versionDirectories) {
+                File[] zoomDirectories = versionDirectory.listFiles();
+                if (zoomDirectories == null) {
+                    continue;
+                }
+                for (File zoomDirectory : zoomDirectories) {
+                    Integer zoom = parseInt(zoomDirectory.getName());
+                    if (zoom == null) {
+                        continue;
+                    }
+                    TileGrid tileGrid = TileBoundingBoxUtils.getTileGrid(
+                            webMercatorBoundingBox, zoom);
+                    File[] xDirectories = zoomDirectory.listFiles();
+                    if (xDirectories == null) {
+                        continue;
+                    }
+                    for (File xDirectory : xDirectories) {
+                        Integer x = parseInt(xDirectory.getName());
+                        if (x == null || x < tileGrid.getMinX() - 1
+                                || x > tileGrid.getMaxX() + 1) {
+                            continue;
+                        }
+                        File[] yFiles = xDirectory.listFiles();
+                        if (yFiles == null) {
+                            continue;
+                        }
+                        for (File yFile : yFiles) {
+                            Integer y = parseInt(yFile.getName());
+                            if (y != null && y >= tileGrid.getMinY() - 1
+                                    && y <= tileGrid.getMaxY() + 1) {
+                                invalidated.add(yFile);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        if (!invalidated.isEmpty()) {
+            loadFiles();
+            synchronized (this) {
+                for (File file : invalidated) {
+                    Long fileSize = files.remove(file);
+                    if (fileSize != null) {
+                        size -= fileSize;
+                    }
+                }
+            }
+            deleteFiles(invalidated);
+        }
+    }
+
+    /**
+     * Clear all cached tiles
+     */
+    public void clear() {
+        loadFiles();
+        List<File> cleared;
+        synchronized (this) {
+            tableVersions.clear();
+            cleared = new ArrayList<>(files.keySet());
+            files.clear();
+            size = 0;
+        }
+        deleteFiles(cleared);
+        deleteEmptyDirectories(directory, false);
+    }
+
+    /**
+     * Get the tile file for the current table version, validating the version when needed
+     *
+     * @param featureTiles feature tiles
+     * @param x            x coordinate
+     * @param y            y coordinate
+     * @param zoom         zoom level
+     * @return tile file
+     */
+    private File getTileFile(FeatureTiles featureTiles, int x, int y, int zoom) {
+        File versionDirectory = new File(getTableDirectory(featureTiles),
+                getVersion(featureTiles) + "_" + featureTiles.getTileWidth()
+                        + "x" + featureTiles.getTileHeight() + "_"
+                        + featureTiles.getDensity());
+        File xDirectory = new File(new File(versionDirectory, String.valueOf(zoom)),
+                String.valueOf(x));
+        return new File(xDirectory, String.valueOf(y));
+    }
+
+    /**
+     * Get the feature tiles table directory
+     *
+     * @param featureTiles feature tiles
+     * @return table directory
+     */
+    private File getTableDirectory(FeatureTiles featureTiles) {
+        FeatureDao featureDao = featureTiles.getFeatureDao();
+        return new File(new File(directory, encode(featureDao.getDatabase())),
+                encode(featureDao.getTableName()));
+    }
+
+    /**
+     * Get the current version of the feature tiles table, querying the table and style last
+     * change timestamps at most once per validate interval. When the version changes, tiles
+     * cached for previous versions are deleted.
+     *
+     * @param featureTiles feature tiles
+     * @return version
+     */
+    private String getVersion(FeatureTiles featureTiles) {
+
+        String tableKey = getTableKey(featureTiles);
+        long now = System.currentTimeMillis();
+
+        String version = null;
+        String styleVersion;
+        synchronized (this) {
+            TableVersion tableVersion = tableVersions.get(tableKey);
+            if (tableVersion != null && now - tableVersion.validated < validateInterval) {
+                version = tableVersion.version;
+            }
+            styleVersion = styleVersions.get(tableKey);
+        }
+
+        if (version == null) {
+
+            // Query the version outside of the lock
+            version = queryVersion(featureTiles, styleVersion);
+
+            boolean changed = false;
+            synchronized (this) {
+                // Keep the version only if the style version was not changed while querying
+                if (equals(styleVersion, styleVersions.get(tableKey))) {
+                    TableVersion tableVersion = tableVersions.get(tableKey);
+                    if (tableVersion == null || !tableVersion.version.equals(version)) {
+                        tableVersion = new TableVersion(version);
+                        tableVersions.put(tableKey, tableVersion);
+                        changed = true;
+                    }
+                    tableVersion.validated = now;
+                }
+            }
+
+            if (changed) {
+                deleteVersionFiles(getTableDirectory(featureTiles), version + "_");
+            }
+        }
+
+        return version;
+    }
+
+    /**
+     * Query the version of the feature tiles table from the full feature table and style table
+     * last change timestamps and the user style version
+     *
+     * @param featureTiles feature tiles
+     * @param styleVersion user style version
+     * @return version
+     */
+    private String queryVersion(FeatureTiles featureTiles, String styleVersion) {
+
+        FeatureDao featureDao = featureTiles.getFeatureDao();
+        String tableName = featureDao.getTableName();
+
+        long tableChange = 0;
+        long styleChange = 0;
+
+        ContentsDao contentsDao = ContentsDao.create(featureDao.getDb());
+        try {
+            for (Contents contents : contentsDao.queryForAll()) {
+                String contentsTable = contents.getTableName();
+                long lastChange = contents.getLastChange() != null
+                        ? contents.getLastChange().getTime() : 0;
+                if (contentsTable.equals(tableName)) {
+                    tableChange = lastChange;
+                } else if (contentsTable.startsWith(STYLE_TABLE_PREFIX)
+                        || contentsTable.startsWith(ICON_TABLE_PREFIX)) {
+                    styleChange = Math.max(styleChange, lastChange);
+                }
+            }
+        } catch (SQLException e) {
+            Log.e(FeatureTileDiskCache.class.getSimpleName(),
+                    "Failed to query contents last change for Feature Table: " + tableName, e);
+        }
+
+        StringBuilder version = new StringBuilder();
+        version.append(Long.toHexString(tableChange));
+        version.append('-').append(Long.toHexString(styleChange));
+        if (styleVersion != null) {
+            // Hex encode the style version so the version contains no version separators
+            version.append('-');
+            for (char c : styleVersion.toCharArray()) {
+                version.append(String.format("%04x", (int) c));
+            }
+        }
+
+        return version.toString();
+    }
+
+    /**
+     * Get the key of the feature tiles table
+     *
+     * @param featureTiles feature tiles
+     * @return table key
+     */
+    private static String getTableKey(FeatureTiles featureTiles) {
+        FeatureDao featureDao = featureTiles.getFeatureDao();
+        return featureDao.getDatabase() + File.separator + featureDao.getTableName();
+    }
+
+    /**
+     * Encode the name into a safe file name
+     *
+     * @param name name
+     * @return file name
+     */
+    private static String encode(String name) {
+        StringBuilder encoded = new StringBuilder();
+        for (char c : name.toCharArray()) {
+            if (Character.isLetterOrDigit(c) || c == '-' || c == '.') {
+                encoded.append(c);
+            } else {
+                encoded.append('_').append(Integer.toHexString(c)).append('_');
+            }
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * Parse the cache file name as an integer
+     *
+     * @param name file name
+     * @return integer or null if not an integer
+     */
+    private static Integer parseInt(String name) {
+        Integer value = null;
+        try {
+            value = Integer.parseInt(name);
+        } catch (NumberFormatException e) {
+            // Not a tile coordinate file name
+        }
+        return value;
+    }
+
+    /**
+     * Load the cached files in least recently used order if not yet loaded. The cache directory
+     * is listed outside of the cache monitor.
+     */
+    private void loadFiles() {
+        synchronized (loadLock) {
+
+            boolean loaded;
+            synchronized (this) {
+                loaded = files != null;
+            }
+
+            if (!loaded) {
+
+                List<File> cachedFiles = new ArrayList<>();
+                listFiles(directory, cachedFiles);
+
+                final Map<File, Long> modified = new HashMap<>();
+                for (File file : cachedFiles) {
+                    modified.put(file, file.lastModified());
+                }
+                File[] sorted = cachedFiles.toArray(new File[0]);
+                Arrays.sort(sorted, new Comparator<File>() {
+                    @Override
+                    public int compare(File file1, File file2) {
+                        return Long.compare(modified.get(file1), modified.get(file2));
+                    }
+                });
+
+                LinkedHashMap<File, Long> loadedFiles = new LinkedHashMap<>(16, 0.75f, true);
+                long loadedSize = 0;
+                for (File file : sorted) {
+                    long fileSize = file.length();
+                    loadedFiles.put(file, fileSize);
+                    loadedSize += fileSize;
+                }
+
+                List<File> trimmed;
+                synchronized (this) {
+                    files = loadedFiles;
+                    size = loadedSize;
+                    trimmed = trim();
+                }
+                deleteFiles(trimmed);
+            }
+        }
+    }
+
+    /**
+     * Recursively list the cached tile files, deleting incomplete temporary files
+     *
+     * @param directory   directory
+     * @param cachedFiles cached files
+     */
+    private static void listFiles(File directory, List<File> cachedFiles) {
+        File[] children = directory.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                if (child.isDirectory()) {
+                    listFiles(child, cachedFiles);
+                } else if (child.getName().endsWith(TEMP_SUFFIX)) {
+                    child.delete();
+                } else {
+                    cachedFiles.add(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * Trim the least recently used files from the index until within the max bytes, called
+     * while holding the cache monitor
+     *
+     * @return trimmed files to delete
+     */
+    private List<File> trim() {
+        List<File> trimmed = new ArrayList<>();
+        if (files != null) {
+            Iterator<Map.Entry<File, Long>> iterator = files.entrySet().iterator();
+            while (size > maxBytes && iterator.hasNext()) {
+                Map.Entry<File, Long> entry = iterator.next();
+                trimmed.add(entry.getKey());
+                size -= entry.getValue();
+                iterator.remove();
+            }
+        }
+        return trimmed;
+    }
+
+    /**
+     * Remove the cached file from the index if still cached with the file size
+     *
+     * @param file     file
+     * @param fileSize cached file size
+     * @return true if removed
+     */
+    private synchronized boolean removeFile(File file, Long fileSize) {
+        boolean removed = fileSize.equals(files.get(file));
+        if (removed) {
+            files.remove(file);
+            size -= fileSize;
+        }
+        return removed;
+    }
+
+    /**
+     * Delete the files
+     *
+     * @param deleteFiles files to delete
+     */
+    private static void deleteFiles(List<File> deleteFiles) {
+        for (File file : deleteFiles) {
+            file.delete();
+        }
+    }
+
+    /**
+     * Delete the cached files within the table directory, excluding version directories
+     * starting with the keep prefix
+     *
+     * @param tableDirectory table directory
+     * @param keepPrefix     version directory prefix to keep, null to delete all
+     */
+    private void deleteVersionFiles(File tableDirectory, String keepPrefix) {
+        File[] versionDirectories = tableDirectory.listFiles();
+        if (versionDirectories != null) {
+            loadFiles();
+            for (File versionDirectory : versionDirectories) {
+                if (keepPrefix == null || !versionDirectory.getName().startsWith(keepPrefix)) {
+                    List<File> versionFiles = new ArrayList<>();
+                    listFiles(versionDirectory, versionFiles);
+                    synchronized (this) {
+                        for (File file : versionFiles) {
+                            Long fileSize = files.remove(file);
+                            if (fileSize != null) {
+                                size -= fileSize;
+                            }
+                        }
+                    }
+                    deleteFiles(versionFiles);
+                    deleteEmptyDirectories(versionDirectory, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Recursively delete empty directories
+     *
+     * @param directory  directory
+     * @param deleteRoot true to delete the directory itself when empty
+     */
+    private static void deleteEmptyDirectories(File directory, boolean deleteRoot) {
+        File[] children = directory.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                if (child.isDirectory()) {
+                    deleteEmptyDirectories(child, true);
+                }
+            }
+            if (deleteRoot) {
+                directory.delete();
+            }
+        }
+    }
+
+    /**
+     * Create a temporary file in the directory of the tile file, unique per writer
+     *
+     * @param file tile file
+     * @return temporary file or null if not created
+     */
+    private static File createTempFile(File file) {
+        File tempFile = null;
+        try {
+            tempFile = File.createTempFile("tile_" + file.getName() + "_", TEMP_SUFFIX,
+                    file.getParentFile());
+        } catch (IOException e) {
+            Log.w(FeatureTileDiskCache.class.getSimpleName(),
+                    "Failed to create temporary tile file: " + file, e);
+        }
+        return tempFile;
+    }
+
+    /**
+     * Check if the values are equal, including both null
+     *
+     * @param value1 value 1
+     * @param value2 value 2
+     * @return true if equal
+     */
+    private static boolean equals(String value1, String value2) {
+        return value1 == null ? value2 == null : value1.equals(value2);
+    }
+
+    /**
+     * Read the file bytes
+     *
+     * @param file file
+     * @return bytes or null if not read
+     */
+    private static byte[] readFile(File file) {
+        byte[] bytes = null;
+        InputStream in = null;
+        try {
+            in = new FileInputStream(file);
+            byte[] read = new byte[(int) file.length()];
+            int offset = 0;
+            int count;
+            while (offset < read.length
+                    && (count = in.read(read, offset, read.length - offset)) != -1) {
+                offset += count;
+            }
+            if (offset == read.length) {
+                bytes = read;
+            }
+        } catch (IOException e) {
+            Log.w(FeatureTileDiskCache.class.getSimpleName(),
+                    "Failed to read cached tile: " + file, e);
+        } finally {
+            closeQuietly(in);
+        }
+        return bytes;
+    }
+
+    /**
+     * Write the bytes to the file
+     *
+     * @param file  file
+     * @param bytes bytes, null for an empty file
+     * @return true if written
+     */
+    private static boolean writeFile(File file, byte[] bytes) {
+        boolean written = false;
+        OutputStream out = null;
+        try {
+            out = new FileOutputStream(file);
+            if (bytes != null) {
+                out.write(bytes);
+            }
+            written = true;
+        } catch (IOException e) {
+            Log.w(FeatureTileDiskCache.class.getSimpleName(),
+                    "Failed to write cached tile: " + file, e);
+        } finally {
+            if (!closeQuietly(out)) {
+                written = false;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Close the stream, ignoring errors
+     *
+     * @param closeable stream
+     * @return true if closed without error
+     */
+    private static boolean closeQuietly(Closeable closeable) {
+        boolean closed = true;
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                closed = false;
+            }
+        }
+        return closed;
+    }
+
+    /**
+     * Validated table version
+     */
+    private static class TableVersion {
+
+        /**
+         * Version
+         */
+        private final String version;
+
+        /**
+         * Last validated time in milliseconds
+         */
+        private long validated;
+
+        /**
+         * Constructor
+         *
+         * @param version version
+         */
+        private TableVersion(String version) {
+            this.version = version;
+        }
+
+    }
+
+}
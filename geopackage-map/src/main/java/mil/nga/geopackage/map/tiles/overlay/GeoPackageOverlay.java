@@ -1,13 +1,21 @@
 package mil.nga.geopackage.map.tiles.overlay;
 
+import android.database.Cursor;
+
 import com.google.android.gms.maps.model.Tile;
 
+import mil.nga.geopackage.BoundingBox;
+import mil.nga.geopackage.db.CoreSQLUtils;
 import mil.nga.geopackage.extension.nga.scale.TileScaling;
+import mil.nga.geopackage.tiles.TileBoundingBoxUtils;
 import mil.nga.geopackage.tiles.TileUtils;
+import mil.nga.geopackage.tiles.matrix.TileMatrix;
 import mil.nga.geopackage.tiles.retriever.GeoPackageTile;
 import mil.nga.geopackage.tiles.retriever.GeoPackageTileRetriever;
 import mil.nga.geopackage.tiles.retriever.TileRetriever;
 import mil.nga.geopackage.tiles.user.TileDao;
+import mil.nga.geopackage.tiles.user.TileTable;
+import mil.nga.proj.ProjectionConstants;
 
 /**
  * GeoPackage Map Overlay Tile Provider
@@ -16,11 +24,41 @@ import mil.nga.geopackage.tiles.user.TileDao;
  */
 public class GeoPackageOverlay extends BoundedOverlay {
 
+    /**
+     * Relative tolerance of web mercator world bounds when checking tile table alignment
+     */
+    private static final double ALIGNED_TOLERANCE = 0.0000001;
+
     /**
      * Tile retriever
      */
     private final TileRetriever retriever;
 
+    /**
+     * Tile DAO
+     */
+    private final TileDao tileDao;
+
+    /**
+     * Tile scaling options
+     */
+    private final TileScaling scaling;
+
+    /**
+     * Tile presence index
+     */
+    private TilePresenceIndex tileIndex;
+
+    /**
+     * True when the tile index was loaded from a tile table aligned to web mercator tiles
+     */
+    private boolean tileIndexAligned = false;
+
+    /**
+     * Zoom scaler synthesizing tiles outside of the native zoom range
+     */
+    private TileZoomScaler zoomScaler;
+
     /**
      * Constructor using GeoPackage tile sizes
      *
@@ -28,6 +66,8 @@ public class GeoPackageOverlay extends BoundedOverlay {
      */
     public GeoPackageOverlay(TileDao tileDao) {
         this.retriever = new GeoPackageTileRetriever(tileDao);
+        this.tileDao = tileDao;
+        this.scaling = null;
     }
 
     /**
@@ -50,6 +90,8 @@ public class GeoPackageOverlay extends BoundedOverlay {
      */
     public GeoPackageOverlay(TileDao tileDao, int width, int height) {
         this.retriever = new GeoPackageTileRetriever(tileDao, width, height);
+        this.tileDao = tileDao;
+        this.scaling = null;
     }
 
     /**
@@ -65,6 +107,8 @@ public class GeoPackageOverlay extends BoundedOverlay {
             tileRetriever.setScaling(scaling);
         }
         this.retriever = tileRetriever;
+        this.tileDao = tileDao;
+        this.scaling = scaling;
     }
 
     /**
@@ -94,6 +138,8 @@ public class GeoPackageOverlay extends BoundedOverlay {
             tileRetriever.setScaling(scaling);
         }
         this.retriever = tileRetriever;
+        this.tileDao = tileDao;
+        this.scaling = scaling;
     }
 
     /**
@@ -106,12 +152,242 @@ public class GeoPackageOverlay extends BoundedOverlay {
         return retriever;
     }
 
+    /**
+     * Get the tile DAO
+     *
+     * @return tile DAO
+     * @since 6.7.5
+     */
+    public TileDao getTileDao() {
+        return tileDao;
+    }
+
+    /**
+     * Get the tile presence index
+     *
+     * @return tile index or null
+     * @since 6.7.5
+     */
+    public TilePresenceIndex getTileIndex() {
+        return tileIndex;
+    }
+
+    /**
+     * Set a tile presence index, lazily filled as tiles are checked. Checked tiles are then
+     * answered by the index without querying the tile table.
+     *
+     * @param tileIndex tile index, null to not index
+     * @since 6.7.5
+     */
+    public void setTileIndex(TilePresenceIndex tileIndex) {
+        this.tileIndex = tileIndex;
+        this.tileIndexAligned = false;
+    }
+
+    /**
+     * Build and set a tile presence index. When the tile table is a web mercator tile pyramid
+     * aligned to the map tiles without scaling, the index is loaded from the tile table
+     * coordinates for the tile matrix zoom levels. Otherwise, the index is lazily filled as tiles
+     * are checked.
+     *
+     * @return tile index
+     * @since 6.7.5
+     */
+    public TilePresenceIndex buildTileIndex() {
+
+        TilePresenceIndex index = new TilePresenceIndex();
+        boolean aligned = scaling == null && isWebMercatorAligned();
+
+        if (aligned) {
+
+            String sql = "SELECT " + TileTable.COLUMN_ZOOM_LEVEL + ", "
+                    + TileTable.COLUMN_TILE_COLUMN + ", " + TileTable.COLUMN_TILE_ROW
+                    + " FROM " + CoreSQLUtils.quoteWrap(tileDao.getTableName());
+            Cursor cursor = tileDao.getDb().rawQuery(sql, null);
+            try {
+                while (cursor.moveToNext()) {
+                    index.set(cursor.getInt(1), cursor.getInt(2), cursor.getInt(0), true);
+                }
+            } finally {
+                cursor.close();
+            }
+
+            // All tiles are loaded, tiles not present are absent at the tile matrix zooms
+            for (TileMatrix tileMatrix : tileDao.getTileMatrices()) {
+                index.setComplete((int) tileMatrix.getZoomLevel());
+            }
+        }
+
+        this.tileIndex = index;
+        this.tileIndexAligned = aligned;
+
+        return index;
+    }
+
+    /**
+     * Load the tiles of the zoom level into a tile presence index when the tile table is a web
+     * mercator tile pyramid aligned to the map tiles without scaling
+     *
+     * @param index   tile presence index
+     * @param zoom    zoom level
+     * @param version index version retrieved before loading
+     * @return true if loaded, false if not aligned or the index was cleared while loading
+     */
+    boolean loadTileIndex(TilePresenceIndex index, int zoom, long version) {
+
+        boolean loaded = scaling == null && isWebMercatorAligned();
+
+        if (loaded) {
+
+            String sql = "SELECT " + TileTable.COLUMN_TILE_COLUMN + ", "
+                    + TileTable.COLUMN_TILE_ROW + " FROM "
+                    + CoreSQLUtils.quoteWrap(tileDao.getTableName()) + " WHERE "
+                    + TileTable.COLUMN_ZOOM_LEVEL + " = ?";
+            Cursor cursor = tileDao.getDb().rawQuery(sql, new String[]{String.valueOf(zoom)});
+            try {
+                while (loaded && cursor.moveToNext()) {
+                    loaded = index.set(cursor.getInt(0), cursor.getInt(1), zoom, true, version);
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+
+        return loaded;
+    }
+
+    /**
+     * Get the zoom scaler
+     *
+     * @return zoom scaler or null
+     * @since 6.7.5
+     */
+    public TileZoomScaler getZoomScaler() {
+        return zoomScaler;
+    }
+
+    /**
+     * Set a zoom scaler to synthesize overzoomed and underzoomed tiles from cached decoded native
+     * tiles, instead of retrieving each scaled tile from the tile table
+     *
+     * @param zoomScaler zoom scaler, null to not scale
+     * @since 6.7.5
+     */
+    public void setZoomScaler(TileZoomScaler zoomScaler) {
+        this.zoomScaler = zoomScaler;
+    }
+
+    /**
+     * Build and set a zoom scaler with the native zoom range of the tile matrices. Requires a web
+     * mercator tile pyramid aligned to the map tiles, otherwise the native map zoom range must be
+     * provided to {@link #setZoomScaler(TileZoomScaler)}.
+     *
+     * @return zoom scaler or null if not aligned
+     * @since 6.7.5
+     */
+    public TileZoomScaler buildZoomScaler() {
+        TileZoomScaler scaler = null;
+        if (isWebMercatorAligned()) {
+            scaler = new TileZoomScaler(retriever, (int) tileDao.getMinZoom(),
+                    (int) tileDao.getMaxZoom());
+        }
+        this.zoomScaler = scaler;
+        return scaler;
+    }
+
+    /**
+     * Refresh the tile presence index and zoom scaler after a tile is inserted into the tile table
+     *
+     * @param column    tile column
+     * @param row       tile row
+     * @param zoomLevel tile zoom level
+     * @since 6.7.5
+     */
+    public void tileInserted(long column, long row, long zoomLevel) {
+        if (zoomScaler != null) {
+            zoomScaler.clear();
+        }
+        if (tileIndex != null) {
+            if (tileIndexAligned) {
+                tileIndex.set((int) column, (int) row, (int) zoomLevel, true);
+            } else {
+                TileMatrix tileMatrix = tileDao.getTileMatrix(zoomLevel);
+                if (tileMatrix != null) {
+                    BoundingBox tileBoundingBox = TileBoundingBoxUtils.getBoundingBox(
+                            tileDao.getTileMatrixSet().getBoundingBox(), tileMatrix, column, row);
+                    BoundingBox webMercatorTileBoundingBox = tileBoundingBox.transform(
+                            tileDao.getProjection().getTransformation(
+                                    ProjectionConstants.EPSG_WEB_MERCATOR));
+                    tileIndex.clear(webMercatorTileBoundingBox);
+                }
+            }
+        }
+    }
+
+    /**
+     * Determine if the tile table is a web mercator tile pyramid aligned to the map tiles
+     *
+     * @return true if aligned
+     */
+    private boolean isWebMercatorAligned() {
+
+        boolean aligned = tileDao.getProjection().equals(
+                ProjectionConstants.AUTHORITY_EPSG, ProjectionConstants.EPSG_WEB_MERCATOR);
+
+        if (aligned) {
+            BoundingBox boundingBox = tileDao.getTileMatrixSet().getBoundingBox();
+            double world = ProjectionConstants.WEB_MERCATOR_HALF_WORLD_WIDTH;
+            double tolerance = world * ALIGNED_TOLERANCE;
+            aligned = Math.abs(boundingBox.getMinLongitude() + world) <= tolerance
+                    && Math.abs(boundingBox.getMaxLongitude() - world) <= tolerance
+                    && Math.abs(boundingBox.getMinLatitude() + world) <= tolerance
+                    && Math.abs(boundingBox.getMaxLatitude() - world) <= tolerance;
+        }
+
+        if (aligned) {
+            for (TileMatrix tileMatrix : tileDao.getTileMatrices()) {
+                long tiles = 1L << tileMatrix.getZoomLevel();
+                if (tileMatrix.getMatrixWidth() != tiles
+                        || tileMatrix.getMatrixHeight() != tiles) {
+                    aligned = false;
+                    break;
+                }
+            }
+        }
+
+        return aligned;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public boolean hasTileToRetrieve(int x, int y, int zoom) {
-        return retriever.hasTile(x, y, zoom);
+
+        Boolean hasTile = null;
+
+        TileZoomScaler scaler = zoomScaler;
+        if (scaler != null && scaler.isScaled(zoom)) {
+            hasTile = scaler.hasTile(x, y, zoom);
+        } else {
+
+            TilePresenceIndex index = tileIndex;
+
+            long version = 0;
+            if (index != null) {
+                hasTile = index.get(x, y, zoom);
+                version = index.getVersion();
+            }
+
+            if (hasTile == null) {
+                hasTile = retriever.hasTile(x, y, zoom);
+                if (index != null) {
+                    index.set(x, y, zoom, hasTile, version);
+                }
+            }
+        }
+
+        return hasTile;
     }
 
     /**
@@ -120,8 +396,15 @@ public class GeoPackageOverlay extends BoundedOverlay {
     @Override
     public Tile retrieveTile(int x, int y, int zoom) {
 
-        GeoPackageTile geoPackageTile = retriever.getTile(x, y, zoom);
-        Tile tile = GeoPackageOverlayFactory.getTile(geoPackageTile);
+        Tile tile;
+
+        TileZoomScaler scaler = zoomScaler;
+        if (scaler != null && scaler.isScaled(zoom)) {
+            tile = scaler.getTile(x, y, zoom);
+        } else {
+            GeoPackageTile geoPackageTile = retriever.getTile(x, y, zoom);
+            tile = GeoPackageOverlayFactory.getTile(geoPackageTile);
+        }
 
         return tile;
     }
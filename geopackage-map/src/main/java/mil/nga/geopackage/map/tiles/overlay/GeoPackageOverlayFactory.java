@@ -163,7 +163,10 @@ public class GeoPackageOverlayFactory {
     }
 
     /**
-     * Create a composite overlay linking the feature overly with
+     * Create a composite overlay of the tile tables linked to the feature table followed by the
+     * feature overlay, drawing existing linked tiles instead of drawing from features. Each linked
+     * tile overlay checks its tile presence per tile, see {@link GeoPackageOverlay#buildTileIndex()}
+     * to index a linked tile overlay off the UI thread.
      *
      * @param featureOverlay feature overlay
      * @param geoPackage     GeoPackage
@@ -0,0 +1,355 @@
+package mil.nga.geopackage.map.tiles.overlay;
+
+import android.content.Context;
+import android.util.Log;
+import android.util.TypedValue;
+import android.view.View;
+
+import com.google.android.gms.maps.GoogleMap;
+import com.google.android.gms.maps.model.LatLng;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import mil.nga.geopackage.BoundingBox;
+import mil.nga.geopackage.GeoPackageException;
+import mil.nga.geopackage.features.index.FeatureIndexResults;
+import mil.nga.geopackage.map.ClickToleranceModel;
+import mil.nga.geopackage.map.LatLngBoundingBox;
+import mil.nga.geopackage.map.MapUtils;
+import mil.nga.geopackage.map.R;
+import mil.nga.geopackage.map.features.FeatureInfoBuilder;
+import mil.nga.geopackage.map.features.FeatureQueryTimings;
+import mil.nga.geopackage.map.features.FeatureRowDistance;
+
+/**
+ * Queries the features of many feature overlay layers for a single map click. The click bounding
+ * box and tolerance are calculated once, the layer index queries run in parallel, and the layer
+ * results are merged into a single distance ordered list limited to a max result count.
+ *
+ * @author osbornb
+ * @since 6.7.5
+ */
+public class MultiFeatureOverlayQuery {
+
+    /**
+     * Default max number of merged results
+     */
+    public static final int DEFAULT_MAX_RESULTS = 50;
+
+    /**
+     * Feature overlay layer queries
+     */
+    private final List<FeatureOverlayQuery> queries = new CopyOnWriteArrayList<>();
+
+    /**
+     * Screen click percentage between 0.0 and 1.0 for how close a feature on the screen must be
+     * to be included in a click query
+     */
+    private float screenClickPercentage;
+
+    /**
+     * Max number of merged results
+     */
+    private int maxResults = DEFAULT_MAX_RESULTS;
+
+    /**
+     * Executor for parallel layer queries
+     */
+    private ExecutorService executor;
+
+    /**
+     * Shared default executor, lazily created
+     */
+    private static ExecutorService defaultExecutor;
+
+    /**
+     * Constructor
+     *
+     * @param context context
+     */
+    public MultiFeatureOverlayQuery(Context context) {
+        TypedValue screenPercentage = new TypedValue();
+        context.getResources().getValue(R.dimen.map_feature_overlay_click_screen_percentage, screenPercentage, true);
+        screenClickPercentage = screenPercentage.getFloat();
+    }
+
+    /**
+     * Add a feature overlay layer query
+     *
+     * @param query feature overlay query
+     */
+    public void addQuery(FeatureOverlayQuery query) {
+        queries.add(query);
+    }
+
+    /**
+     * Remove a feature overlay layer query
+     *
+     * @param query feature overlay query
+     * @return true if removed
+     */
+    public boolean removeQuery(FeatureOverlayQuery query) {
+        return queries.remove(query);
+    }
+
+    /**
+     * Get the feature overlay layer queries
+     *
+     * @return feature overlay queries
+     */
+    public List<FeatureOverlayQuery> getQueries() {
+        return Collections.unmodifiableList(queries);
+    }
+
+    /**
+     * Get the screen click percentage
+     *
+     * @return screen click percentage between 0.0 and 1.0
+     */
+    public float getScreenClickPercentage() {
+        return screenClickPercentage;
+    }
+
+    /**
+     * Set the screen click percentage
+     *
+     * @param screenClickPercentage screen click percentage between 0.0 and 1.0
+     */
+    public void setScreenClickPercentage(float screenClickPercentage) {
+        if (screenClickPercentage < 0.0 || screenClickPercentage > 1.0) {
+            throw new GeoPackageException("Screen click percentage must be a float between 0.0 and 1.0, not " + screenClickPercentage);
+        }
+        this.screenClickPercentage = screenClickPercentage;
+    }
+
+    /**
+     * Get the max number of merged results
+     *
+     * @return max results
+     */
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    /**
+     * Set the max number of merged results
+     *
+     * @param maxResults max results
+     */
+    public void setMaxResults(int maxResults) {
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * Get the executor for parallel layer queries
+     *
+     * @return executor
+     */
+    public ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = getDefaultExecutor();
+        }
+        return executor;
+    }
+
+    /**
+     * Set the executor for parallel layer queries. Defaults to a shared executor sized by the
+     * available processors.
+     *
+     * @param executor executor
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Query the feature layers for the features at the map click location
+     *
+     * @param latLng location
+     * @param view   view
+     * @param map    Google Map
+     * @return nearest feature rows ordered by distance
+     */
+    public List<FeatureRowDistance> query(LatLng latLng, View view, GoogleMap map) {
+
+        // Get the zoom level
+        double zoom = MapUtils.getCurrentZoom(map);
+
+        // Build a bounding box to represent the click location
+        LatLngBoundingBox latLngBoundingBox = MapUtils.buildClickLatLngBoundingBox(latLng, view, map, screenClickPercentage);
+
+        // Get the map click distance tolerance
+        double tolerance = MapUtils.getToleranceDistance(latLng, latLngBoundingBox);
+
+        return query(latLng, zoom, latLngBoundingBox, tolerance, view.getWidth(), view.getHeight());
+    }
+
+    /**
+     * Query the feature layers for the features at the map click location. Feature style click
+     * tolerances are not applied without the map view size.
+     *
+     * @param latLng    location
+     * @param zoom      current zoom level
+     * @param mapBounds map view bounds
+     * @return nearest feature rows ordered by distance
+     */
+    public List<FeatureRowDistance> queryWithMapBounds(LatLng latLng, double zoom, BoundingBox mapBounds) {
+
+        // Build a bounding box to represent the click location
+        LatLngBoundingBox latLngBoundingBox = MapUtils.buildClickLatLngBoundingBox(latLng, mapBounds, screenClickPercentage);
+
+        // Get the map click distance tolerance
+        double tolerance = MapUtils.getToleranceDistance(latLng, latLngBoundingBox);
+
+        return query(latLng, zoom, latLngBoundingBox, tolerance, 0, 0);
+    }
+
+    /**
+     * Query the feature layers for the features at the map click location, using the click
+     * tolerance model in place of the screen click percentage. The click bounding box and
+     * tolerance do not require the map, so the query may be started off the UI thread. Feature
+     * style click tolerances are not applied without the map view size.
+     *
+     * @param latLng         location
+     * @param zoom           current zoom level
+     * @param toleranceModel click tolerance model
+     * @return nearest feature rows ordered by distance
+     */
+    public List<FeatureRowDistance> query(LatLng latLng, double zoom, ClickToleranceModel toleranceModel) {
+
+        // Build a bounding box to represent the click location
+        LatLngBoundingBox latLngBoundingBox = toleranceModel.buildClickLatLngBoundingBox(latLng, zoom);
+
+        // Get the map click distance tolerance
+        double tolerance = toleranceModel.getToleranceDistance(latLng, zoom);
+
+        return query(latLng, zoom, latLngBoundingBox, tolerance, 0, 0);
+    }
+
+    /**
+     * Query the feature layers in parallel with the click bounding box, merging the nearest
+     * results. All layer results are merged, so the merged results do not depend on the order
+     * the layer queries complete.
+     *
+     * @param latLng            location
+     * @param zoom              current zoom level
+     * @param latLngBoundingBox click bounding box
+     * @param tolerance         distance tolerance
+     * @param viewWidth         map view width in pixels for feature style tolerances, 0 for none
+     * @param viewHeight        map view height in pixels for feature style tolerances, 0 for none
+     * @return nearest feature rows ordered by distance
+     */
+    private List<FeatureRowDistance> query(LatLng latLng, double zoom, LatLngBoundingBox latLngBoundingBox, double tolerance, int viewWidth, int viewHeight) {
+
+        BoundingBox boundingBox = MapUtils.buildClickBoundingBox(latLngBoundingBox);
+
+        PriorityQueue<FeatureRowDistance> nearest = new PriorityQueue<>(
+                Math.max(1, maxResults), Collections.<FeatureRowDistance>reverseOrder());
+
+        ExecutorCompletionService<List<FeatureRowDistance>> completionService =
+                new ExecutorCompletionService<>(getExecutor());
+        List<Future<List<FeatureRowDistance>>> futures = new ArrayList<>();
+        for (FeatureOverlayQuery query : queries) {
+            futures.add(completionService.submit(
+                    layerQuery(query, latLng, zoom, boundingBox, tolerance, viewWidth, viewHeight)));
+        }
+
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    for (FeatureRowDistance rowDistance : completionService.take().get()) {
+                        nearest.offer(rowDistance);
+                        if (nearest.size() > maxResults) {
+                            nearest.poll();
+                        }
+                    }
+                } catch (ExecutionException e) {
+                    Log.e(MultiFeatureOverlayQuery.class.getSimpleName(),
+                            "Failed to query feature overlay layer", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Multiple feature overlay query was interrupted");
+        } finally {
+            for (Future<List<FeatureRowDistance>> future : futures) {
+                future.cancel(true);
+            }
+        }
+
+        List<FeatureRowDistance> results = new ArrayList<>(nearest);
+        Collections.sort(results);
+
+        return results;
+    }
+
+    /**
+     * Create a layer query returning the nearest layer rows to the click location. Layers that
+     * are not indexed, not on at the zoom level, or have more than the max features in the tile
+     * return no rows. Feature style click tolerances are applied as in
+     * {@link FeatureOverlayQuery} when the layer has style pixel bounds.
+     *
+     * @param query       feature overlay query
+     * @param latLng      location
+     * @param zoom        current zoom level
+     * @param boundingBox click bounding box
+     * @param tolerance   distance tolerance
+     * @param viewWidth   map view width in pixels for feature style tolerances, 0 for none
+     * @param viewHeight  map view height in pixels for feature style tolerances, 0 for none
+     * @return layer query
+     */
+    private Callable<List<FeatureRowDistance>> layerQuery(final FeatureOverlayQuery query,
+                                                          final LatLng latLng, final double zoom,
+                                                          final BoundingBox boundingBox,
+                                                          final double tolerance,
+                                                          int viewWidth, int viewHeight) {
+        final int layerMaxResults = maxResults;
+        final float layerScreenClickPercentage = query.getScreenClickPercentage();
+        final boolean styled = query.getStylePixelBounds() != null;
+        final int layerViewWidth = styled ? viewWidth : 0;
+        final int layerViewHeight = styled ? viewHeight : 0;
+        return new Callable<List<FeatureRowDistance>>() {
+            @Override
+            public List<FeatureRowDistance> call() {
+                List<FeatureRowDistance> rows = Collections.emptyList();
+                if (query.isIndexed() && query.isOnAtCurrentZoom(zoom, latLng)
+                        && !query.isMoreThanMaxFeatures(query.tileFeatureCount(latLng, zoom))) {
+                    FeatureInfoBuilder featureInfoBuilder = query.getFeatureInfoBuilder();
+                    FeatureIndexResults results = query.queryFeatures(
+                            featureInfoBuilder.getFilterColumns(), boundingBox);
+                    FeatureQueryTimings timings = new FeatureQueryTimings();
+                    timings.setCancellable(true);
+                    rows = featureInfoBuilder.buildRowDistancesAndClose(results, tolerance,
+                            latLng, query.getFeatureTiles().getDensity(), zoom, layerViewWidth,
+                            layerViewHeight, layerScreenClickPercentage, layerMaxResults, timings);
+                }
+                return rows;
+            }
+        };
+    }
+
+    /**
+     * Get the shared default executor, creating it if needed
+     *
+     * @return default executor
+     */
+    private static synchronized ExecutorService getDefaultExecutor() {
+        if (defaultExecutor == null) {
+            defaultExecutor = OverlayExecutors.newDaemonThreadPool(
+                    MultiFeatureOverlayQuery.class.getSimpleName(),
+                    Math.max(2, Runtime.getRuntime().availableProcessors()));
+        }
+        return defaultExecutor;
+    }
+
+}
@@ -0,0 +1,64 @@
+package mil.nga.geopackage.map.tiles.overlay;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Executor utilities creating the daemon background threads of overlay tile retrieval, seeding,
+ * prefetching, and map click queries
+ *
+ * @author osbornb
+ * @since 6.7.5
+ */
+final class OverlayExecutors {
+
+    /**
+     * Constructor
+     */
+    private OverlayExecutors() {
+
+    }
+
+    /**
+     * Create a fixed size thread pool of daemon threads
+     *
+     * @param name    thread name
+     * @param threads number of threads
+     * @return executor
+     */
+    static ExecutorService newDaemonThreadPool(String name, int threads) {
+        return Executors.newFixedThreadPool(threads, daemonThreadFactory(name));
+    }
+
+    /**
+     * Create a thread factory of normal priority daemon threads
+     *
+     * @param name thread name
+     * @return thread factory
+     */
+    static ThreadFactory daemonThreadFactory(String name) {
+        return daemonThreadFactory(name, Thread.NORM_PRIORITY);
+    }
+
+    /**
+     * Create a thread factory of daemon threads, which do not prevent the application process
+     * from exiting
+     *
+     * @param name     thread name
+     * @param priority thread priority
+     * @return thread factory
+     */
+    static ThreadFactory daemonThreadFactory(final String name, final int priority) {
+        return new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                thread.setPriority(priority);
+                return thread;
+            }
+        };
+    }
+
+}
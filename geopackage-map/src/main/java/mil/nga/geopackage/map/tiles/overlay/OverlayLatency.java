@@ -0,0 +1,149 @@
+package mil.nga.geopackage.map.tiles.overlay;
+
+/**
+ * Latency statistics of tile requests made to an overlay, used to compare and reorder the
+ * overlays of a composite overlay
+ *
+ * @author osbornb
+ * @since 6.7.5
+ */
+public class OverlayLatency {
+
+    /**
+     * Number of completed requests
+     */
+    private long count = 0;
+
+    /**
+     * Number of completed requests with a tile
+     */
+    private long hitCount = 0;
+
+    /**
+     * Number of cancelled requests
+     */
+    private long cancelledCount = 0;
+
+    /**
+     * Total request time in nanoseconds
+     */
+    private long totalNanos = 0;
+
+    /**
+     * Max request time in nanoseconds
+     */
+    private long maxNanos = 0;
+
+    /**
+     * Constructor
+     */
+    public OverlayLatency() {
+
+    }
+
+    /**
+     * Record a completed request
+     *
+     * @param nanos request time in nanoseconds
+     * @param hit   true if the request found a tile
+     */
+    public synchronized void record(long nanos, boolean hit) {
+        count++;
+        if (hit) {
+            hitCount++;
+        }
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    /**
+     * Record a cancelled request
+     */
+    public synchronized void recordCancelled() {
+        cancelledCount++;
+    }
+
+    /**
+     * Get the number of completed requests
+     *
+     * @return count
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * Get the number of completed requests with a tile
+     *
+     * @return hit count
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Get the number of cancelled requests
+     *
+     * @return cancelled count
+     */
+    public synchronized long getCancelledCount() {
+        return cancelledCount;
+    }
+
+    /**
+     * Get the hit rate of completed requests
+     *
+     * @return hit rate between 0.0 and 1.0
+     */
+    public synchronized double getHitRate() {
+        return count > 0 ? hitCount / (double) count : 0.0;
+    }
+
+    /**
+     * Get the total request time in milliseconds
+     *
+     * @return total milliseconds
+     */
+    public synchronized double getTotalMillis() {
+        return totalNanos / 1000000.0;
+    }
+
+    /**
+     * Get the average request time in milliseconds
+     *
+     * @return average milliseconds
+     */
+    public synchronized double getAverageMillis() {
+        return count > 0 ? totalNanos / 1000000.0 / count : 0.0;
+    }
+
+    /**
+     * Get the max request time in milliseconds
+     *
+     * @return max milliseconds
+     */
+    public synchronized double getMaxMillis() {
+        return maxNanos / 1000000.0;
+    }
+
+    /**
+     * Reset the statistics
+     */
+    public synchronized void reset() {
+        count = 0;
+        hitCount = 0;
+        cancelledCount = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized String toString() {
+        return "count: " + count + ", hits: " + hitCount + ", cancelled: " + cancelledCount
+                + ", average ms: " + getAverageMillis() + ", max ms: " + getMaxMillis();
+    }
+
+}
@@ -0,0 +1,301 @@
+package mil.nga.geopackage.map.tiles.overlay;
+
+import android.util.LruCache;
+
+import com.google.android.gms.maps.model.Tile;
+import com.google.android.gms.maps.model.TileProvider;
+
+/**
+ * In memory least recently used cache of bounded overlay tiles, keyed by overlay, x, y, and zoom.
+ * The cache is limited by a byte budget of tile data and also caches missing tiles so repeated
+ * requests for empty tiles do not query or draw again. A single cache may be shared by multiple
+ * overlays.
+ *
+ * @author osbornb
+ * @since 6.7.5
+ */
+public class OverlayTileCache {
+
+    /**
+     * Default cache size in bytes
+     */
+    public static final int DEFAULT_CACHE_BYTES = 16 * 1024 * 1024;
+
+    /**
+     * Estimated byte overhead of each cached entry, used as the size of missing tile entries
+     */
+    public static final int ENTRY_OVERHEAD_BYTES = 64;
+
+    /**
+     * Tile cache
+     */
+    private final LruCache<TileKey, Tile> tileCache;
+
+    /**
+     * Constructor, uses the default cache byte size
+     */
+    public OverlayTileCache() {
+        this(DEFAULT_CACHE_BYTES);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param maxBytes max number of tile bytes to cache
+     */
+    public OverlayTileCache(int maxBytes) {
+        tileCache = new LruCache<TileKey, Tile>(maxBytes) {
+            @Override
+            protected int sizeOf(TileKey key, Tile tile) {
+                int size = ENTRY_OVERHEAD_BYTES;
+                if (tile.data != null) {
+                    size += tile.data.length;
+                }
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Get the cached tile for the overlay
+     *
+     * @param overlay bounded overlay
+     * @param x       x coordinate
+     * @param y       y coordinate
+     * @param zoom    zoom value
+     * @return tile, {@link TileProvider#NO_TILE} when cached as missing, or null when not cached
+     */
+    public Tile get(BoundedOverlay overlay, int x, int y, int zoom) {
+        return tileCache.get(new TileKey(overlay, x, y, zoom));
+    }
+
+    /**
+     * Determine if a tile, or missing tile, is cached for the overlay
+     *
+     * @param overlay bounded overlay
+     * @param x       x coordinate
+     * @param y       y coordinate
+     * @param zoom    zoom value
+     * @return true if cached
+     */
+    public boolean contains(BoundedOverlay overlay, int x, int y, int zoom) {
+        return get(overlay, x, y, zoom) != null;
+    }
+
+    /**
+     * Cache the tile for the overlay
+     *
+     * @param overlay bounded overlay
+     * @param x       x coordinate
+     * @param y       y coordinate
+     * @param zoom    zoom value
+     * @param tile    tile, null to cache as missing
+     */
+    public void put(BoundedOverlay overlay, int x, int y, int zoom, Tile tile) {
+        if (tile == null) {
+            tile = TileProvider.NO_TILE;
+        }
+        tileCache.put(new TileKey(overlay, x, y, zoom), tile);
+    }
+
+    /**
+     * Cache the tile as missing for the overlay
+     *
+     * @param overlay bounded overlay
+     * @param x       x coordinate
+     * @param y       y coordinate
+     * @param zoom    zoom value
+     */
+    public void putMissing(BoundedOverlay overlay, int x, int y, int zoom) {
+        put(overlay, x, y, zoom, null);
+    }
+
+    /**
+     * Remove the cached tile for the overlay
+     *
+     * @param overlay bounded overlay
+     * @param x       x coordinate
+     * @param y       y coordinate
+     * @param zoom    zoom value
+     * @return removed tile, {@link TileProvider#NO_TILE} when cached as missing, or null when not cached
+     */
+    public Tile remove(BoundedOverlay overlay, int x, int y, int zoom) {
+        return tileCache.remove(new TileKey(overlay, x, y, zoom));
+    }
+
+    /**
+     * Invalidate all cached tiles for the overlay
+     *
+     * @param overlay bounded overlay
+     * @return number of invalidated tiles
+     */
+    public int invalidate(BoundedOverlay overlay) {
+        int count = 0;
+        for (TileKey key : tileCache.snapshot().keySet()) {
+            if (key.overlay == overlay) {
+                tileCache.remove(key);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Invalidate all cached tiles for the overlay at the zoom level
+     *
+     * @param overlay bounded overlay
+     * @param zoom    zoom value
+     * @return number of invalidated tiles
+     */
+    public int invalidate(BoundedOverlay overlay, int zoom) {
+        int count = 0;
+        for (TileKey key : tileCache.snapshot().keySet()) {
+            if (key.overlay == overlay && key.zoom == zoom) {
+                tileCache.remove(key);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Clear all cached tiles
+     */
+    public void clear() {
+        tileCache.evictAll();
+    }
+
+    /**
+     * Get the number of cached tiles, including missing tiles
+     *
+     * @return tile count
+     */
+    public int count() {
+        return tileCache.snapshot().size();
+    }
+
+    /**
+     * Get the current size in bytes of the cached tiles
+     *
+     * @return size in bytes
+     */
+    public int size() {
+        return tileCache.size();
+    }
+
+    /**
+     * Get the max size in bytes of the cached tiles
+     *
+     * @return max size in bytes
+     */
+    public int maxSize() {
+        return tileCache.maxSize();
+    }
+
+    /**
+     * Resize the max size in bytes of the cached tiles
+     *
+     * @param maxBytes max number of tile bytes to cache
+     */
+    public void resize(int maxBytes) {
+        tileCache.resize(maxBytes);
+    }
+
+    /**
+     * Get the number of cache hits, including missing tiles
+     *
+     * @return hit count
+     */
+    public int getHitCount() {
+        return tileCache.hitCount();
+    }
+
+    /**
+     * Get the number of cache misses
+     *
+     * @return miss count
+     */
+    public int getMissCount() {
+        return tileCache.missCount();
+    }
+
+    /**
+     * Get the number of evicted tiles
+     *
+     * @return eviction count
+     */
+    public int getEvictionCount() {
+        return tileCache.evictionCount();
+    }
+
+    /**
+     * Tile cache key of the overlay identity and tile coordinate
+     */
+    private static class TileKey {
+
+        /**
+         * Bounded overlay
+         */
+        private final BoundedOverlay overlay;
+
+        /**
+         * X coordinate
+         */
+        private final int x;
+
+        /**
+         * Y coordinate
+         */
+        private final int y;
+
+        /**
+         * Zoom value
+         */
+        private final int zoom;
+
+        /**
+         * Constructor
+         *
+         * @param overlay bounded overlay
+         * @param x       x coordinate
+         * @param y       y coordinate
+         * @param zoom    zoom value
+         */
+        private TileKey(BoundedOverlay overlay, int x, int y, int zoom) {
+            this.overlay = overlay;
+            this.x = x;
+            this.y = y;
+            this.zoom = zoom;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(overlay);
+            result = 31 * result + x;
+            result = 31 * result + y;
+            result = 31 * result + zoom;
+            return result;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            TileKey other = (TileKey) obj;
+            return overlay == other.overlay && x == other.x && y == other.y
+                    && zoom == other.zoom;
+        }
+
+    }
+
+}
@@ -0,0 +1,835 @@
+package mil.nga.geopackage.map.tiles.overlay;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.util.Log;
+
+import com.google.android.gms.maps.model.Tile;
+import com.google.android.gms.maps.model.TileProvider;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import mil.nga.geopackage.BoundingBox;
+import mil.nga.geopackage.GeoPackage;
+import mil.nga.geopackage.GeoPackageException;
+import mil.nga.geopackage.contents.Contents;
+import mil.nga.geopackage.db.CoreSQLUtils;
+import mil.nga.geopackage.io.GeoPackageProgress;
+import mil.nga.geopackage.srs.SpatialReferenceSystem;
+import mil.nga.geopackage.tiles.TileBoundingBoxUtils;
+import mil.nga.geopackage.tiles.TileGrid;
+import mil.nga.geopackage.tiles.features.FeatureTiles;
+import mil.nga.geopackage.tiles.matrix.TileMatrix;
+import mil.nga.geopackage.tiles.matrix.TileMatrixDao;
+import mil.nga.geopackage.tiles.user.TileDao;
+import mil.nga.geopackage.tiles.user.TileRow;
+import mil.nga.geopackage.tiles.user.TileTable;
+import mil.nga.geopackage.tiles.user.TileTableMetadata;
+import mil.nga.proj.Projection;
+import mil.nga.proj.ProjectionConstants;
+import mil.nga.proj.ProjectionFactory;
+
+/**
+ * Seeds a GeoPackage web mercator tile table with tiles rendered by a bounded overlay, such as a
+ * feature overlay, over a bounding box and zoom range. Tiles are rendered in parallel and inserted
+ * in batched transactions. Tiles already in the tile table are skipped, allowing an interrupted
+ * seed to be resumed by seeding again. Rendered empty tiles are recorded in the
+ * {@link #EMPTY_TILE_TABLE} side table within the same transactions so a resumed seed does not
+ * render them again, see {@link #clearEmptyTiles()} when the overlay data changes. The records
+ * of the tile table are removed when a seed completes without cancellation or failed tiles, and
+ * the side table is dropped once it holds no records. Tiles failing to render are counted and
+ * logged, never recorded as empty, and are rendered again by the next seed.
+ *
+ * @author osbornb
+ * @since 6.7.5
+ */
+public class OverlayTileSeeder {
+
+    /**
+     * Default number of tiles inserted per transaction
+     */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    /**
+     * Default tile width and height
+     */
+    public static final int DEFAULT_TILE_LENGTH = 256;
+
+    /**
+     * Table recording the seeded empty tiles of tile tables
+     */
+    public static final String EMPTY_TILE_TABLE = "nga_overlay_seed_empty";
+
+    /**
+     * Empty tile table name column
+     */
+    private static final String COLUMN_TABLE_NAME = "table_name";
+
+    /**
+     * Bounded overlay
+     */
+    private final BoundedOverlay overlay;
+
+    /**
+     * GeoPackage
+     */
+    private final GeoPackage geoPackage;
+
+    /**
+     * Tile table name
+     */
+    private final String tableName;
+
+    /**
+     * Number of rendering threads
+     */
+    private int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Number of tiles inserted per transaction
+     */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * Tile width of created tile matrices
+     */
+    private int tileWidth = DEFAULT_TILE_LENGTH;
+
+    /**
+     * Tile height of created tile matrices
+     */
+    private int tileHeight = DEFAULT_TILE_LENGTH;
+
+    /**
+     * Progress
+     */
+    private GeoPackageProgress progress;
+
+    /**
+     * Number of tiles processed in the current or last seed
+     */
+    private volatile int processedCount = 0;
+
+    /**
+     * Number of tiles inserted in the current or last seed
+     */
+    private volatile int insertedCount = 0;
+
+    /**
+     * Number of existing tiles skipped in the current or last seed
+     */
+    private volatile int skippedCount = 0;
+
+    /**
+     * Number of empty tiles recorded in the current or last seed
+     */
+    private volatile int emptyCount = 0;
+
+    /**
+     * Number of tiles failing to render in the current or last seed
+     */
+    private volatile int failedCount = 0;
+
+    /**
+     * Seed start time in milliseconds
+     */
+    private volatile long startTime = 0;
+
+    /**
+     * Seed end time in milliseconds, 0 while seeding
+     */
+    private volatile long endTime = 0;
+
+    /**
+     * Constructor
+     *
+     * @param overlay    bounded overlay rendering the tiles
+     * @param geoPackage GeoPackage
+     * @param tableName  tile table name, created as a web mercator tile table if it does not exist
+     */
+    public OverlayTileSeeder(BoundedOverlay overlay, GeoPackage geoPackage, String tableName) {
+        this.overlay = overlay;
+        this.geoPackage = geoPackage;
+        this.tableName = tableName;
+        if (overlay instanceof FeatureOverlay) {
+            FeatureTiles featureTiles = ((FeatureOverlay) overlay).getFeatureTiles();
+            setTileSize(featureTiles.getTileWidth(), featureTiles.getTileHeight());
+        }
+    }
+
+    /**
+     * Get the bounded overlay
+     *
+     * @return bounded overlay
+     */
+    public BoundedOverlay getOverlay() {
+        return overlay;
+    }
+
+    /**
+     * Get the tile table name
+     *
+     * @return table name
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Get the number of rendering threads
+     *
+     * @return threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Set the number of rendering threads
+     *
+     * @param threads threads
+     */
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Get the number of tiles inserted per transaction
+     *
+     * @return batch size
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Set the number of tiles inserted per transaction
+     *
+     * @param batchSize batch size
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Set the tile width and height of created tile matrices, which should match the overlay tile
+     * size
+     *
+     * @param tileWidth  tile width
+     * @param tileHeight tile height
+     */
+    public void setTileSize(int tileWidth, int tileHeight) {
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+    }
+
+    /**
+     * Get the tile width of created tile matrices
+     *
+     * @return tile width
+     */
+    public int getTileWidth() {
+        return tileWidth;
+    }
+
+    /**
+     * Get the tile height of created tile matrices
+     *
+     * @return tile height
+     */
+    public int getTileHeight() {
+        return tileHeight;
+    }
+
+    /**
+     * Get the progress
+     *
+     * @return progress or null
+     */
+    public GeoPackageProgress getProgress() {
+        return progress;
+    }
+
+    /**
+     * Set the progress, which is updated per processed tile and can cancel the seed
+     *
+     * @param progress progress
+     */
+    public void setProgress(GeoPackageProgress progress) {
+        this.progress = progress;
+    }
+
+    /**
+     * Get the number of tiles processed in the current or last seed
+     *
+     * @return processed count
+     */
+    public int getProcessedCount() {
+        return processedCount;
+    }
+
+    /**
+     * Get the number of tiles inserted in the current or last seed
+     *
+     * @return inserted count
+     */
+    public int getInsertedCount() {
+        return insertedCount;
+    }
+
+    /**
+     * Get the number of existing and previously recorded empty tiles skipped in the current or
+     * last seed
+     *
+     * @return skipped count
+     */
+    public int getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * Get the number of empty tiles recorded in the current or last seed
+     *
+     * @return empty count
+     */
+    public int getEmptyCount() {
+        return emptyCount;
+    }
+
+    /**
+     * Get the number of tiles failing to render in the current or last seed. Failed tiles are
+     * not recorded and are rendered again by the next seed.
+     *
+     * @return failed count
+     */
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * Clear the recorded empty tiles of the tile table, so the next seed renders them again. The
+     * empty tile table is dropped when no recorded empty tiles remain.
+     *
+     * @return number of cleared empty tiles
+     */
+    public int clearEmptyTiles() {
+        int count = 0;
+        if (geoPackage.isTable(EMPTY_TILE_TABLE)) {
+            String where = COLUMN_TABLE_NAME + " = ?";
+            String[] whereArgs = new String[]{tableName};
+            count = geoPackage.getConnection().count(EMPTY_TILE_TABLE, where, whereArgs);
+            geoPackage.getConnection().delete(EMPTY_TILE_TABLE, where, whereArgs);
+            if (geoPackage.getConnection().count(EMPTY_TILE_TABLE, null, null) == 0) {
+                geoPackage.execSQL("DROP TABLE IF EXISTS "
+                        + CoreSQLUtils.quoteWrap(EMPTY_TILE_TABLE));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get the processed tile throughput of the current or last seed
+     *
+     * @return tiles per second
+     */
+    public double getTilesPerSecond() {
+        double tilesPerSecond = 0;
+        if (startTime > 0) {
+            long end = endTime > 0 ? endTime : System.currentTimeMillis();
+            double seconds = (end - startTime) / 1000.0;
+            if (seconds > 0) {
+                tilesPerSecond = processedCount / seconds;
+            }
+        }
+        return tilesPerSecond;
+    }
+
+    /**
+     * Get the number of tiles within the bounding box and zoom range
+     *
+     * @param boundingBox bounding box
+     * @param projection  bounding box projection
+     * @param minZoom     min zoom
+     * @param maxZoom     max zoom
+     * @return tile count
+     */
+    public static long getTileCount(BoundingBox boundingBox, Projection projection,
+                                    int minZoom, int maxZoom) {
+        BoundingBox webMercatorBoundingBox = getWebMercatorBoundingBox(boundingBox, projection);
+        long count = 0;
+        for (int zoom = minZoom; zoom <= maxZoom; zoom++) {
+            TileGrid tileGrid = TileBoundingBoxUtils.getTileGrid(webMercatorBoundingBox, zoom);
+            count += tileGrid.count();
+        }
+        return count;
+    }
+
+    /**
+     * Seed the tile table with overlay tiles within the bounding box and zoom range. Existing
+     * tiles are skipped, so seeding again resumes an interrupted seed. The recorded empty tiles
+     * are cleared when the seed completes without cancellation or failed tiles.
+     *
+     * @param boundingBox bounding box
+     * @param projection  bounding box projection
+     * @param minZoom     min zoom
+     * @param maxZoom     max zoom
+     * @return number of inserted tiles
+     */
+    public int seed(BoundingBox boundingBox, Projection projection, int minZoom, int maxZoom) {
+
+        processedCount = 0;
+        insertedCount = 0;
+        skippedCount = 0;
+        emptyCount = 0;
+        failedCount = 0;
+        startTime = System.currentTimeMillis();
+        endTime = 0;
+
+        BoundingBox webMercatorBoundingBox = getWebMercatorBoundingBox(boundingBox, projection);
+
+        TileDao tileDao = getTileDao(minZoom, maxZoom);
+        createEmptyTileTable();
+
+        if (progress != null) {
+            progress.setMax((int) Math.min(Integer.MAX_VALUE,
+                    getTileCount(boundingBox, projection, minZoom, maxZoom)));
+        }
+
+        ExecutorService executor = OverlayExecutors.newDaemonThreadPool(
+                OverlayTileSeeder.class.getSimpleName(), threads);
+
+        // Bounded queue of rendered tiles, limiting in flight renders
+        int maxPending = Math.max(batchSize, threads) * 2;
+        BlockingQueue<RenderedTile> rendered = new ArrayBlockingQueue<>(maxPending);
+
+        boolean complete = false;
+        try {
+            for (int zoom = minZoom; zoom <= maxZoom && isActive(); zoom++) {
+
+                TileGrid tileGrid = TileBoundingBoxUtils.getTileGrid(webMercatorBoundingBox, zoom);
+
+                List<RenderedTile> batch = new ArrayList<>();
+                int pending = 0;
+
+                for (long x = tileGrid.getMinX(); x <= tileGrid.getMaxX() && isActive(); x++) {
+                    for (long y = tileGrid.getMinY(); y <= tileGrid.getMaxY() && isActive(); y++) {
+
+                        if (isTile(tileDao, x, y, zoom) || isEmptyTile(tileDao, x, y, zoom)) {
+                            skippedCount++;
+                            processed();
+                            continue;
+                        }
+
+                        // Drain rendered tiles while the renderers are saturated
+                        while (pending >= maxPending) {
+                            pending -= collect(rendered, batch, tileDao, true);
+                        }
+                        pending -= collect(rendered, batch, tileDao, false);
+
+                        executor.execute(new RenderTask((int) x, (int) y, zoom, rendered));
+                        pending++;
+                    }
+                }
+
+                while (pending > 0 && isActive()) {
+                    pending -= collect(rendered, batch, tileDao, true);
+                }
+                insert(batch, tileDao);
+            }
+            complete = isActive();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            endTime = System.currentTimeMillis();
+        }
+
+        if (complete && failedCount == 0) {
+            clearEmptyTiles();
+        }
+
+        return insertedCount;
+    }
+
+    /**
+     * Collect rendered tiles into the batch, inserting full batches
+     *
+     * @param rendered rendered tile queue
+     * @param batch    insert batch
+     * @param tileDao  tile DAO
+     * @param wait     true to wait for at least one rendered tile
+     * @return number of collected tiles
+     * @throws InterruptedException upon interruption
+     */
+    private int collect(BlockingQueue<RenderedTile> rendered, List<RenderedTile> batch,
+                        TileDao tileDao, boolean wait) throws InterruptedException {
+        int count = 0;
+        RenderedTile renderedTile = wait ? rendered.take() : rendered.poll();
+        while (renderedTile != null) {
+            count++;
+            processed();
+            batch.add(renderedTile);
+            if (batch.size() >= batchSize) {
+                insert(batch, tileDao);
+            }
+            renderedTile = rendered.poll();
+        }
+        return count;
+    }
+
+    /**
+     * Insert the batch of rendered tiles and empty tile records in a single transaction
+     *
+     * @param batch   insert batch
+     * @param tileDao tile DAO
+     */
+    private void insert(List<RenderedTile> batch, TileDao tileDao) {
+        if (!batch.isEmpty()) {
+            int inserted = 0;
+            int empty = 0;
+            int failed = 0;
+            boolean successful = false;
+            tileDao.beginTransaction();
+            try {
+                for (RenderedTile renderedTile : batch) {
+                    if (renderedTile.failed) {
+                        failed++;
+                    } else if (renderedTile.data != null) {
+                        TileRow tileRow = tileDao.newRow();
+                        tileRow.setZoomLevel(renderedTile.zoom);
+                        tileRow.setTileColumn(renderedTile.x);
+                        tileRow.setTileRow(renderedTile.y);
+                        tileRow.setTileData(renderedTile.data);
+                        tileDao.create(tileRow);
+                        inserted++;
+                    } else {
+                        ContentValues values = new ContentValues();
+                        values.put(COLUMN_TABLE_NAME, tableName);
+                        values.put(TileTable.COLUMN_ZOOM_LEVEL, renderedTile.zoom);
+                        values.put(TileTable.COLUMN_TILE_COLUMN, renderedTile.x);
+                        values.put(TileTable.COLUMN_TILE_ROW, renderedTile.y);
+                        tileDao.getDb().insertOrThrow(EMPTY_TILE_TABLE, null, values);
+                        empty++;
+                    }
+                }
+                successful = true;
+            } finally {
+                tileDao.endTransaction(successful);
+            }
+            insertedCount += inserted;
+            emptyCount += empty;
+            failedCount += failed;
+            batch.clear();
+        }
+    }
+
+    /**
+     * Create the empty tile table if it does not exist
+     */
+    private void createEmptyTileTable() {
+        geoPackage.execSQL("CREATE TABLE IF NOT EXISTS "
+                + CoreSQLUtils.quoteWrap(EMPTY_TILE_TABLE) + " ("
+                + COLUMN_TABLE_NAME + " TEXT NOT NULL, "
+                + TileTable.COLUMN_ZOOM_LEVEL + " INTEGER NOT NULL, "
+                + TileTable.COLUMN_TILE_COLUMN + " INTEGER NOT NULL, "
+                + TileTable.COLUMN_TILE_ROW + " INTEGER NOT NULL, "
+                + "PRIMARY KEY (" + COLUMN_TABLE_NAME + ", " + TileTable.COLUMN_ZOOM_LEVEL + ", "
+                + TileTable.COLUMN_TILE_COLUMN + ", " + TileTable.COLUMN_TILE_ROW + "))");
+    }
+
+    /**
+     * Determine if the tile exists in the tile table, without reading the tile data
+     *
+     * @param tileDao tile DAO
+     * @param x       x coordinate
+     * @param y       y coordinate
+     * @param zoom    zoom level
+     * @return true if an existing tile
+     */
+    private boolean isTile(TileDao tileDao, long x, long y, int zoom) {
+        String sql = "SELECT 1 FROM " + CoreSQLUtils.quoteWrap(tableName)
+                + " WHERE " + TileTable.COLUMN_ZOOM_LEVEL + " = ? AND "
+                + TileTable.COLUMN_TILE_COLUMN + " = ? AND "
+                + TileTable.COLUMN_TILE_ROW + " = ? LIMIT 1";
+        return exists(tileDao, sql, new String[]{String.valueOf(zoom), String.valueOf(x),
+                String.valueOf(y)});
+    }
+
+    /**
+     * Determine if the tile was recorded as empty by a previous seed
+     *
+     * @param tileDao tile DAO
+     * @param x       x coordinate
+     * @param y       y coordinate
+     * @param zoom    zoom level
+     * @return true if a recorded empty tile
+     */
+    private boolean isEmptyTile(TileDao tileDao, long x, long y, int zoom) {
+        String sql = "SELECT 1 FROM " + CoreSQLUtils.quoteWrap(EMPTY_TILE_TABLE)
+                + " WHERE " + COLUMN_TABLE_NAME + " = ? AND "
+                + TileTable.COLUMN_ZOOM_LEVEL + " = ? AND "
+                + TileTable.COLUMN_TILE_COLUMN + " = ? AND "
+                + TileTable.COLUMN_TILE_ROW + " = ?";
+        return exists(tileDao, sql, new String[]{tableName, String.valueOf(zoom),
+                String.valueOf(x), String.valueOf(y)});
+    }
+
+    /**
+     * Determine if the query returns a row
+     *
+     * @param tileDao tile DAO
+     * @param sql     select query
+     * @param args    query arguments
+     * @return true if a row exists
+     */
+    private static boolean exists(TileDao tileDao, String sql, String[] args) {
+        Cursor cursor = tileDao.getDb().rawQuery(sql, args);
+        boolean exists;
+        try {
+            exists = cursor.moveToFirst();
+        } finally {
+            cursor.close();
+        }
+        return exists;
+    }
+
+    /**
+     * Record a processed tile
+     */
+    private void processed() {
+        processedCount++;
+        if (progress != null) {
+            progress.addProgress(1);
+        }
+    }
+
+    /**
+     * Determine if the seed is active and not cancelled
+     *
+     * @return true if active
+     */
+    private boolean isActive() {
+        return (progress == null || progress.isActive())
+                && !Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * Get the tile DAO, creating the web mercator tile table and tile matrices as needed
+     *
+     * @param minZoom min zoom
+     * @param maxZoom max zoom
+     * @return tile DAO
+     */
+    private TileDao getTileDao(int minZoom, int maxZoom) {
+
+        BoundingBox worldBoundingBox = new BoundingBox(
+                -ProjectionConstants.WEB_MERCATOR_HALF_WORLD_WIDTH,
+                -ProjectionConstants.WEB_MERCATOR_HALF_WORLD_WIDTH,
+                ProjectionConstants.WEB_MERCATOR_HALF_WORLD_WIDTH,
+                ProjectionConstants.WEB_MERCATOR_HALF_WORLD_WIDTH);
+
+        try {
+
+            if (!geoPackage.isTileTable(tableName)) {
+                SpatialReferenceSystem srs = geoPackage.getSpatialReferenceSystemDao()
+                        .getOrCreateCode(ProjectionConstants.AUTHORITY_EPSG,
+                                ProjectionConstants.EPSG_WEB_MERCATOR);
+                geoPackage.createTileTable(TileTableMetadata.create(tableName,
+                        worldBoundingBox, srs.getSrsId(), worldBoundingBox, srs.getSrsId()));
+            }
+
+            TileDao tileDao = geoPackage.getTileDao(tableName);
+            Contents contents = tileDao.getTileMatrixSet().getContents();
+            TileMatrixDao tileMatrixDao = geoPackage.getTileMatrixDao();
+
+            boolean created = false;
+            for (int zoom = minZoom; zoom <= maxZoom; zoom++) {
+                long tiles = 1L << zoom;
+                TileMatrix tileMatrix = tileDao.getTileMatrix(zoom);
+                if (tileMatrix == null) {
+                    tileMatrix = new TileMatrix();
+                    tileMatrix.setContents(contents);
+                    tileMatrix.setZoomLevel(zoom);
+                    tileMatrix.setMatrixWidth(tiles);
+                    tileMatrix.setMatrixHeight(tiles);
+                    tileMatrix.setTileWidth(tileWidth);
+                    tileMatrix.setTileHeight(tileHeight);
+                    double tileLength = 2 * ProjectionConstants.WEB_MERCATOR_HALF_WORLD_WIDTH
+                            / tiles;
+                    tileMatrix.setPixelXSize(tileLength / tileWidth);
+                    tileMatrix.setPixelYSize(tileLength / tileHeight);
+                    tileMatrixDao.create(tileMatrix);
+                    created = true;
+                } else if (tileMatrix.getMatrixWidth() != tiles
+                        || tileMatrix.getMatrixHeight() != tiles) {
+                    throw new GeoPackageException("Tile table '" + tableName
+                            + "' is not a web mercator tile pyramid at zoom " + zoom
+                            + ", matrix width: " + tileMatrix.getMatrixWidth()
+                            + ", matrix height: " + tileMatrix.getMatrixHeight());
+                }
+            }
+
+            if (created) {
+                // Reload the DAO to include the new tile matrices
+                tileDao = geoPackage.getTileDao(tableName);
+            }
+
+            if (!tileDao.getProjection().equals(ProjectionConstants.AUTHORITY_EPSG,
+                    ProjectionConstants.EPSG_WEB_MERCATOR)) {
+                throw new GeoPackageException("Tile table '" + tableName
+                        + "' is not a web mercator tile table");
+            }
+
+            return tileDao;
+        } catch (SQLException e) {
+            throw new GeoPackageException(
+                    "Failed to create tile matrices for tile table: " + tableName, e);
+        }
+    }
+
+    /**
+     * Get the web mercator bounding box bounded to the web mercator world
+     *
+     * @param boundingBox bounding box
+     * @param projection  bounding box projection
+     * @return web mercator bounding box
+     */
+    private static BoundingBox getWebMercatorBoundingBox(BoundingBox boundingBox,
+                                                         Projection projection) {
+        BoundingBox wgs84BoundingBox = boundingBox.transform(projection.getTransformation(
+                ProjectionConstants.EPSG_WORLD_GEODETIC_SYSTEM));
+        wgs84BoundingBox = TileBoundingBoxUtils
+                .boundWgs84BoundingBoxWithWebMercatorLimits(wgs84BoundingBox);
+        return wgs84BoundingBox.transform(ProjectionFactory.getProjection(
+                ProjectionConstants.EPSG_WORLD_GEODETIC_SYSTEM).getTransformation(
+                ProjectionConstants.EPSG_WEB_MERCATOR));
+    }
+
+    /**
+     * Rendered overlay tile
+     */
+    private static class RenderedTile {
+
+        /**
+         * X coordinate
+         */
+        private final int x;
+
+        /**
+         * Y coordinate
+         */
+        private final int y;
+
+        /**
+         * Zoom level
+         */
+        private final int zoom;
+
+        /**
+         * Tile data, null when no tile
+         */
+        private final byte[] data;
+
+        /**
+         * True when the tile failed to render
+         */
+        private final boolean failed;
+
+        /**
+         * Constructor
+         *
+         * @param x      x coordinate
+         * @param y      y coordinate
+         * @param zoom   zoom level
+         * @param data   tile data
+         * @param failed true when the tile failed to render
+         */
+        private RenderedTile(int x, int y, int zoom, byte[] data, boolean failed) {
+            this.x = x;
+            this.y = y;
+            this.zoom = zoom;
+            this.data = data;
+            this.failed = failed;
+        }
+
+    }
+
+    /**
+     * Overlay tile render task
+     */
+    private class RenderTask implements Runnable {
+
+        /**
+         * X coordinate
+         */
+        private final int x;
+
+        /**
+         * Y coordinate
+         */
+        private final int y;
+
+        /**
+         * Zoom level
+         */
+        private final int zoom;
+
+        /**
+         * Rendered tile queue
+         */
+        private final BlockingQueue<RenderedTile> rendered;
+
+        /**
+         * Constructor
+         *
+         * @param x        x coordinate
+         * @param y        y coordinate
+         * @param zoom     zoom level
+         * @param rendered rendered tile queue
+         */
+        private RenderTask(int x, int y, int zoom, BlockingQueue<RenderedTile> rendered) {
+            this.x = x;
+            this.y = y;
+            this.zoom = zoom;
+            this.rendered = rendered;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void run() {
+            byte[] data = null;
+            boolean failed = true;
+            try {
+                Tile tile = overlay.getTile(x, y, zoom);
+                if (tile != null && tile != TileProvider.NO_TILE) {
+                    data = tile.data;
+                }
+                failed = false;
+            } catch (RuntimeException e) {
+                Log.e(OverlayTileSeeder.class.getSimpleName(), "Failed to render tile. Table: "
+                        + tableName + ", Zoom: " + zoom + ", x: " + x + ", y: " + y, e);
+            } finally {
+                try {
+                    rendered.put(new RenderedTile(x, y, zoom, data, failed));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,433 @@
+package mil.nga.geopackage.map.tiles.overlay;
+
+import android.util.Log;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import mil.nga.geopackage.BoundingBox;
+import mil.nga.geopackage.contents.Contents;
+import mil.nga.geopackage.contents.ContentsDao;
+import mil.nga.geopackage.features.user.FeatureDao;
+import mil.nga.geopackage.tiles.TileBoundingBoxUtils;
+import mil.nga.geopackage.tiles.TileGrid;
+import mil.nga.geopackage.tiles.features.FeatureTiles;
+
+/**
+ * In memory least recently used cache of indexed feature counts by x, y, and zoom tile
+ * coordinate for a single feature table. Counts are filled as feature overlays draw tiles and as
+ * click queries count tile features, so repeated max feature checks of the same tile are memory
+ * lookups. Cached counts are invalidated automatically when the
+ * feature table contents last change is updated, validated at most once per validate interval.
+ * Feature DAO inserts, updates, and deletes do not update the contents last change, so callers
+ * editing features must invalidate the edited bounds explicitly, see
+ * {@link #invalidate(BoundingBox)} and {@link FeatureOverlay#invalidateFeatureCounts(BoundingBox)}.
+ *
+ * @author osbornb
+ * @since 6.7.5
+ */
+public class TileFeatureCountCache {
+
+    /**
+     * Default max number of cached tile counts
+     */
+    public static final int DEFAULT_MAX_TILES = 4096;
+
+    /**
+     * Default interval in milliseconds between contents last change validations
+     */
+    public static final long DEFAULT_VALIDATE_INTERVAL = 5000;
+
+    /**
+     * Max number of cached tile counts
+     */
+    private final int maxTiles;
+
+    /**
+     * Least recently used ordered tile counts
+     */
+    private final LinkedHashMap<TileKey, Long> counts;
+
+    /**
+     * Interval in milliseconds between contents last change validations
+     */
+    private long validateInterval = DEFAULT_VALIDATE_INTERVAL;
+
+    /**
+     * Time of the last contents last change validation, 0 when not yet validated
+     */
+    private long validated = 0;
+
+    /**
+     * Contents last change of the cached counts, null when not yet validated
+     */
+    private Long lastChange = null;
+
+    /**
+     * Modification version, incremented when counts are invalidated
+     */
+    private long version = 0;
+
+    /**
+     * Number of cache hits
+     */
+    private int hitCount = 0;
+
+    /**
+     * Number of cache misses
+     */
+    private int missCount = 0;
+
+    /**
+     * Constructor, uses the default max number of cached tile counts
+     */
+    public TileFeatureCountCache() {
+        this(DEFAULT_MAX_TILES);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param maxTiles max number of cached tile counts
+     */
+    public TileFeatureCountCache(final int maxTiles) {
+        this.maxTiles = maxTiles;
+        counts = new LinkedHashMap<TileKey, Long>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TileKey, Long> eldest) {
+                return size() > maxTiles;
+            }
+        };
+    }
+
+    /**
+     * Get the max number of cached tile counts
+     *
+     * @return max tiles
+     */
+    public int getMaxTiles() {
+        return maxTiles;
+    }
+
+    /**
+     * Get the interval between contents last change validations
+     *
+     * @return validate interval in milliseconds
+     */
+    public synchronized long getValidateInterval() {
+        return validateInterval;
+    }
+
+    /**
+     * Set the interval between contents last change validations
+     *
+     * @param validateInterval validate interval in milliseconds, 0 to validate on every count
+     */
+    public synchronized void setValidateInterval(long validateInterval) {
+        this.validateInterval = validateInterval;
+    }
+
+    /**
+     * Get the indexed feature count of the tile, querying and caching the count when not cached
+     *
+     * @param featureTiles feature tiles
+     * @param x            x coordinate
+     * @param y            y coordinate
+     * @param zoom         zoom level
+     * @return feature count
+     */
+    public long getCount(FeatureTiles featureTiles, int x, int y, int zoom) {
+        Long count = getCached(featureTiles, x, y, zoom);
+        if (count == null) {
+            count = queryCount(featureTiles, x, y, zoom);
+        }
+        return count;
+    }
+
+    /**
+     * Query the indexed feature count of the tile and cache the count, without checking for a
+     * cached count
+     *
+     * @param featureTiles feature tiles
+     * @param x            x coordinate
+     * @param y            y coordinate
+     * @param zoom         zoom level
+     * @return feature count
+     */
+    public long queryCount(FeatureTiles featureTiles, int x, int y, int zoom) {
+        long countVersion = getVersion();
+        long count = featureTiles.queryIndexedFeaturesCount(x, y, zoom);
+        put(x, y, zoom, count, countVersion);
+        return count;
+    }
+
+    /**
+     * Get the cached feature count of the tile after validating the contents last change,
+     * without querying the count when not cached
+     *
+     * @param featureTiles feature tiles
+     * @param x            x coordinate
+     * @param y            y coordinate
+     * @param zoom         zoom level
+     * @return feature count, null when not cached
+     */
+    public Long getCached(FeatureTiles featureTiles, int x, int y, int zoom) {
+        validate(featureTiles.getFeatureDao());
+        return get(x, y, zoom);
+    }
+
+    /**
+     * Get the cached feature count of the tile
+     *
+     * @param x    x coordinate
+     * @param y    y coordinate
+     * @param zoom zoom level
+     * @return feature count, null when not cached
+     */
+    public synchronized Long get(int x, int y, int zoom) {
+        Long count = counts.get(new TileKey(x, y, zoom));
+        if (count != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return count;
+    }
+
+    /**
+     * Cache the feature count of the tile
+     *
+     * @param x     x coordinate
+     * @param y     y coordinate
+     * @param zoom  zoom level
+     * @param count feature count
+     */
+    public synchronized void put(int x, int y, int zoom, long count) {
+        counts.put(new TileKey(x, y, zoom), count);
+    }
+
+    /**
+     * Cache the feature count of the tile only if no counts have been invalidated since the
+     * version was retrieved, preventing a count queried before an edit from being cached
+     *
+     * @param x       x coordinate
+     * @param y       y coordinate
+     * @param zoom    zoom level
+     * @param count   feature count
+     * @param version version retrieved before the count query
+     * @return true if cached
+     */
+    public synchronized boolean put(int x, int y, int zoom, long count, long version) {
+        boolean put = version == this.version;
+        if (put) {
+            put(x, y, zoom, count);
+        }
+        return put;
+    }
+
+    /**
+     * Get the modification version, incremented each time counts are invalidated
+     *
+     * @return version
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Invalidate the cached feature count of the tile
+     *
+     * @param x    x coordinate
+     * @param y    y coordinate
+     * @param zoom zoom level
+     */
+    public synchronized void invalidate(int x, int y, int zoom) {
+        version++;
+        counts.remove(new TileKey(x, y, zoom));
+    }
+
+    /**
+     * Invalidate the cached feature counts of all tiles intersecting the web mercator bounding
+     * box at all zoom levels, such as the bounds of an inserted, updated, or deleted feature
+     *
+     * @param webMercatorBoundingBox web mercator bounding box
+     */
+    public synchronized void invalidate(BoundingBox webMercatorBoundingBox) {
+        version++;
+        Map<Integer, TileGrid> tileGrids = new HashMap<>();
+        Iterator<TileKey> keys = counts.keySet().iterator();
+        while (keys.hasNext()) {
+            TileKey key = keys.next();
+            TileGrid tileGrid = tileGrids.get(key.zoom);
+            if (tileGrid == null) {
+                tileGrid = TileBoundingBoxUtils.getTileGrid(webMercatorBoundingBox, key.zoom);
+                tileGrids.put(key.zoom, tileGrid);
+            }
+            if (key.x >= tileGrid.getMinX() && key.x <= tileGrid.getMaxX()
+                    && key.y >= tileGrid.getMinY() && key.y <= tileGrid.getMaxY()) {
+                keys.remove();
+            }
+        }
+    }
+
+    /**
+     * Invalidate the cached feature counts of all tiles at the zoom level
+     *
+     * @param zoom zoom level
+     */
+    public synchronized void invalidate(int zoom) {
+        version++;
+        Iterator<TileKey> keys = counts.keySet().iterator();
+        while (keys.hasNext()) {
+            if (keys.next().zoom == zoom) {
+                keys.remove();
+            }
+        }
+    }
+
+    /**
+     * Invalidate all cached feature counts
+     */
+    public synchronized void invalidate() {
+        version++;
+        counts.clear();
+    }
+
+    /**
+     * Get the number of cached tile counts
+     *
+     * @return tile count
+     */
+    public synchronized int count() {
+        return counts.size();
+    }
+
+    /**
+     * Get the number of cache hits
+     *
+     * @return hit count
+     */
+    public synchronized int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Get the number of cache misses
+     *
+     * @return miss count
+     */
+    public synchronized int getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Validate the cached counts against the feature table contents last change at most once per
+     * validate interval, invalidating all counts when the last change differs. The contents are
+     * queried outside of the cache lock, so cache lookups are not blocked by the query.
+     *
+     * @param featureDao feature DAO
+     */
+    private void validate(FeatureDao featureDao) {
+        boolean query = false;
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            if (validated == 0 || now - validated >= validateInterval) {
+                validated = now;
+                query = true;
+            }
+        }
+        if (query) {
+            long change = queryLastChange(featureDao);
+            synchronized (this) {
+                if (lastChange != null && lastChange != change) {
+                    invalidate();
+                }
+                lastChange = change;
+            }
+        }
+    }
+
+    /**
+     * Query the feature table contents last change
+     *
+     * @param featureDao feature DAO
+     * @return last change time, 0 when not set
+     */
+    private static long queryLastChange(FeatureDao featureDao) {
+        long change = 0;
+        String tableName = featureDao.getTableName();
+        try {
+            Contents contents = ContentsDao.create(featureDao.getDb()).queryForId(tableName);
+            if (contents != null && contents.getLastChange() != null) {
+                change = contents.getLastChange().getTime();
+            }
+        } catch (SQLException e) {
+            Log.e(TileFeatureCountCache.class.getSimpleName(),
+                    "Failed to query contents last change for Feature Table: " + tableName, e);
+        }
+        return change;
+    }
+
+    /**
+     * Tile count key of the tile coordinate
+     */
+    private static class TileKey {
+
+        /**
+         * X coordinate
+         */
+        private final int x;
+
+        /**
+         * Y coordinate
+         */
+        private final int y;
+
+        /**
+         * Zoom level
+         */
+        private final int zoom;
+
+        /**
+         * Constructor
+         *
+         * @param x    x coordinate
+         * @param y    y coordinate
+         * @param zoom zoom level
+         */
+        private TileKey(int x, int y, int zoom) {
+            this.x = x;
+            this.y = y;
+            this.zoom = zoom;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(Object obj) {
+            boolean equal = this == obj;
+            if (!equal && obj instanceof TileKey) {
+                TileKey other = (TileKey) obj;
+                equal = x == other.x && y == other.y && zoom == other.zoom;
+            }
+            return equal;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            int hash = x;
+            hash = 31 * hash + y;
+            hash = 31 * hash + zoom;
+            return hash;
+        }
+
+    }
+
+}
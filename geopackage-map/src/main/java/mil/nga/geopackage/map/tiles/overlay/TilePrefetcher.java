@@ -0,0 +1,522 @@
+package mil.nga.geopackage.map.tiles.overlay;
+
+import android.os.SystemClock;
+
+import com.google.android.gms.maps.GoogleMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import mil.nga.geopackage.BoundingBox;
+import mil.nga.geopackage.GeoPackageException;
+import mil.nga.geopackage.map.MapUtils;
+import mil.nga.proj.ProjectionConstants;
+
+/**
+ * Tile prefetcher which warms a bounded overlay tile cache with tiles neighbouring the visible
+ * map bounds, ahead of the pan direction, and at the next zoom level in the zoom direction.
+ * Prefetching runs on a bounded background executor, is limited by a per second tile budget, and
+ * pending work is cancelled when the camera changes pan or zoom direction.
+ * <p>
+ * The overlay must be configured with a tile cache, see
+ * {@link BoundedOverlay#setTileCache(OverlayTileCache)}, before creating the prefetcher, which
+ * otherwise fails with a {@link GeoPackageException}. The prefetcher does not change the overlay
+ * and checks the tile cache set when created for already cached tiles. Cancelling only cancels
+ * the prefetcher's own pending tasks, so an executor may be shared with other work.
+ *
+ * @author osbornb
+ * @since 6.7.5
+ */
+public class TilePrefetcher {
+
+    /**
+     * Default max number of tiles prefetched per second
+     */
+    public static final int DEFAULT_TILES_PER_SECOND = 32;
+
+    /**
+     * Default number of seconds of pan velocity to prefetch ahead
+     */
+    public static final float DEFAULT_LOOKAHEAD_SECONDS = 1.0f;
+
+    /**
+     * Default number of neighbouring tiles to prefetch around the visible tiles
+     */
+    public static final int DEFAULT_MARGIN = 1;
+
+    /**
+     * Default number of prefetch threads
+     */
+    public static final int DEFAULT_THREADS = 2;
+
+    /**
+     * Default max number of queued prefetch tiles
+     */
+    public static final int DEFAULT_MAX_QUEUED = 64;
+
+    /**
+     * Bounded overlay
+     */
+    private final BoundedOverlay overlay;
+
+    /**
+     * Overlay tile cache
+     */
+    private final OverlayTileCache tileCache;
+
+    /**
+     * Prefetch executor
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Pending prefetch tasks, removed when done or cancelled
+     */
+    private final Set<Future<?>> pending = Collections.newSetFromMap(
+            new ConcurrentHashMap<Future<?>, Boolean>());
+
+    /**
+     * Prefetch generation, incremented to cancel pending work
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Max number of tiles prefetched per second
+     */
+    private int tilesPerSecond = DEFAULT_TILES_PER_SECOND;
+
+    /**
+     * Number of seconds of pan velocity to prefetch ahead
+     */
+    private float lookaheadSeconds = DEFAULT_LOOKAHEAD_SECONDS;
+
+    /**
+     * Number of neighbouring tiles to prefetch around the visible tiles
+     */
+    private int margin = DEFAULT_MARGIN;
+
+    /**
+     * Available tile budget tokens
+     */
+    private double tokens;
+
+    /**
+     * Last token refill time in milliseconds
+     */
+    private long tokenTime;
+
+    /**
+     * Previous camera center longitude
+     */
+    private double previousLongitude;
+
+    /**
+     * Previous camera center latitude
+     */
+    private double previousLatitude;
+
+    /**
+     * Previous camera zoom
+     */
+    private float previousZoom;
+
+    /**
+     * Previous camera time in milliseconds, 0 before the first camera movement
+     */
+    private long previousTime = 0;
+
+    /**
+     * Previous longitude velocity in degrees per second
+     */
+    private double velocityLongitude = 0;
+
+    /**
+     * Previous latitude velocity in degrees per second
+     */
+    private double velocityLatitude = 0;
+
+    /**
+     * Previous zoom direction
+     */
+    private int zoomDirection = 0;
+
+    /**
+     * Number of prefetched tiles
+     */
+    private final AtomicLong prefetchCount = new AtomicLong();
+
+    /**
+     * Constructor, creates a bounded background executor
+     *
+     * @param overlay bounded overlay with a tile cache
+     */
+    public TilePrefetcher(BoundedOverlay overlay) {
+        this(overlay, createExecutor(DEFAULT_THREADS, DEFAULT_MAX_QUEUED));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param overlay  bounded overlay with a tile cache
+     * @param executor prefetch executor, should be bounded
+     */
+    public TilePrefetcher(BoundedOverlay overlay, ExecutorService executor) {
+        tileCache = overlay.getTileCache();
+        if (tileCache == null) {
+            throw new GeoPackageException(
+                    "Tile prefetching requires an overlay tile cache, see BoundedOverlay.setTileCache");
+        }
+        this.overlay = overlay;
+        this.executor = executor;
+        tokens = tilesPerSecond;
+        tokenTime = SystemClock.elapsedRealtime();
+    }
+
+    /**
+     * Get the bounded overlay
+     *
+     * @return bounded overlay
+     */
+    public BoundedOverlay getOverlay() {
+        return overlay;
+    }
+
+    /**
+     * Get the max number of tiles prefetched per second
+     *
+     * @return tiles per second
+     */
+    public synchronized int getTilesPerSecond() {
+        return tilesPerSecond;
+    }
+
+    /**
+     * Set the max number of tiles prefetched per second
+     *
+     * @param tilesPerSecond tiles per second
+     */
+    public synchronized void setTilesPerSecond(int tilesPerSecond) {
+        this.tilesPerSecond = tilesPerSecond;
+        tokens = Math.min(tokens, tilesPerSecond);
+    }
+
+    /**
+     * Get the number of seconds of pan velocity to prefetch ahead
+     *
+     * @return lookahead seconds
+     */
+    public synchronized float getLookaheadSeconds() {
+        return lookaheadSeconds;
+    }
+
+    /**
+     * Set the number of seconds of pan velocity to prefetch ahead
+     *
+     * @param lookaheadSeconds lookahead seconds
+     */
+    public synchronized void setLookaheadSeconds(float lookaheadSeconds) {
+        this.lookaheadSeconds = lookaheadSeconds;
+    }
+
+    /**
+     * Get the number of neighbouring tiles to prefetch around the visible tiles
+     *
+     * @return margin
+     */
+    public synchronized int getMargin() {
+        return margin;
+    }
+
+    /**
+     * Set the number of neighbouring tiles to prefetch around the visible tiles
+     *
+     * @param margin margin
+     */
+    public synchronized void setMargin(int margin) {
+        this.margin = margin;
+    }
+
+    /**
+     * Get the number of prefetched tiles
+     *
+     * @return prefetch count
+     */
+    public long getPrefetchCount() {
+        return prefetchCount.get();
+    }
+
+    /**
+     * Prefetch tiles for the current map camera. Call from the map camera move listener.
+     *
+     * @param map google map
+     */
+    public void onCameraMove(GoogleMap map) {
+        onCameraMove(MapUtils.getBoundingBox(map), map.getCameraPosition().zoom);
+    }
+
+    /**
+     * Prefetch tiles for the visible bounds and zoom
+     *
+     * @param boundingBox visible WGS84 bounding box, max longitude may exceed 180.0
+     * @param zoom        camera zoom
+     */
+    public synchronized void onCameraMove(BoundingBox boundingBox, float zoom) {
+
+        long time = SystemClock.elapsedRealtime();
+        double longitude = (boundingBox.getMinLongitude() + boundingBox.getMaxLongitude()) / 2.0;
+        double latitude = (boundingBox.getMinLatitude() + boundingBox.getMaxLatitude()) / 2.0;
+
+        double moveLongitude = 0;
+        double moveLatitude = 0;
+        int zoomChange = 0;
+
+        if (previousTime > 0) {
+
+            double seconds = Math.max(0.001, (time - previousTime) / 1000.0);
+            double deltaLongitude = longitude - previousLongitude;
+            if (deltaLongitude > ProjectionConstants.WGS84_HALF_WORLD_LON_WIDTH) {
+                deltaLongitude -= 2 * ProjectionConstants.WGS84_HALF_WORLD_LON_WIDTH;
+            } else if (deltaLongitude < -ProjectionConstants.WGS84_HALF_WORLD_LON_WIDTH) {
+                deltaLongitude += 2 * ProjectionConstants.WGS84_HALF_WORLD_LON_WIDTH;
+            }
+            double newVelocityLongitude = deltaLongitude / seconds;
+            double newVelocityLatitude = (latitude - previousLatitude) / seconds;
+            zoomChange = (int) Math.signum(zoom - previousZoom);
+
+            // Cancel pending work when the pan or zoom direction changes
+            boolean reversed = newVelocityLongitude * velocityLongitude
+                    + newVelocityLatitude * velocityLatitude < 0;
+            boolean rezoomed = zoomChange != 0 && zoomDirection != 0 && zoomChange != zoomDirection;
+            if (reversed || rezoomed) {
+                cancel();
+            }
+
+            velocityLongitude = newVelocityLongitude;
+            velocityLatitude = newVelocityLatitude;
+            if (zoomChange != 0) {
+                zoomDirection = zoomChange;
+            }
+            moveLongitude = velocityLongitude * lookaheadSeconds;
+            moveLatitude = velocityLatitude * lookaheadSeconds;
+        }
+
+        previousLongitude = longitude;
+        previousLatitude = latitude;
+        previousZoom = zoom;
+        previousTime = time;
+
+        refillTokens(time);
+
+        int tileZoom = (int) zoom;
+        List<int[]> tiles = new ArrayList<>();
+
+        // Tiles ahead of the pan direction and neighbouring the visible tiles
+        addTiles(tiles, boundingBox, tileZoom, moveLongitude, moveLatitude, margin);
+
+        // Visible tiles at the next zoom level in the zoom direction
+        if (zoomChange != 0) {
+            int nextZoom = tileZoom + zoomChange;
+            if (nextZoom >= 0) {
+                addTiles(tiles, boundingBox, nextZoom, 0, 0, -1);
+            }
+        }
+
+        submit(tiles);
+    }
+
+    /**
+     * Cancel pending prefetch work. Prefetch tasks not yet started are cancelled, running tile
+     * retrievals are not interrupted, and other executor work is not affected.
+     */
+    public void cancel() {
+        generation.incrementAndGet();
+        for (Future<?> task : pending) {
+            task.cancel(false);
+        }
+    }
+
+    /**
+     * Get the number of pending prefetch tasks
+     *
+     * @return pending count
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Cancel pending prefetch work and shutdown the executor, for prefetchers not sharing their
+     * executor
+     */
+    public void shutdown() {
+        cancel();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Refill the tile budget tokens
+     *
+     * @param time current time in milliseconds
+     */
+    private void refillTokens(long time) {
+        tokens = Math.min(tilesPerSecond,
+                tokens + (time - tokenTime) / 1000.0 * tilesPerSecond);
+        tokenTime = time;
+    }
+
+    /**
+     * Add the tiles to prefetch for the bounding box at the zoom level
+     *
+     * @param tiles         tiles as x, y, zoom
+     * @param boundingBox   visible WGS84 bounding box
+     * @param zoom          zoom level
+     * @param moveLongitude lookahead longitude movement
+     * @param moveLatitude  lookahead latitude movement
+     * @param margin        neighbouring tile margin, -1 to include the visible tiles without a margin
+     */
+    private void addTiles(List<int[]> tiles, BoundingBox boundingBox, int zoom,
+                          double moveLongitude, double moveLatitude, int margin) {
+
+        if (overlay.isWithinZoom(zoom)) {
+
+            int tilesPerSide = 1 << zoom;
+
+            int visibleMinX = tileX(boundingBox.getMinLongitude(), zoom);
+            int visibleMaxX = tileX(boundingBox.getMaxLongitude(), zoom);
+            int visibleMinY = tileY(boundingBox.getMaxLatitude(), zoom);
+            int visibleMaxY = tileY(boundingBox.getMinLatitude(), zoom);
+
+            int minX = tileX(boundingBox.getMinLongitude() + Math.min(0, moveLongitude), zoom);
+            int maxX = tileX(boundingBox.getMaxLongitude() + Math.max(0, moveLongitude), zoom);
+            int minY = tileY(boundingBox.getMaxLatitude() + Math.max(0, moveLatitude), zoom);
+            int maxY = tileY(boundingBox.getMinLatitude() + Math.min(0, moveLatitude), zoom);
+
+            boolean includeVisible = margin < 0;
+            int tileMargin = Math.max(0, margin);
+            minX -= tileMargin;
+            maxX += tileMargin;
+            minY = Math.max(0, minY - tileMargin);
+            maxY = Math.min(tilesPerSide - 1, maxY + tileMargin);
+            maxX = Math.min(maxX, minX + tilesPerSide - 1);
+
+            for (int y = minY; y <= maxY; y++) {
+                for (int x = minX; x <= maxX; x++) {
+                    boolean visible = x >= visibleMinX && x <= visibleMaxX
+                            && y >= visibleMinY && y <= visibleMaxY;
+                    if (includeVisible || !visible) {
+                        int wrappedX = ((x % tilesPerSide) + tilesPerSide) % tilesPerSide;
+                        tiles.add(new int[]{wrappedX, y, zoom});
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Submit prefetch tasks for the tiles within the tile budget
+     *
+     * @param tiles tiles as x, y, zoom
+     */
+    private void submit(List<int[]> tiles) {
+
+        final long taskGeneration = generation.get();
+
+        for (final int[] tile : tiles) {
+
+            if (tokens < 1) {
+                break;
+            }
+
+            final int x = tile[0];
+            final int y = tile[1];
+            final int zoom = tile[2];
+
+            if (!tileCache.contains(overlay, x, y, zoom)
+                    && overlay.isWithinBounds(x, y, zoom)) {
+                tokens--;
+                FutureTask<Void> task = new FutureTask<Void>(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (taskGeneration == generation.get()
+                                && !tileCache.contains(overlay, x, y, zoom)) {
+                            overlay.getTile(x, y, zoom);
+                            prefetchCount.incrementAndGet();
+                        }
+                    }
+                }, null) {
+                    @Override
+                    protected void done() {
+                        pending.remove(this);
+                    }
+                };
+                pending.add(task);
+                try {
+                    executor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    // Executor queue is full or shutdown, skip remaining tiles
+                    pending.remove(task);
+                    tokens++;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the tile x coordinate of the longitude
+     *
+     * @param longitude longitude, may exceed 180.0
+     * @param zoom      zoom level
+     * @return x coordinate, not wrapped
+     */
+    private static int tileX(double longitude, int zoom) {
+        double tilesPerSide = 1 << zoom;
+        return (int) Math.floor((longitude + ProjectionConstants.WGS84_HALF_WORLD_LON_WIDTH)
+                / (2 * ProjectionConstants.WGS84_HALF_WORLD_LON_WIDTH) * tilesPerSide);
+    }
+
+    /**
+     * Get the tile y coordinate of the latitude
+     *
+     * @param latitude latitude
+     * @param zoom     zoom level
+     * @return y coordinate
+     */
+    private static int tileY(double latitude, int zoom) {
+        int tilesPerSide = 1 << zoom;
+        double bounded = Math.max(ProjectionConstants.WEB_MERCATOR_MIN_LAT_RANGE,
+                Math.min(ProjectionConstants.WEB_MERCATOR_MAX_LAT_RANGE, latitude));
+        double radians = Math.toRadians(bounded);
+        double mercator = Math.log(Math.tan(radians) + 1.0 / Math.cos(radians));
+        int y = (int) Math.floor((1.0 - mercator / Math.PI) / 2.0 * tilesPerSide);
+        return Math.max(0, Math.min(tilesPerSide - 1, y));
+    }
+
+    /**
+     * Create a bounded background prefetch executor
+     *
+     * @param threads   number of threads
+     * @param maxQueued max number of queued tiles
+     * @return executor
+     */
+    public static ExecutorService createExecutor(int threads, int maxQueued) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+                30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(maxQueued),
+                OverlayExecutors.daemonThreadFactory(TilePrefetcher.class.getSimpleName(),
+                        Thread.MIN_PRIORITY));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+}
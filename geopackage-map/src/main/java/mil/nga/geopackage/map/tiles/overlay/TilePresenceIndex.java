@@ -0,0 +1,411 @@
+package mil.nga.geopackage.map.tiles.overlay;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import mil.nga.geopackage.BoundingBox;
+import mil.nga.geopackage.tiles.TileBoundingBoxUtils;
+import mil.nga.geopackage.tiles.TileGrid;
+
+/**
+ * Compact tile presence index of x, y, and zoom tile coordinates. Tiles are stored per zoom level
+ * in sparse 64 x 64 tile chunks of known and present bits, allocating chunks only for touched
+ * areas. A tile is unknown until set, unless its zoom level is marked as complete where tiles
+ * not set as present are absent.
+ *
+ * @author osbornb
+ * @since 6.7.5
+ */
+public class TilePresenceIndex {
+
+    /**
+     * Chunk width and height in tiles
+     */
+    private static final int CHUNK_LENGTH = 64;
+
+    /**
+     * Bit shift of a tile coordinate to a chunk coordinate
+     */
+    private static final int CHUNK_SHIFT = 6;
+
+    /**
+     * Bit mask of a tile coordinate within a chunk
+     */
+    private static final int CHUNK_MASK = CHUNK_LENGTH - 1;
+
+    /**
+     * Chunks by zoom level and chunk key
+     */
+    private final Map<Integer, Map<Long, Chunk>> zoomChunks = new HashMap<>();
+
+    /**
+     * Zoom levels where tiles not set as present are absent
+     */
+    private final Set<Integer> completeZooms = new HashSet<>();
+
+    /**
+     * Modification version, incremented when tiles are cleared
+     */
+    private long version = 0;
+
+    /**
+     * Constructor
+     */
+    public TilePresenceIndex() {
+
+    }
+
+    /**
+     * Get the tile presence
+     *
+     * @param x    x coordinate
+     * @param y    y coordinate
+     * @param zoom zoom level
+     * @return true if present, false if absent, null if unknown
+     */
+    public synchronized Boolean get(int x, int y, int zoom) {
+        Boolean present = null;
+        Chunk chunk = getChunk(x, y, zoom, false);
+        if (chunk != null && chunk.isKnown(x, y)) {
+            present = chunk.isPresent(x, y);
+        } else if (completeZooms.contains(zoom)) {
+            present = false;
+        }
+        return present;
+    }
+
+    /**
+     * Determine if the tile presence is known
+     *
+     * @param x    x coordinate
+     * @param y    y coordinate
+     * @param zoom zoom level
+     * @return true if known
+     */
+    public boolean isKnown(int x, int y, int zoom) {
+        return get(x, y, zoom) != null;
+    }
+
+    /**
+     * Set the tile presence
+     *
+     * @param x       x coordinate
+     * @param y       y coordinate
+     * @param zoom    zoom level
+     * @param present true if present
+     */
+    public synchronized void set(int x, int y, int zoom, boolean present) {
+        if (present || !completeZooms.contains(zoom)) {
+            getChunk(x, y, zoom, true).set(x, y, present);
+        }
+    }
+
+    /**
+     * Set the tile presence only if no tiles have been cleared since the version was retrieved,
+     * preventing a stale lookup from overwriting a refresh
+     *
+     * @param x       x coordinate
+     * @param y       y coordinate
+     * @param zoom    zoom level
+     * @param present true if present
+     * @param version version retrieved before the tile lookup
+     * @return true if set
+     */
+    public synchronized boolean set(int x, int y, int zoom, boolean present, long version) {
+        boolean set = version == this.version;
+        if (set) {
+            set(x, y, zoom, present);
+        }
+        return set;
+    }
+
+    /**
+     * Get the modification version, incremented each time tiles are cleared
+     *
+     * @return version
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Mark the zoom level as complete, where tiles not set as present are absent
+     *
+     * @param zoom zoom level
+     */
+    public synchronized void setComplete(int zoom) {
+        completeZooms.add(zoom);
+    }
+
+    /**
+     * Mark the zoom level as complete only if no tiles have been cleared since the version was
+     * retrieved, preventing a stale load from completing a refreshed zoom level
+     *
+     * @param zoom    zoom level
+     * @param version version retrieved before loading the zoom level tiles
+     * @return true if marked complete
+     */
+    public synchronized boolean setComplete(int zoom, long version) {
+        boolean complete = version == this.version;
+        if (complete) {
+            setComplete(zoom);
+        }
+        return complete;
+    }
+
+    /**
+     * Determine if the zoom level is complete
+     *
+     * @param zoom zoom level
+     * @return true if complete
+     */
+    public synchronized boolean isComplete(int zoom) {
+        return completeZooms.contains(zoom);
+    }
+
+    /**
+     * Clear the tile presence, making it unknown
+     *
+     * @param x    x coordinate
+     * @param y    y coordinate
+     * @param zoom zoom level
+     */
+    public synchronized void clear(int x, int y, int zoom) {
+        version++;
+        completeZooms.remove(zoom);
+        Chunk chunk = getChunk(x, y, zoom, false);
+        if (chunk != null) {
+            chunk.clear(x, y);
+        }
+    }
+
+    /**
+     * Clear the tile presence of all tiles intersecting the web mercator bounding box at all zoom
+     * levels, making them unknown. Present tiles within complete zoom levels remain present while
+     * other tiles in those zoom levels become unknown.
+     *
+     * @param webMercatorBoundingBox web mercator bounding box
+     */
+    public synchronized void clear(BoundingBox webMercatorBoundingBox) {
+        version++;
+        completeZooms.clear();
+        for (Map.Entry<Integer, Map<Long, Chunk>> zoomEntry : zoomChunks.entrySet()) {
+            TileGrid tileGrid = TileBoundingBoxUtils.getTileGrid(webMercatorBoundingBox,
+                    zoomEntry.getKey());
+            Iterator<Chunk> chunks = zoomEntry.getValue().values().iterator();
+            while (chunks.hasNext()) {
+                Chunk chunk = chunks.next();
+                chunk.clear(tileGrid);
+                if (chunk.isEmpty()) {
+                    chunks.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Clear the tile presence of all tiles at the zoom level, making them unknown
+     *
+     * @param zoom zoom level
+     */
+    public synchronized void clear(int zoom) {
+        version++;
+        completeZooms.remove(zoom);
+        zoomChunks.remove(zoom);
+    }
+
+    /**
+     * Clear the tile presence of all tiles, making them unknown
+     */
+    public synchronized void clear() {
+        version++;
+        completeZooms.clear();
+        zoomChunks.clear();
+    }
+
+    /**
+     * Get the number of allocated chunks
+     *
+     * @return chunk count
+     */
+    public synchronized int getChunkCount() {
+        int count = 0;
+        for (Map<Long, Chunk> chunks : zoomChunks.values()) {
+            count += chunks.size();
+        }
+        return count;
+    }
+
+    /**
+     * Get the chunk containing the tile
+     *
+     * @param x      x coordinate
+     * @param y      y coordinate
+     * @param zoom   zoom level
+     * @param create true to create the chunk if it does not exist
+     * @return chunk or null
+     */
+    private Chunk getChunk(int x, int y, int zoom, boolean create) {
+        Chunk chunk = null;
+        Map<Long, Chunk> chunks = zoomChunks.get(zoom);
+        if (chunks == null && create) {
+            chunks = new HashMap<>();
+            zoomChunks.put(zoom, chunks);
+        }
+        if (chunks != null) {
+            int chunkX = x >>> CHUNK_SHIFT;
+            int chunkY = y >>> CHUNK_SHIFT;
+            long key = ((long) chunkX << 32) | (chunkY & 0xffffffffL);
+            chunk = chunks.get(key);
+            if (chunk == null && create) {
+                chunk = new Chunk(chunkX << CHUNK_SHIFT, chunkY << CHUNK_SHIFT);
+                chunks.put(key, chunk);
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Chunk of known and present tile bits, one long per tile row
+     */
+    private static class Chunk {
+
+        /**
+         * Min x coordinate of the chunk
+         */
+        private final int minX;
+
+        /**
+         * Min y coordinate of the chunk
+         */
+        private final int minY;
+
+        /**
+         * Known tile bits
+         */
+        private final long[] known = new long[CHUNK_LENGTH];
+
+        /**
+         * Present tile bits
+         */
+        private final long[] present = new long[CHUNK_LENGTH];
+
+        /**
+         * Constructor
+         *
+         * @param minX min x coordinate
+         * @param minY min y coordinate
+         */
+        private Chunk(int minX, int minY) {
+            this.minX = minX;
+            this.minY = minY;
+        }
+
+        /**
+         * Determine if the tile is known
+         *
+         * @param x x coordinate
+         * @param y y coordinate
+         * @return true if known
+         */
+        private boolean isKnown(int x, int y) {
+            return (known[y & CHUNK_MASK] & bit(x)) != 0;
+        }
+
+        /**
+         * Determine if the tile is present
+         *
+         * @param x x coordinate
+         * @param y y coordinate
+         * @return true if present
+         */
+        private boolean isPresent(int x, int y) {
+            return (present[y & CHUNK_MASK] & bit(x)) != 0;
+        }
+
+        /**
+         * Set the tile presence
+         *
+         * @param x           x coordinate
+         * @param y           y coordinate
+         * @param tilePresent true if present
+         */
+        private void set(int x, int y, boolean tilePresent) {
+            int row = y & CHUNK_MASK;
+            long bit = bit(x);
+            known[row] |= bit;
+            if (tilePresent) {
+                present[row] |= bit;
+            } else {
+                present[row] &= ~bit;
+            }
+        }
+
+        /**
+         * Clear the tile, making it unknown
+         *
+         * @param x x coordinate
+         * @param y y coordinate
+         */
+        private void clear(int x, int y) {
+            int row = y & CHUNK_MASK;
+            long bit = bit(x);
+            known[row] &= ~bit;
+            present[row] &= ~bit;
+        }
+
+        /**
+         * Clear the absent tiles within the tile grid, making them unknown, while retaining
+         * present tiles
+         *
+         * @param tileGrid tile grid
+         */
+        private void clear(TileGrid tileGrid) {
+            long fromX = Math.max(tileGrid.getMinX(), minX);
+            long toX = Math.min(tileGrid.getMaxX(), minX + CHUNK_MASK);
+            long fromY = Math.max(tileGrid.getMinY(), minY);
+            long toY = Math.min(tileGrid.getMaxY(), minY + CHUNK_MASK);
+            if (fromX <= toX && fromY <= toY) {
+                int fromBit = (int) (fromX - minX);
+                int toBit = (int) (toX - minX);
+                long mask = (toBit == CHUNK_MASK ? -1L : (1L << (toBit + 1)) - 1)
+                        & (-1L << fromBit);
+                for (long y = fromY; y <= toY; y++) {
+                    int row = (int) (y - minY);
+                    known[row] &= ~mask | present[row];
+                }
+            }
+        }
+
+        /**
+         * Determine if the chunk has no known tiles
+         *
+         * @return true if empty
+         */
+        private boolean isEmpty() {
+            boolean empty = true;
+            for (long row : known) {
+                if (row != 0) {
+                    empty = false;
+                    break;
+                }
+            }
+            return empty;
+        }
+
+        /**
+         * Get the bit of the x coordinate within a chunk row
+         *
+         * @param x x coordinate
+         * @return bit
+         */
+        private static long bit(int x) {
+            return 1L << (x & CHUNK_MASK);
+        }
+
+    }
+
+}
@@ -0,0 +1,430 @@
+package mil.nga.geopackage.map.tiles.overlay;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.util.LruCache;
+
+import com.google.android.gms.maps.model.Tile;
+
+import java.io.ByteArrayOutputStream;
+
+import mil.nga.geopackage.tiles.retriever.GeoPackageTile;
+import mil.nga.geopackage.tiles.retriever.TileRetriever;
+
+/**
+ * Tile zoom scaler which synthesizes tiles outside of a native zoom range from decoded native
+ * tiles. Overzoomed tiles are sliced and upscaled from a parent tile at the max native zoom and
+ * underzoomed tiles are composed from child tiles at the min native zoom. Decoded native tiles
+ * are kept in a bitmap cache so each native tile is decoded once for all synthesized tiles.
+ *
+ * @author osbornb
+ * @since 6.7.5
+ */
+public class TileZoomScaler {
+
+    /**
+     * Default decoded bitmap cache size in bytes
+     */
+    public static final int DEFAULT_CACHE_BYTES = 8 * 1024 * 1024;
+
+    /**
+     * Default max number of zoom levels to underzoom
+     */
+    public static final int DEFAULT_MAX_UNDERZOOM = 2;
+
+    /**
+     * Default number of cached missing native tiles
+     */
+    private static final int MISSING_CACHE_COUNT = 1024;
+
+    /**
+     * Native tile retriever
+     */
+    private final TileRetriever retriever;
+
+    /**
+     * Min native zoom level
+     */
+    private final int minNativeZoom;
+
+    /**
+     * Max native zoom level
+     */
+    private final int maxNativeZoom;
+
+    /**
+     * Max number of zoom levels to overzoom, null for no limit
+     */
+    private Integer maxOverzoom;
+
+    /**
+     * Max number of zoom levels to underzoom
+     */
+    private int maxUnderzoom = DEFAULT_MAX_UNDERZOOM;
+
+    /**
+     * Decoded native tile bitmaps
+     */
+    private final LruCache<Long, Bitmap> bitmapCache;
+
+    /**
+     * Native tiles known to be missing
+     */
+    private final LruCache<Long, Boolean> missingCache = new LruCache<>(MISSING_CACHE_COUNT);
+
+    /**
+     * Constructor, uses the default bitmap cache size
+     *
+     * @param retriever     native tile retriever
+     * @param minNativeZoom min native zoom level
+     * @param maxNativeZoom max native zoom level
+     */
+    public TileZoomScaler(TileRetriever retriever, int minNativeZoom, int maxNativeZoom) {
+        this(retriever, minNativeZoom, maxNativeZoom, DEFAULT_CACHE_BYTES);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param retriever     native tile retriever
+     * @param minNativeZoom min native zoom level
+     * @param maxNativeZoom max native zoom level
+     * @param cacheBytes    decoded bitmap cache size in bytes
+     */
+    public TileZoomScaler(TileRetriever retriever, int minNativeZoom, int maxNativeZoom,
+                          int cacheBytes) {
+        if (minNativeZoom > maxNativeZoom) {
+            throw new IllegalArgumentException("Min native zoom " + minNativeZoom
+                    + " is larger than max native zoom " + maxNativeZoom);
+        }
+        this.retriever = retriever;
+        this.minNativeZoom = minNativeZoom;
+        this.maxNativeZoom = maxNativeZoom;
+        bitmapCache = new LruCache<Long, Bitmap>(cacheBytes) {
+            @Override
+            protected int sizeOf(Long key, Bitmap bitmap) {
+                return bitmap.getByteCount();
+            }
+        };
+    }
+
+    /**
+     * Get the min native zoom level
+     *
+     * @return min native zoom
+     */
+    public int getMinNativeZoom() {
+        return minNativeZoom;
+    }
+
+    /**
+     * Get the max native zoom level
+     *
+     * @return max native zoom
+     */
+    public int getMaxNativeZoom() {
+        return maxNativeZoom;
+    }
+
+    /**
+     * Get the max number of zoom levels to overzoom
+     *
+     * @return max overzoom, null for no limit
+     */
+    public Integer getMaxOverzoom() {
+        return maxOverzoom;
+    }
+
+    /**
+     * Set the max number of zoom levels to overzoom
+     *
+     * @param maxOverzoom max overzoom, null for no limit
+     */
+    public void setMaxOverzoom(Integer maxOverzoom) {
+        this.maxOverzoom = maxOverzoom;
+    }
+
+    /**
+     * Get the max number of zoom levels to underzoom
+     *
+     * @return max underzoom
+     */
+    public int getMaxUnderzoom() {
+        return maxUnderzoom;
+    }
+
+    /**
+     * Set the max number of zoom levels to underzoom. Each underzoom level composes four times as
+     * many native tiles.
+     *
+     * @param maxUnderzoom max underzoom
+     */
+    public void setMaxUnderzoom(int maxUnderzoom) {
+        this.maxUnderzoom = maxUnderzoom;
+    }
+
+    /**
+     * Determine if the zoom level is synthesized by the scaler
+     *
+     * @param zoom zoom level
+     * @return true if overzoomed or underzoomed
+     */
+    public boolean isScaled(int zoom) {
+        return isOverzoom(zoom) || isUnderzoom(zoom);
+    }
+
+    /**
+     * Determine if the zoom level is overzoomed
+     *
+     * @param zoom zoom level
+     * @return true if overzoomed
+     */
+    public boolean isOverzoom(int zoom) {
+        return zoom > maxNativeZoom
+                && (maxOverzoom == null || zoom - maxNativeZoom <= maxOverzoom);
+    }
+
+    /**
+     * Determine if the zoom level is underzoomed
+     *
+     * @param zoom zoom level
+     * @return true if underzoomed
+     */
+    public boolean isUnderzoom(int zoom) {
+        return zoom < minNativeZoom && minNativeZoom - zoom <= maxUnderzoom;
+    }
+
+    /**
+     * Determine if a tile can be synthesized for the scaled zoom level
+     *
+     * @param x    x coordinate
+     * @param y    y coordinate
+     * @param zoom scaled zoom level
+     * @return true if a native tile exists for the tile
+     */
+    public boolean hasTile(int x, int y, int zoom) {
+        boolean hasTile = false;
+        if (isOverzoom(zoom)) {
+            int levels = zoom - maxNativeZoom;
+            hasTile = hasNativeTile(x >> levels, y >> levels, maxNativeZoom);
+        } else if (isUnderzoom(zoom)) {
+            int levels = minNativeZoom - zoom;
+            int count = 1 << levels;
+            int minX = x << levels;
+            int minY = y << levels;
+            for (int childX = minX; !hasTile && childX < minX + count; childX++) {
+                for (int childY = minY; !hasTile && childY < minY + count; childY++) {
+                    hasTile = hasNativeTile(childX, childY, minNativeZoom);
+                }
+            }
+        }
+        return hasTile;
+    }
+
+    /**
+     * Synthesize the tile for the scaled zoom level
+     *
+     * @param x    x coordinate
+     * @param y    y coordinate
+     * @param zoom scaled zoom level
+     * @return tile or null
+     */
+    public Tile getTile(int x, int y, int zoom) {
+        Tile tile = null;
+        if (isOverzoom(zoom)) {
+            tile = getOverzoomTile(x, y, zoom);
+        } else if (isUnderzoom(zoom)) {
+            tile = getUnderzoomTile(x, y, zoom);
+        }
+        return tile;
+    }
+
+    /**
+     * Clear the cached native tiles
+     */
+    public void clear() {
+        bitmapCache.evictAll();
+        missingCache.evictAll();
+    }
+
+    /**
+     * Slice and upscale the overzoomed tile from the parent native tile
+     *
+     * @param x    x coordinate
+     * @param y    y coordinate
+     * @param zoom overzoomed zoom level
+     * @return tile or null
+     */
+    private Tile getOverzoomTile(int x, int y, int zoom) {
+
+        Tile tile = null;
+
+        int levels = zoom - maxNativeZoom;
+        Bitmap parent = getNativeBitmap(x >> levels, y >> levels, maxNativeZoom);
+
+        if (parent != null) {
+
+            int width = parent.getWidth();
+            int height = parent.getHeight();
+            int count = 1 << levels;
+            int offsetX = x - ((x >> levels) << levels);
+            int offsetY = y - ((y >> levels) << levels);
+
+            // Floating point source bounds, less than a pixel wide beyond log2(width) levels
+            double sourceWidth = width / (double) count;
+            double sourceHeight = height / (double) count;
+            double sourceLeft = offsetX * sourceWidth;
+            double sourceTop = offsetY * sourceHeight;
+
+            // Crop the parent pixels covering the source with a pixel border for filtering, so
+            // the remaining source offsets are small enough for float precision when scaled
+            int cropLeft = Math.max(0, (int) Math.floor(sourceLeft) - 1);
+            int cropTop = Math.max(0, (int) Math.floor(sourceTop) - 1);
+            int cropRight = Math.min(width, (int) Math.ceil(sourceLeft + sourceWidth) + 1);
+            int cropBottom = Math.min(height, (int) Math.ceil(sourceTop + sourceHeight) + 1);
+            Bitmap crop = Bitmap.createBitmap(parent, cropLeft, cropTop,
+                    cropRight - cropLeft, cropBottom - cropTop);
+
+            Matrix matrix = new Matrix();
+            matrix.setScale(count, count);
+            matrix.preTranslate((float) (cropLeft - sourceLeft), (float) (cropTop - sourceTop));
+
+            Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            Canvas canvas = new Canvas(bitmap);
+            canvas.drawBitmap(crop, matrix, new Paint(Paint.FILTER_BITMAP_FLAG));
+
+            if (crop != parent) {
+                crop.recycle();
+            }
+
+            tile = toTile(bitmap);
+        }
+
+        return tile;
+    }
+
+    /**
+     * Compose the underzoomed tile from the child native tiles
+     *
+     * @param x    x coordinate
+     * @param y    y coordinate
+     * @param zoom underzoomed zoom level
+     * @return tile or null
+     */
+    private Tile getUnderzoomTile(int x, int y, int zoom) {
+
+        int levels = minNativeZoom - zoom;
+        int count = 1 << levels;
+        int minX = x << levels;
+        int minY = y << levels;
+
+        Bitmap bitmap = null;
+        Canvas canvas = null;
+        Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+        for (int i = 0; i < count; i++) {
+            for (int j = 0; j < count; j++) {
+                Bitmap child = getNativeBitmap(minX + i, minY + j, minNativeZoom);
+                if (child != null) {
+                    if (bitmap == null) {
+                        bitmap = Bitmap.createBitmap(child.getWidth(), child.getHeight(),
+                                Bitmap.Config.ARGB_8888);
+                        canvas = new Canvas(bitmap);
+                    }
+                    int width = bitmap.getWidth();
+                    int height = bitmap.getHeight();
+                    Rect destination = new Rect(
+                            i * width / count, j * height / count,
+                            (i + 1) * width / count, (j + 1) * height / count);
+                    canvas.drawBitmap(child, null, destination, paint);
+                }
+            }
+        }
+
+        Tile tile = null;
+        if (bitmap != null) {
+            tile = toTile(bitmap);
+        }
+
+        return tile;
+    }
+
+    /**
+     * Determine if the native tile exists
+     *
+     * @param x    x coordinate
+     * @param y    y coordinate
+     * @param zoom native zoom level
+     * @return true if exists
+     */
+    private boolean hasNativeTile(int x, int y, int zoom) {
+        long key = getKey(x, y, zoom);
+        boolean hasTile = bitmapCache.get(key) != null;
+        if (!hasTile && missingCache.get(key) == null) {
+            hasTile = retriever.hasTile(x, y, zoom);
+            if (!hasTile) {
+                missingCache.put(key, Boolean.TRUE);
+            }
+        }
+        return hasTile;
+    }
+
+    /**
+     * Get the decoded native tile bitmap, decoding and caching it when not cached
+     *
+     * @param x    x coordinate
+     * @param y    y coordinate
+     * @param zoom native zoom level
+     * @return bitmap or null
+     */
+    private Bitmap getNativeBitmap(int x, int y, int zoom) {
+        long key = getKey(x, y, zoom);
+        Bitmap bitmap = bitmapCache.get(key);
+        if (bitmap == null && missingCache.get(key) == null) {
+            GeoPackageTile geoPackageTile = retriever.getTile(x, y, zoom);
+            if (geoPackageTile != null && geoPackageTile.getData() != null) {
+                byte[] data = geoPackageTile.getData();
+                bitmap = BitmapFactory.decodeByteArray(data, 0, data.length);
+            }
+            if (bitmap != null) {
+                bitmapCache.put(key, bitmap);
+            } else {
+                missingCache.put(key, Boolean.TRUE);
+            }
+        }
+        return bitmap;
+    }
+
+    /**
+     * Encode the bitmap as a tile and recycle the bitmap
+     *
+     * @param bitmap bitmap
+     * @return tile or null
+     */
+    private static Tile toTile(Bitmap bitmap) {
+        Tile tile = null;
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        if (bitmap.compress(Bitmap.CompressFormat.PNG, 100, stream)) {
+            tile = new Tile(bitmap.getWidth(), bitmap.getHeight(), stream.toByteArray());
+        }
+        bitmap.recycle();
+        return tile;
+    }
+
+    /**
+     * Get the cache key of the tile
+     *
+     * @param x    x coordinate
+     * @param y    y coordinate
+     * @param zoom zoom level
+     * @return key
+     */
+    private static long getKey(int x, int y, int zoom) {
+        return ((long) zoom << 58) | ((long) x << 29) | y;
+    }
+
+}